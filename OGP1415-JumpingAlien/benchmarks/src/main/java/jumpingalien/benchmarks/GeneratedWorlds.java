@@ -0,0 +1,98 @@
+package jumpingalien.benchmarks;
+
+import java.util.Random;
+
+import jumpingalien.model.School;
+import jumpingalien.model.World;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.util.Sprite;
+
+/**
+ * Generates worlds of a given size and number of creatures for the benchmarks.
+ *
+ * A generated world has a solid floor, a few solid platforms and a water pool for
+ * every shark. The creatures are spread evenly over the world and cycle between
+ * plants, slimes and sharks. Mazub stands on the floor at the left of the world.
+ * The same arguments always generate the same world.
+ */
+public class GeneratedWorlds {
+
+	public static final int TILE_SIZE = 70;
+	public static final int NB_TILES_Y = 20;
+
+	public static final IFacadePart3 FACADE = new Facade();
+
+	private GeneratedWorlds() {
+	}
+
+	public static Sprite[] sprites(int width, int height, int count) {
+		Sprite[] sprites = new Sprite[count];
+		for (int i = 0; i < count; i++) {
+			sprites[i] = new Sprite("sprite" + i, width, height);
+		}
+		return sprites;
+	}
+
+	/**
+	 * Returns the two numbers of a benchmark parameter of the form "100x10".
+	 */
+	public static int[] parseSize(String size) {
+		String[] parts = size.split("x");
+		return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+	}
+
+	/**
+	 * Returns a new, started world of the given size parameter: the number of tiles
+	 * in the x direction and the number of creatures, separated by an x.
+	 */
+	public static World create(String size) {
+		int[] numbers = parseSize(size);
+		return create(numbers[0], numbers[1]);
+	}
+
+	/**
+	 * Returns a new, started world with the given number of tiles in the x direction
+	 * and the given number of creatures (at most 100).
+	 */
+	public static World create(int nbTilesX, int nbCreatures) {
+		Random random = new Random(nbTilesX * 31 + nbCreatures);
+		World world = FACADE.createWorld(TILE_SIZE, nbTilesX, NB_TILES_Y, 1024, 768,
+				nbTilesX - 1, 1);
+		for (int tileX = 0; tileX < nbTilesX; tileX++) {
+			FACADE.setGeologicalFeature(world, tileX, 0, 1);
+			if (random.nextInt(8) == 0) {
+				FACADE.setGeologicalFeature(world, tileX, 4 + random.nextInt(NB_TILES_Y - 6), 1);
+			}
+		}
+		School school = FACADE.createSchool();
+		int spacing = (nbTilesX - 2) * TILE_SIZE / (nbCreatures + 1);
+		for (int i = 0; i < nbCreatures; i++) {
+			int x = TILE_SIZE + (i + 1) * spacing;
+			switch (i % 3) {
+			case 0:
+				FACADE.addPlant(world, FACADE.createPlant(x, TILE_SIZE - 1, sprites(60, 60, 2)));
+				break;
+			case 1:
+				if (i % 6 == 1) {
+					school = FACADE.createSchool();
+				}
+				FACADE.addSlime(world, FACADE.createSlime(x, TILE_SIZE - 1, sprites(60, 40, 2), school));
+				break;
+			default:
+				int tileX = x / TILE_SIZE;
+				for (int poolX = Math.max(0, tileX - 1); poolX <= Math.min(nbTilesX - 1, tileX + 2); poolX++) {
+					for (int poolY = 1; poolY <= 2; poolY++) {
+						FACADE.setGeologicalFeature(world, poolX, poolY, 2);
+					}
+				}
+				FACADE.addShark(world, FACADE.createShark(x, TILE_SIZE - 1, sprites(65, 40, 2)));
+				break;
+			}
+		}
+		FACADE.setMazub(world, FACADE.createMazub(TILE_SIZE, TILE_SIZE - 1, sprites(70, 90, 10)));
+		FACADE.startGame(world);
+		return world;
+	}
+
+}
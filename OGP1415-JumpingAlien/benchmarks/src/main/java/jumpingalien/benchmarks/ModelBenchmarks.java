@@ -0,0 +1,108 @@
+package jumpingalien.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jumpingalien.model.World;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of World: advancing the time of generated worlds of increasing size
+ * and creature count, and listing the tiles of a region.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ModelBenchmarks {
+
+	/**
+	 * The number of frames advanced by one call of advanceTime, so the world can be
+	 * checked and generated again between the calls without timing every frame.
+	 */
+	public static final int FRAMES = 100;
+
+	/**
+	 * A generated world of the given number of tiles in the x direction and the
+	 * given number of creatures, in which the game goes on.
+	 */
+	@State(Scope.Thread)
+	public static class AdvancingWorld {
+
+		@Param({ "100x10", "400x50", "1600x100" })
+		public String size;
+
+		World world;
+
+		/**
+		 * Generates the world again when the game is over. The creatures move at
+		 * random, so Mazub sometimes dies within a thousand frames.
+		 */
+		@Setup(Level.Invocation)
+		public void generateWhenGameOver() {
+			if ((world == null) || GeneratedWorlds.FACADE.isGameOver(world)) {
+				world = GeneratedWorlds.create(size);
+			}
+		}
+	}
+
+	/**
+	 * Advances a generated world with the time of one frame of the game, a batch
+	 * of frames at a time. A game that ends in a batch goes on until the end of
+	 * the batch, in which the creatures still move.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(FRAMES)
+	public World advanceTime(AdvancingWorld state) {
+		for (int i = 0; i < FRAMES; i++) {
+			GeneratedWorlds.FACADE.advanceTime(state.world, 0.015);
+		}
+		return state.world;
+	}
+
+	/**
+	 * A region of the given number of tiles wide and high, which moves to the
+	 * right through a generated world of 100 tiles.
+	 */
+	@State(Scope.Thread)
+	public static class Region {
+
+		@Param({ "2x2", "20x12" })
+		public String size;
+
+		World world;
+		int width;
+		int height;
+		int offset;
+
+		@Setup
+		public void generate() {
+			world = GeneratedWorlds.create(100, 0);
+			int[] tiles = GeneratedWorlds.parseSize(size);
+			width = tiles[0];
+			height = tiles[1];
+		}
+	}
+
+	@Benchmark
+	public int[][] tilePositionsIn(Region region) {
+		region.offset = (region.offset + 7) % (GeneratedWorlds.TILE_SIZE * (100 - region.width));
+		return region.world.getTilePositionsIn(region.offset, 5,
+				region.offset + region.width * GeneratedWorlds.TILE_SIZE - 1,
+				5 + region.height * GeneratedWorlds.TILE_SIZE - 1);
+	}
+
+}
@@ -0,0 +1,82 @@
+package jumpingalien.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import jumpingalien.model.World;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of advancing the groups of a world on a pool of threads, to show how
+ * the time of a frame scales with the number of threads. The world is the
+ * largest generated world, with the most creatures a world can hold, spread
+ * over many groups. A pool size of 0 advances the groups one after another,
+ * without a pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ParallelBenchmarks {
+
+	@State(Scope.Thread)
+	public static class ParallelWorld {
+
+		@Param({ "0", "1", "2", "4", "8" })
+		public int poolSize;
+
+		ForkJoinPool pool;
+		World world;
+
+		@Setup
+		public void createPool() {
+			if (poolSize > 0) {
+				pool = new ForkJoinPool(poolSize);
+			}
+		}
+
+		/**
+		 * Generates the world again when the game is over, like in
+		 * ModelBenchmarks.advanceTime.
+		 */
+		@Setup(Level.Invocation)
+		public void generateWhenGameOver() {
+			if ((world == null) || GeneratedWorlds.FACADE.isGameOver(world)) {
+				world = GeneratedWorlds.create(1600, 100);
+				world.setParallelPool(pool);
+			}
+		}
+
+		@TearDown
+		public void shutdownPool() {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ModelBenchmarks.FRAMES)
+	public World advanceTime(ParallelWorld state) {
+		for (int i = 0; i < ModelBenchmarks.FRAMES; i++) {
+			GeneratedWorlds.FACADE.advanceTime(state.world, 0.015);
+		}
+		return state.world;
+	}
+
+}
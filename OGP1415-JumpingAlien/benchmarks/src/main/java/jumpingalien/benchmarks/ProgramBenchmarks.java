@@ -0,0 +1,152 @@
+package jumpingalien.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import jumpingalien.model.ProgramFactory;
+import jumpingalien.model.Type;
+import jumpingalien.model.World;
+import jumpingalien.model.program.Program;
+import jumpingalien.model.program.expression.DirectionExpression;
+import jumpingalien.model.program.expression.SearchObject;
+import jumpingalien.model.program.statement.ForEachStatement;
+import jumpingalien.model.program.statement.SkipStatement;
+import jumpingalien.model.program.statement.Statement;
+import jumpingalien.part3.programs.IProgramFactory.Direction;
+import jumpingalien.part3.programs.IProgramFactory.Kind;
+import jumpingalien.part3.programs.IProgramFactory.SortDirection;
+import jumpingalien.part3.programs.ProgramParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the program interpreter: searching the nearest object in every
+ * direction, a foreach over every kind of object and parsing the programs in
+ * resources/programs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ProgramBenchmarks {
+
+	/**
+	 * Returns a program with the given main statement and global variables, executed
+	 * by Mazub of a generated world with 400 tiles and 50 creatures.
+	 */
+	private static Program createProgram(Statement main, Map<String, Type> globalVariables) {
+		World world = GeneratedWorlds.create(400, 50);
+		Program program = new Program(main, globalVariables);
+		program.setGameObject(world.getAlien());
+		return program;
+	}
+
+	@State(Scope.Thread)
+	public static class Search {
+
+		@Param
+		public Direction direction;
+
+		SearchObject search;
+		Program program;
+
+		@Setup
+		public void createProgram() {
+			search = new SearchObject(new DirectionExpression(direction));
+			program = ProgramBenchmarks.createProgram(new SkipStatement(), new HashMap<String, Type>());
+		}
+	}
+
+	@Benchmark
+	public Object search(Search state) {
+		return state.search.evaluate(state.program);
+	}
+
+	/**
+	 * A foreach with an empty body over every object of the given kind.
+	 */
+	@State(Scope.Thread)
+	public static class ForEach {
+
+		@Param
+		public Kind kind;
+
+		Program program;
+		int nbSteps;
+
+		@Setup
+		public void createProgram() {
+			Map<String, Type> globalVariables = new HashMap<String, Type>();
+			globalVariables.put("o", Type.OBJECT);
+			program = ProgramBenchmarks.createProgram(new ForEachStatement("o", kind, null, null,
+					SortDirection.ASCENDING, new SkipStatement()), globalVariables);
+			nbSteps = ForEachStatement.listObjectsOfKind(program.getGameObject().getWorld(), kind).size() + 1;
+		}
+	}
+
+	/**
+	 * Executes the whole foreach: one step to list the objects and one step per
+	 * object.
+	 */
+	@Benchmark
+	public Program forEach(ForEach state) {
+		for (int i = 0; i < state.nbSteps; i++) {
+			state.program.execute(0.001);
+		}
+		return state.program;
+	}
+
+	/**
+	 * The text of a program in resources/programs, which the build copies to the
+	 * programs folder of the class path.
+	 */
+	@State(Scope.Thread)
+	public static class ProgramText {
+
+		@Param({ "buzam.txt", "parser_test.txt", "plant.txt", "program_example_1.txt",
+				"program_example_2.txt", "shark.txt", "slime.txt" })
+		public String file;
+
+		String text;
+
+		@Setup
+		public void read() throws IOException {
+			try (InputStream input = ProgramBenchmarks.class.getResourceAsStream("/programs/" + file)) {
+				if (input == null) {
+					throw new IOException("programs/" + file + " is not on the class path");
+				}
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = input.read(buffer)) > 0) {
+					bytes.write(buffer, 0, length);
+				}
+				text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	@Benchmark
+	public Optional<Program> parse(ProgramText state) {
+		// Not through the facade, which would return its cached program.
+		return new ProgramParser<>(new ProgramFactory()).parseString(state.text);
+	}
+
+}
@@ -0,0 +1,66 @@
+package jumpingalien.model;
+
+import java.util.concurrent.TimeUnit;
+
+import jumpingalien.benchmarks.GeneratedWorlds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the collision detection of game objects. These benchmarks are in
+ * the package of the model, because collidesSomewhere is not public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class CollisionBenchmarks {
+
+	/**
+	 * Mazub and a slime at the given horizontal distance: 30 pixels when they
+	 * touch, 500 when they are apart.
+	 */
+	@State(Scope.Thread)
+	public static class AlienAndSlime {
+
+		@Param({ "30", "500" })
+		public int distance;
+
+		Mazub alien;
+		Slime slime;
+
+		@Setup
+		public void generate() {
+			World world = GeneratedWorlds.create(100, 3);
+			alien = world.getAlien();
+			slime = world.getSlimes().iterator().next();
+		}
+	}
+
+	/**
+	 * Checks the collision of Mazub with the slime. collidesSomewhere stops the
+	 * movement of Mazub when they touch, but Mazub stands still in a generated
+	 * world, so every call does the same work.
+	 */
+	@Benchmark
+	public double[] collidesSomewhere(AlienAndSlime state) {
+		Mazub alien = state.alien;
+		Slime slime = state.slime;
+		double x = alien.getXPos();
+		double y = alien.getYPos();
+		return alien.collidesSomewhere(x, alien.getXDim(), y, alien.getYDim(),
+				x + state.distance, slime.getXDim(), y, slime.getYDim());
+	}
+
+}
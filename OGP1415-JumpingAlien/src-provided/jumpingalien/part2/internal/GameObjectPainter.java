@@ -5,15 +5,18 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
 import java.util.HashMap;
+import java.util.Optional;
 
 import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.AlienGameScreen;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
 import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.GameObject;
 import jumpingalien.model.Plant;
 import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
+import jumpingalien.model.WorldSnapshot;
 
 public final class GameObjectPainter extends
 		AbstractAlienPainter<AlienGameScreen<?, ?>> {
@@ -37,9 +40,40 @@ public final class GameObjectPainter extends
 	@Override
 	public void paintInWorld(java.awt.Graphics2D g) {
 		paintMazubDebugInfo(g);
-		paintPlants(g);
-		paintSharks(g);
-		paintSlimes(g);
+		Optional<WorldSnapshot> snapshot = objectInfoProvider.getSnapshot();
+		if (snapshot.isPresent()) {
+			paintObjects(g, snapshot.get(),
+					objectInfoProvider.getInterpolationAlpha());
+		} else {
+			paintPlants(g);
+			paintSharks(g);
+			paintSlimes(g);
+		}
+	}
+
+	/**
+	 * Paints the plants, sharks and slimes of the given snapshot, in the same
+	 * order as paintPlants, paintSharks and paintSlimes.
+	 */
+	protected void paintObjects(Graphics2D g, WorldSnapshot snapshot,
+			double alpha) {
+		for (int i = 0; i < snapshot.getNbObjects(); i++) {
+			GameObject object = snapshot.getObject(i);
+			if (object instanceof Plant || object instanceof Shark
+					|| object instanceof Slime) {
+				int[] xy = snapshot.getLocation(i, alpha);
+				ImageSprite sprite = (ImageSprite) snapshot.getSprite(i);
+				if (object instanceof Slime) {
+					School school = snapshot.getSchool(i);
+					if (school != null) {
+						paintSprite(g, sprite.shiftHue(getHueShift(school)), xy);
+					}
+				} else {
+					paintSprite(g, sprite, xy);
+				}
+				paintDebugInfo(g, object, xy);
+			}
+		}
 	}
 
 	protected void paintMazubDebugInfo(Graphics2D g) {
@@ -8,6 +8,7 @@ import jumpingalien.model.Plant;
 import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
+import jumpingalien.model.WorldSnapshot;
 
 public interface ObjectInfoProvider {
 
@@ -31,4 +32,19 @@ public interface ObjectInfoProvider {
 
 	public Optional<School> getSchool(Slime slime);
 
+	/**
+	 * The snapshot of the world to paint the game objects from, if there is one.
+	 */
+	public default Optional<WorldSnapshot> getSnapshot() {
+		return Optional.empty();
+	}
+
+	/**
+	 * How far the painted game objects are between the previous snapshot (0) and
+	 * the current one (1).
+	 */
+	public default double getInterpolationAlpha() {
+		return 1;
+	}
+
 }
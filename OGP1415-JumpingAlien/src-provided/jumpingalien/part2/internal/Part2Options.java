@@ -2,6 +2,7 @@ package jumpingalien.part2.internal;
 
 import jumpingalien.common.game.JumpingAlienGameOptions;
 import jumpingalien.common.gui.JumpingAlienGUIOptions;
+import ogp.framework.gui.FramePacer;
 
 public class Part2Options implements JumpingAlienGameOptions,
 		JumpingAlienGUIOptions {
@@ -17,6 +18,25 @@ public class Part2Options implements JumpingAlienGameOptions,
 	 */
 	private int targetFPS = 30;
 
+	/**
+	 * Number of game updates per second on a separate thread, with a fixed time
+	 * step (default: 0, the game is updated once per frame).
+	 */
+	private double simulationRate = 0;
+
+	/**
+	 * File to write the performance statistics to every few seconds, as CSV or,
+	 * if the name ends with .json, as JSON (default: none).
+	 */
+	private String performanceLogFile = null;
+
+	/**
+	 * How the start of a frame is timed: adaptive (one frame time after the
+	 * start of the previous frame), fixed (on a fixed grid of frame times, like
+	 * vsync) or uncapped (default: adaptive).
+	 */
+	private FramePacer.Mode framePacing = FramePacer.Mode.ADAPTIVE;
+
 	/**
 	 * Print debug info on the screen (default: false).
 	 */
@@ -80,6 +100,33 @@ public class Part2Options implements JumpingAlienGameOptions,
 		this.targetFPS = targetFPS;
 	}
 
+	@Override
+	public double getSimulationRate() {
+		return simulationRate;
+	}
+
+	public void setSimulationRate(double simulationRate) {
+		this.simulationRate = simulationRate;
+	}
+
+	@Override
+	public String getPerformanceLogFile() {
+		return performanceLogFile;
+	}
+
+	public void setPerformanceLogFile(String performanceLogFile) {
+		this.performanceLogFile = performanceLogFile;
+	}
+
+	@Override
+	public FramePacer.Mode getFramePacing() {
+		return framePacing;
+	}
+
+	public void setFramePacing(FramePacer.Mode framePacing) {
+		this.framePacing = framePacing;
+	}
+
 	@Override
 	public double getTimescale() {
 		return timeScale;
@@ -181,6 +228,15 @@ public class Part2Options implements JumpingAlienGameOptions,
 			case "-timescale":
 				options.timeScale = Double.parseDouble(args[++i]);
 				break;
+			case "-simulationrate":
+				options.simulationRate = Double.parseDouble(args[++i]);
+				break;
+			case "-perflog":
+				options.performanceLogFile = args[++i];
+				break;
+			case "-framepacing":
+				options.framePacing = FramePacer.Mode.parse(args[++i]);
+				break;
 			case "-debuginfo":
 				options.debugShowInfo = Boolean.parseBoolean(args[++i]);
 				break;
@@ -0,0 +1,203 @@
+package jumpingalien.part2.internal;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+
+import jumpingalien.common.gui.AlienGUIUtils;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+
+/**
+ * Keeps the layers of a map rendered in square chunks of tiles, so a frame only
+ * draws a few images instead of every layer of every visible tile.
+ *
+ * The chunks are rendered when they first become visible and the chunks that were
+ * not drawn for the longest time are dropped when there are more chunks than
+ * needed for a few frames of the visible window.
+ */
+public class TileChunkCache {
+
+	/**
+	 * The number of tiles along each side of a chunk.
+	 */
+	public static final int CHUNK_TILES = 16;
+
+	/**
+	 * The minimal number of chunks that is kept.
+	 */
+	private static final int MIN_CAPACITY = 4;
+
+	private final Map map;
+	private final int tileSize;
+	private final int nbChunksX;
+	private final int nbChunksY;
+	/**
+	 * The number of tiles to the left of and below a chunk of which the image can
+	 * reach into the chunk, because it is larger than a tile.
+	 */
+	private final int overflowX;
+	private final int overflowY;
+
+	private int capacity = MIN_CAPACITY;
+
+	/**
+	 * The rendered chunks by chunk index, in the order in which they were drawn
+	 * last.
+	 */
+	private final LinkedHashMap<Integer, Image> chunks = new LinkedHashMap<Integer, Image>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				java.util.Map.Entry<Integer, Image> eldest) {
+			if (size() > capacity) {
+				eldest.getValue().flush();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	public TileChunkCache(Map map, int tileSize) {
+		this.map = map;
+		this.tileSize = tileSize;
+		this.nbChunksX = (map.getNbTilesX() + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.nbChunksY = (map.getNbTilesY() + CHUNK_TILES - 1) / CHUNK_TILES;
+
+		int maxWidth = tileSize;
+		int maxHeight = tileSize;
+		for (Layer layer : map.getLayers()) {
+			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+				for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+					ImageTile tile = layer.getTile(tileX, tileY);
+					if (tile != null) {
+						maxWidth = Math.max(maxWidth, tile.getWidth());
+						maxHeight = Math.max(maxHeight, tile.getHeight());
+					}
+				}
+			}
+		}
+		this.overflowX = (maxWidth - 1) / tileSize;
+		this.overflowY = (maxHeight - 1) / tileSize;
+	}
+
+	/**
+	 * Draws the layers of the tiles that overlap with the given rectangle of
+	 * pixels, in world coordinates.
+	 */
+	public void paint(Graphics2D g, int left, int bottom, int right, int top) {
+		int chunkSize = CHUNK_TILES * tileSize;
+		int firstX = Math.max(0, left / chunkSize);
+		int firstY = Math.max(0, bottom / chunkSize);
+		int lastX = Math.min(nbChunksX - 1, right / chunkSize);
+		int lastY = Math.min(nbChunksY - 1, top / chunkSize);
+		if (firstX > lastX || firstY > lastY) {
+			return;
+		}
+
+		// the visible chunks and a ring around them
+		int nbVisible = (lastX - firstX + 1) * (lastY - firstY + 1);
+		int ring = 2 * (lastX - firstX + lastY - firstY) + 8;
+		capacity = Math.max(MIN_CAPACITY, nbVisible + ring);
+
+		for (int chunkX = firstX; chunkX <= lastX; chunkX++) {
+			for (int chunkY = firstY; chunkY <= lastY; chunkY++) {
+				Image chunk = getChunk(g.getDeviceConfiguration(), chunkX, chunkY);
+				AlienGUIUtils.drawImageInWorld(g, chunk, chunkX * chunkSize,
+						chunkY * chunkSize, false);
+			}
+		}
+	}
+
+	/**
+	 * Drops the chunk with the tile at the given tile coordinate, so it is rendered
+	 * again when it is drawn next.
+	 */
+	public void invalidate(int tileX, int tileY) {
+		if (map.isValidTileCoordinate(tileX, tileY)) {
+			Image chunk = chunks.remove(getIndex(tileX / CHUNK_TILES, tileY
+					/ CHUNK_TILES));
+			if (chunk != null) {
+				chunk.flush();
+			}
+		}
+	}
+
+	/**
+	 * Drops all chunks.
+	 */
+	public void invalidateAll() {
+		for (Image chunk : chunks.values()) {
+			chunk.flush();
+		}
+		chunks.clear();
+	}
+
+	public int getNbChunks() {
+		return chunks.size();
+	}
+
+	private int getIndex(int chunkX, int chunkY) {
+		return chunkY * nbChunksX + chunkX;
+	}
+
+	private Image getChunk(GraphicsConfiguration gc, int chunkX, int chunkY) {
+		int index = getIndex(chunkX, chunkY);
+		Image chunk = chunks.get(index);
+		if (chunk == null) {
+			chunk = render(gc, chunkX, chunkY);
+			chunks.put(index, chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Renders the layers of the given chunk into an image. The image is the right
+	 * way up, like the images of the tiles, so it is drawn in the same way. The
+	 * tiles are drawn in the same order as when they are drawn one by one: row by
+	 * row from the bottom, and every layer of a tile before the next tile.
+	 */
+	private Image render(GraphicsConfiguration gc, int chunkX, int chunkY) {
+		int firstTileX = chunkX * CHUNK_TILES;
+		int firstTileY = chunkY * CHUNK_TILES;
+		int lastTileX = Math.min(firstTileX + CHUNK_TILES, map.getNbTilesX()) - 1;
+		int lastTileY = Math.min(firstTileY + CHUNK_TILES, map.getNbTilesY()) - 1;
+		int width = (lastTileX - firstTileX + 1) * tileSize;
+		int height = (lastTileY - firstTileY + 1) * tileSize;
+
+		BufferedImage chunk;
+		if (gc != null) {
+			chunk = gc.createCompatibleImage(width, height,
+					Transparency.TRANSLUCENT);
+		} else {
+			chunk = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		Graphics2D g = chunk.createGraphics();
+		try {
+			for (int tileY = Math.max(0, firstTileY - overflowY); tileY <= lastTileY; tileY++) {
+				for (int tileX = Math.max(0, firstTileX - overflowX); tileX <= lastTileX; tileX++) {
+					for (Layer layer : map.getLayers()) {
+						ImageTile tile = layer.getTile(tileX, tileY);
+						if (tile != null) {
+							Image image = tile.getImage();
+							// the bottom of the image on the bottom of the tile, as
+							// in AlienGUIUtils.drawImageInWorld
+							g.drawImage(image, (tileX - firstTileX) * tileSize,
+									height - (tileY - firstTileY) * tileSize
+											- image.getHeight(null), null);
+						}
+					}
+				}
+			}
+		} finally {
+			g.dispose();
+		}
+		return chunk;
+	}
+}
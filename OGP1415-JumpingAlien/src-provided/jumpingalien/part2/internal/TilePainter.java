@@ -4,12 +4,9 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.Optional;
 
-import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.AlienGameScreen;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 
 public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
@@ -19,6 +16,7 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 	private final Part2WorldInfoProvider worldInfoProvider;
 	private final int tileSize;
 	private final Map map;
+	private final TileChunkCache chunks;
 
 	public TilePainter(AlienGameScreen<?, ?> screen, Map map,
 			Part2WorldInfoProvider worldInfoProvider) {
@@ -26,6 +24,11 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		this.map = map;
 		this.worldInfoProvider = worldInfoProvider;
 		this.tileSize = worldInfoProvider.getTileLength();
+		this.chunks = new TileChunkCache(map, tileSize);
+	}
+
+	public TileChunkCache getChunks() {
+		return chunks;
 	}
 
 	@Override
@@ -40,10 +43,9 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		g.setColor(getBackgroundColor());
 		g.fillRect(0, 0, worldSize[0], worldSize[1]);
 
-		Optional<int[][]> tileCoordinatesToDrawOpt;
+		int[] window;
 		if (getOptions().getDebugShowEntireWorld()) {
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(0, 0,
-					worldSize[0], worldSize[1]);
+			window = new int[] { 0, 0, worldSize[0], worldSize[1] };
 		} else {
 			Optional<int[]> visibleWindowOpt = worldInfoProvider
 					.getVisibleWindow();
@@ -51,22 +53,20 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 			if (!visibleWindowOpt.isPresent()) {
 				return;
 			}
-			int[] visibleWindow = visibleWindowOpt.get();
-
-			tileCoordinatesToDrawOpt = worldInfoProvider.getTilesIn(
-					visibleWindow[0], visibleWindow[1], visibleWindow[2],
-					visibleWindow[3]);
+			window = visibleWindowOpt.get();
 		}
-		if (!tileCoordinatesToDrawOpt.isPresent()) {
-			return;
-		}
-		int[][] tileCoordinatesToDraw = tileCoordinatesToDrawOpt.get();
 
-		for (int[] tileXY : tileCoordinatesToDraw) {
-			int tileX = tileXY[0];
-			int tileY = tileXY[1];
+		chunks.paint(g, window[0], window[1], window[2], window[3]);
 
-			paintTile(g, tileX, tileY);
+		if (getOptions().getDebugShowTileTypes()
+				|| getOptions().getDebugShowTileGridlines()) {
+			Optional<int[][]> tileCoordinatesToDrawOpt = worldInfoProvider
+					.getTilesIn(window[0], window[1], window[2], window[3]);
+			if (tileCoordinatesToDrawOpt.isPresent()) {
+				for (int[] tileXY : tileCoordinatesToDrawOpt.get()) {
+					paintTileOverlay(g, tileXY[0], tileXY[1]);
+				}
+			}
 		}
 
 		if (getOptions().getDebugShowAlienOverlappingTiles()) {
@@ -107,27 +107,14 @@ public class TilePainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 		}
 	}
 
-	private void paintTile(Graphics2D g, int tileX, int tileY) {
+	private void paintTileOverlay(Graphics2D g, int tileX, int tileY) {
 		Optional<int[]> bottomLeftOpt = worldInfoProvider
 				.getBottomLeftPixelOfTile(tileX, tileY);
 		if (!bottomLeftOpt.isPresent()) {
-			// TODO: do something else?
 			return;
 		}
 		int[] bottomLeftXY = bottomLeftOpt.get();
 
-		int tileSize = worldInfoProvider.getTileLength();
-
-		for (Layer layer : map.getLayers()) {
-			if (map.isValidTileCoordinate(tileX, tileY)) {
-				ImageTile tile = layer.getTile(tileX, tileY);
-				if (tile != null) {
-					AlienGUIUtils.drawImageInWorld(g, tile.getImage(),
-							bottomLeftXY[0], bottomLeftXY[1], false);
-				}
-			}
-		}
-
 		if (getOptions().getDebugShowTileTypes()) {
 			Optional<TileType> optType = worldInfoProvider
 					.getGeologicalFeature(bottomLeftXY[0], bottomLeftXY[1]);
@@ -27,6 +27,7 @@ import jumpingalien.model.exceptions.IllegalTileException;
 import jumpingalien.model.exceptions.IllegalTileSizeException;
 import jumpingalien.model.exceptions.IllegalVisibleWindowException;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCache;
 import jumpingalien.model.program.expression.Expression;
 import jumpingalien.model.program.statement.Statement;
 import jumpingalien.part3.programs.IProgramFactory;
@@ -389,13 +390,24 @@ public class Facade implements IFacadePart3 {
 			throw new ModelException(f.getMessage());
 		}
 	}
+	/**
+	 * The programs parsed by this facade. Parsing the same text again returns a new
+	 * instance of the program that was parsed before.
+	 */
+	private final ProgramCache programCache = new ProgramCache(64);
+	
 	@Override
 	public ParseOutcome<?> parse(String text) {
+		Program cached = programCache.get(text);
+		if (cached != null) {
+			return ParseOutcome.success(cached);
+		}
 		IProgramFactory<Expression<?>, Statement, Type, Program> factory = (IProgramFactory<Expression<?>, Statement, Type, Program>) new ProgramFactory();
 		ProgramParser<Expression<?>, Statement, Type, Program> parser = new ProgramParser<>(factory);
 		try {
 			Optional<Program> parseResult = parser.parseString(text);
 			if (parseResult.isPresent()) {
+				programCache.put(text, parseResult.get());
 				return ParseOutcome.success(parseResult.get());
 			}
 			else {
@@ -1,54 +1,52 @@
 package jumpingalien.part3.internal;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import jumpingalien.common.game.IActionHandler;
 import jumpingalien.common.game.JumpingAlienGame;
 import jumpingalien.common.game.WorldInfoProvider;
 import jumpingalien.common.sprites.ImageSprite;
-import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.model.AdvanceStats;
 import jumpingalien.model.Buzam;
+import jumpingalien.model.GameObject;
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Plant;
 import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
 import jumpingalien.model.World;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.WorldSnapshot;
+import jumpingalien.model.program.ProgramStats;
 import jumpingalien.part2.internal.AlienInfoProvider2;
 import jumpingalien.part2.internal.ObjectInfoProvider;
 import jumpingalien.part2.internal.Part2WorldInfoProvider;
 import jumpingalien.part2.internal.tmxfile.TMXFileReader;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
-import jumpingalien.part2.internal.tmxfile.data.MapObject;
 import jumpingalien.part3.facade.IFacadePart3;
-import jumpingalien.part3.programs.ParseOutcome;
 import jumpingalien.util.Sprite;
 import ogp.framework.messages.Message;
 import ogp.framework.messages.MessageType;
-import ogp.framework.util.GUIUtils;
+import ogp.framework.util.PhaseMetrics;
 
 public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
-	private static final String ATTR_BUZAM_INITIAL_Y = "initialBuzamY";
-	private static final String ATTR_BUZAM_INITIAL_X = "initialBuzamX";
-	private Mazub alien;
-	private Buzam buzam;
-	private World world;
+	/**
+	 * The game objects are replaced by the thread that updates the game, and read
+	 * by the thread that paints it.
+	 */
+	private volatile Mazub alien;
+	private volatile Buzam buzam;
+	private volatile World world;
 
 	private Map map;
 
@@ -56,19 +54,24 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 	private final ObjectInfoProvider objectInfoProvider;
 	private String currentMap;
 
-	private final Random random;
+	private final LevelLoader loader;
 
 	public JumpingAlienGamePart3(Part3Options options, IFacadePart3 facade) {
 		super(options, facade);
-		this.random = new Random(options.getRandomSeed());
 		this.objectInfoProvider = createObjectInfoProvider();
 		this.evilTwinProvider = createEvilTwinInfoProvider();
+		this.programWatcher = new ProgramWatcher(facade,
+				(filename, program) -> getLoader().setParsedProgram(filename, program));
+		this.loader = new LevelLoader(facade, new Random(options.getRandomSeed()),
+				programWatcher::watch);
 	}
 
 	@Override
 	public void restart() {
 		this.world = null;
 		this.alien = null;
+		this.frameSnapshot = null;
+		programWatcher.clear();
 
 		super.restart();
 	}
@@ -89,15 +92,7 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			map = reader.read(filename);
 
-			if (map.getTileSizeY() != map.getTileSizeX()) {
-				throw new IllegalArgumentException(
-						"Can only work with square tile sizes");
-			}
-
-			if (map.getLayer("Terrain") == null) {
-				throw new IllegalArgumentException(
-						"The map must have a layer called 'Terrain'");
-			}
+			LevelLoader.checkMap(map);
 
 			tileSize = map.getTileSizeY();
 		} catch (Throwable e) {
@@ -119,196 +114,22 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 	@Override
 	protected void createModel() {
-
-		setWorld(getFacade().createWorld(tileSize, map.getNbTilesX(),
-				map.getNbTilesY(), getVisibleScreenWidth(),
-				getVisibleScreenHeight(), map.getTargetTileX(),
-				map.getTargetTileY()));
-
-		setTileTypes();
-
-		addGameObjects();
-
-		addBuzam();
-
-		addMazub();
-
-		// no more object creations or tile changes after starting
-		getFacade().startGame(getWorld());
-	}
-
-	private void addGameObjects() {
-		for (MapObject obj : map.getObjects()) {
-			addObject(obj);
-		}
-	}
-
-	private void addMazub() {
-		setAlien(getFacade().createMazub(map.getInitialPositionX(),
-				map.getInitialPositionY(), JumpingAlienSprites.ALIEN_SPRITESET));
-
-		getFacade().setMazub(getWorld(), getAlien());
-	}
-
-	private void addBuzam() {
-		if (!map.hasAttribute(ATTR_BUZAM_INITIAL_X) || !map.hasAttribute(ATTR_BUZAM_INITIAL_Y)) {
-			return;
-		}
-		int buzamX = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_X));
-		int buzamY = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_Y));
-		Optional<Program> program = parseProgram(Resources.BUZAM_PROGRAM_FILENAME);
-		if (program.isPresent() && random.nextBoolean()) {
-			buzam = getFacade().createBuzamWithProgram(buzamX, buzamY,
-					Resources.BUZAM_SPRITESET, program.get());
-		} else {
-			buzam = getFacade().createBuzam(buzamX, buzamY,
-					Resources.BUZAM_SPRITESET);
-		}
-
-		getFacade().addBuzam(getWorld(), buzam);
-	}
-
-	@SuppressWarnings("unchecked")
-	private Optional<Program> parseProgram(String filename) {
-		try {
-			InputStream is = GUIUtils.openResource(filename);
-			BufferedReader br = new BufferedReader(new InputStreamReader(is));
-			String text = br.lines().collect(Collectors.joining("\n"));
-			ParseOutcome<?> outcome = getFacade().parse(text);
-			if (outcome.isSuccess()) {
-				return Optional.ofNullable((Program) outcome.getResult());
-			} else {
-				System.out.println("Errors while parsing program '" + filename
-						+ "':");
-				for (String error : (List<String>) outcome.getResult()) {
-					System.out.println(error);
-				}
-			}
-		} catch (IOException e) {
-			System.out.println("Error while opening '" + filename + "': "
-					+ e.getMessage());
-			e.printStackTrace();
-		}
-		return Optional.empty();
-	}
-
-	private void setTileTypes() {
-		Layer terrainLayer = map.getLayer("Terrain");
-
-		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
-			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
-				ImageTile tile = terrainLayer.getTile(tileX, tileY);
-				if (tile != null) {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							tile.getType().getValue());
-				} else {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							TileType.AIR.getValue());
-				}
-			}
-		}
-	}
-
-	private void addObject(MapObject obj) {
-		switch (obj.getTile().getOSIndependentFilename()) {
-		case Resources.PLANT_LEFT_FILENAME: {
-			addPlant(obj);
-			break;
-		}
-		case Resources.SHARK_LEFT_FILENAME:
-		case Resources.SHARK_LEFT2_FILENAME:
-		case Resources.SHARK_DEAD_FILENAME: {
-			addShark(obj);
-			break;
-		}
-		case Resources.SLIME_LEFT_FILENAME:
-		case Resources.SLIME_LEFT2_FILENAME:
-		case Resources.SLIME_DEAD_FILENAME: {
-			addSlime(obj);
-			break;
-		}
-		default:
-			System.out
-					.println("ERROR while loading level: don't know how to deal with object "
-							+ obj);
-			break;
-		}
+		setWorld(loader.load(map, getVisibleScreenWidth(),
+				getVisibleScreenHeight()));
+		setAlien(loader.getAlien());
+		buzam = loader.getBuzam();
 	}
 
-	private void addPlant(MapObject obj) {
-		Optional<Program> program = parseProgram(Resources.PLANT_PROGRAM_FILENAME);
-		if (program.isPresent() && random.nextBoolean()) {
-			getFacade().addPlant(
-					getWorld(),
-					getFacade().createPlantWithProgram(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.PLANT_SPRITE_LEFT,
-									Resources.PLANT_SPRITE_RIGHT },
-							program.get()));
-		} else {
-			getFacade().addPlant(
-					getWorld(),
-					getFacade().createPlant(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.PLANT_SPRITE_LEFT,
-									Resources.PLANT_SPRITE_RIGHT }));
-		}
-	}
-
-	private void addShark(MapObject obj) {
-		Optional<Program> program = parseProgram(Resources.SHARK_PROGRAM_FILENAME);
-		if (program.isPresent() && random.nextBoolean()) {
-			getFacade().addShark(
-					getWorld(),
-					getFacade().createSharkWithProgram(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.SHARK_SPRITE_LEFT,
-									Resources.SHARK_SPRITE_RIGHT },
-							program.get()));
-		} else {
-			getFacade().addShark(
-					getWorld(),
-					getFacade().createShark(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.SHARK_SPRITE_LEFT,
-									Resources.SHARK_SPRITE_RIGHT }));
-		}
-	}
-
-	private void addSlime(MapObject obj) {
-		Optional<Program> program = parseProgram(Resources.SLIME_PROGRAM_FILENAME);
-		int school = obj.getIntAttribute("school").orElse(0);
-		if (program.isPresent() && random.nextBoolean()) {
-			getFacade().addSlime(
-					getWorld(),
-					getFacade().createSlimeWithProgram(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.SLIME_SPRITE_LEFT,
-									Resources.SLIME_SPRITE_RIGHT },
-							getSlimeSchool(school), program.get()));
-		} else {
-			getFacade().addSlime(
-					getWorld(),
-					getFacade().createSlime(
-							obj.getX(),
-							obj.getY(),
-							new Sprite[] { Resources.SLIME_SPRITE_LEFT,
-									Resources.SLIME_SPRITE_RIGHT },
-							getSlimeSchool(school)));
-		}
-	}
-
-	private java.util.Map<Integer, School> schools = new HashMap<Integer, School>();
+	/**
+	 * Reloads the programs of the game objects when their file changes, and replaces
+	 * the parsed program, so that the game objects of a restarted level get the new code.
+	 */
+	private final ProgramWatcher programWatcher;
 
 	private final AlienInfoProvider2<Buzam> evilTwinProvider;
 
-	private School getSlimeSchool(int nb) {
-		return schools.computeIfAbsent(nb, i -> getFacade().createSchool());
+	private LevelLoader getLoader() {
+		return loader;
 	}
 
 	public Map getMap() {
@@ -337,9 +158,119 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 		return world;
 	}
 
+	/**
+	 * Returns the statistics of the program that took the most time so far, if any.
+	 */
+	Optional<ProgramStats> getSlowestProgramStats() {
+		if (getWorld() == null) {
+			return Optional.empty();
+		}
+		return getWorld().listProgramStats().stream().findFirst();
+	}
+
+	/**
+	 * Adds the duration of every phase of an advance of the world to the metrics
+	 * of this game.
+	 */
+	private void recordAdvanceStats(AdvanceStats stats) {
+		if (stats != null) {
+			PhaseMetrics metrics = getMetrics();
+			metrics.record("world.advanceTime", stats.totalTime);
+			metrics.record("world.programs", stats.programTime);
+			metrics.record("world.grouping", stats.groupingTime);
+			metrics.record("world.dt", stats.dtTime);
+			metrics.record("world.move", stats.moveTime);
+			metrics.record("world.window", stats.windowTime);
+			metrics.record("world.snapshot", stats.snapshotTime);
+		}
+	}
+
+	/**
+	 * Returns the time spent in every phase of the last advance of the world, if
+	 * any.
+	 */
+	Optional<AdvanceStats> getLastAdvanceStats() {
+		if (getWorld() == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(getWorld().getLastAdvanceStats());
+	}
+
+	/**
+	 * The snapshot of the world that is painted in the current frame, and how far
+	 * the painted state is between the previous snapshot (0) and this one (1).
+	 */
+	private volatile WorldSnapshot frameSnapshot;
+	private volatile double frameAlpha = 1;
+
+	/**
+	 * The lock that is held while the world advances.
+	 */
+	private volatile Lock worldLock = new ReentrantLock();
+
+	/**
+	 * Fixes the snapshot of the world that is painted until the next frame, so all
+	 * painters of a frame see the same state, whatever the world does meanwhile.
+	 * 
+	 * @param worldLock
+	 *            the lock that is held while the world advances; the world is only
+	 *            read while holding it, before the world has a snapshot
+	 */
+	void beginFrame(double alpha, Lock worldLock) {
+		this.worldLock = worldLock;
+		World world = getWorld();
+		this.frameSnapshot = (world == null) ? null : world.getSnapshot();
+		this.frameAlpha = alpha;
+	}
+
+	/**
+	 * Reads the world through the facade, while it does not advance.
+	 */
+	private <T> Optional<T> readLive(Supplier<T> property) {
+		Lock lock = worldLock;
+		lock.lock();
+		try {
+			return catchErrorGet(property);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads a property of the given game object from the snapshot of the current
+	 * frame, or from the world through the facade if there is no snapshot yet. An
+	 * object that is not in the snapshot has been removed from the world.
+	 */
+	private <T> Optional<T> getFromSnapshot(GameObject object,
+			BiFunction<WorldSnapshot, Integer, T> property, Supplier<T> fallback) {
+		WorldSnapshot snapshot = frameSnapshot;
+		if (snapshot == null) {
+			return readLive(fallback);
+		}
+		int index = (object == null) ? -1 : snapshot.indexOf(object);
+		if (index >= 0) {
+			return Optional.of(property.apply(snapshot, index));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Reads a property of the world from the snapshot of the current frame, or
+	 * from the world through the facade if there is no snapshot yet.
+	 */
+	private <T> Optional<T> getFromSnapshot(Function<WorldSnapshot, T> property,
+			Supplier<T> fallback) {
+		WorldSnapshot snapshot = frameSnapshot;
+		if (snapshot != null) {
+			return Optional.of(property.apply(snapshot));
+		}
+		return readLive(fallback);
+	}
+
 	@Override
 	protected void advanceTime(double dt) {
 		getFacade().advanceTime(getWorld(), dt);
+		recordAdvanceStats(getWorld().getLastAdvanceStats());
 		if (getFacade().isGameOver(getWorld())) {
 			stop();
 		}
@@ -366,7 +297,9 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienXY() {
-				return catchErrorGet(() -> getFacade().getLocation(getAlien()));
+				return getFromSnapshot(getAlien(),
+						(snapshot, i) -> snapshot.getLocation(i, frameAlpha),
+						() -> getFacade().getLocation(getAlien()));
 			}
 
 			@Override
@@ -382,24 +315,27 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienSize() {
-				return catchErrorGet(() -> getFacade().getSize(getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getSize,
+						() -> getFacade().getSize(getAlien()));
 			}
 
 			@Override
 			public Optional<Sprite> getPlayerSprite() {
-				return catchErrorGet(() -> getFacade().getCurrentSprite(
-						getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getSprite,
+						() -> getFacade().getCurrentSprite(getAlien()));
 			}
 
 			@Override
 			public Optional<Integer> getAlienHealth() {
-				return catchErrorGet(() -> getFacade().getNbHitPoints(
-						getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getHitpoints,
+						() -> getFacade().getNbHitPoints(getAlien()));
 			}
 
 			@Override
 			public Optional<Boolean> isImmune() {
-				return catchErrorGet(() -> getFacade().isImmune(getAlien()));
+				return getFromSnapshot(getAlien(),
+						(snapshot, i) -> snapshot.hasFlag(i, WorldSnapshot.IMMUNE),
+						() -> getFacade().isImmune(getAlien()));
 			}
 		};
 	}
@@ -414,7 +350,9 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienXY() {
-				return catchErrorGet(() -> getFacade().getLocation(getAlien()));
+				return getFromSnapshot(getAlien(),
+						(snapshot, i) -> snapshot.getLocation(i, frameAlpha),
+						() -> getFacade().getLocation(getAlien()));
 			}
 
 			@Override
@@ -430,19 +368,20 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getAlienSize() {
-				return catchErrorGet(() -> getFacade().getSize(getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getSize,
+						() -> getFacade().getSize(getAlien()));
 			}
 
 			@Override
 			public Optional<Sprite> getPlayerSprite() {
-				return catchErrorGet(() -> getFacade().getCurrentSprite(
-						getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getSprite,
+						() -> getFacade().getCurrentSprite(getAlien()));
 			}
 
 			@Override
 			public Optional<Integer> getAlienHealth() {
-				return catchErrorGet(() -> getFacade().getNbHitPoints(
-						getAlien()));
+				return getFromSnapshot(getAlien(), WorldSnapshot::getHitpoints,
+						() -> getFacade().getNbHitPoints(getAlien()));
 			}
 
 			@Override
@@ -458,15 +397,19 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getVisibleWindow() {
-				return catchErrorGet(() -> getFacade().getVisibleWindow(
-						getWorld()));
+				return getFromSnapshot(
+						snapshot -> snapshot.getVisibleWindow(frameAlpha),
+						() -> getFacade().getVisibleWindow(getWorld()));
 			}
 
 			@Override
 			public Optional<int[][]> getTilesIn(int left, int bottom,
 					int right, int top) {
-				return catchErrorGet(() -> getFacade().getTilePositionsIn(
-						world, left, bottom, right, top));
+				return getFromSnapshot(
+						snapshot -> snapshot.getTilePositionsIn(left, bottom,
+								right, top),
+						() -> getFacade().getTilePositionsIn(world, left,
+								bottom, right, top));
 			}
 
 			@Override
@@ -479,31 +422,36 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Optional<int[]> getBottomLeftPixelOfTile(int tileX, int tileY) {
-				return catchErrorGet(() -> getFacade()
-						.getBottomLeftPixelOfTile(world, tileX, tileY));
+				return getFromSnapshot(
+						snapshot -> snapshot.getBottomLeftPixelOfTile(tileX,
+								tileY),
+						() -> getFacade().getBottomLeftPixelOfTile(world,
+								tileX, tileY));
 			}
 
 			@Override
 			public Optional<int[]> getWorldSize() {
-				return catchErrorGet(() -> getFacade().getWorldSizeInPixels(
-						getWorld()));
+				return getFromSnapshot(WorldSnapshot::getWorldSize,
+						() -> getFacade().getWorldSizeInPixels(getWorld()));
 			}
 
 			@Override
 			public int getTileLength() {
-				return catchErrorGet(
+				return getFromSnapshot(WorldSnapshot::getTileLength,
 						() -> getFacade().getTileLength(getWorld())).orElse(
 						tileSize);
 			}
 
 			@Override
 			public Optional<Boolean> isGameOver() {
-				return catchErrorGet(() -> getFacade().isGameOver(getWorld()));
+				return getFromSnapshot(WorldSnapshot::isGameOver,
+						() -> getFacade().isGameOver(getWorld()));
 			}
 
 			@Override
 			public Optional<Boolean> didPlayerWin() {
-				return catchErrorGet(() -> getFacade().didPlayerWin(getWorld()));
+				return getFromSnapshot(WorldSnapshot::didPlayerWin,
+						() -> getFacade().didPlayerWin(getWorld()));
 			}
 
 		};
@@ -528,67 +476,68 @@ public class JumpingAlienGamePart3 extends JumpingAlienGame {
 
 			@Override
 			public Collection<Slime> getSlimes() {
-				Collection<Slime> result = getFacade().getSlimes(world);
-				if (result == null) {
-					result = Collections.emptyList();
-				}
-				return result;
+				return readLive(() -> getFacade().getSlimes(world)).orElse(
+						Collections.emptyList());
 			}
 
 			@Override
 			public Optional<int[]> getLocation(Slime slime) {
-				return Optional.of(getFacade().getLocation(slime));
+				return readLive(() -> getFacade().getLocation(slime));
 			}
 
 			@Override
 			public Collection<Shark> getSharks() {
-				Collection<Shark> result = getFacade().getSharks(world);
-				if (result == null) {
-					result = Collections.emptyList();
-				}
-				return result;
+				return readLive(() -> getFacade().getSharks(world)).orElse(
+						Collections.emptyList());
 			}
 
 			@Override
 			public Optional<int[]> getLocation(Shark shark) {
-				return Optional.of(getFacade().getLocation(shark));
+				return readLive(() -> getFacade().getLocation(shark));
 			}
 
 			@Override
 			public Collection<Plant> getPlants() {
-				Collection<Plant> result = getFacade().getPlants(world);
-				if (result == null) {
-					result = Collections.emptyList();
-				}
-				return result;
+				return readLive(() -> getFacade().getPlants(world)).orElse(
+						Collections.emptyList());
 			}
 
 			@Override
 			public Optional<int[]> getLocation(Plant plant) {
-				return Optional.of(getFacade().getLocation(plant));
+				return readLive(() -> getFacade().getLocation(plant));
 			}
 
 			@Override
 			public Optional<ImageSprite> getCurrentSprite(Plant plant) {
-				return Optional.of((ImageSprite) getFacade().getCurrentSprite(
-						plant));
+				return readLive(() -> (ImageSprite) getFacade()
+						.getCurrentSprite(plant));
 			}
 
 			@Override
 			public Optional<ImageSprite> getCurrentSprite(Shark shark) {
-				return Optional.of((ImageSprite) getFacade().getCurrentSprite(
-						shark));
+				return readLive(() -> (ImageSprite) getFacade()
+						.getCurrentSprite(shark));
 			}
 
 			@Override
 			public Optional<ImageSprite> getCurrentSprite(Slime slime) {
-				return Optional.of((ImageSprite) getFacade().getCurrentSprite(
-						slime));
+				return readLive(() -> (ImageSprite) getFacade()
+						.getCurrentSprite(slime));
 			}
 
 			@Override
 			public Optional<School> getSchool(Slime slime) {
-				return catchErrorGet(() -> getFacade().getSchool(slime));
+				return readLive(() -> getFacade().getSchool(slime));
+			}
+
+			@Override
+			public Optional<WorldSnapshot> getSnapshot() {
+				return Optional.ofNullable(frameSnapshot);
+			}
+
+			@Override
+			public double getInterpolationAlpha() {
+				return frameAlpha;
 			}
 
 		};
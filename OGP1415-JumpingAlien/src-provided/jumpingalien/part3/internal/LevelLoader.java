@@ -0,0 +1,278 @@
+package jumpingalien.part3.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.model.Buzam;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.School;
+import jumpingalien.model.World;
+import jumpingalien.model.program.Program;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.part3.programs.ParseOutcome;
+import jumpingalien.util.Sprite;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Builds the model of a level through the facade: the world with its tiles, the
+ * game objects of the map, buzam and mazub. Every game object that can have a
+ * program gets one at random.
+ *
+ * The programs are parsed once per file, and every game object gets a new
+ * instance of the parsed program.
+ */
+public class LevelLoader {
+
+	private static final String ATTR_BUZAM_INITIAL_Y = "initialBuzamY";
+	private static final String ATTR_BUZAM_INITIAL_X = "initialBuzamX";
+
+	private final IFacadePart3 facade;
+	private final Random random;
+	private final BiConsumer<String, Program> onNewProgram;
+
+	/**
+	 * The programs parsed so far, by file name.
+	 */
+	private final java.util.Map<String, Optional<Program>> parsedPrograms = new ConcurrentHashMap<String, Optional<Program>>();
+
+	private java.util.Map<Integer, School> schools;
+	private World world;
+	private Mazub alien;
+	private Buzam buzam;
+
+	/**
+	 * @param onNewProgram
+	 *            called with the file name and the program of every game object
+	 *            that gets a program
+	 */
+	public LevelLoader(IFacadePart3 facade, Random random,
+			BiConsumer<String, Program> onNewProgram) {
+		this.facade = facade;
+		this.random = random;
+		this.onNewProgram = onNewProgram;
+	}
+
+	public LevelLoader(IFacadePart3 facade, Random random) {
+		this(facade, random, (filename, program) -> {
+		});
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if the given map can not be loaded.
+	 */
+	public static void checkMap(Map map) throws IllegalArgumentException {
+		if (map.getTileSizeY() != map.getTileSizeX()) {
+			throw new IllegalArgumentException(
+					"Can only work with square tile sizes");
+		}
+		if (map.getLayer("Terrain") == null) {
+			throw new IllegalArgumentException(
+					"The map must have a layer called 'Terrain'");
+		}
+	}
+
+	/**
+	 * Builds the model of the given map and starts the game.
+	 */
+	public World load(Map map, int visibleScreenWidth, int visibleScreenHeight) {
+		checkMap(map);
+		this.schools = new HashMap<Integer, School>();
+		this.buzam = null;
+		this.world = facade.createWorld(map.getTileSizeY(), map.getNbTilesX(),
+				map.getNbTilesY(), visibleScreenWidth, visibleScreenHeight,
+				map.getTargetTileX(), map.getTargetTileY());
+
+		setTileTypes(map);
+
+		for (MapObject obj : map.getObjects()) {
+			addObject(obj);
+		}
+
+		addBuzam(map);
+
+		this.alien = facade.createMazub(map.getInitialPositionX(),
+				map.getInitialPositionY(), JumpingAlienSprites.ALIEN_SPRITESET);
+		facade.setMazub(world, alien);
+
+		// no more object creations or tile changes after starting
+		facade.startGame(world);
+		return world;
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public Mazub getAlien() {
+		return alien;
+	}
+
+	public Buzam getBuzam() {
+		return buzam;
+	}
+
+	/**
+	 * Replaces the parsed program of the given file, so the game objects of the
+	 * next level that is loaded get the new program.
+	 */
+	public void setParsedProgram(String filename, Program program) {
+		parsedPrograms.put(filename, Optional.of(program));
+	}
+
+	/**
+	 * Returns a new instance of the program in the given file, if it can be
+	 * parsed.
+	 */
+	public Optional<Program> getProgram(String filename) {
+		Optional<Program> program = parsedPrograms.computeIfAbsent(filename,
+				this::parseProgram).map(Program::newInstance);
+		program.ifPresent(p -> onNewProgram.accept(filename, p));
+		return program;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Optional<Program> parseProgram(String filename) {
+		try {
+			InputStream is = GUIUtils.openResource(filename);
+			BufferedReader br = new BufferedReader(new InputStreamReader(is));
+			String text = br.lines().collect(Collectors.joining("\n"));
+			br.close();
+			ParseOutcome<?> outcome = facade.parse(text);
+			if (outcome.isSuccess()) {
+				return Optional.ofNullable((Program) outcome.getResult());
+			} else {
+				System.out.println("Errors while parsing program '" + filename
+						+ "':");
+				for (String error : (List<String>) outcome.getResult()) {
+					System.out.println(error);
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("Error while opening '" + filename + "': "
+					+ e.getMessage());
+			e.printStackTrace();
+		}
+		return Optional.empty();
+	}
+
+	private void setTileTypes(Map map) {
+		Layer terrainLayer = map.getLayer("Terrain");
+
+		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+				ImageTile tile = terrainLayer.getTile(tileX, tileY);
+				if (tile != null) {
+					facade.setGeologicalFeature(world, tileX, tileY, tile
+							.getType().getValue());
+				} else {
+					facade.setGeologicalFeature(world, tileX, tileY,
+							TileType.AIR.getValue());
+				}
+			}
+		}
+	}
+
+	private void addObject(MapObject obj) {
+		switch (obj.getTile().getOSIndependentFilename()) {
+		case Resources.PLANT_LEFT_FILENAME: {
+			addPlant(obj);
+			break;
+		}
+		case Resources.SHARK_LEFT_FILENAME:
+		case Resources.SHARK_LEFT2_FILENAME:
+		case Resources.SHARK_DEAD_FILENAME: {
+			addShark(obj);
+			break;
+		}
+		case Resources.SLIME_LEFT_FILENAME:
+		case Resources.SLIME_LEFT2_FILENAME:
+		case Resources.SLIME_DEAD_FILENAME: {
+			addSlime(obj);
+			break;
+		}
+		default:
+			System.out
+					.println("ERROR while loading level: don't know how to deal with object "
+							+ obj);
+			break;
+		}
+	}
+
+	private void addPlant(MapObject obj) {
+		Sprite[] sprites = new Sprite[] { Resources.PLANT_SPRITE_LEFT,
+				Resources.PLANT_SPRITE_RIGHT };
+		Optional<Program> program = getProgram(Resources.PLANT_PROGRAM_FILENAME);
+		if (program.isPresent() && random.nextBoolean()) {
+			facade.addPlant(world, facade.createPlantWithProgram(obj.getX(),
+					obj.getY(), sprites, program.get()));
+		} else {
+			facade.addPlant(world,
+					facade.createPlant(obj.getX(), obj.getY(), sprites));
+		}
+	}
+
+	private void addShark(MapObject obj) {
+		Sprite[] sprites = new Sprite[] { Resources.SHARK_SPRITE_LEFT,
+				Resources.SHARK_SPRITE_RIGHT };
+		Optional<Program> program = getProgram(Resources.SHARK_PROGRAM_FILENAME);
+		if (program.isPresent() && random.nextBoolean()) {
+			facade.addShark(world, facade.createSharkWithProgram(obj.getX(),
+					obj.getY(), sprites, program.get()));
+		} else {
+			facade.addShark(world,
+					facade.createShark(obj.getX(), obj.getY(), sprites));
+		}
+	}
+
+	private void addSlime(MapObject obj) {
+		Sprite[] sprites = new Sprite[] { Resources.SLIME_SPRITE_LEFT,
+				Resources.SLIME_SPRITE_RIGHT };
+		Optional<Program> program = getProgram(Resources.SLIME_PROGRAM_FILENAME);
+		School school = getSlimeSchool(obj.getIntAttribute("school").orElse(0));
+		if (program.isPresent() && random.nextBoolean()) {
+			facade.addSlime(world, facade.createSlimeWithProgram(obj.getX(),
+					obj.getY(), sprites, school, program.get()));
+		} else {
+			facade.addSlime(world,
+					facade.createSlime(obj.getX(), obj.getY(), sprites, school));
+		}
+	}
+
+	private School getSlimeSchool(int nb) {
+		return schools.computeIfAbsent(nb, i -> facade.createSchool());
+	}
+
+	private void addBuzam(Map map) {
+		if (!map.hasAttribute(ATTR_BUZAM_INITIAL_X)
+				|| !map.hasAttribute(ATTR_BUZAM_INITIAL_Y)) {
+			return;
+		}
+		int buzamX = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_X));
+		int buzamY = Integer.parseInt(map.getAttribute(ATTR_BUZAM_INITIAL_Y));
+		Optional<Program> program = getProgram(Resources.BUZAM_PROGRAM_FILENAME);
+		if (program.isPresent() && random.nextBoolean()) {
+			buzam = facade.createBuzamWithProgram(buzamX, buzamY,
+					Resources.BUZAM_SPRITESET, program.get());
+		} else {
+			buzam = facade.createBuzam(buzamX, buzamY, Resources.BUZAM_SPRITESET);
+		}
+
+		facade.addBuzam(world, buzam);
+	}
+
+}
@@ -1,6 +1,9 @@
 package jumpingalien.part3.internal;
 
 import java.awt.Color;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import jumpingalien.common.gui.AlienGameScreen;
 import jumpingalien.common.gui.AlienInputMode;
@@ -18,6 +21,7 @@ import jumpingalien.part2.internal.HealthPainter;
 import jumpingalien.part2.internal.ImmunityPainter;
 import jumpingalien.part2.internal.Part2WorldInfoProvider;
 import jumpingalien.part2.internal.TilePainter;
+import ogp.framework.gui.FixedTimestepSimulation;
 import ogp.framework.gui.InputMode;
 import ogp.framework.gui.MessagePainter;
 import ogp.framework.gui.Screen;
@@ -30,6 +34,12 @@ public class Part3GameScreen extends
 
 	private Camera mainCamera, zoomCamera;
 
+	/**
+	 * The lock of the frames without a simulation, in which the game is updated
+	 * on the same thread as it is painted.
+	 */
+	private final Lock frameLock = new ReentrantLock();
+
 	public Part3GameScreen(AlienScreenPanel<JumpingAlienGamePart3> panel,
 			JumpingAlienGUIPart3 gui,
 			Screen<JumpingAlienGamePart3, JumpingAlienGUIPart3> previous) {
@@ -109,6 +119,12 @@ public class Part3GameScreen extends
 							.map(ar -> String.format("(%d,%d), (%d, %d)",
 									ar[0], ar[1], ar[2], ar[3]))
 							.orElse("Unknown"));
+			debugInfoPainter.addInfo("Slowest program", () -> getGame()
+					.getSlowestProgramStats().map(stats -> stats.toString())
+					.orElse("None"));
+			debugInfoPainter.addInfo("Last advance", () -> getGame()
+					.getLastAdvanceStats().map(stats -> stats.toString())
+					.orElse("None"));
 			addPainter(debugInfoPainter);
 		}
 
@@ -165,8 +181,25 @@ public class Part3GameScreen extends
 		addPainter(new GameOverPainter(this, getGame().getWorldInfoProvider()));
 	}
 
+	/**
+	 * The debug overlays with the info, the tile types and the strings of the
+	 * objects read the world itself instead of its snapshot.
+	 */
+	@Override
+	public boolean readsSnapshotOnly() {
+		return !getOptions().getDebugShowInfo()
+				&& !getOptions().getDebugShowTileTypes()
+				&& !getOptions().getDebugShowObjectString();
+	}
+
 	@Override
 	public void updateState(double dt) {
+		Optional<FixedTimestepSimulation> simulation = getGUI().getSimulation();
+		getGame().beginFrame(
+				simulation.map(FixedTimestepSimulation::getInterpolationAlpha)
+						.orElse(1.0),
+				simulation.map(FixedTimestepSimulation::getLock).orElse(
+						frameLock));
 		positionMainCamera();
 		positionZoomCamera();
 
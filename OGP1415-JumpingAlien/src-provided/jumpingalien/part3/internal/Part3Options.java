@@ -1,6 +1,7 @@
 package jumpingalien.part3.internal;
 
 import jumpingalien.part2.internal.Part2Options;
+import ogp.framework.gui.FramePacer;
 
 public class Part3Options extends Part2Options {
 	
@@ -29,6 +30,15 @@ public class Part3Options extends Part2Options {
 			case "-timescale":
 				options.setTimescale(Double.parseDouble(args[++i]));
 				break;
+			case "-simulationrate":
+				options.setSimulationRate(Double.parseDouble(args[++i]));
+				break;
+			case "-perflog":
+				options.setPerformanceLogFile(args[++i]);
+				break;
+			case "-framepacing":
+				options.setFramePacing(FramePacer.Mode.parse(args[++i]));
+				break;
 			case "-debuginfo":
 				options.setDebugShowInfo(Boolean.parseBoolean(args[++i]));
 				break;
@@ -0,0 +1,194 @@
+package jumpingalien.part3.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCache;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.part3.programs.ParseOutcome;
+
+/**
+ * Watches program files, and reloads the programs that were parsed from a file when it
+ * changes. The file is parsed and checked on the thread of the watcher, the running
+ * programs take the new code at their next step. A file that does not parse or is not
+ * well-formed is reported, and the programs keep their code.
+ */
+public class ProgramWatcher {
+
+	/**
+	 * The time to wait for more changes after a change, because an editor can write a
+	 * file in several steps.
+	 */
+	private static final long SETTLE_MILLIS = 100;
+
+	public ProgramWatcher(IFacadePart3 facade, BiConsumer<String, Program> onReload) {
+		this.facade = facade;
+		this.onReload = onReload;
+	}
+
+	private final IFacadePart3 facade;
+	private final BiConsumer<String, Program> onReload;
+
+	/**
+	 * The programs to reload, by the absolute path of their file.
+	 */
+	private final Map<Path, List<Program>> programs = new ConcurrentHashMap<Path, List<Program>>();
+	/**
+	 * The file names as they were given, by absolute path.
+	 */
+	private final Map<Path, String> filenames = new ConcurrentHashMap<Path, String>();
+	/**
+	 * The hash of the text that was parsed last, by absolute path.
+	 */
+	private final Map<Path, String> hashes = new ConcurrentHashMap<Path, String>();
+	private final Set<Path> directories = new HashSet<Path>();
+
+	private WatchService watchService;
+	private Thread thread;
+
+	/**
+	 * Reloads the given program when the file with the given name changes. The watcher
+	 * is started when the first program is registered.
+	 */
+	public synchronized void watch(String filename, Program program) {
+		Path path = Paths.get(filename).toAbsolutePath().normalize();
+		if (!Files.isRegularFile(path)) {
+			return;
+		}
+		programs.computeIfAbsent(path, p -> new CopyOnWriteArrayList<Program>()).add(program);
+		filenames.putIfAbsent(path, filename);
+		hashes.computeIfAbsent(path, this::hashFile);
+		try {
+			if (watchService == null) {
+				start();
+			}
+			if (directories.add(path.getParent())) {
+				path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_CREATE);
+			}
+		} catch (IOException e) {
+			System.out.println("Can not watch '" + filename + "': " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Forgets the programs that were registered, for instance because the level was
+	 * restarted. The files are still watched.
+	 */
+	public void clear() {
+		for (List<Program> list : programs.values()) {
+			list.clear();
+		}
+	}
+
+	private void start() throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		thread = new Thread(this::run, "Program watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching.
+	 */
+	public synchronized void close() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				// the thread stops anyway
+			}
+			thread.interrupt();
+		}
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				Set<Path> changed = new HashSet<Path>();
+				while (key != null) {
+					Path directory = (Path) key.watchable();
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.context() instanceof Path) {
+							changed.add(directory.resolve((Path) event.context()));
+						}
+					}
+					key.reset();
+					key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				for (Path path : changed) {
+					if (programs.containsKey(path)) {
+						reload(path);
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// the watcher was closed
+		}
+	}
+
+	/**
+	 * Returns the hash of the text in the file with the given path, or null if it can
+	 * not be read.
+	 */
+	private String hashFile(Path path) {
+		try {
+			return ProgramCache.hash(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void reload(Path path) {
+		String filename = filenames.get(path);
+		try {
+			String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			String hash = ProgramCache.hash(text);
+			if (hash.equals(hashes.put(path, hash))) {
+				return;
+			}
+			ParseOutcome<?> outcome = facade.parse(text);
+			if (!outcome.isSuccess()) {
+				System.out.println("Errors while reloading program '" + filename + "':");
+				for (String error : (List<String>) outcome.getResult()) {
+					System.out.println(error);
+				}
+				return;
+			}
+			Program program = (Program) outcome.getResult();
+			if (!facade.isWellFormed(program)) {
+				System.out.println("Program '" + filename + "' is not well-formed, not reloaded");
+				return;
+			}
+			List<Program> running = programs.get(path);
+			for (Program runningProgram : running) {
+				runningProgram.reload(program);
+			}
+			onReload.accept(filename, program);
+			System.out.println("Reloaded program '" + filename + "' for " + running.size() + " game objects");
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Error while reloading '" + filename + "': " + e.getMessage());
+		}
+	}
+
+}
@@ -7,6 +7,7 @@ import ogp.framework.command.Command;
 import ogp.framework.command.CommandQueue;
 import ogp.framework.messages.Message;
 import ogp.framework.messages.MessageBox;
+import ogp.framework.util.PhaseMetrics;
 
 public abstract class Game {
 	
@@ -24,6 +25,20 @@ public abstract class Game {
 	
 	private final MessageBox messageBox = new MessageBox();
 
+	private PhaseMetrics metrics = new PhaseMetrics();
+
+	/**
+	 * Returns the histograms to which the game adds the duration of the phases
+	 * of its updates.
+	 */
+	public PhaseMetrics getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(PhaseMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public abstract void load();
 	
 	public abstract void start();
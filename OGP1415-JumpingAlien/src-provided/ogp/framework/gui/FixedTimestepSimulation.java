@@ -0,0 +1,144 @@
+package ogp.framework.gui;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ogp.framework.game.Game;
+
+/**
+ * Updates a game with a fixed time step on a separate thread, so painting the
+ * screen does not have to wait for a slow update, and updates are not made
+ * longer by a slow paint.
+ *
+ * The game is only updated while holding the lock of this simulation; a
+ * screen must hold the same lock while it reads the game, unless it only reads
+ * snapshots of the game. The lock is fair: the simulation and a screen that
+ * both ask for it again right after releasing it take turns, so neither can
+ * starve the other.
+ *
+ * If the updates can not keep up, at most MAX_STEPS_BEHIND steps are caught up
+ * and the rest of the time is dropped: the game then runs slower than real
+ * time, but with the same time step.
+ */
+public class FixedTimestepSimulation {
+
+	private static final int MAX_STEPS_BEHIND = 5;
+
+	/**
+	 * The name of the phase of the game metrics with the duration of a step.
+	 */
+	public static final String STEP = "simulation.step";
+
+	private final Game game;
+	private final double timestepS;
+	private final long timestepNS;
+
+	private final Lock lock = new ReentrantLock(true);
+
+	private volatile boolean stopped = false;
+	private Thread thread;
+
+	/**
+	 * The time at which the last step was due; a step advances the game up to
+	 * the time at which it is due.
+	 */
+	private volatile long lastStepNS;
+	private volatile long nbSteps, nbDroppedSteps;
+
+	public FixedTimestepSimulation(Game game, double stepsPerSecond) {
+		if (!(stepsPerSecond > 0)) {
+			throw new IllegalArgumentException("Invalid simulation rate: "
+					+ stepsPerSecond);
+		}
+		this.game = game;
+		this.timestepS = 1.0 / stepsPerSecond;
+		this.timestepNS = (long) (1e9 / stepsPerSecond);
+	}
+
+	public Lock getLock() {
+		return lock;
+	}
+
+	public double getTimestep() {
+		return timestepS;
+	}
+
+	public long getNbSteps() {
+		return nbSteps;
+	}
+
+	/**
+	 * Returns the number of steps that were not taken because the updates were
+	 * too slow.
+	 */
+	public long getNbDroppedSteps() {
+		return nbDroppedSteps;
+	}
+
+	/**
+	 * Returns how far the real time is between the last step and the next one,
+	 * between 0 and 1. A painter can use this to interpolate between the last two
+	 * states of the game.
+	 */
+	public double getInterpolationAlpha() {
+		double alpha = (now() - lastStepNS) / (double) timestepNS;
+		return Math.max(0, Math.min(1, alpha));
+	}
+
+	public synchronized void start() {
+		if (thread != null) {
+			throw new IllegalStateException("Simulation already started");
+		}
+		thread = new Thread(this::run, "Simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public synchronized void stop() {
+		stopped = true;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private void run() {
+		long nextStepNS = now();
+		lastStepNS = nextStepNS;
+		while (!stopped) {
+			int nbStepsTaken = 0;
+			while (now() - nextStepNS >= 0 && nbStepsTaken < MAX_STEPS_BEHIND) {
+				lock.lock();
+				try {
+					long stepStartNS = now();
+					game.update(timestepS);
+					game.getMetrics().record(STEP, now() - stepStartNS);
+				} finally {
+					lock.unlock();
+				}
+				lastStepNS = nextStepNS;
+				nextStepNS += timestepNS;
+				nbSteps++;
+				nbStepsTaken++;
+			}
+			long behindNS = now() - nextStepNS;
+			if (behindNS >= 0) {
+				long dropped = behindNS / timestepNS + 1;
+				nbDroppedSteps += dropped;
+				nextStepNS += dropped * timestepNS;
+			}
+
+			long sleepNS = nextStepNS - now();
+			if (sleepNS > 0) {
+				try {
+					Thread.sleep(sleepNS / 1_000_000, (int) (sleepNS % 1_000_000));
+				} catch (InterruptedException e) {
+				}
+			}
+		}
+	}
+
+	private long now() {
+		return System.nanoTime();
+	}
+
+}
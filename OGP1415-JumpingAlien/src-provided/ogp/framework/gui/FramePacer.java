@@ -0,0 +1,148 @@
+package ogp.framework.gui;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import ogp.framework.util.PhaseMetrics;
+
+/**
+ * Waits until the deadline of the next frame. Most of the wait is spent
+ * sleeping; the last part, which is about as long as a sleep may take longer
+ * than asked, is spent yielding, so the frame starts on time without keeping a
+ * core busy for the whole frame.
+ *
+ * How much longer a sleep takes than asked is measured after every sleep, and
+ * its average and deviation decide how long to yield, like a retransmission
+ * timeout.
+ *
+ * Not thread safe.
+ */
+public class FramePacer {
+
+	public enum Mode {
+		/**
+		 * The next frame starts one frame time after the start of the current
+		 * one, or at once if the current one took longer.
+		 */
+		ADAPTIVE,
+		/**
+		 * The frames start on a fixed grid of frame times, like vsync: a frame
+		 * that takes too long makes the next one wait for the next slot.
+		 */
+		FIXED,
+		/**
+		 * The next frame starts at once.
+		 */
+		UNCAPPED;
+
+		public static Mode parse(String value) {
+			return valueOf(value.toUpperCase());
+		}
+	}
+
+	public static final String OVERSHOOT = "pacer.overshoot";
+
+	private static final double INITIAL_OVERSHOOT_NS = 1_000_000;
+	private static final double SMOOTHING = 0.125;
+	private static final long MIN_SPIN_NS = 50_000;
+
+	private final Mode mode;
+	private final long frameTimeNS;
+	private final PhaseMetrics metrics;
+	private final LongSupplier clock;
+	private final LongConsumer sleeper;
+
+	private double avgOvershootNS = INITIAL_OVERSHOOT_NS;
+	private double devOvershootNS = INITIAL_OVERSHOOT_NS / 2;
+
+	private long nextSlotNS;
+
+	public FramePacer(Mode mode, double targetFPS, PhaseMetrics metrics) {
+		this(mode, targetFPS, metrics, System::nanoTime, LockSupport::parkNanos);
+	}
+
+	/**
+	 * @param clock
+	 *            returns the current time in nanoseconds
+	 * @param sleeper
+	 *            sleeps for about the given number of nanoseconds
+	 */
+	FramePacer(Mode mode, double targetFPS, PhaseMetrics metrics,
+			LongSupplier clock, LongConsumer sleeper) {
+		this.mode = mode;
+		this.frameTimeNS = (long) (1e9 / targetFPS);
+		this.metrics = metrics;
+		this.clock = clock;
+		this.sleeper = sleeper;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the time before the deadline at which the pacer stops sleeping and
+	 * starts yielding.
+	 */
+	public long getSpinTime() {
+		return Math.max(MIN_SPIN_NS,
+				(long) (avgOvershootNS + 2 * devOvershootNS));
+	}
+
+	/**
+	 * Waits until the next frame, given the time at which the current frame
+	 * started.
+	 */
+	public void waitForNextFrame(long frameStartNS) {
+		switch (mode) {
+		case ADAPTIVE:
+			waitUntil(frameStartNS + frameTimeNS);
+			break;
+		case FIXED:
+			if (nextSlotNS == 0) {
+				nextSlotNS = frameStartNS;
+			}
+			nextSlotNS += frameTimeNS;
+			long late = now() - nextSlotNS;
+			if (late > 0) {
+				// skip the slots that were missed
+				nextSlotNS += (late / frameTimeNS + 1) * frameTimeNS;
+			}
+			waitUntil(nextSlotNS);
+			break;
+		case UNCAPPED:
+			Thread.yield();
+			break;
+		}
+	}
+
+	private void waitUntil(long deadlineNS) {
+		long sleepNS = deadlineNS - now() - getSpinTime();
+		if (sleepNS > 0) {
+			long before = now();
+			sleeper.accept(sleepNS);
+			long overshootNS = now() - before - sleepNS;
+			if (overshootNS >= 0) {
+				// parkNanos can return early, for instance when interrupted
+				updateOvershoot(overshootNS);
+				metrics.record(OVERSHOOT, overshootNS);
+			}
+		}
+		// other threads can still run while waiting the last part
+		while (now() - deadlineNS < 0) {
+			Thread.yield();
+		}
+	}
+
+	private void updateOvershoot(long overshootNS) {
+		double error = overshootNS - avgOvershootNS;
+		avgOvershootNS += SMOOTHING * error;
+		devOvershootNS += SMOOTHING * (Math.abs(error) - devOvershootNS);
+	}
+
+	private long now() {
+		return clock.getAsLong();
+	}
+
+}
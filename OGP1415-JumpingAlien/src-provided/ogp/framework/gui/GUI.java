@@ -6,6 +6,8 @@ import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.util.Optional;
 
 import ogp.framework.game.Game;
 
@@ -25,7 +27,9 @@ public abstract class GUI<TGame extends Game> {
 		this.options = options;
 		this.frame = new Frame();
 		this.screenPanel = createScreenPanel();
-		this.fpsCounter = new TimeKeeper(options.getTargetFPS());
+		this.fpsCounter = new TimeKeeper(options.getTargetFPS(),
+				options.getFramePacing());
+		game.setMetrics(fpsCounter.getMetrics());
 	}
 
 	public GUIOptions getGUIOptions() {
@@ -51,6 +55,17 @@ public abstract class GUI<TGame extends Game> {
 	public void start() {
 		game.load();
 
+		if (options.getPerformanceLogFile() != null) {
+			try {
+				fpsCounter.setHistogramListener(new PerformanceLog(options
+						.getPerformanceLogFile()));
+			} catch (IOException e) {
+				System.out.println("Can not write performance log '"
+						+ options.getPerformanceLogFile() + "': "
+						+ e.getMessage());
+			}
+		}
+
 		setupFrame();
 		GraphicsDevice device = GraphicsEnvironment
 				.getLocalGraphicsEnvironment().getDefaultScreenDevice();
@@ -69,7 +84,23 @@ public abstract class GUI<TGame extends Game> {
 
 	private volatile boolean stopped = false;
 
+	private FixedTimestepSimulation simulation;
+
+	/**
+	 * Returns the simulation that updates the game on its own thread, if the
+	 * options ask for one and the game has been started.
+	 */
+	public Optional<FixedTimestepSimulation> getSimulation() {
+		return Optional.ofNullable(simulation);
+	}
+
 	private void gameLoop() {
+		if (options.getSimulationRate() > 0) {
+			simulation = new FixedTimestepSimulation(game,
+					options.getSimulationRate());
+			renderLoop();
+			return;
+		}
 
 		fpsCounter.start();
 
@@ -87,10 +118,34 @@ public abstract class GUI<TGame extends Game> {
 
 			fpsCounter.framePainted();
 
-			try {
-				Thread.sleep(fpsCounter.getTimeToSleep());
-			} catch (InterruptedException e) {
-			}
+			fpsCounter.waitForNextFrame();
+
+			fpsCounter.frameDone();
+		}
+	}
+
+	/**
+	 * Paints the screen while the simulation updates the game on its own
+	 * thread.
+	 */
+	private void renderLoop() {
+
+		fpsCounter.start();
+		simulation.start();
+
+		while (!stopped) {
+
+			double dt = fpsCounter.getTimeToAdvance();
+
+			fpsCounter.gameUpdated();
+
+			if (stopped) break;
+
+			screenPanel.update(dt, simulation.getLock());
+
+			fpsCounter.framePainted();
+
+			fpsCounter.waitForNextFrame();
 
 			fpsCounter.frameDone();
 		}
@@ -98,6 +153,9 @@ public abstract class GUI<TGame extends Game> {
 
 	public void exit() {
 		stopped = true;
+		if (simulation != null) {
+			simulation.stop();
+		}
 		frame.setVisible(false);
 		frame.dispose();
 		System.exit(0);
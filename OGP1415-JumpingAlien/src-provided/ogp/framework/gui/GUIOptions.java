@@ -5,4 +5,27 @@ public interface GUIOptions {
 	public double getTargetFPS();
 	
 	public boolean isFullScreenEnabled();
+
+	/**
+	 * Returns the number of game updates per second on a separate simulation
+	 * thread, or 0 to update the game once per frame, before painting it.
+	 */
+	public default double getSimulationRate() {
+		return 0;
+	}
+
+	/**
+	 * Returns the name of the file to write the performance statistics to, or
+	 * null to not write them.
+	 */
+	public default String getPerformanceLogFile() {
+		return null;
+	}
+
+	/**
+	 * Returns how the start of a frame is timed.
+	 */
+	public default FramePacer.Mode getFramePacing() {
+		return FramePacer.Mode.ADAPTIVE;
+	}
 }
@@ -0,0 +1,46 @@
+package ogp.framework.gui;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.function.Consumer;
+
+/**
+ * Writes the performance statistics to a file every time they are summarized: as
+ * CSV, one line per phase, or as JSON, one object per line, if the name of the
+ * file ends with ".json".
+ */
+public class PerformanceLog implements Consumer<PerformanceStats>, AutoCloseable {
+
+	private final PrintWriter writer;
+	private final boolean json;
+	private final long startNS = System.nanoTime();
+
+	public PerformanceLog(String filename) throws IOException {
+		this.writer = new PrintWriter(new FileWriter(filename));
+		this.json = filename.endsWith(".json");
+		if (!json) {
+			writer.println(PerformanceStats.CSV_HEADER);
+			writer.flush();
+		}
+	}
+
+	@Override
+	public void accept(PerformanceStats stats) {
+		double time = (System.nanoTime() - startNS) / 1e9;
+		if (json) {
+			writer.println(stats.toJSON(time));
+		} else {
+			for (String line : stats.toCSV(time)) {
+				writer.println(line);
+			}
+		}
+		writer.flush();
+	}
+
+	@Override
+	public void close() {
+		writer.close();
+	}
+
+}
@@ -1,27 +1,91 @@
 package ogp.framework.gui;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import ogp.framework.util.LatencyHistogram;
+
 public class PerformanceStats {
 
+	public static final String CSV_HEADER = "time,phase,count,mean,p50,p99,p99.9,max";
+
 	public final double avgGameUpdateTime;
 	public final double avgPaintTime;
-	
+
 	public final double fps;
-	
+
 	public final double targetFPS;
-	
+
 	public final double avgSleepTime;
-	
+
+	/**
+	 * The percentiles of every phase during the last histogram period, in
+	 * milliseconds.
+	 */
+	public final List<LatencyHistogram.Summary> phases;
+
 	public PerformanceStats(double game, double paint, double sleep, double fps, double targetFPS) {
+		this(game, paint, sleep, fps, targetFPS, Collections.emptyList());
+	}
+
+	public PerformanceStats(double game, double paint, double sleep, double fps, double targetFPS,
+			List<LatencyHistogram.Summary> phases) {
 		this.avgGameUpdateTime = game;
 		this.avgPaintTime = paint;
 		this.avgSleepTime = sleep;
 		this.fps = fps;
 		this.targetFPS = targetFPS;
+		this.phases = Collections.unmodifiableList(new ArrayList<LatencyHistogram.Summary>(phases));
+	}
+
+	public Optional<LatencyHistogram.Summary> getPhase(String name) {
+		return phases.stream().filter(phase -> phase.name.equals(name)).findFirst();
 	}
-	
+
 	@Override
 	public String toString() {
-		return String.format("Game update %3.0fms | Paint %3.0fms | Sleep %3.0fms | FPS %.1f (target %.0f)", avgGameUpdateTime, avgPaintTime, avgSleepTime, fps, targetFPS);
+		String result = String.format("Game update %3.0fms | Paint %3.0fms | Sleep %3.0fms | FPS %.1f (target %.0f)", avgGameUpdateTime, avgPaintTime, avgSleepTime, fps, targetFPS);
+		Optional<LatencyHistogram.Summary> frame = getPhase(TimeKeeper.FRAME);
+		if (frame.isPresent()) {
+			result += String.format(" | Frame p99 %.1fms max %.1fms", frame.get().p99, frame.get().max);
+		}
+		return result;
 	}
-	
+
+	/**
+	 * Returns a line in the format of CSV_HEADER for every phase, at the given time
+	 * in seconds.
+	 */
+	public List<String> toCSV(double time) {
+		List<String> lines = new ArrayList<String>();
+		for (LatencyHistogram.Summary phase : phases) {
+			lines.add(String.format(Locale.ROOT, "%.3f,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f", time,
+					phase.name, phase.count, phase.mean, phase.p50, phase.p99, phase.p999, phase.max));
+		}
+		return lines;
+	}
+
+	/**
+	 * Returns these statistics as a JSON object on one line, at the given time in
+	 * seconds.
+	 */
+	public String toJSON(double time) {
+		StringBuilder result = new StringBuilder();
+		result.append(String.format(Locale.ROOT, "{\"time\":%.3f,\"fps\":%.2f,\"targetFPS\":%.0f,\"phases\":{",
+				time, fps, targetFPS));
+		for (int i = 0; i < phases.size(); i++) {
+			LatencyHistogram.Summary phase = phases.get(i);
+			if (i > 0) {
+				result.append(',');
+			}
+			result.append(String.format(Locale.ROOT,
+					"\"%s\":{\"count\":%d,\"mean\":%.3f,\"p50\":%.3f,\"p99\":%.3f,\"p99.9\":%.3f,\"max\":%.3f}",
+					phase.name, phase.count, phase.mean, phase.p50, phase.p99, phase.p999, phase.max));
+		}
+		return result.append("}}").toString();
+	}
+
 }
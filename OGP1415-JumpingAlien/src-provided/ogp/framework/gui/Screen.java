@@ -122,4 +122,13 @@ public abstract class Screen<TGame extends Game, TGUI extends GUI<TGame>> {
 	}
 
 	public abstract void updateState(double dt);
+
+	/**
+	 * Returns whether this screen only reads state of the game that stays valid
+	 * while the game is updated on another thread, such as a snapshot, so that it
+	 * can be updated and painted without holding the lock of the simulation.
+	 */
+	public boolean readsSnapshotOnly() {
+		return false;
+	}
 }
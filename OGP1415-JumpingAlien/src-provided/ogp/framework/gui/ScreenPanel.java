@@ -5,6 +5,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Toolkit;
 import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.Lock;
 
 import ogp.framework.game.Game;
 
@@ -49,6 +50,25 @@ public abstract class ScreenPanel<T extends Game> extends Canvas {
 		paintCurrentScreen();
 	}
 
+	/**
+	 * Updates and paints the current screen while the game is updated on another
+	 * thread while holding the given lock. The lock is only taken if the screen
+	 * reads more than snapshots of the game.
+	 */
+	public void update(double dt, Lock gameLock) {
+		Screen<T, ? extends GUI<T>> screen = currentScreen;
+		if (screen != null && screen.readsSnapshotOnly()) {
+			update(dt);
+		} else {
+			gameLock.lock();
+			try {
+				update(dt);
+			} finally {
+				gameLock.unlock();
+			}
+		}
+	}
+
 	protected void updateCurrentScreen(double dt) {
 		if (currentScreen != null) {
 			currentScreen.updateState(dt);
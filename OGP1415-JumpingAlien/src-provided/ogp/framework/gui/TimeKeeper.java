@@ -1,14 +1,29 @@
 package ogp.framework.gui;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import ogp.framework.util.LatencyHistogram;
+import ogp.framework.util.PhaseMetrics;
+
 /**
- * This class keeps track of how many time has passed between two frames, and
- * counts the framerate.
+ * This class keeps track of how many time has passed between two frames,
+ * counts the framerate, and decides when the next frame starts. The duration of
+ * every phase of a frame is also kept in a histogram, together with the phases
+ * the game records in getMetrics(), and summarized every HISTOGRAM_PERIOD_NS.
  * 
- * Not thread safe.
+ * Not thread safe, except for getMetrics().
  */
 public class TimeKeeper {
 
 	private static final int UPDATE_PERIOD_NS = 500_000_000; // nanoseconds
+	private static final long HISTOGRAM_PERIOD_NS = 5_000_000_000L;
+
+	public static final String UPDATE = "update";
+	public static final String PAINT = "paint";
+	public static final String SLEEP = "sleep";
+	public static final String FRAME = "frame";
 
 	private long lastGameUpdateNS, lastFramePaintedNS, lastFrameDoneNS;
 	private long totalTimeSinceLastUpdateNS;
@@ -22,8 +37,20 @@ public class TimeKeeper {
 	private long totalPaintTimeNS, totalGameUpdateTimeNS, totalSleepTimeNS;
 	private double avgGameUpdateTimeMS, avgPaintTimeMS, avgSleepTimeMS;
 
+	private final PhaseMetrics metrics = new PhaseMetrics();
+	private long totalTimeSinceLastHistogramNS;
+	private List<LatencyHistogram.Summary> phases = Collections.emptyList();
+	private Consumer<PerformanceStats> histogramListener;
+
+	private final FramePacer pacer;
+
 	public TimeKeeper(double targetFPS) {
+		this(targetFPS, FramePacer.Mode.ADAPTIVE);
+	}
+
+	public TimeKeeper(double targetFPS, FramePacer.Mode pacing) {
 		this.targetFPS = targetFPS;
+		this.pacer = new FramePacer(pacing, targetFPS, metrics);
 	}
 
 	public void start() {
@@ -37,37 +64,60 @@ public class TimeKeeper {
 
 	public PerformanceStats getStats() {
 		return new PerformanceStats(avgGameUpdateTimeMS, avgPaintTimeMS,
-				avgSleepTimeMS, fps, targetFPS);
+				avgSleepTimeMS, fps, targetFPS, phases);
 	}
 
-	public long getTimeToSleep() {
-		double targetTimeBetweenFramesNS = 1e9 / targetFPS;
-		double elapsedForFrameNS = lastFramePaintedNS - lastFrameDoneNS;
-		// return 95% of theoretical time to sleep; we may not have accounted for some time
-		long sleepTimeMS = (long) (0.95 * (targetTimeBetweenFramesNS - elapsedForFrameNS) / 1e6);
+	/**
+	 * Returns the histograms of the phases of a frame, to which other phases can
+	 * be added from any thread.
+	 */
+	public PhaseMetrics getMetrics() {
+		return metrics;
+	}
 
-		if (sleepTimeMS <= 0) {
-			return 5; // give some time to other threads anyway
-		} else {
-			return sleepTimeMS;
-		}
+	/**
+	 * Sets the listener that gets the statistics every time the histograms are
+	 * summarized.
+	 */
+	public void setHistogramListener(Consumer<PerformanceStats> listener) {
+		this.histogramListener = listener;
+	}
+
+	/**
+	 * Waits until the next frame should start, as decided by the frame pacer.
+	 */
+	public void waitForNextFrame() {
+		pacer.waitForNextFrame(lastFrameDoneNS);
 	}
 
 	public void gameUpdated() {
 		lastGameUpdateNS = now();
 		totalGameUpdateTimeNS += lastGameUpdateNS - lastFrameDoneNS;
+		metrics.record(UPDATE, lastGameUpdateNS - lastFrameDoneNS);
 	}
 
 	public void framePainted() {
 		lastFramePaintedNS = now();
 		totalPaintTimeNS += lastFramePaintedNS - lastGameUpdateNS;
+		metrics.record(PAINT, lastFramePaintedNS - lastGameUpdateNS);
 	}
 
 	public void frameDone() {
 		long now = now();
 		totalSleepTimeNS += now - lastFramePaintedNS;
+		metrics.record(SLEEP, now - lastFramePaintedNS);
 		long elapsedSinceLastFrameNS = now - lastFrameDoneNS;
 		lastFrameDoneNS = now;
+		metrics.record(FRAME, elapsedSinceLastFrameNS);
+
+		totalTimeSinceLastHistogramNS += elapsedSinceLastFrameNS;
+		if (totalTimeSinceLastHistogramNS >= HISTOGRAM_PERIOD_NS) {
+			phases = metrics.summarizeAndReset();
+			totalTimeSinceLastHistogramNS = 0;
+			if (histogramListener != null) {
+				histogramListener.accept(getStats());
+			}
+		}
 
 		totalTimeSinceLastUpdateNS += elapsedSinceLastFrameNS;
 		timeToAdvanceS = elapsedSinceLastFrameNS / 1e9;
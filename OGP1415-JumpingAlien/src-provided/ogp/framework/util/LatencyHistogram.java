@@ -0,0 +1,176 @@
+package ogp.framework.util;
+
+/**
+ * A histogram of durations in nanoseconds with a bounded relative error, like an
+ * HDR histogram: every power of two is split in SUB_BUCKETS buckets, so a
+ * percentile is off by less than 1 / SUB_BUCKETS (about 3%). Recording a value
+ * does not allocate.
+ *
+ * Not thread safe.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Values below this are counted exactly.
+	 */
+	private static final long EXACT_LIMIT = 2 * SUB_BUCKETS;
+
+	/**
+	 * Values of 2^MAX_EXPONENT nanoseconds, about 73 minutes, and more are all
+	 * counted in the last bucket.
+	 */
+	private static final int MAX_EXPONENT = 42;
+
+	/**
+	 * The index of the last bucket, after the buckets of the powers of two from
+	 * EXACT_LIMIT up to 2^MAX_EXPONENT.
+	 */
+	private static final int OVERFLOW_INDEX = (int) EXACT_LIMIT
+			+ (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final long[] counts = new long[OVERFLOW_INDEX + 1];
+
+	private long count;
+	private long total;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts[getIndex(nanos)]++;
+		count++;
+		total += nanos;
+		min = Math.min(min, nanos);
+		max = Math.max(max, nanos);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) total / count;
+	}
+
+	/**
+	 * Returns the smallest recorded value such that the given percentage of the
+	 * values is at most that value, rounded up to the bucket it is in.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, getRank(percentile));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				// the last bucket also holds every larger value
+				return (i == OVERFLOW_INDEX) ? max : Math.min(max,
+						getUpperBound(i));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the number of values that the given percentage of the values is,
+	 * rounded up. A product that is an integer up to the rounding error of the
+	 * percentage, such as 99.9% of 1000, is not rounded up.
+	 */
+	private long getRank(double percentile) {
+		double exactRank = percentile * count / 100;
+		long rank = Math.round(exactRank);
+		if (Math.abs(exactRank - rank) > 1e-9 * Math.max(1, exactRank)) {
+			rank = (long) Math.ceil(exactRank);
+		}
+		return rank;
+	}
+
+	public void reset() {
+		java.util.Arrays.fill(counts, 0);
+		count = total = max = 0;
+		min = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the percentiles of this histogram under the given name, in
+	 * milliseconds.
+	 */
+	public Summary summarize(String name) {
+		return new Summary(name, count, getMean() / 1e6,
+				getValueAtPercentile(50) / 1e6, getValueAtPercentile(99) / 1e6,
+				getValueAtPercentile(99.9) / 1e6, max / 1e6);
+	}
+
+	private static int getIndex(long value) {
+		if (value < EXACT_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent >= MAX_EXPONENT) {
+			return OVERFLOW_INDEX;
+		}
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS))
+				- SUB_BUCKETS;
+		return (int) EXACT_LIMIT + (exponent - SUB_BUCKET_BITS - 1)
+				* SUB_BUCKETS + subBucket;
+	}
+
+	private static long getUpperBound(int index) {
+		if (index < EXACT_LIMIT) {
+			return index;
+		}
+		int exponent = (index - (int) EXACT_LIMIT) / SUB_BUCKETS
+				+ SUB_BUCKET_BITS + 1;
+		int subBucket = (index - (int) EXACT_LIMIT) % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * The percentiles of a histogram, in milliseconds.
+	 */
+	public static class Summary {
+
+		public final String name;
+		public final long count;
+		public final double mean;
+		public final double p50;
+		public final double p99;
+		public final double p999;
+		public final double max;
+
+		public Summary(String name, long count, double mean, double p50,
+				double p99, double p999, double max) {
+			this.name = name;
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p99 = p99;
+			this.p999 = p999;
+			this.max = max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%s p50 %.1fms p99 %.1fms p99.9 %.1fms max %.1fms", name,
+					p50, p99, p999, max);
+		}
+	}
+
+}
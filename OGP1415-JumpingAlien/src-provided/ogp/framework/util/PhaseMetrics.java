@@ -0,0 +1,45 @@
+package ogp.framework.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A histogram of durations per named phase, for instance the phases of a frame or
+ * of an update of the game. The phases are summarized in the order in which they
+ * were first recorded.
+ *
+ * This class is thread-safe: the game can record its phases on another thread
+ * than the one that paints the screen.
+ */
+public class PhaseMetrics {
+
+	private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<String, LatencyHistogram>();
+
+	public synchronized void record(String phase, long nanos) {
+		LatencyHistogram histogram = histograms.get(phase);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			histograms.put(phase, histogram);
+		}
+		histogram.record(nanos);
+	}
+
+	/**
+	 * Returns the summary of every phase that was recorded since the last call,
+	 * and starts over.
+	 */
+	public synchronized List<LatencyHistogram.Summary> summarizeAndReset() {
+		List<LatencyHistogram.Summary> result = new ArrayList<LatencyHistogram.Summary>(
+				histograms.size());
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			if (entry.getValue().getCount() > 0) {
+				result.add(entry.getValue().summarize(entry.getKey()));
+				entry.getValue().reset();
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,53 @@
+package jumpingalien.model;
+
+/**
+ * The time spent in every phase of one advance of a world, in nanoseconds, and how
+ * the game objects were advanced.
+ * The collisions of a game object are handled while it moves, so they are part of
+ * the time to move the game objects. The time to compute the dt of the groups and
+ * to move them is summed over all groups, so it is more than the time that passed
+ * if the groups were advanced in parallel.
+ * @author Pieter Van den Berghe, Ward Romanus
+ */
+public class AdvanceStats {
+
+	/** The time to execute the programs of the game objects. */
+	public final long programTime;
+	/** The time to split the game objects in groups that can not interact. */
+	public final long groupingTime;
+	/** The time to compute the smallest dt of every group. */
+	public final long dtTime;
+	/** The time to move the game objects, including their collisions. */
+	public final long moveTime;
+	/** The time to position the visible window. */
+	public final long windowTime;
+	/** The time to take the snapshot of the world. */
+	public final long snapshotTime;
+	/** The time of the whole advance. */
+	public final long totalTime;
+
+	public final int nbGroups;
+	public final int nbSubSteps;
+
+	public AdvanceStats(long programTime, long groupingTime, long dtTime, long moveTime,
+			long windowTime, long snapshotTime, long totalTime, int nbGroups, int nbSubSteps) {
+		this.programTime = programTime;
+		this.groupingTime = groupingTime;
+		this.dtTime = dtTime;
+		this.moveTime = moveTime;
+		this.windowTime = windowTime;
+		this.snapshotTime = snapshotTime;
+		this.totalTime = totalTime;
+		this.nbGroups = nbGroups;
+		this.nbSubSteps = nbSubSteps;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Programs %.3fms | Grouping %.3fms (%d groups) | Dt %.3fms | "
+				+ "Move %.3fms (%d steps) | Window %.3fms | Snapshot %.3fms | Total %.3fms",
+				programTime / 1e6, groupingTime / 1e6, nbGroups, dtTime / 1e6, moveTime / 1e6,
+				nbSubSteps, windowTime / 1e6, snapshotTime / 1e6, totalTime / 1e6);
+	}
+
+}
@@ -161,10 +161,12 @@ public class Buzam extends Mazub {
 	 * 			the newly calculated vertical position
 	 * @param dt
 	 * 			the time interval
-	 * @effect the list allSlimesSharksMazub contains all the slimes, sharks and the Mazub alien in the world
-	 * 			| allSlimesSharksMazub = world.getSlimes()
-	 * 			| allSlimesSharksMazub.addAll(world.getSharks())
-	 * 			| allSlimesSharksMazub.add(world.getAlien())
+	 * @effect the list allSlimesSharksMazub contains all the slimes and sharks near the new position
+	 * 			and the Mazub alien in the world
+	 * 			| allSlimesSharksMazub = world.getSlimesNear(this, newXPos, newYPos)
+	 * 			| allSlimesSharksMazub.addAll(world.getSharksNear(this, newXPos, newYPos))
+	 * 			| if (world.getAlien() != null)
+	 * 			| 	then allSlimesSharksMazub.add(world.getAlien())
 	 * @effect calculates the new position of buzam taking all the slimes and sharks
 	 * 			in the world into account
 	 * 			| boolean onGameObject = false;
@@ -199,9 +201,12 @@ public class Buzam extends Mazub {
 	 */
 	@Raw
 	private double[] collidingSlimesSharksMazub(double newXPos, double newYPos, double dt) {
-		List<GameObject> allSlimesSharksMazub =  new ArrayList<GameObject>(this.getWorld().getSlimes());
-		allSlimesSharksMazub.addAll(this.getWorld().getSharks());
-		allSlimesSharksMazub.add(this.getWorld().getAlien());
+		List<GameObject> allSlimesSharksMazub =  new ArrayList<GameObject>(this.getWorld().getSlimesNear(this, newXPos, newYPos));
+		allSlimesSharksMazub.addAll(this.getWorld().getSharksNear(this, newXPos, newYPos));
+		Mazub alien = this.getWorld().getAlien();
+		if (alien != null) {
+			allSlimesSharksMazub.add(alien);
+		}
 		boolean onGameObject = false;
 		double[] newPos = {newXPos, newYPos};
 		for(GameObject other: allSlimesSharksMazub) {
@@ -3,6 +3,7 @@ package jumpingalien.model;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
+import jumpingalien.model.exceptions.IllegalDtException;
 import jumpingalien.model.exceptions.IllegalPixelException;
 import jumpingalien.model.exceptions.IllegalPositionException;
 import jumpingalien.model.exceptions.IllegalSpriteException;
@@ -114,12 +115,18 @@ public abstract class GameObject extends SuperObject {
 	 * 			| x >= 0
 	 * @post the position is set
 	 * 			| this.xPos = x
+	 * @effect if the object is in a world, its cells in the grid of the world are updated
+	 * 			| if (getWorld() != null)
+	 * 			| 	then getWorld().relocate(this)
 	 */
 	@Raw 
 	protected void setXPos(double x) {
 		assert  ! Double.isNaN(x);
 		assert x >= 0;
 		this.xPos = x;
+		if (this.getWorld() != null) {
+			this.getWorld().relocate(this);
+		}
 	}	
 	/**
 	 * the vertical position of the object
@@ -142,12 +149,18 @@ public abstract class GameObject extends SuperObject {
 	 * 			| y >= 0
 	 * @post the position is set
 	 * 			| this.yPos = y
+	 * @effect if the object is in a world, its cells in the grid of the world are updated
+	 * 			| if (getWorld() != null)
+	 * 			| 	then getWorld().relocate(this)
 	 */	
 	@Raw 
 	protected void setYPos(double y) {
 		assert  ! Double.isNaN(y);
 		assert y >= 0;
 		this.yPos = y;
+		if (this.getWorld() != null) {
+			this.getWorld().relocate(this);
+		}
 	}	
 	/**
 	 * the orientation of the object
@@ -1035,108 +1048,145 @@ public abstract class GameObject extends SuperObject {
 		}		
 		return Math.min(dtX,dtY);
 	}	
+
+	/**
+	 * Computes how far (in pixels) the object can move at most in the given time,
+	 * with its current speed and acceleration
+	 * @param dt
+	 * @return the largest distance in the horizontal or vertical direction
+	 * 			| 100 * dt * Math.max(Math.abs(this.getXSpeed()) + Math.abs(this.getXAcc()) * dt,
+	 * 			|	Math.abs(this.getYSpeed()) + Math.abs(this.getYAcc()) * dt)
+	 */
+	@Raw
+	protected double computeReach(double dt) {
+		double reachX = Math.abs(this.getXSpeed()) + Math.abs(this.getXAcc()) * dt;
+		double reachY = Math.abs(this.getYSpeed()) + Math.abs(this.getYAcc()) * dt;
+		return 100 * dt * Math.max(reachX, reachY);
+	}
 	
 	/**
-	 * Returns the tiles where the object overlaps left with
-	 * @param XPos
+	 * Returns the column of the tiles where the object overlaps left with
+	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param YPos
-	 * 		the vertical position of the object
-	 * @return the pixelpositions of the left corners are used the find the tile positions so
-	 *			the positions of the tiles where the object overlaps left with are returned
-	 * 		| let
-	 * 		| 	int pixelLeft = (int) XPos
-	 * 		| 	int pixelTop = (int) YPos + this.getSize()[1]
-	 * 		| 	int pixelBottom = (int) YPos
-	 * 		| in the positions of the tiles where the object overlaps left with are returned
-	 * 		| 	return getWorld().getTilePositionsIn(pixelLeft,pixelBottom + 2, pixelLeft, pixelTop - 1)
+	 * @return the tile coordinate of the left pixels of the object
+	 * 		| getWorld().getTileCoordinate((int) xPos)
 	 */
 	@Raw
-	protected int[][] getTilesLeft(double XPos, double YPos) {
-		int pixelLeft = (int) XPos;
-		int pixelTop = (int) YPos + this.getSize()[1];
-		int pixelBottom = (int) YPos;
-
-		return getWorld().getTilePositionsIn(pixelLeft,pixelBottom + 2, pixelLeft, pixelTop - 1);
+	protected int getLeftTileColumn(double xPos) {
+		return this.getWorld().getTileCoordinate((int) xPos);
 	}
 	/**
-	 * Returns the tiles where the object overlaps right with
-	 * @param XPos
+	 * Returns the column of the tiles where the object overlaps right with
+	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param YPos
+	 * @return the tile coordinate of the right pixels of the object
+	 * 		| getWorld().getTileCoordinate((int) xPos + getXDim() - 1)
+	 */
+	@Raw
+	protected int getRightTileColumn(double xPos) {
+		return this.getWorld().getTileCoordinate((int) xPos + this.getXDim() - 1);
+	}
+	/**
+	 * Returns the row of the tiles where the object overlaps above with
+	 * @param yPos
 	 * 		the vertical position of the object
-	 * @return the pixelpositions of the right corners are used the find the tile positions so
-	 *			the positions of the tiles where the object overlaps right with are returned
-	 * 		| let	 
-	 * 		| 	int pixelRight = (int) XPos + this.getSize()[0]
-	 * 		|	int pixelTop = (int) YPos + this.getSize()[1]
-	 * 		|	int pixelBottom = (int) YPos
-	 * 		| in
-	 * 		| 	return getWorld().getTilePositionsIn(pixelRight -1, pixelBottom + 2, pixelRight -1, pixelTop - 1)
+	 * @return the tile coordinate of the upper pixels of the object
+	 * 		| getWorld().getTileCoordinate((int) yPos + getYDim())
 	 */
 	@Raw
-	protected int[][] getTilesRight(double XPos, double YPos) {
-		int pixelRight = (int) XPos + this.getSize()[0];
-		int pixelTop = (int) YPos + this.getSize()[1];
-		int pixelBottom = (int) YPos;
-		return getWorld().getTilePositionsIn(pixelRight -1, pixelBottom + 2, pixelRight -1, pixelTop - 1);		
+	protected int getTopTileRow(double yPos) {
+		return this.getWorld().getTileCoordinate((int) yPos + this.getYDim());
 	}
 	/**
-	 * Returns the tiles where the object overlaps above with
+	 * Returns the row of the tiles where the object overlaps under with
+	 * @param yPos
+	 * 		the vertical position of the object
+	 * @return the tile coordinate of the under pixels of the object
+	 * 		| getWorld().getTileCoordinate((int) yPos)
+	 */
+	@Raw
+	protected int getBottomTileRow(double yPos) {
+		return this.getWorld().getTileCoordinate((int) yPos);
+	}
+	/**
+	 * returns true if one of the tiles where the object overlaps left with has the given feature
 	 * @param xPos
 	 * 		the horizontal position of the object
+	 * @param yPos
+	 * 		the vertical position of the object
+	 * @param feature
+	 * 		the feature to look for
+	 * @return the left pixels of the object, without the two lowest and the highest pixel,
+	 * 		are checked for the feature
+	 * 		| getWorld().hasTileWithFeatureIn((int) xPos, (int) yPos + 2, (int) xPos, (int) yPos + getYDim() - 1, feature)
+	 */
+	@Raw
+	private boolean hasFeatureLeft(double xPos, double yPos, int feature) {
+		int pixelLeft = (int) xPos;
+		int pixelBottom = (int) yPos;
+		return this.getWorld().hasTileWithFeatureIn(pixelLeft, pixelBottom + 2, 
+				pixelLeft, pixelBottom + this.getYDim() - 1, feature);
+	}
+	/**
+	 * returns true if one of the tiles where the object overlaps right with has the given feature
 	 * @param xPos
+	 * 		the horizontal position of the object
+	 * @param yPos
 	 * 		the vertical position of the object
-	 * @return the pixelpositions of the upper corners are used the find the tile positions so
-	 *			the positions of the tiles where the object overlaps above with are returned
-	 * 		| let	 
-	 * 		| 	int pixelLeft = (int)(xPos)
-	 * 		| 	int pixelTop = (int) yPos + this.getSize()[1]
-	 * 		| 	int pixelRight = pixelLeft + this.getSize()[0]
+	 * @param feature
+	 * 		the feature to look for
+	 * @return the right pixels of the object, without the two lowest and the highest pixel,
+	 * 		are checked for the feature
+	 * 		| let
+	 * 		| 	int pixelRight = (int) xPos + getXDim() - 1
 	 * 		| in
-	 * 		| 	return getWorld().getTilePositionsIn(pixelLeft,pixelTop, pixelRight-1, pixelTop)
+	 * 		| 	getWorld().hasTileWithFeatureIn(pixelRight, (int) yPos + 2, pixelRight, (int) yPos + getYDim() - 1, feature)
 	 */
 	@Raw
-	protected int[][] getTilesAbove(double xPos,double yPos) {
-		int pixelLeft = (int)(xPos);
-		int pixelTop = (int)(yPos) + this.getSize()[1];
-		int pixelRight = pixelLeft + this.getSize()[0];
-		return getWorld().getTilePositionsIn(pixelLeft,pixelTop, pixelRight-1, pixelTop);
+	private boolean hasFeatureRight(double xPos, double yPos, int feature) {
+		int pixelRight = (int) xPos + this.getXDim() - 1;
+		int pixelBottom = (int) yPos;
+		return this.getWorld().hasTileWithFeatureIn(pixelRight, pixelBottom + 2, 
+				pixelRight, pixelBottom + this.getYDim() - 1, feature);
 	}
 	/**
-	 * Returns the tiles where the object overlaps under with
+	 * returns true if one of the tiles where the object overlaps above with has the given feature
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
-	 * @return the pixelpositions of the under corners are used the find the tile positions so
-	 *			the positions of the tiles where the object overlaps under with are returned
-	 * 		| let	 
-	 * 		| 	int pixelLeft = (int)(xPos)
-	 * 		| 	int pixelBottom = (int) yPos 
-	 * 		| 	int pixelRight = pixelLeft + this.getSize()[0]
+	 * @param feature
+	 * 		the feature to look for
+	 * @return the upper pixels of the object are checked for the feature
+	 * 		| let
+	 * 		| 	int pixelTop = (int) yPos + getYDim()
 	 * 		| in
-	 * 		| 	return getWorld().getTilePositionsIn(pixelLeft,pixelBottom, pixelRight -1, pixelBottom)
+	 * 		| 	getWorld().hasTileWithFeatureIn((int) xPos, pixelTop, (int) xPos + getXDim() - 1, pixelTop, feature)
 	 */
 	@Raw
-	protected int[][] getTilesUnder(double xPos, double yPos) {
-		int pixelLeft = (int)(xPos);
-		int pixelBottom = (int)(yPos);
-		int pixelRight = pixelLeft + this.getSize()[0];
-		return getWorld().getTilePositionsIn(pixelLeft,pixelBottom, pixelRight -1, pixelBottom);
+	private boolean hasFeatureAbove(double xPos, double yPos, int feature) {
+		int pixelLeft = (int) xPos;
+		int pixelTop = (int) yPos + this.getYDim();
+		return this.getWorld().hasTileWithFeatureIn(pixelLeft, pixelTop, 
+				pixelLeft + this.getXDim() - 1, pixelTop, feature);
 	}
 	/**
-	 * returns the tiles from the region of the object with a certain position
+	 * returns true if one of the tiles where the object overlaps under with has the given feature
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
-	 * @return the position of the tiles in the region of the object
-	 * 		| this.getWorld().getTilePositionsIn((int)xPos,(int) yPos,(int) xPos + this.getXDim(),(int) yPos + this.getYDim())
+	 * @param feature
+	 * 		the feature to look for
+	 * @return the under pixels of the object are checked for the feature
+	 * 		| getWorld().hasTileWithFeatureIn((int) xPos, (int) yPos, (int) xPos + getXDim() - 1, (int) yPos, feature)
 	 */
 	@Raw
-	protected int[][] getTiles(double xPos, double yPos) {
-		return this.getWorld().getTilePositionsIn((int)xPos,(int) yPos,(int) xPos + this.getXDim(),(int) yPos + this.getYDim());
+	private boolean hasFeatureUnder(double xPos, double yPos, int feature) {
+		int pixelLeft = (int) xPos;
+		int pixelBottom = (int) yPos;
+		return this.getWorld().hasTileWithFeatureIn(pixelLeft, pixelBottom, 
+				pixelLeft + this.getXDim() - 1, pixelBottom, feature);
 	}
 	/**
 	 * returns true if the gameObject is on a floor
@@ -1144,215 +1194,109 @@ public abstract class GameObject extends SuperObject {
 	 * 			the horizontal position
 	 * @param yPos
 	 * 			the vertical position
-	 * @return true if on floor
-	 * 			| let
-	 * 			| 	int[][] tileUnder getTilesUnder(xPos, yPos)
-	 * 			| in
-	 * 			| for each int[] tile: tileUnder:
-	 * 			| 	try
-	 * 			|		if world.getGeologicalFeature(world.getBottomLeftPixelOfTile(tile[0], tile[1])[0],
-	 * 			|			world.getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1)
-	 * 			| 		then return true
-	 * 			|	catch (IllegalPixelException e)
-	 * 			|		then assert false
-	 * 			| return false
+	 * @return true if one of the tiles overlapping under the object is impassable terrain
+	 * 			| hasFeatureUnder(xPos, yPos, 1)
 	 */
 	@Raw
 	protected boolean onFloor(double xPos, double yPos) {
-		int[][] tilesUnder = this.getTilesUnder(xPos, yPos);
-		for (int[] tile: tilesUnder) {
-			try {
-				if (this.getWorld().getGeologicalFeature(this.getWorld().getBottomLeftPixelOfTile(tile[0], tile[1])[0],
-							this.getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) {
-					return true;
-				}
-			} catch (IllegalPixelException e) {
-				assert false;
-			}
-		}
-		return false;
+		return this.hasFeatureUnder(xPos, yPos, 1);
 	}
 	/**
 	 * Checks or the object is against the roof
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
 	 * @return true if one of the tiles overlapping above the object is impassable terrain
 	 * 		otherwise false
-	 * 		| let
-	 * 		| 	int[][] tilesAbove = this.getTilesAbove(xPos, yPos)
-	 * 		|in
-	 * 		| 	for each tile in tilesAbove {
-	 * 		| 		try {
-	 * 		| 			if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-	 * 		| 						getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) 
-	 * 		| 				then return true
-	 * 		| 		} catch (IllegalPixelException e) {
-	 * 		| 			assert false;
-	 * 		| 		}
-	 * 		| 	}
-	 * 		|	 return false
+	 * 		| hasFeatureAbove(xPos, yPos, 1)
 	 */
 	@Raw
 	protected boolean isAgainstRoof(double xPos, double yPos) {
-		int[][] tilesAbove = this.getTilesAbove(xPos, yPos);
-		for (int[] tile: tilesAbove) {
-			try {
-				if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-							getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) {
-					return true;
-				}
-			} catch (IllegalPixelException e) {
-				assert false;
-			}
-		}
-		return false;
+		return this.hasFeatureAbove(xPos, yPos, 1);
 	}
 	/**
 	 * Checks or the object is against the left wall
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
 	 * @return true if one of the tiles overlapping left of the object is impassable terrain
 	 * 		otherwise false
-	 * 		| int[][] tilesLeft = this.getTilesLeft(xPos, yPos);
-	 * 		| for each tile in tilesLeft
-	 * 		| 	try {
-	 * 		| 		if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-	 * 		| 					getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1)
-	 * 		| 			then return true
-	 * 		| 	} catch (IllegalPixelException e) {
-	 * 		| 		assert false;
-	 * 		| 	}
-	 * 		| }
-	 * 		| return false;
+	 * 		| hasFeatureLeft(xPos, yPos, 1)
 	 */
 	@Raw
 	protected boolean againstLeftWall(double xPos, double yPos) {
-		int[][] tilesLeft = this.getTilesLeft(xPos, yPos);
-		for (int[] tile: tilesLeft) {
-			try {
-				if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-							getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) {
-					return true;
-				}
-			} catch (IllegalPixelException e) {
-				assert false;
-			}
-		}
-		return false;
+		return this.hasFeatureLeft(xPos, yPos, 1);
 	}
 	/**
 	 * Checks or the object is against the right wall
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
 	 * @return true if one of the tiles overlapping right of the object is impassable terrain
 	 * 		otherwise false
-	 * 		| int[][] tilesLeft = this.getTilesRight(xPos, yPos);
-	 * 		| for each tile in tilesRight:
-	 * 		| 	try
-	 * 		| 		if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0], tile[1])[0],
-	 * 		| 					getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) 
-	 * 		| 			then return true
-	 * 		| 	catch (IllegalPixelException e) 
-	 * 		| 		then assert false
-	 * 		| return false
+	 * 		| hasFeatureRight(xPos, yPos, 1)
 	 */
 	@Raw
 	protected boolean againstRightWall(double xPos, double yPos) {
-		int[][] tilesRight = this.getTilesRight(xPos, yPos);
-		for (int[] tile: tilesRight) {
-			try {
-				if (getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0], tile[1])[0],
-							getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == 1) {
-					return true;
-				}
-			} catch (IllegalPixelException e) {
-				assert false;
-			}
-		}
-		return false;
+		return this.hasFeatureRight(xPos, yPos, 1);
 	}
 	/**
 	 * Checks or the object is fully overlapping with tiles with the given feature
 	 * @param xPos
 	 * 		the horizontal position of the object
-	 * @param xPos
+	 * @param yPos
 	 * 		the vertical position of the object
 	 * @param feature
 	 * 		the number of the feature of the tiles where the object should fully overlap with
 	 * @pre feature should be smaller than or equal to 3, because there are no feature with numbers
 	 * 		higher than three
 	 * 		| feature <= 3
-	 * @return true if the object fully overlaps with tiles with the given feature, otherwise false
-	 * 		| int[][][] tileFamilies = new int[][][] {this.getTilesRight(xPos,yPos),this.getTilesAbove(xPos, yPos),this.getTilesLeft(xPos, yPos)};
-	 * 		| for (int[][] tiles: tileFamilies) 
-	 * 		| 	for each tile in tiles:
-	 * 		| 		try 
-	 * 		| 			if (this.getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-	 * 		| 					getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) != feature)
-	 * 		| 				the return false
-	 * 		| 		catch (IllegalPixelException e) 
-	 * 		| 			assert false
-	 * 		| return true
+	 * @return true if the tiles overlapping right, above and left of the object all have
+	 * 		the given feature, otherwise false
+	 * 		| let
+	 * 		| 	int pixelLeft = (int) xPos
+	 * 		| 	int pixelRight = (int) xPos + getXDim() - 1
+	 * 		| 	int pixelBottom = (int) yPos
+	 * 		| 	int pixelTop = (int) yPos + getYDim()
+	 * 		| in
+	 * 		| 	getWorld().hasOnlyTilesWithFeatureIn(pixelRight, pixelBottom + 2, pixelRight, pixelTop - 1, feature)
+	 * 		| 	&& getWorld().hasOnlyTilesWithFeatureIn(pixelLeft, pixelTop, pixelRight, pixelTop, feature)
+	 * 		| 	&& getWorld().hasOnlyTilesWithFeatureIn(pixelLeft, pixelBottom + 2, pixelLeft, pixelTop - 1, feature)
 	 */
 	@Raw
 	protected boolean isFullyInFeature(double xPos, double yPos,int feature) {
 		assert(feature <= 3);
-		int[][][] tileFamilies = new int[][][] {this.getTilesRight(xPos,yPos),this.getTilesAbove(xPos, yPos),this.getTilesLeft(xPos, yPos)};
-		for (int[][] tiles: tileFamilies) {	
-			for (int[] tile: tiles) {
-				try {
-					if (this.getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-							getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) != feature) {
-						return false;
-					}
-				} catch (IllegalPixelException e) {
-					assert false;
-				}
-			}
-		}
-		return true;
+		int pixelLeft = (int) xPos;
+		int pixelRight = pixelLeft + this.getXDim() - 1;
+		int pixelBottom = (int) yPos;
+		int pixelTop = pixelBottom + this.getYDim();
+		return this.getWorld().hasOnlyTilesWithFeatureIn(pixelRight, pixelBottom + 2, pixelRight, pixelTop - 1, feature)
+				&& this.getWorld().hasOnlyTilesWithFeatureIn(pixelLeft, pixelTop, pixelRight, pixelTop, feature)
+				&& this.getWorld().hasOnlyTilesWithFeatureIn(pixelLeft, pixelBottom + 2, pixelLeft, pixelTop - 1, feature);
 	}
 	/**
 	 * Checks or the object is in contact with a given feature
 	 * @param xPos
+	 * 		the horizontal position of the object
+	 * @param yPos
 	 * 		the vertical position of the object
 	 * @param feature
 	 * 		the number of the feature of the tiles where the object should fully overlap with
 	 * @pre feature should be smaller than or equal to 3, because there are no feature with numbers
 	 * 		higher than three
 	 * 		| feature <= 3
-	 * @return true if the object is in contact with tiles with the given feature, otherwise false
-	 * 		| int[][] tiles = this.getTiles(xPos,yPos);
-	 * 		| for each tile in tiles) {
-	 * 		| 	try 
-	 * 		| 		if (this.getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-	 * 		| 				getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == feature) 
-	 * 		| 			then return true
-	 * 		|  catch (IllegalPixelException e) 
-	 * 		| 		assert false
-	 * 		| return false;
+	 * @return true if one of the tiles in the region of the object has the given feature, otherwise false
+	 * 		| getWorld().hasTileWithFeatureIn((int) xPos, (int) yPos, 
+	 * 		|		(int) xPos + getXDim(), (int) yPos + getYDim(), feature)
 	 */
 	@Raw
 	protected boolean isInContactWithFeature(double xPos, double yPos,int feature) {
 		assert(feature <= 3);
-		int[][] tiles = this.getTiles(xPos,yPos);
-		for (int[] tile: tiles) {
-			try {
-				if (this.getWorld().getGeologicalFeature(getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[0],
-						getWorld().getBottomLeftPixelOfTile(tile[0],tile[1])[1]) == feature) {
-					return true;
-				}
-			} catch (IllegalPixelException e) {
-				assert false;
-			}
-		}	
-		return false;
+		return this.getWorld().hasTileWithFeatureIn((int) xPos, (int) yPos, 
+				(int) xPos + this.getXDim(), (int) yPos + this.getYDim(), feature);
 	}	
 	/**
 	 * Return the current sprite image for the given object.
@@ -1754,5 +1698,13 @@ public abstract class GameObject extends SuperObject {
 	 * the game object starts moving to the left
 	 */
 	public abstract void startMoveLeft();
+	/**
+	 * advances the time of the game object with the given dt
+	 * @param dt
+	 * 			a small time interval
+	 * @throws IllegalDtException
+	 * 			the given dt is not valid
+	 */
+	public abstract void advanceTime(double dt) throws IllegalDtException;
 	
 }
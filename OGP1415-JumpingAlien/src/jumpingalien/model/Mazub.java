@@ -596,8 +596,8 @@ public class Mazub extends GameObject {
 	 * 			the newly calculated horizontal position
 	 * @param newYPos
 	 * 			the newly calculated vertical position
-	 * @effect every living plant is checked
-	 * 			| for each other(plant) in world.getPlants():
+	 * @effect every living plant near the new position is checked
+	 * 			| for each other(plant) in world.getPlantsNear(this, newXPos, newYPos):
 	 * 			| 	if ( !  other.isDying())
 	 * 			| 		let 
 	 * 			|			double x1 = newXPos
@@ -620,7 +620,7 @@ public class Mazub extends GameObject {
 	 */
 	@Raw
 	protected void collidingPlants(double newXPos, double newYPos) {
-		for (Plant other: this.getWorld().getPlants()) {
+		for (Plant other: this.getWorld().getPlantsNear(this, newXPos, newYPos)) {
 			if( ! other.isDying()) {
 				double x1 = newXPos;
 				double xDim1 = this.getXDim();
@@ -653,9 +653,10 @@ public class Mazub extends GameObject {
 	 * 			the newly calculated vertical position
 	 * @param dt
 	 * 			the time interval
-	 * @effect the list allSlimesSharksBuzam contains all the slimes, sharks and eventually buzam in the world
-	 * 			| allSlimesSharksBuzam = world.getSlimes()
-	 * 			| allSlimesSharksBuzam.addAll(world.getSharks())
+	 * @effect the list allSlimesSharksBuzam contains all the slimes and sharks near the new position
+	 * 			and eventually buzam
+	 * 			| allSlimesSharksBuzam = world.getSlimesNear(this, newXPos, newYPos)
+	 * 			| allSlimesSharksBuzam.addAll(world.getSharksNear(this, newXPos, newYPos))
 	 * 			| if (this.getWorld().getBuzam() != null) 
 	 *			|	the allSlimesSharksBuzam.add(this.getWorld().getBuzam());
 	 * @effect calculates the new position of mazub taking all the slimes and sharks
@@ -688,10 +689,11 @@ public class Mazub extends GameObject {
 	 */
 	@Raw
 	private double[] collidingSlimesSharksBuzam(double newXPos, double newYPos, double dt) {
-		List<GameObject> allSlimesSharksBuzam =  new ArrayList<GameObject>(this.getWorld().getSlimes());		
-		allSlimesSharksBuzam.addAll(this.getWorld().getSharks());
-		if (this.getWorld().getBuzam() != null) {
-			allSlimesSharksBuzam.add(this.getWorld().getBuzam());
+		List<GameObject> allSlimesSharksBuzam =  new ArrayList<GameObject>(this.getWorld().getSlimesNear(this, newXPos, newYPos));		
+		allSlimesSharksBuzam.addAll(this.getWorld().getSharksNear(this, newXPos, newYPos));
+		Buzam buzam = this.getWorld().getBuzam();
+		if (buzam != null) {
+			allSlimesSharksBuzam.add(buzam);
 		}
 		boolean onGameObject = false;
 		double[] newPos = {newXPos, newYPos};
@@ -754,18 +756,18 @@ public class Mazub extends GameObject {
 	 * 			the newly calculated vertical position
 	 * @effect Mazubs stops moving if he walks into a left or a right wall
 	 * 			| if (getOrientation = Orientation.LEFT && againstLeftWall(newXPos, nexYPos)
-	 * 			| 	then newXPos = (getTilesLeft(newXPos, newYPos)[0][0] + 1) * world.getTileLength()
+	 * 			| 	then newXPos = (getLeftTileColumn(newXPos) + 1) * world.getTileLength()
 	 * 			| 		 stopMoving()
 	 * 			| if (getOrientation = Orientation.RIGHT && againstRightWall(newXPos, nexYPos)
-	 * 			| 	then newXPos = (getTilesRight(newXPos, newYPos)[0][0] + 1) * world.getTileLength()
+	 * 			| 	then newXPos = (getRightTileColumn(newXPos) + 1) * world.getTileLength()
 	 * 			| 		 stopMoving() 
 	 * @effect Mazub stops moving vertically if he's against a roof
 	 * 			| if isAgainstRoof(newXPos, newYPos)
-	 * 			| 	then newYPos = getTilesRight(newXPos, newYPos)[0][0] * world.getTileLength() - getTileSize()[0]
+	 * 			| 	then newYPos = getRightTileColumn(newXPos) * world.getTileLength() - getTileSize()[0]
 	 * 			| 		 setYSpeed(0)
 	 * @effect if Mazub reaches the floor in a fall, the fall is ended
 	 * 			| if (isFalling && onFloor(newXPos, nexYPos))
-	 * 			| 	then newYPos = getTilesUnder(newXPos, newYPos)[0][1] + 1 * world.getTileLength() - 1)
+	 * 			| 	then newYPos = getBottomTileRow(newYPos) + 1 * world.getTileLength() - 1)
 	 * 			|		 endFall()
 	 * @return the adapted horizontal and vertical position of Mazub
 	 * 			| {newPos[0], newPos[1]}
@@ -774,22 +776,22 @@ public class Mazub extends GameObject {
 	protected double[] checkSurroundings(double newXPos, double newYPos) {
 		
 		if (this.getOrientation() == Orientation.LEFT && againstLeftWall(newXPos,newYPos)) {
-			newXPos = (this.getTilesLeft(newXPos, newYPos)[0][0] + 1) * getWorld().getTileLength();
+			newXPos = (this.getLeftTileColumn(newXPos) + 1) * getWorld().getTileLength();
 			this.stopMoving();
 		}	
 
 		if (this.getOrientation() == Orientation.RIGHT && againstRightWall(newXPos,newYPos)) {
-			newXPos = (this.getTilesRight(newXPos, newYPos)[0][0]) * getWorld().getTileLength() - this.getSize()[0];
+			newXPos = (this.getRightTileColumn(newXPos)) * getWorld().getTileLength() - this.getXDim();
 			this.stopMoving();
 		}
 		
 		if (isAgainstRoof(newXPos,newYPos)) {
-			newYPos = (this.getTilesAbove(newXPos, newYPos)[0][1]) * getWorld().getTileLength() - this.getSize()[1] -1;
+			newYPos = this.getTopTileRow(newYPos) * getWorld().getTileLength() - this.getYDim() -1;
 			this.setYSpeed(0);
 		}
 		
 		if (this.isFalling() && this.onFloor(newXPos, newYPos)) {
-			newYPos = ((this.getTilesUnder(newXPos, newYPos)[0][1] +1) * getWorld().getTileLength() -1);
+			newYPos = ((this.getBottomTileRow(newYPos) +1) * getWorld().getTileLength() -1);
 			this.endFall();
 		}
 		
@@ -902,6 +904,7 @@ public class Mazub extends GameObject {
 	 * 		| 	double[] newPos = this.calculateNewPos(dt);
 	 * 		| in
 	 * 		| 	this.checkIfWithinBoundaries(newXPos, newYPos);
+	 * 		| 	if (getWorld() == null) then return
 	 * 		|   newPos = colliding(newXPos, newYPos, dt);
 	 * 		| 	newPos = checkSurroundings(newPos[0],newPos[1]);
 	 * 	  	| 	this.setXPos(newPos[0]);
@@ -916,6 +919,9 @@ public class Mazub extends GameObject {
 		double[] newPos = this.calculateNewPos(dt);
 	
 		this.checkIfWithinBoundaries(newPos[0],newPos[1]);
+		if (this.getWorld() == null) {
+			return;
+		}
 		newPos = colliding(newPos[0],newPos[1], dt);
 		newPos = checkSurroundings(newPos[0],newPos[1]);
 		
@@ -935,6 +941,8 @@ public class Mazub extends GameObject {
 	 * @effect
 	 * 		| if ( ! this.isDying()) {		
 	 * 		| 	this.changeTimeDependents(dt);
+	 * 		| 	if (this.getWorld() == null)
+	 * 		| 		return;
 	 *			
 	 * 		| 	if(this.getDuckShouldEnd()) {
 	 * 		| 		this.setDuckShouldEnd(false);
@@ -961,6 +969,9 @@ public class Mazub extends GameObject {
 			throw new IllegalDtException(dt);		
 		if ( ! this.isDying()) {		
 			this.changeTimeDependents(dt);
+			if (this.getWorld() == null) {
+				return;
+			}
 			
 			if (this.getDuckShouldEnd()) {
 				this.setDuckShouldEnd(false);
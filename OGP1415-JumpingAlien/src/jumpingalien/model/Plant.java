@@ -205,6 +205,7 @@ public class Plant extends GameObject {
 	 * @effect checks if the new position of the plant is within the game world and removes
 	 * 			the plant is this is not the case
 	 * 			| checkIfWithinBoundaries(newXPos, getYPos())
+	 * 			| if (getWorld() == null) then return
 	 * @effect updates the position of the plant
 	 * 			| setXPos(newXPos)
 	 * @effect changes the orientation if the time is right and updates
@@ -239,7 +240,10 @@ public class Plant extends GameObject {
 				newXPos = (this.getXPos() - this.getXSpeed() * 100 * dt);
 		}
 		
-		this.checkIfWithinBoundaries(newXPos, this.getYPos());		
+		this.checkIfWithinBoundaries(newXPos, this.getYPos());
+		if (this.getWorld() == null) {
+			return;
+		}
 		this.setXPos(newXPos);
 		
 		if (this.getProgram() == null && this.getTimeSameOrientation() > Plant.getTimeChangeOrientation()) {
@@ -4,11 +4,13 @@ import java.util.List;
 import java.util.Map;
 
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.VariableTable;
 import jumpingalien.model.program.expression.Addition;
 import jumpingalien.model.program.expression.AndBool;
 import jumpingalien.model.program.expression.BoolFalse;
 import jumpingalien.model.program.expression.BoolTrue;
 import jumpingalien.model.program.expression.Constant;
+import jumpingalien.model.program.expression.ConstantFolding;
 import jumpingalien.model.program.expression.DirectionExpression;
 import jumpingalien.model.program.expression.Division;
 import jumpingalien.model.program.expression.Equals;
@@ -69,10 +71,16 @@ import jumpingalien.part3.programs.SourceLocation;
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class ProgramFactory implements IProgramFactory<Expression<?>, Statement, Type, Program> {
 
+	/**
+	 * The slots of the variables of the program that is being parsed. Every variable
+	 * is resolved to its slot when the expression or statement that uses it is created.
+	 */
+	private VariableTable variables = new VariableTable();
+
 	@Override
 	public Expression<?> createReadVariable(String variableName,
 			Type variableType, SourceLocation sourceLocation) {
-		return new ReadVariable(variableName, variableType);
+		return new ReadVariable(variableName, variableType, variables.resolve(variableName, variableType));
 	}
 
 	@Override
@@ -111,33 +119,33 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Expression<Double> createAddition(Expression<?> left, Expression<?> right,
 			SourceLocation sourceLocation) {		
-		return new Addition((Expression<Double>) left, (Expression<Double>) right);
+		return ConstantFolding.fold(new Addition((Expression<Double>) left, (Expression<Double>) right));
 	}
 
 	@Override
 	public Expression<Double> createSubtraction(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new Subtraction(left, right);
+		return ConstantFolding.fold(new Subtraction(left, right));
 
 	}
 
 	@Override
 	public Expression<Double> createMultiplication(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new Multiplication(left, right);
+		return ConstantFolding.fold(new Multiplication(left, right));
 
 	}
 
 	@Override
 	public Expression<Double> createDivision(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new Division(left, right);
+		return ConstantFolding.fold(new Division(left, right));
 
 	}
 
 	@Override
 	public Expression<Double> createSqrt(Expression expr, SourceLocation sourceLocation) {
-		return new SqrtDouble(expr);
+		return ConstantFolding.fold(new SqrtDouble(expr));
 	}
 
 	@Override
@@ -149,54 +157,54 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Expression<Boolean> createAnd(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new AndBool(left, right);
+		return ConstantFolding.fold(new AndBool(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createOr(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new OrBool(left, right);
+		return ConstantFolding.fold(new OrBool(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createNot(Expression expr, SourceLocation sourceLocation) {
-		return new NotBool(expr);
+		return ConstantFolding.fold(new NotBool(expr));
 	}
 
 	@Override
 	public Expression<Boolean> createLessThan(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new LessThan(left, right);
+		return ConstantFolding.fold(new LessThan(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createLessThanOrEqualTo(Expression left,
 			Expression right, SourceLocation sourceLocation) {
-		return new LessEquals(left, right);
+		return ConstantFolding.fold(new LessEquals(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createGreaterThan(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new GreaterThan(left, right);
+		return ConstantFolding.fold(new GreaterThan(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createGreaterThanOrEqualTo(Expression left,
 			Expression right, SourceLocation sourceLocation) {
-		return new GreaterEquals(left, right);
+		return ConstantFolding.fold(new GreaterEquals(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createEquals(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new Equals(left, right);
+		return ConstantFolding.fold(new Equals(left, right));
 	}
 
 	@Override
 	public Expression<Boolean> createNotEquals(Expression left, Expression right,
 			SourceLocation sourceLocation) {
-		return new NotEquals(left, right);
+		return ConstantFolding.fold(new NotEquals(left, right));
 	}
 
 	@Override
@@ -319,7 +327,7 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Statement createAssignment(String variableName, Type variableType,
 			Expression<?> value, SourceLocation sourceLocation) {
-		return new Assignment(variableName, variableType, value);
+		return new Assignment(variableName, variableType, value, variables.resolve(variableName, variableType));
 	}
 
 	@Override
@@ -427,7 +435,9 @@ public class ProgramFactory implements IProgramFactory<Expression<?>, Statement,
 	@Override
 	public Program createProgram(Statement mainStatement,
 			Map<String, Type> globalVariables) {
-		return new Program(mainStatement, globalVariables);
+		Program program = new Program(mainStatement, globalVariables, variables);
+		variables = new VariableTable();
+		return program;
 	}
 
 
@@ -0,0 +1,141 @@
+package jumpingalien.model;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import jumpingalien.model.program.Program;
+
+/**
+ * A class that executes the programs of the game objects of a world.
+ * A program that is parked on a wait for longer than one advance of the world is
+ * put to sleep: it is not executed until the advance in which it has to continue.
+ * The sleeping programs are kept in a queue, ordered on the step in which they wake
+ * up, so a sleeping program costs nothing while the world advances.
+ * The steps are counted as the steps of a program without pending time, which are
+ * the same for every program that executes every advance of the world.
+ * @author Pieter Van den Berghe, Ward Romanus
+ *
+ * @invar every sleeping program is in the queue exactly once
+ */
+public class ProgramScheduler {
+
+	/**
+	 * the number of steps a program executes in the longest advance of a world
+	 */
+	private static final int MAX_NB_STEPS = Program.getNbSteps(0.2);
+
+	/**
+	 * the number of steps since the first advance
+	 */
+	private long clock = 0;
+	/**
+	 * the sleeping programs, ordered on the step in which they wake up
+	 */
+	private final PriorityQueue<Sleeper> queue = new PriorityQueue<Sleeper>(11, new Comparator<Sleeper>() {
+		@Override
+		public int compare(Sleeper first, Sleeper second) {
+			return Long.compare(first.wakeStep, second.wakeStep);
+		}
+	});
+	/**
+	 * the entry in the queue of every sleeping program
+	 */
+	private final Map<Program, Sleeper> sleepers = new IdentityHashMap<Program, Sleeper>();
+
+	/**
+	 * The bookkeeping of a sleeping program: the step in which it was put to sleep and
+	 * the step in which it wakes up.
+	 */
+	private static class Sleeper {
+
+		private Sleeper(Program program, long sleepStep, long wakeStep) {
+			this.program = program;
+			this.sleepStep = sleepStep;
+			this.wakeStep = wakeStep;
+		}
+
+		private final Program program;
+		private final long sleepStep;
+		private final long wakeStep;
+	}
+
+	/**
+	 * returns the number of programs that are sleeping
+	 */
+	public int getNbSleepingPrograms() {
+		return this.sleepers.size();
+	}
+
+	/**
+	 * returns true if the given program is sleeping
+	 */
+	public boolean isSleeping(Program program) {
+		return this.sleepers.containsKey(program);
+	}
+
+	/**
+	 * Executes the programs of the given game objects for the given time, in the order
+	 * of the given game objects. The programs that have to continue during this time
+	 * are woken up first, the programs that sleep during all of this time are skipped.
+	 * @param objects
+	 * 			the game objects of which the programs are executed
+	 * @param dt
+	 * 			the time to execute the programs for
+	 */
+	public void execute(Collection<GameObject> objects, double dt) {
+		int nbSteps = Program.getNbSteps(dt);
+		while ( ! this.queue.isEmpty() && this.queue.peek().wakeStep < this.clock + nbSteps) {
+			this.wake(this.queue.poll());
+		}
+		long clockAfter = this.clock + nbSteps;
+		for (GameObject object: objects) {
+			if (object != null && object.getProgram() != null) {
+				Program program = object.getProgram();
+				if (this.isSleeping(program) && program.hasPendingReload()) {
+					// the new code starts at once
+					Sleeper sleeper = this.sleepers.get(program);
+					this.queue.remove(sleeper);
+					this.wake(sleeper);
+				}
+				if ( ! this.isSleeping(program)) {
+					program.execute(dt);
+					if (this.canSleep(program)) {
+						this.sleep(program, clockAfter);
+					}
+				}
+			}
+		}
+		this.clock = clockAfter;
+	}
+
+	/**
+	 * returns true if the given program can skip whole advances of the world: it is
+	 * parked, not behind and its step budget does not limit any advance
+	 */
+	private boolean canSleep(Program program) {
+		return program.isRunning() && program.getNbParkedSteps() > 0
+				&& ! program.hasPendingTime() && program.getStepBudget() >= MAX_NB_STEPS;
+	}
+
+	/**
+	 * puts the given program to sleep after the given step, until its parked steps
+	 * have passed
+	 */
+	private void sleep(Program program, long step) {
+		Sleeper sleeper = new Sleeper(program, step, step + program.getNbParkedSteps());
+		this.queue.add(sleeper);
+		this.sleepers.put(program, sleeper);
+	}
+
+	/**
+	 * wakes up the program of the given sleeper: the steps it slept are passed
+	 */
+	private void wake(Sleeper sleeper) {
+		this.sleepers.remove(sleeper.program);
+		sleeper.program.skipParkedSteps(this.clock - sleeper.sleepStep);
+	}
+
+}
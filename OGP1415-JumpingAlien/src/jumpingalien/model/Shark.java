@@ -343,24 +343,24 @@ public class Shark extends GameObject {
 	 * 			the newly calculated vertical position
 	 * @effect if the shark touches a wall, it's movement is stopped and his position is adapted
 	 * 			| if (againstLeftWall(newXPos,newYPos) && getOrientation() == Orientation.LEFT)
-	 * 			| 	then newXPos = (getTilesLeft(newXPos,newYPos)[0][0] + 1) * world.getTileLength()
+	 * 			| 	then newXPos = (getLeftTileColumn(newXPos) + 1) * world.getTileLength()
 	 * 			| 		 stopMoving()
 	 * 			| if (againstRightWall(newXPos,newYPos) && this.getOrientation() == Orientation.RIGHT) 
-	 * 			| 	then newXPos = (getTilesRight(newXPos,newYPos)[0][0]) * world.getTileLength() - getSize()[0]
+	 * 			| 	then newXPos = (getRightTileColumn(newXPos)) * world.getTileLength() - getXDim()
 	 * 			| 		 stopMoving()
 	 * @effect if the shark touches a roof, its vertical speed is set to zero and its vertical position is adapted
 	 * 			| if (isAgainstRoof(newXPos,newYPos)) 
-	 * 			| 	then newYPos = (getTilesAbove(newXPos,newYPos)[0][1]) * world.getTileLength() - getSize()[1] - 1
+	 * 			| 	then newYPos = getTopTileRow(newYPos) * world.getTileLength() - getYDim() - 1
 	 * 			| 		 setYSpeed(0)
 	 * @effect if the shark is moving and not fully submerged in water, the horizontal movement is stopped
 	 * 			and the vertical position is adapted
 	 * 			| if (isMoving() && isInWater() && ( ! isFullyInFeature(newXPos, newYPos, 2)))
 	 * 			| 	then this.setYSpeed(0)
 	 * 			| 		 setYAcc(0)
-	 * 			| 		 newYPos = (getTilesAbove(newXPos,newYPos)[0][1]) * world.getTileLength() - getSize()[1] - 1
+	 * 			| 		 newYPos = getTopTileRow(newYPos) * world.getTileLength() - getYDim() - 1
 	 * @effect if a falling shark touches a floor, its fall is ended and the vertical position is adapted
 	 * 			| if (isFalling() && onFloor(newXPos,newYPos))
-	 * 			| 	then newYPos = ((getTilesUnder(newXPos,newYPos)[0][1] +1) * world.getTileLength() - 1)
+	 * 			| 	then newYPos = ((getBottomTileRow(newYPos) +1) * world.getTileLength() - 1)
 	 * 			| 		 endFall()
 	 * @effect if a falling shark is fully submerged in water, it's fall is ended
 	 * 			| if (this.isFalling() && this.isFullyInFeature(newXPos, newYPos, 2)) 
@@ -368,7 +368,7 @@ public class Shark extends GameObject {
 	 * @effect if a shark touches a floor, its vertical position is adapted and vertical acceleration and speed
 	 * 			are set to zero if the vertical acceleration is still negative
 	 * 			| if (onFloor(newXPos,newYPos))
-	 * 			| 	then newYPos = ((getTilesUnder(newXPos,newYPos)[0][1] + 1) * world.getTileLength() - 1)
+	 * 			| 	then newYPos = ((getBottomTileRow(newYPos) + 1) * world.getTileLength() - 1)
 	 * 			| 		 if (this.getYAcc() < 0 )
 	 * 			| 			then setYAcc(0)
 	 * 			| 				 setYSpeed(0)
@@ -378,31 +378,31 @@ public class Shark extends GameObject {
 	@Raw
 	private double[] checkSurroundings(double newXPos, double newYPos) {
 		if (againstLeftWall(newXPos,newYPos) && this.getOrientation() == Orientation.LEFT) {
-			newXPos = (this.getTilesLeft(newXPos,newYPos)[0][0] + 1) * this.getWorld().getTileLength();
+			newXPos = (this.getLeftTileColumn(newXPos) + 1) * this.getWorld().getTileLength();
 			this.stopMoving();
 		}
 		if (againstRightWall(newXPos,newYPos) && this.getOrientation() == Orientation.RIGHT) {
-			newXPos = (this.getTilesRight(newXPos,newYPos)[0][0]) * this.getWorld().getTileLength() - this.getSize()[0];
+			newXPos = (this.getRightTileColumn(newXPos)) * this.getWorld().getTileLength() - this.getXDim();
 			this.stopMoving();
 		}
 		if (isAgainstRoof(newXPos,newYPos)) {
-			newYPos = (this.getTilesAbove(newXPos,newYPos)[0][1]) * this.getWorld().getTileLength() - this.getSize()[1] - 1;
+			newYPos = this.getTopTileRow(newYPos) * this.getWorld().getTileLength() - this.getYDim() - 1;
 			this.setYSpeed(0);
 		}
 		if (this.isMoving() && this.isInWater() && ( ! this.isFullyInFeature(newXPos, newYPos, 2))) {
 			this.setYSpeed(0);
 			this.setYAcc(0);
-			newYPos = (this.getTilesAbove(newXPos,newYPos)[0][1]) * this.getWorld().getTileLength() - this.getSize()[1] - 1;
+			newYPos = this.getTopTileRow(newYPos) * this.getWorld().getTileLength() - this.getYDim() - 1;
 		}
 		if (this.isFalling() && this.onFloor(newXPos,newYPos)) {
-			newYPos = ((this.getTilesUnder(newXPos,newYPos)[0][1] + 1) * this.getWorld().getTileLength() - 1);
+			newYPos = ((this.getBottomTileRow(newYPos) + 1) * this.getWorld().getTileLength() - 1);
 			this.endFall();
 		}
 		if (this.isFalling() && this.isFullyInFeature(newXPos, newYPos, 2)) {
 			this.endFall();
 		}
 		if (this.onFloor(newXPos,newYPos)) {
-			newYPos = ((this.getTilesUnder(newXPos,newYPos)[0][1] + 1) * this.getWorld().getTileLength() - 1);
+			newYPos = ((this.getBottomTileRow(newYPos) + 1) * this.getWorld().getTileLength() - 1);
 			if (this.getYAcc() < 0 ) {
 				this.setYAcc(0);
 				this.setYSpeed(0);
@@ -492,6 +492,7 @@ public class Shark extends GameObject {
 	 * 			| 	double[] newPos =  this.calculateNewPos(dt);
 	 * 			| in
 	 * 			| 	checkIfWithinBoundaries(newPos[0], newPos[1])
+	 * 			| 	if (getWorld() == null) then return
 	 * 			| newPos = checkSurroundings(newPos[0], newPos[1])
 	 * 			| newPos = colliding(newPos[0],newPos[1], dt)
 	 * 			| setXPos(newPos[0])
@@ -517,6 +518,9 @@ public class Shark extends GameObject {
 		double[] newPos =  this.calculateNewPos(dt);
 		
 		this.checkIfWithinBoundaries(newPos[0], newPos[1]);
+		if (this.getWorld() == null) {
+			return;
+		}
 		
 		newPos = checkSurroundings(newPos[0], newPos[1]);
 		newPos = colliding(newPos[0],newPos[1], dt);
@@ -778,7 +782,7 @@ public class Shark extends GameObject {
 	 * 			a small time interval over which the time must be advanced
 	 * @effect 
 	 * 			| let 
-	 * 			| 	List<GameObject> allSlimesSharksMazubBuzam =  new ArrayList<GameObject>(this.getWorld().getSlimes())
+	 * 			| 	List<GameObject> allSlimesSharksMazubBuzam =  new ArrayList<GameObject>(world.getSlimesNear(this, newXPos, newYPos))
 	 * 			| 	boolean onGameObject = false
 	 * 			|	double[] newPos = {newXPos, newYPos}
 	 * 			| 	double xDim1 = this.getXDim()
@@ -788,8 +792,9 @@ public class Shark extends GameObject {
 	 * 			| 	double y2 = other.getYPos()
 	 * 			|	double yDim2 = other.getYDim()
 	 * 			| in
-	 * 			| allSlimesSharksMazubBuzam.addAll(world.getSharks())
-	 * 			| allSlimesSharksMazubBuzam.add(world.getAlien())
+	 * 			| allSlimesSharksMazubBuzam.addAll(world.getSharksNear(this, newXPos, newYPos))
+	 * 			| if (world.getAlien() != null)
+	 * 			| 	then allSlimesSharksMazubBuzam.add(world.getAlien())
 	 * 			| if (this.getWorld().getBuzam() != null) {
 	 * 			| 	then allSlimesSharksMazubBuzam.add(this.getWorld().getBuzam());
 	 * 			| for each GameObject other: allSlimesSharksMazubBuzam :
@@ -811,11 +816,15 @@ public class Shark extends GameObject {
 	 */
 	@Raw
 	public double[] colliding(double newXPos, double newYPos, double dt) {	
-		List<GameObject> allSlimesSharksMazubBuzam =  new ArrayList<GameObject>(this.getWorld().getSlimes());
-		allSlimesSharksMazubBuzam.addAll(this.getWorld().getSharks());
-		allSlimesSharksMazubBuzam.add(this.getWorld().getAlien());
-		if (this.getWorld().getBuzam() != null) {
-			allSlimesSharksMazubBuzam.add(this.getWorld().getBuzam());
+		List<GameObject> allSlimesSharksMazubBuzam =  new ArrayList<GameObject>(this.getWorld().getSlimesNear(this, newXPos, newYPos));
+		allSlimesSharksMazubBuzam.addAll(this.getWorld().getSharksNear(this, newXPos, newYPos));
+		Mazub alien = this.getWorld().getAlien();
+		if (alien != null) {
+			allSlimesSharksMazubBuzam.add(alien);
+		}
+		Buzam buzam = this.getWorld().getBuzam();
+		if (buzam != null) {
+			allSlimesSharksMazubBuzam.add(buzam);
 		}
 		boolean onGameObject = false;
 		double[] newPos = {newXPos, newYPos};
@@ -330,18 +330,18 @@ public class Slime extends GameObject {
 	 * 			the new vertical position
 	 * @effect if the Slime collides with a wall, it stops moving if not falling and the horizontal position is adapted
 	 * 			| if (getOrientation() == Orientation.LEFT && againstLeftWall(newXPos, newYPos))
-	 * 			| 	then newXPos = getTilesLeft(newXPos, newYPos)[0][0] * world.geTileLength() - getSize()[0]
+	 * 			| 	then newXPos = getLeftTileColumn(newXPos) * world.geTileLength() - getXDim()
 	 * 			| 		 stopMoving()
 	 *			| if (getOrientation() == Orientation.RIGHT && againstRightWall(newXPos, newYPos))
-	 * 			| 	then newXPos = getTilesRight(newXPos, newYPos)[0][0] * world.geTileLength() - getSize()[0]
+	 * 			| 	then newXPos = getRightTileColumn(newXPos) * world.geTileLength() - getXDim()
 	 * 			| 		 stopMoving()
 	 * @effect if the Slime collides with a roof, the vertical speed drops to zero and the vertical position is adapted
 	 * 			| if (isAgainstRoof(newXPos, newYPos))
-	 * 			| 	then newYPos = getTilesAbove(newXPos, newYPos[0][1] * world.getTileLength() - getSize()[1] - 1
+	 * 			| 	then newYPos = getTopTileRow(newYPos) * world.getTileLength() - getSize()[1] - 1
 	 * 			| 		 stopMoving()
 	 * @effect if the Slime collides with a floor when falling, the fall is ended and the vertical position is adapted
 	 * 			| if (isFalling() && onFloor(newXPos, newYPos))
-	 * 			| 	then newYPos = ((getTilesUnder(newXPos, newYPos)[0][1] + 1) * getWorld().getTileLength() - 1)
+	 * 			| 	then newYPos = ((getBottomTileRow(newYPos) + 1) * getWorld().getTileLength() - 1)
 	 * 			| 		 endFall()
 	 * @effect the Slime falls when not touching a floor and not falling
 	 * 			| if (( ! isFalling()) && ( ! onFloor(newXPos, newYPos)))
@@ -352,19 +352,19 @@ public class Slime extends GameObject {
 	private double[] checkSurroundings(double newXPos, double newYPos) {
 
 		if (this.getOrientation() == Orientation.LEFT && this.againstLeftWall(newXPos, newYPos)) {
-			newXPos = (this.getTilesLeft(newXPos, newYPos)[0][0] + 1) * this.getWorld().getTileLength();
+			newXPos = (this.getLeftTileColumn(newXPos) + 1) * this.getWorld().getTileLength();
 			this.stopMoving();
 		}
 		if (this.getOrientation() == Orientation.RIGHT && againstRightWall(newXPos,newYPos)) {
-			newXPos = (this.getTilesRight(newXPos,newYPos)[0][0]) * this.getWorld().getTileLength() - this.getSize()[0];
+			newXPos = (this.getRightTileColumn(newXPos)) * this.getWorld().getTileLength() - this.getXDim();
 			this.stopMoving();
 		}
 		if (this.isAgainstRoof(newXPos, newYPos)) {
-			newYPos = (this.getTilesAbove(newXPos,newYPos)[0][1]) * this.getWorld().getTileLength() - this.getSize()[1] - 1;
+			newYPos = this.getTopTileRow(newYPos) * this.getWorld().getTileLength() - this.getYDim() - 1;
 			this.setYSpeed(0);
 		}		
 		if (this.isFalling() && this.onFloor(newXPos, newYPos)) {
-			newYPos = ((this.getTilesUnder(newXPos, newYPos)[0][1] +1) * this.getWorld().getTileLength() -1);
+			newYPos = ((this.getBottomTileRow(newYPos) +1) * this.getWorld().getTileLength() -1);
 			this.endFall();
 		}		
 		if (( ! this.isFalling()) && ( ! this.onFloor(newXPos, newYPos))) {
@@ -428,10 +428,12 @@ public class Slime extends GameObject {
 	 * 			the newly calculated vertical position
 	 * @param dt
 	 * 			a small time interval
-	 * @effect a local list allSharksSlimeMazubBuzam contains all the Sharks, Slimes and Mazub(s)
-	 * 			| allSharksSlimesMazubBuzam =  new ArrayList<GameObject>world.getSharks())
-	 *			| allSharksSlimesMazubBuzam.addAll(world.getSlimes());
-	 *			| allSharksSlimesMazubBuzam.add(world.getAlien())
+	 * @effect a local list allSharksSlimeMazubBuzam contains the Sharks and Slimes near the new position
+	 * 			and all Mazub(s)
+	 * 			| allSharksSlimesMazubBuzam =  new ArrayList<GameObject>(world.getSharksNear(this, newXPos, newYPos))
+	 *			| allSharksSlimesMazubBuzam.addAll(world.getSlimesNear(this, newXPos, newYPos));
+	 *			| if (world.getAlien() != null)
+	 *			| 	then allSharksSlimesMazubBuzam.add(world.getAlien())
 	 *			| if (this.getWorld().getBuzam() != null)
 	 *			| 	then allSharksSlimesMazubBuzam.add(world.getBuzam())
 	 * @effect a local boolean onGameObject indicating if this is on another game object is set to false
@@ -461,11 +463,15 @@ public class Slime extends GameObject {
 	 */
 	@Raw
 	private double[] collidingSharksSlimesMazubBuzam(double newXPos, double newYPos, double dt) {
-		List<GameObject> allSharksSlimesMazubBuzam =  new ArrayList<GameObject>(this.getWorld().getSharks());
-		allSharksSlimesMazubBuzam.addAll(this.getWorld().getSlimes());
-		allSharksSlimesMazubBuzam.add(this.getWorld().getAlien());	
-		if (this.getWorld().getBuzam() != null) {
-			allSharksSlimesMazubBuzam.add(this.getWorld().getBuzam());
+		List<GameObject> allSharksSlimesMazubBuzam =  new ArrayList<GameObject>(this.getWorld().getSharksNear(this, newXPos, newYPos));
+		allSharksSlimesMazubBuzam.addAll(this.getWorld().getSlimesNear(this, newXPos, newYPos));
+		Mazub alien = this.getWorld().getAlien();
+		if (alien != null) {
+			allSharksSlimesMazubBuzam.add(alien);
+		}
+		Buzam buzam = this.getWorld().getBuzam();
+		if (buzam != null) {
+			allSharksSlimesMazubBuzam.add(buzam);
 		}
 		boolean onGameObject = false;
 		double[] newPos = {newXPos, newYPos};
@@ -579,6 +585,7 @@ public class Slime extends GameObject {
 	 * 			| 	double[] newPos = this.calculateNewPos(dt);
 	 * 			| in
 	 * 			|	checkInWithinBoundaries(newPos[0],newPos[1])
+	 * 			| 	if (getWorld() == null) then return
 	 * 			| 	newPos = checkSurroundings(newPos[0],newPos[1])
 	 * 			| 	newPos = collidingSharksSlimesMazub(newPos[0],newPos[1], dt)
 	 *			| 	setXPos(newPos[0])
@@ -599,6 +606,9 @@ public class Slime extends GameObject {
 		double[] newPos = this.calculateNewPos(dt);
 
 		this.checkIfWithinBoundaries(newPos[0],newPos[1]);
+		if (this.getWorld() == null) {
+			return;
+		}
 				
 		newPos = checkSurroundings(newPos[0],newPos[1]);
 		newPos = collidingSharksSlimesMazubBuzam(newPos[0],newPos[1], dt);
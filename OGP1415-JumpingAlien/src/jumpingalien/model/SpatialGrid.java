@@ -0,0 +1,325 @@
+package jumpingalien.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class that describes a uniform grid over the game world, keyed on tile cells,
+ * that keeps track of which game objects overlap with which cells.
+ * It is used to look up the game objects near a given region, instead of
+ * testing every game object in the world. The grid can be used by several
+ * threads at once: a query reads the cells without locking, and a move only
+ * locks the cells it leaves and enters, and the entry of the moving object.
+ * A query of another thread can miss an object while it moves between cells,
+ * so threads should only query the regions of the objects they move.
+ * @author Pieter Van den Berghe, Ward Romanus
+ *
+ * @invar the cell size is always positive
+ * 			| getCellSize() > 0
+ * @invar every registered game object is stored in exactly the cells its
+ * 			bounding box overlapped with at its last update
+ */
+public class SpatialGrid {
+
+	/**
+	 * Create a new, empty grid with the given cell size
+	 * @param cellSize
+	 * 			the length (in pixels) of a side of a square cell
+	 * @pre the cell size must be positive
+	 * 			| cellSize > 0
+	 * @post the cell size is set
+	 * 			| new.getCellSize() == cellSize
+	 */
+	@Raw
+	public SpatialGrid(int cellSize) {
+		assert cellSize > 0;
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * the length (in pixels) of a side of a cell
+	 */
+	private final int cellSize;
+	/**
+	 * the entries of the game objects in every non-empty cell, keyed on the packed
+	 * cell coordinate. The arrays are never changed, a cell that changes gets a new
+	 * array, so they can be read without locking.
+	 */
+	private final ConcurrentMap<Long, Entry[]> cells = new ConcurrentHashMap<Long, Entry[]>();
+	/**
+	 * the bookkeeping of every registered game object, game objects are compared
+	 * by identity
+	 */
+	private final ConcurrentMap<GameObject, Entry> entries = new ConcurrentHashMap<GameObject, Entry>();
+	/**
+	 * the sequence number given to the next registered game object
+	 */
+	private final AtomicLong nextSequence = new AtomicLong();
+
+	/**
+	 * The bookkeeping of a game object in the grid: the range of cells it was
+	 * stored in and the order in which it was registered. The range is guarded by
+	 * the entry itself.
+	 */
+	private static class Entry {
+
+		private Entry(GameObject object, long sequence) {
+			this.object = object;
+			this.sequence = sequence;
+		}
+
+		private final GameObject object;
+		private final long sequence;
+		private int cellLeft;
+		private int cellBottom;
+		private int cellRight;
+		private int cellTop;
+		private boolean removed;
+	}
+
+	/**
+	 * Orders entries in the order in which their game objects were registered
+	 */
+	private static final Comparator<Entry> REGISTRATION_ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry first, Entry second) {
+			return Long.compare(first.sequence, second.sequence);
+		}
+	};
+
+	/**
+	 * returns the length of a side of a cell
+	 * @return cellSize
+	 */
+	@Basic @Immutable
+	public int getCellSize() {
+		return this.cellSize;
+	}
+
+	/**
+	 * returns the number of game objects in this grid
+	 * @return entries.size()
+	 */
+	@Basic
+	public int getNbObjects() {
+		return this.entries.size();
+	}
+
+	/**
+	 * returns true if the given game object is registered in this grid
+	 * @param object
+	 * 			the game object to check
+	 * @return entries.containsKey(object)
+	 */
+	public boolean contains(GameObject object) {
+		return this.entries.containsKey(object);
+	}
+
+	/**
+	 * registers the given game object in the cells its bounding box overlaps with
+	 * @param object
+	 * 			the game object to add
+	 * @pre the object may not be null and may not be registered yet
+	 * 			| object != null && ! contains(object)
+	 * @effect the object is stored in the cells of its bounding box
+	 * 			| update(object)
+	 */
+	public void add(GameObject object) {
+		assert object != null;
+		assert ! this.contains(object);
+		Entry entry = new Entry(object, this.nextSequence.getAndIncrement());
+		synchronized (entry) {
+			this.setCellRange(entry, object);
+			this.entries.put(object, entry);
+			this.store(entry);
+		}
+	}
+
+	/**
+	 * removes the given game object from this grid
+	 * @param object
+	 * 			the game object to remove
+	 * @post the object is no longer stored in any cell
+	 * 			| ! new.contains(object)
+	 */
+	public void remove(GameObject object) {
+		Entry entry = this.entries.remove(object);
+		if (entry != null) {
+			synchronized (entry) {
+				this.unstore(entry);
+				entry.removed = true;
+			}
+		}
+	}
+
+	/**
+	 * moves the given game object to the cells of its current bounding box,
+	 * if it is registered in this grid and these cells have changed
+	 * @param object
+	 * 			the game object that has moved
+	 */
+	public void update(GameObject object) {
+		Entry entry = this.entries.get(object);
+		if (entry == null) {
+			return;
+		}
+		int left = this.toCell(object.getXPos());
+		int bottom = this.toCell(object.getYPos());
+		int right = this.toCell(object.getXPos() + object.getXDim());
+		int top = this.toCell(object.getYPos() + object.getYDim());
+		synchronized (entry) {
+			if ( ! entry.removed && (left != entry.cellLeft || bottom != entry.cellBottom
+					|| right != entry.cellRight || top != entry.cellTop)) {
+				this.unstore(entry);
+				entry.cellLeft = left;
+				entry.cellBottom = bottom;
+				entry.cellRight = right;
+				entry.cellTop = top;
+				this.store(entry);
+			}
+		}
+	}
+
+	/**
+	 * returns every game object of the given kind that is stored in a cell
+	 * overlapping with the given rectangular region
+	 * @param pixelLeft
+	 * 			the x-coordinate of the left side of the region
+	 * @param pixelBottom
+	 * 			the y-coordinate of the bottom side of the region
+	 * @param pixelRight
+	 * 			the x-coordinate of the right side of the region
+	 * @param pixelTop
+	 * 			the y-coordinate of the top side of the region
+	 * @param kind
+	 * 			the class of the game objects to return
+	 * @return a list without duplicates, ordered in the order in which the objects
+	 * 			were registered, of every object of the given kind in the cells of the region
+	 */
+	public <T extends GameObject> List<T> getObjectsIn(double pixelLeft, double pixelBottom,
+			double pixelRight, double pixelTop, Class<T> kind) {
+		List<Entry> found = new ArrayList<Entry>();
+		int top = this.toCell(pixelTop);
+		int right = this.toCell(pixelRight);
+		for (int cellY = this.toCell(pixelBottom); cellY <= top; cellY++) {
+			for (int cellX = this.toCell(pixelLeft); cellX <= right; cellX++) {
+				Entry[] cell = this.cells.get(SpatialGrid.key(cellX, cellY));
+				if (cell != null) {
+					for (Entry entry: cell) {
+						if (kind.isInstance(entry.object)) {
+							found.add(entry);
+						}
+					}
+				}
+			}
+		}
+		// an object in several cells is found once per cell, and then ends up next to itself
+		Collections.sort(found, SpatialGrid.REGISTRATION_ORDER);
+		List<T> result = new ArrayList<T>(found.size());
+		Entry previous = null;
+		for (Entry entry: found) {
+			if (entry != previous) {
+				result.add(kind.cast(entry.object));
+				previous = entry;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * returns the cell coordinate of the given pixel coordinate,
+	 * coordinates outside of the world are clamped to the first cell
+	 * @param pixel
+	 * 			the pixel coordinate
+	 * @return (int) Math.max(0, pixel) / getCellSize()
+	 */
+	private int toCell(double pixel) {
+		return ((int) Math.max(0, pixel)) / this.getCellSize();
+	}
+
+	/**
+	 * returns the key of the cell with the given coordinates
+	 * @param cellX
+	 * 			the horizontal coordinate of the cell
+	 * @param cellY
+	 * 			the vertical coordinate of the cell
+	 * @return ((long) cellX << 32) | (cellY & 0xffffffffL)
+	 */
+	private static long key(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+
+	/**
+	 * sets the cell range of the entry to the bounding box of the object
+	 */
+	private void setCellRange(Entry entry, GameObject object) {
+		entry.cellLeft = this.toCell(object.getXPos());
+		entry.cellBottom = this.toCell(object.getYPos());
+		entry.cellRight = this.toCell(object.getXPos() + object.getXDim());
+		entry.cellTop = this.toCell(object.getYPos() + object.getYDim());
+	}
+
+	/**
+	 * stores the entry in every cell of its range, only the cell that changes is
+	 * locked while a new array is put in it
+	 */
+	private void store(final Entry entry) {
+		for (int cellY = entry.cellBottom; cellY <= entry.cellTop; cellY++) {
+			for (int cellX = entry.cellLeft; cellX <= entry.cellRight; cellX++) {
+				this.cells.merge(SpatialGrid.key(cellX, cellY), new Entry[] {entry},
+						(cell, added) -> SpatialGrid.with(cell, entry));
+			}
+		}
+	}
+
+	/**
+	 * removes the entry from every cell of its range, a cell without entries is removed
+	 */
+	private void unstore(final Entry entry) {
+		for (int cellY = entry.cellBottom; cellY <= entry.cellTop; cellY++) {
+			for (int cellX = entry.cellLeft; cellX <= entry.cellRight; cellX++) {
+				this.cells.computeIfPresent(SpatialGrid.key(cellX, cellY),
+						(key, cell) -> SpatialGrid.without(cell, entry));
+			}
+		}
+	}
+
+	/**
+	 * returns a copy of the given cell with the given entry at the end
+	 */
+	private static Entry[] with(Entry[] cell, Entry entry) {
+		Entry[] result = new Entry[cell.length + 1];
+		System.arraycopy(cell, 0, result, 0, cell.length);
+		result[cell.length] = entry;
+		return result;
+	}
+
+	/**
+	 * returns a copy of the given cell without the given entry, or null if no
+	 * entries are left
+	 */
+	private static Entry[] without(Entry[] cell, Entry entry) {
+		for (int i = 0; i < cell.length; i++) {
+			if (cell[i] == entry) {
+				if (cell.length == 1) {
+					return null;
+				}
+				Entry[] result = new Entry[cell.length - 1];
+				System.arraycopy(cell, 0, result, 0, i);
+				System.arraycopy(cell, i + 1, result, i, cell.length - i - 1);
+				return result;
+			}
+		}
+		return cell;
+	}
+
+}
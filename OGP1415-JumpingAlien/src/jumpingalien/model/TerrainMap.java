@@ -0,0 +1,305 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class that describes the geological features of the tiles of a game world.
+ * The features are packed row by row in a flat array, two tiles per byte.
+ * For every row the runs of equal features are kept as well, so that the
+ * tiles of a rectangular region can be checked run by run instead of tile by tile.
+ * @author Pieter Van den Berghe, Ward Romanus
+ *
+ * @invar the number of tiles in both directions is positive
+ * 			| getNbTilesX() > 0 && getNbTilesY() > 0
+ * @invar every feature fits in four bits
+ * 			| for each tile: 0 <= getFeature(tileX, tileY) <= 15
+ */
+public class TerrainMap {
+
+	/**
+	 * Create a new terrain map of air tiles
+	 * @param nbTilesX
+	 * 			the amount of tiles in the x direction
+	 * @param nbTilesY
+	 * 			the amount of tiles in the y direction
+	 * @pre the amount of tiles must be positive in both directions
+	 * 			| nbTilesX > 0 && nbTilesY > 0
+	 * @post every tile is air
+	 * 			| for each tile: new.getFeature(tileX, tileY) == 0
+	 */
+	@Raw
+	public TerrainMap(int nbTilesX, int nbTilesY) {
+		assert nbTilesX > 0 && nbTilesY > 0;
+		this.nbTilesX = nbTilesX;
+		this.nbTilesY = nbTilesY;
+		this.bytesPerRow = (nbTilesX + 1) / 2;
+		this.features = new byte[this.bytesPerRow * nbTilesY];
+		this.runStarts = new int[nbTilesY][];
+		this.runFeatures = new byte[nbTilesY][];
+		int[] airStarts = new int[] {0};
+		byte[] airFeatures = new byte[] {0};
+		Arrays.fill(this.runStarts, airStarts);
+		Arrays.fill(this.runFeatures, airFeatures);
+		this.rowChanged = new boolean[nbTilesY];
+	}
+
+	/**
+	 * the amount of tiles in the x direction
+	 */
+	private final int nbTilesX;
+	/**
+	 * the amount of tiles in the y direction
+	 */
+	private final int nbTilesY;
+	/**
+	 * the amount of bytes used by one row of tiles
+	 */
+	private final int bytesPerRow;
+	/**
+	 * the features of every tile, row by row from bottom to top, two tiles per byte
+	 */
+	private final byte[] features;
+	/**
+	 * for every row, the horizontal tile coordinate where every run of equal features starts
+	 */
+	private final int[][] runStarts;
+	/**
+	 * for every row, the feature of every run
+	 */
+	private final byte[][] runFeatures;
+	/**
+	 * for every row, true if a feature has changed since its runs were computed
+	 */
+	private final boolean[] rowChanged;
+
+	/**
+	 * returns the amount of tiles in the x direction
+	 * @return nbTilesX
+	 */
+	@Basic @Immutable
+	public int getNbTilesX() {
+		return this.nbTilesX;
+	}
+
+	/**
+	 * returns the amount of tiles in the y direction
+	 * @return nbTilesY
+	 */
+	@Basic @Immutable
+	public int getNbTilesY() {
+		return this.nbTilesY;
+	}
+
+	/**
+	 * returns the geological feature of the given tile
+	 * @param tileX
+	 * 			the horizontal tile coordinate
+	 * @param tileY
+	 * 			the vertical tile coordinate
+	 * @return the feature stored in the half of the byte of the tile
+	 * @throws ArrayIndexOutOfBoundsException
+	 * 			the tile is not part of this map
+	 * 			| tileX < 0 || tileX >= getNbTilesX() || tileY < 0 || tileY >= getNbTilesY()
+	 */
+	@Basic
+	public int getFeature(int tileX, int tileY) throws ArrayIndexOutOfBoundsException {
+		this.checkTile(tileX, tileY);
+		int packed = this.features[tileY * this.bytesPerRow + tileX / 2];
+		return (packed >> ((tileX % 2) * 4)) & 0x0F;
+	}
+
+	/**
+	 * sets the geological feature of the given tile
+	 * @param tileX
+	 * 			the horizontal tile coordinate
+	 * @param tileY
+	 * 			the vertical tile coordinate
+	 * @param feature
+	 * 			the new feature of the tile
+	 * @pre the feature must fit in four bits
+	 * 			| 0 <= feature <= 15
+	 * @post the tile has the given feature
+	 * 			| new.getFeature(tileX, tileY) == feature
+	 * @throws ArrayIndexOutOfBoundsException
+	 * 			the tile is not part of this map
+	 * 			| tileX < 0 || tileX >= getNbTilesX() || tileY < 0 || tileY >= getNbTilesY()
+	 */
+	public void setFeature(int tileX, int tileY, int feature) throws ArrayIndexOutOfBoundsException {
+		assert (feature >= 0) && (feature <= 0x0F);
+		this.checkTile(tileX, tileY);
+		int index = tileY * this.bytesPerRow + tileX / 2;
+		int shift = (tileX % 2) * 4;
+		this.features[index] = (byte) ((this.features[index] & ~(0x0F << shift)) | (feature << shift));
+		this.rowChanged[tileY] = true;
+	}
+
+	/**
+	 * returns true if at least one tile in the given rectangle of tiles has the given feature
+	 * @param tileLeft
+	 * 			the horizontal coordinate of the leftmost tiles
+	 * @param tileBottom
+	 * 			the vertical coordinate of the lowest tiles
+	 * @param tileRight
+	 * 			the horizontal coordinate of the rightmost tiles
+	 * @param tileTop
+	 * 			the vertical coordinate of the highest tiles
+	 * @param feature
+	 * 			the feature to look for
+	 * @return true if a tile in the rectangle has the feature
+	 * 			| for each tileY in tileBottom..tileTop:
+	 * 			| 	for each tileX in tileLeft..tileRight:
+	 * 			| 		if (getFeature(tileX, tileY) == feature)
+	 * 			| 			then return true
+	 * 			| return false
+	 * @note the tiles of the rectangle outside this map are ignored, as an object
+	 * 			at the border of the world can stick out of it
+	 */
+	public boolean hasFeatureIn(int tileLeft, int tileBottom, int tileRight, int tileTop, int feature) {
+		tileLeft = Math.max(tileLeft, 0);
+		tileBottom = Math.max(tileBottom, 0);
+		tileRight = Math.min(tileRight, this.getNbTilesX() - 1);
+		tileTop = Math.min(tileTop, this.getNbTilesY() - 1);
+		if ((tileLeft > tileRight) || (tileBottom > tileTop)) {
+			return false;
+		}
+		for (int tileY = tileBottom; tileY <= tileTop; tileY++) {
+			int[] starts = this.getRunStarts(tileY);
+			byte[] runs = this.runFeatures[tileY];
+			for (int run = TerrainMap.findRun(starts, tileLeft);
+					run < starts.length && starts[run] <= tileRight; run++) {
+				if (runs[run] == feature) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * returns true if every tile in the given rectangle of tiles has the given feature
+	 * @param tileLeft
+	 * 			the horizontal coordinate of the leftmost tiles
+	 * @param tileBottom
+	 * 			the vertical coordinate of the lowest tiles
+	 * @param tileRight
+	 * 			the horizontal coordinate of the rightmost tiles
+	 * @param tileTop
+	 * 			the vertical coordinate of the highest tiles
+	 * @param feature
+	 * 			the feature every tile should have
+	 * @return true if no tile in the rectangle has another feature
+	 * 			| for each tileY in tileBottom..tileTop:
+	 * 			| 	for each tileX in tileLeft..tileRight:
+	 * 			| 		if (getFeature(tileX, tileY) != feature)
+	 * 			| 			then return false
+	 * 			| return true
+	 * @note the tiles of the rectangle outside this map are ignored, like in hasFeatureIn
+	 */
+	public boolean hasOnlyFeatureIn(int tileLeft, int tileBottom, int tileRight, int tileTop, int feature) {
+		tileLeft = Math.max(tileLeft, 0);
+		tileBottom = Math.max(tileBottom, 0);
+		tileRight = Math.min(tileRight, this.getNbTilesX() - 1);
+		tileTop = Math.min(tileTop, this.getNbTilesY() - 1);
+		if ((tileLeft > tileRight) || (tileBottom > tileTop)) {
+			return true;
+		}
+		for (int tileY = tileBottom; tileY <= tileTop; tileY++) {
+			int[] starts = this.getRunStarts(tileY);
+			int run = TerrainMap.findRun(starts, tileLeft);
+			// neighbouring runs never have the same feature, so one run must cover the row
+			if ((this.runFeatures[tileY][run] != feature)
+					|| (run + 1 < starts.length && starts[run + 1] <= tileRight)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * computes the runs of every row in which a tile has changed since its runs were
+	 * last computed. As long as no feature is set afterwards, the runs are not written
+	 * again, so the map can then be queried from several threads at once.
+	 * @post no row has changed since its runs were computed
+	 */
+	public void computeChangedRuns() {
+		for (int tileY = 0; tileY < this.getNbTilesY(); tileY++) {
+			if (this.rowChanged[tileY]) {
+				this.computeRuns(tileY);
+			}
+		}
+	}
+
+	/**
+	 * throws an ArrayIndexOutOfBoundsException if the given tile is not part of this map
+	 */
+	private void checkTile(int tileX, int tileY) throws ArrayIndexOutOfBoundsException {
+		if ((tileX < 0) || (tileX >= this.getNbTilesX())) {
+			throw new ArrayIndexOutOfBoundsException(tileX);
+		}
+		if ((tileY < 0) || (tileY >= this.getNbTilesY())) {
+			throw new ArrayIndexOutOfBoundsException(tileY);
+		}
+	}
+
+	/**
+	 * returns the starts of the runs of the given row, the runs are computed
+	 * again if a tile of the row has changed since they were last computed.
+	 * Computing the runs is not thread safe, see computeChangedRuns.
+	 */
+	private int[] getRunStarts(int tileY) {
+		if (this.rowChanged[tileY]) {
+			this.computeRuns(tileY);
+		}
+		return this.runStarts[tileY];
+	}
+
+	/**
+	 * computes the runs of equal features of the given row
+	 */
+	private void computeRuns(int tileY) {
+		int nbRuns = 1;
+		for (int tileX = 1; tileX < this.getNbTilesX(); tileX++) {
+			if (this.getFeature(tileX, tileY) != this.getFeature(tileX - 1, tileY)) {
+				nbRuns++;
+			}
+		}
+		int[] starts = new int[nbRuns];
+		byte[] runs = new byte[nbRuns];
+		runs[0] = (byte) this.getFeature(0, tileY);
+		int run = 0;
+		for (int tileX = 1; tileX < this.getNbTilesX(); tileX++) {
+			int feature = this.getFeature(tileX, tileY);
+			if (feature != runs[run]) {
+				run++;
+				starts[run] = tileX;
+				runs[run] = (byte) feature;
+			}
+		}
+		this.runStarts[tileY] = starts;
+		this.runFeatures[tileY] = runs;
+		this.rowChanged[tileY] = false;
+	}
+
+	/**
+	 * returns the index of the run containing the given horizontal tile coordinate
+	 */
+	private static int findRun(int[] starts, int tileX) {
+		int low = 0;
+		int high = starts.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) / 2;
+			if (starts[middle] <= tileX) {
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+}
@@ -125,5 +125,33 @@ public class Tile extends SuperObject {
 			throw new IllegalArgumentException();
 		}
 	}
+	
+	/**
+	 * returns true if the given object is a tile with the same coordinates in the
+	 * same world as this tile
+	 * @return other instanceof Tile && ((Tile) other).getWorld() == this.getWorld()
+	 * 			&& ((Tile) other).getXCor() == this.getXCor()
+	 * 			&& ((Tile) other).getYCor() == this.getYCor()
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if ( ! (other instanceof Tile)) {
+			return false;
+		}
+		Tile tile = (Tile) other;
+		return tile.getWorld() == this.getWorld() && tile.getXCor() == this.getXCor()
+				&& tile.getYCor() == this.getYCor();
+	}
+	
+	/**
+	 * returns a hash code of the coordinates of this tile, packed in one long
+	 * @return Long.hashCode(((long) getXCor() << 32) | (getYCor() & 0xFFFFFFFFL))
+	 * 			+ 31 * System.identityHashCode(getWorld())
+	 */
+	@Override
+	public int hashCode() {
+		return Long.hashCode(((long) this.getXCor() << 32) | (this.getYCor() & 0xFFFFFFFFL))
+				+ 31 * System.identityHashCode(this.getWorld());
+	}
 
 }
@@ -1,9 +1,18 @@
 package jumpingalien.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -18,6 +27,7 @@ import jumpingalien.model.exceptions.IllegalTargetTileException;
 import jumpingalien.model.exceptions.IllegalTileException;
 import jumpingalien.model.exceptions.IllegalTileSizeException;
 import jumpingalien.model.exceptions.IllegalVisibleWindowException;
+import jumpingalien.model.program.ProgramStats;
 import jumpingalien.part2.facade.IFacadePart2;
 
 /**
@@ -79,7 +89,9 @@ public class World {
 	 * 			| this.setVisibleWindowHeight(visibleWindowHeight)
 	 * 			| this.setTargetTileX(targetTileX)
 	 * 			| this.setTargetTileY(targetTileY)
-	 * 			| this.geologicalFeature = new int[nbTilesY][nbTilesX]
+	 * 			| this.terrain = new TerrainMap(nbTilesX, nbTilesY)
+	 * @effect the grid of game objects is created with cells of one tile
+	 * 			| this.objectGrid = new SpatialGrid(tileSize)
 	 */
 	@Raw
 	public World(int tileSize, int nbTilesX, int nbTilesY,
@@ -104,7 +116,8 @@ public class World {
 		this.setVisibleWindowHeight(visibleWindowHeight);
 		this.setTargetTileX(targetTileX);
 		this.setTargetTileY(targetTileY);
-		this.geologicalFeature = new int[nbTilesY][nbTilesX];		
+		this.terrain = new TerrainMap(nbTilesX, nbTilesY);
+		this.objectGrid = new SpatialGrid(tileSize);
 	}	
 	
 	/**
@@ -144,10 +157,37 @@ public class World {
 	 */
 	private int yVisibleWindow;
 	/**
-	 * the geological feature of the tile with its bottom left pixel
-	 * on the given position
+	 * the geological features of the tiles, packed row by row
 	 */
-	private int[][] geologicalFeature;
+	private final TerrainMap terrain;
+	/**
+	 * a read-only view on all tiles of this world, from left to right and from
+	 * bottom to top, that keeps no tiles: a tile is created when it is asked for
+	 */
+	private final List<Tile> allTiles = new AbstractList<Tile>() {
+		@Override
+		public Tile get(int index) {
+			return getTile(index % getNbTilesX(), index / getNbTilesX());
+		}
+		@Override
+		public int size() {
+			return (int) Math.min(Integer.MAX_VALUE, (long) getNbTilesX() * getNbTilesY());
+		}
+	};
+	/**
+	 * the pool on which independent game objects are advanced,
+	 * null if the game objects are advanced one after another
+	 */
+	private ForkJoinPool parallelPool = null;
+	/**
+	 * the number of steps, summed over every group of game objects, of the last advance of time
+	 */
+	private int lastNbSubSteps = 0;
+	/**
+	 * the number of steps of every group of game objects, in the order of the groups,
+	 * of the last advance of time
+	 */
+	private int[] lastNbSubStepsOfGroups = new int[0];
 	/**
 	 * the player character alien
 	 */
@@ -168,6 +208,31 @@ public class World {
 	 * a list of all the slimes in the world
 	 */
 	private List<Slime> slimes = new CopyOnWriteArrayList<Slime>();	
+	/**
+	 * the grid, keyed on tiles, containing every plant, shark and slime in the world
+	 */
+	private final SpatialGrid objectGrid;
+	/**
+	 * the scheduler that executes the programs of the game objects, and lets the
+	 * programs that wait sleep
+	 */
+	private final ProgramScheduler programScheduler = new ProgramScheduler();
+	/**
+	 * the snapshot of this world after the last advance of time, or null if time has
+	 * not been advanced yet
+	 */
+	private volatile WorldSnapshot snapshot = null;
+	/**
+	 * the time spent in every phase of the last advance of time, or null if time has
+	 * not been advanced yet
+	 */
+	private volatile AdvanceStats lastAdvanceStats = null;
+	/**
+	 * the time spent to compute dt and to move the game objects during the current
+	 * advance of time, summed over the groups, which can be advanced in parallel
+	 */
+	private final AtomicLong dtTime = new AtomicLong();
+	private final AtomicLong moveTime = new AtomicLong();
 	/**
 	 * A boolean to reflect or the game has started
 	 */
@@ -202,7 +267,7 @@ public class World {
 	 * 			| nbTilesX
 	 */
 	@Basic @Immutable 
-	private int getNbTilesX() {
+	public int getNbTilesX() {
 		return nbTilesX;
 	}
 	/**
@@ -210,7 +275,7 @@ public class World {
 	 * 			| nbTilesY
 	 */
 	@Basic @Immutable 
-	private int getNbTilesY() {
+	public int getNbTilesY() {
 		return nbTilesY;
 	}
 	/**
@@ -307,8 +372,19 @@ public class World {
 	 */
 	@Basic @Raw
 	public int[] getTileOfPixels(int pixelX, int pixelY) {
-		return new int[] {(pixelX - pixelX % this.getTileLength()) / this.getTileLength(),
-				(pixelY - pixelY % this.getTileLength()) / this.getTileLength()};
+		return new int[] {this.getTileCoordinate(pixelX), this.getTileCoordinate(pixelY)};
+	}
+	/**
+	 * Returns the tile coordinate of the given pixel coordinate, in the
+	 * horizontal as well as in the vertical direction.
+	 * @param pixel
+	 * 			the pixel coordinate
+	 * @return the coordinate of the tile containing the pixel
+	 * 			| (pixel - pixel % getTileLength()) / getTileLength()
+	 */
+	@Basic @Raw
+	public int getTileCoordinate(int pixel) {
+		return (pixel - pixel % this.getTileLength()) / this.getTileLength();
 	}
 	/**
 	 * Returns the tile positions of all tiles within the given rectangular
@@ -329,10 +405,10 @@ public class World {
 	 *         bottom to top: all positions of the bottom row (ordered from
 	 *         small to large x_T) precede the positions of the row above that.
 	 *         | let
-	 *         | 	int posLeft = this.getTileOfPixels(pixelLeft,pixelBottom)[0]
-	 *         | 	int posBottom = this.getTileOfPixels(pixelLeft,pixelBottom)[1]
-	 *         | 	int posRight = this.getTileOfPixels(pixelRight,pixelTop)[0]
-	 *         | 	int posTop = this.getTileOfPixels(pixelRight,pixelTop)[1]
+	 *         | 	int posLeft = this.getTileCoordinate(pixelLeft)
+	 *         | 	int posBottom = this.getTileCoordinate(pixelBottom)
+	 *         | 	int posRight = this.getTileCoordinate(pixelRight)
+	 *         | 	int posTop = this.getTileCoordinate(pixelTop)
 	 *         | 	int[][] array = new int[(posRight - posLeft + 1) * (posTop - posBottom +1)][2]
 	 *         | 	int counter = 0
 	 *         | in
@@ -346,10 +422,10 @@ public class World {
 	@Basic @Raw
 	public int[][] getTilePositionsIn(int pixelLeft, int pixelBottom,
 			int pixelRight, int pixelTop) {
-		int posLeft = this.getTileOfPixels(pixelLeft,pixelBottom)[0];
-		int posBottom = this.getTileOfPixels(pixelLeft,pixelBottom)[1];
-		int posRight = this.getTileOfPixels(pixelRight,pixelTop)[0];
-		int posTop = this.getTileOfPixels(pixelRight,pixelTop)[1];
+		int posLeft = this.getTileCoordinate(pixelLeft);
+		int posBottom = this.getTileCoordinate(pixelBottom);
+		int posRight = this.getTileCoordinate(pixelRight);
+		int posTop = this.getTileCoordinate(pixelTop);
 		int[][] array = new int[(posRight - posLeft + 1) * (posTop - posBottom +1)][2];		
 		int counter = 0;
 		for (int i = posBottom; i <= posTop; i++ ) {
@@ -361,6 +437,59 @@ public class World {
 		}
 		return array;
 	}	
+	/**
+	 * Returns true if at least one of the tiles within the given rectangular region
+	 * has the given geological feature. The runs of equal features of every row
+	 * are checked, instead of every tile.
+	 * @param pixelLeft
+	 *            The x-coordinate of the left side of the rectangular region.
+	 * @param pixelBottom
+	 *            The y-coordinate of the bottom side of the rectangular region.
+	 * @param pixelRight
+	 *            The x-coordinate of the right side of the rectangular region.
+	 * @param pixelTop
+	 *            The y-coordinate of the top side of the rectangular region.
+	 * @param feature
+	 * 			  the geological feature to look for
+	 * @return true if a tile in the region has the given feature
+	 * 			| for each tile in getTilePositionsIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			| 	if (getGeologicalFeature(getBottomLeftPixelOfTile(tile[0], tile[1])[0],
+	 * 			|			getBottomLeftPixelOfTile(tile[0], tile[1])[1]) == feature)
+	 * 			| 		then return true
+	 * 			| return false
+	 */
+	@Raw
+	public boolean hasTileWithFeatureIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop, int feature) {
+		return this.terrain.hasFeatureIn(this.getTileCoordinate(pixelLeft), this.getTileCoordinate(pixelBottom),
+				this.getTileCoordinate(pixelRight), this.getTileCoordinate(pixelTop), feature);
+	}
+	/**
+	 * Returns true if every tile within the given rectangular region has the given
+	 * geological feature. Only one run of every row has to be checked.
+	 * @param pixelLeft
+	 *            The x-coordinate of the left side of the rectangular region.
+	 * @param pixelBottom
+	 *            The y-coordinate of the bottom side of the rectangular region.
+	 * @param pixelRight
+	 *            The x-coordinate of the right side of the rectangular region.
+	 * @param pixelTop
+	 *            The y-coordinate of the top side of the rectangular region.
+	 * @param feature
+	 * 			  the geological feature every tile should have
+	 * @return true if no tile in the region has another feature
+	 * 			| for each tile in getTilePositionsIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			| 	if (getGeologicalFeature(getBottomLeftPixelOfTile(tile[0], tile[1])[0],
+	 * 			|			getBottomLeftPixelOfTile(tile[0], tile[1])[1]) != feature)
+	 * 			| 		then return false
+	 * 			| return true
+	 */
+	@Raw
+	public boolean hasOnlyTilesWithFeatureIn(int pixelLeft, int pixelBottom,
+			int pixelRight, int pixelTop, int feature) {
+		return this.terrain.hasOnlyFeatureIn(this.getTileCoordinate(pixelLeft), this.getTileCoordinate(pixelBottom),
+				this.getTileCoordinate(pixelRight), this.getTileCoordinate(pixelTop), feature);
+	}
 	/**
 	 * Returns the geological feature of the tile with its bottom left pixel at
 	 * the given position.
@@ -385,7 +514,7 @@ public class World {
 	 *         <li>the value 3 is returned for a <b>magma</b> tile.</li>
 	 *         </ul>
 	 *         
-	 *         | this.geologicalFeature[pixelY/this.getTileLength()][pixelX/this.getTileLength()]
+	 *         | this.terrain.getFeature(pixelX/this.getTileLength(), pixelY/this.getTileLength())
 	 * 
 	 * @note This method must return its result in constant time.
 	 * 
@@ -397,7 +526,7 @@ public class World {
 			throws IllegalPixelException {
 				if ( ! isValidBottomLeftPixel(pixelX, pixelY))
 					throw new IllegalPixelException(pixelX,pixelY);
-		return this.geologicalFeature[pixelY/this.getTileLength()][pixelX/this.getTileLength()];
+		return this.terrain.getFeature(pixelX/this.getTileLength(), pixelY/this.getTileLength());
 	}	
 	/**
 	 * 
@@ -529,48 +658,183 @@ public class World {
 	 * 			| let 
 	 * 			| 	Collection<Tile> list = new ArrayList<Tile>()
 	 * 			| in
-	 * 			| for(int[] tile: this.getTilePositionsIn(0,0,this.getX() - 1, this.getY() - 1))
-	 * 			| 	try 
-	 * 			| 		if (this.getGeologicalFeature(tile[0] * this.getTileLength(), tile[1] * this.getTileLength()) == 3)
-	 * 			| 			list.add(new Tile(tile[0], tile[1], this))
-	 * 			|		catch (IllegalPixelException e) 
-	 * 			|			System.out.println("Pixelexception in listAllImpassableTiles")
+	 * 			| for each tileX, tileY in this world, from bottom to top
+	 * 			| 	if (this.isImpassableTile(tileX, tileY))
+	 * 			| 		list.add(this.getTile(tileX, tileY))
 	 * @return the Arraylist list
 	 * 			| return list
 	 */
 	public Collection<Tile> listAllImpassableTiles() {
 		Collection<Tile> list = new ArrayList<Tile>();
-		for(int[] tile: this.getTilePositionsIn(0,0,this.getX() - 1, this.getY() - 1)) {
-			try {
-				if (this.getGeologicalFeature(tile[0] * this.getTileLength(), tile[1] * this.getTileLength()) == 3) {
-					list.add(new Tile(tile[0], tile[1], this));
+		for (int tileY = 0; tileY < this.getNbTilesY(); tileY++) {
+			for (int tileX = 0; tileX < this.getNbTilesX(); tileX++) {
+				if (this.isImpassableTile(tileX, tileY)) {
+					list.add(this.getTile(tileX, tileY));
 				}
-			} catch (IllegalPixelException e) {
-				System.out.println("Pixelexception in listAllImpassableTiles");
 			}
 		}
 		return list;
 	}
 	
 	/**
-	 * returns an arraylist of all impassable tiles in this world
-	 * @effect the collection list contains all impassable tiles
-	 * 			| let
-	 * 			| 	Collection<Tile> list = new ArrayList<Tile>()
-	 * 			| in
-	 * 			| for(int[] tile: this.getTilePositionsIn(0,0,this.getX() - 1, this.getY() - 1))
-	 * 			| 			list.add(new Tile(tile[0], tile[1], this))
-	 * @return the Arraylist list
-	 * 			| return list
+	 * returns the statistics of the programs of the game objects in this world, the
+	 * program that took the most time first
 	 */
-	public Collection<Tile> listAllTiles() {
-		Collection<Tile> list = new ArrayList<Tile>();
-		for(int[] tile: this.getTilePositionsIn(0,0,this.getX() - 1, this.getY() - 1)) {
-			list.add(new Tile(tile[0], tile[1], this));
+	public List<ProgramStats> listProgramStats() {
+		List<ProgramStats> list = new ArrayList<ProgramStats>();
+		for (GameObject object: this.listAllGameObjects()) {
+			if (object != null && object.getProgram() != null) {
+				list.add(object.getProgram().getStats());
+			}
 		}
+		list.sort(new Comparator<ProgramStats>() {
+			@Override
+			public int compare(ProgramStats first, ProgramStats second) {
+				return Double.compare(second.totalExecuteTime, first.totalExecuteTime);
+			}
+		});
 		return list;
 	}
 	
+	/**
+	 * returns the number of programs of game objects in this world that sleep on a wait
+	 * @return programScheduler.getNbSleepingPrograms()
+	 */
+	public int getNbSleepingPrograms() {
+		return this.programScheduler.getNbSleepingPrograms();
+	}
+	
+	/**
+	 * returns true if the tile with the given coordinates is one of the impassable
+	 * tiles of listAllImpassableTiles
+	 * @param tileX
+	 * 			the horizontal coordinate of the tile
+	 * @param tileY
+	 * 			the vertical coordinate of the tile
+	 * @return this.terrain.getFeature(tileX, tileY) == 3
+	 * @throws ArrayIndexOutOfBoundsException
+	 * 			the tile is not in this world
+	 */
+	public boolean isImpassableTile(int tileX, int tileY) throws ArrayIndexOutOfBoundsException {
+		return this.terrain.getFeature(tileX, tileY) == 3;
+	}
+	
+	/**
+	 * returns the plants, sharks and slimes that are stored in a cell of the grid of
+	 * game objects overlapping with the given rectangular region
+	 * @return objectGrid.getObjectsIn(pixelLeft, pixelBottom, pixelRight, pixelTop, GameObject.class)
+	 */
+	public List<GameObject> getGameObjectsIn(double pixelLeft, double pixelBottom,
+			double pixelRight, double pixelTop) {
+		return this.objectGrid.getObjectsIn(pixelLeft, pixelBottom, pixelRight, pixelTop, GameObject.class);
+	}
+	
+	/**
+	 * returns a read-only list of all tiles in this world. The tiles are only created
+	 * when they are asked from the list.
+	 * @return a list with for every tile position, from left to right and from bottom
+	 * 			to top, the tile at that position
+	 * 			| result.get(tileY * getNbTilesX() + tileX).equals(this.getTile(tileX, tileY))
+	 */
+	public Collection<Tile> listAllTiles() {
+		return this.allTiles;
+	}
+	
+	/**
+	 * returns the tile with the given coordinates. A tile is a value that the world does
+	 * not keep: every call returns a new tile, equal to the tiles returned before.
+	 * @param tileX
+	 * 			the horizontal coordinate of the tile
+	 * @param tileY
+	 * 			the vertical coordinate of the tile
+	 * @return a tile with the given coordinates in this world
+	 * @throws ArrayIndexOutOfBoundsException
+	 * 			the tile is not in this world
+	 * 			| ! isTileInWorld(tileX, tileY)
+	 */
+	public Tile getTile(int tileX, int tileY) throws ArrayIndexOutOfBoundsException {
+		if ( ! this.isTileInWorld(tileX, tileY)) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		return new Tile(tileX, tileY, this);
+	}
+	
+	/**
+	 * returns true if the tile with the given coordinates lies in this world
+	 * @return 0 <= tileX < getNbTilesX() && 0 <= tileY < getNbTilesY()
+	 */
+	public boolean isTileInWorld(int tileX, int tileY) {
+		return tileX >= 0 && tileX < this.getNbTilesX() && tileY >= 0 && tileY < this.getNbTilesY();
+	}
+
+	/**
+	 * returns the slimes that can collide with the given game object when it
+	 * moves to the given position
+	 * @param object
+	 * 			the moving game object
+	 * @param xPos
+	 * 			the new horizontal position of the game object
+	 * @param yPos
+	 * 			the new vertical position of the game object
+	 * @return the slimes in the tiles around the neighbourhood of the object, in the
+	 * 			order in which they were added to this world
+	 * 			| getObjectsNear(object, xPos, yPos, Slime.class)
+	 */
+	public List<Slime> getSlimesNear(GameObject object, double xPos, double yPos) {
+		return this.getObjectsNear(object, xPos, yPos, Slime.class);
+	}
+	/**
+	 * returns the sharks that can collide with the given game object when it
+	 * moves to the given position
+	 * @param object
+	 * 			the moving game object
+	 * @param xPos
+	 * 			the new horizontal position of the game object
+	 * @param yPos
+	 * 			the new vertical position of the game object
+	 * @return the sharks in the tiles around the neighbourhood of the object, in the
+	 * 			order in which they were added to this world
+	 * 			| getObjectsNear(object, xPos, yPos, Shark.class)
+	 */
+	public List<Shark> getSharksNear(GameObject object, double xPos, double yPos) {
+		return this.getObjectsNear(object, xPos, yPos, Shark.class);
+	}
+	/**
+	 * returns the plants that can collide with the given game object when it
+	 * moves to the given position
+	 * @param object
+	 * 			the moving game object
+	 * @param xPos
+	 * 			the new horizontal position of the game object
+	 * @param yPos
+	 * 			the new vertical position of the game object
+	 * @return the plants in the tiles around the neighbourhood of the object, in the
+	 * 			order in which they were added to this world
+	 * 			| getObjectsNear(object, xPos, yPos, Plant.class)
+	 */
+	public List<Plant> getPlantsNear(GameObject object, double xPos, double yPos) {
+		return this.getObjectsNear(object, xPos, yPos, Plant.class);
+	}
+	/**
+	 * returns the game objects of the given kind in the neighbourhood of the given
+	 * game object at the given position. The neighbourhood is the bounding box of the
+	 * object, widened by one tile on every side and by the width of the object
+	 * horizontally, because a collision can push the object sideways by its own width.
+	 * @return the game objects of the given kind in the neighbourhood
+	 * 			| let
+	 * 			| 	int margin = getTileLength()
+	 * 			| in
+	 * 			| 	objectGrid.getObjectsIn(xPos - object.getXDim() - margin, yPos - margin,
+	 * 			| 			xPos + 2 * object.getXDim() + margin, yPos + object.getYDim() + margin, kind)
+	 */
+	private <T extends GameObject> List<T> getObjectsNear(GameObject object, double xPos,
+			double yPos, Class<T> kind) {
+		int margin = this.getTileLength();
+		int xDim = object.getXDim();
+		return this.objectGrid.getObjectsIn(xPos - xDim - margin, yPos - margin,
+				xPos + 2 * xDim + margin, yPos + object.getYDim() + margin, kind);
+	}
+
 //	SETTERS	
 	
 	/**
@@ -698,6 +962,50 @@ public class World {
 		assert yVisibleWindow >= 0;
 		this.yVisibleWindow = yVisibleWindow;
 	}
+	/**
+	 * returns the pool on which independent game objects are advanced
+	 * @return parallelPool
+	 */
+	@Basic
+	public ForkJoinPool getParallelPool() {
+		return this.parallelPool;
+	}
+	/**
+	 * returns the number of steps, summed over every group of game objects that
+	 * can interact with each other, of the last call of advanceTime
+	 * @return lastNbSubSteps
+	 */
+	@Basic
+	public int getLastNbSubSteps() {
+		return this.lastNbSubSteps;
+	}
+	/**
+	 * returns the number of steps of every group of game objects that can interact
+	 * with each other, in the order of the groups, of the last call of advanceTime
+	 * @return a copy of lastNbSubStepsOfGroups
+	 */
+	public int[] getLastNbSubStepsOfGroups() {
+		return this.lastNbSubStepsOfGroups.clone();
+	}
+	/**
+	 * returns true if independent game objects are advanced in parallel
+	 * @return getParallelPool() != null
+	 */
+	public boolean isParallel() {
+		return this.getParallelPool() != null;
+	}
+	/**
+	 * Sets the pool on which independent game objects are advanced. Game objects
+	 * that can interact with each other are always advanced on the same thread,
+	 * in the same order as without a pool.
+	 * @param parallelPool
+	 * 			the pool to use, or null to advance every game object on the calling thread
+	 * @post the pool is set
+	 * 			| new.getParallelPool() == parallelPool
+	 */
+	public void setParallelPool(ForkJoinPool parallelPool) {
+		this.parallelPool = parallelPool;
+	}
 	/**
 	 * Modify the geological type of a specific tile in the given world to a
 	 * given type.
@@ -720,7 +1028,7 @@ public class World {
 	 *            </ul>
 	 * @post the geological feature of the tile at the given position is equal to 
 	 * 		 the given tileType
-	 * 			| this.geologicalFeature[tileY][tileX] = tileType
+	 * 			| this.terrain.setFeature(tileX, tileY, tileType)
 	 */
 	@Raw
 	public void setGeologicalFeature(int tileX, int tileY, int tileType)
@@ -731,7 +1039,18 @@ public class World {
 		if ( this.isGameStarted()) {
 			throw new IllegalSettingException();
 		}
-		this.geologicalFeature[tileY][tileX] = tileType;
+		this.terrain.setFeature(tileX, tileY, tileType);
+	}
+	/**
+	 * Updates the cells of the given game object in the grid of game objects,
+	 * after the game object has moved
+	 * @param object
+	 * 			the game object that has moved
+	 * @effect the game object is moved to the cells of its new bounding box
+	 * 			| objectGrid.update(object)
+	 */
+	void relocate(GameObject object) {
+		this.objectGrid.update(object);
 	}
 	/**
 	 * Sets the boolean gameStarted on true
@@ -843,12 +1162,15 @@ public class World {
 	 * 			| slime != null
 	 * @post the Slime slime is removed from the game world
 	 * 			| this.slimes.remove(slime)
+	 * @effect the slime is removed from the grid of game objects
+	 * 			| objectGrid.remove(slime)
 	 */
 	@Raw
 	public void removeSlime(@Raw Slime slime) {
 		assert this.hasSlime(slime);
 		assert slime != null;
 		this.slimes.remove(slime);
+		this.objectGrid.remove(slime);
 	}
 	/**
 	 * removes the Plant plant from the game world
@@ -860,12 +1182,15 @@ public class World {
 	 * 			| plant != null
 	 * @post the Plant plant is removed from the game world
 	 * 			| this.plants.remove(plant)
+	 * @effect the plant is removed from the grid of game objects
+	 * 			| objectGrid.remove(plant)
 	 */
 	@Raw
 	public void removePlant(@Raw Plant plant) {
 		assert this.hasPlant(plant);
 		assert plant != null;
 		this.plants.remove(plant);
+		this.objectGrid.remove(plant);
 	}
 	/**
 	 * removes the Shark shark from the game world
@@ -877,12 +1202,15 @@ public class World {
 	 * 			| shark != null
 	 * @post the Shark shark is removed from the game world
 	 * 			| this.sharks.remove(shark)
+	 * @effect the shark is removed from the grid of game objects
+	 * 			| objectGrid.remove(shark)
 	 */
 	@Raw
 	public void removeShark(@Raw Shark shark) {
 		assert this.hasShark(shark);
 		assert shark != null;
 		this.sharks.remove(shark);
+		this.objectGrid.remove(shark);
 	}
 	/**
 	 * adds the Slime slime to the world
@@ -906,8 +1234,9 @@ public class World {
 	 * 			| ! hasSlime(slime)
 	 * @effect the slime's world is equal to this world
 	 * 			| slime.setWorld(this)
-	 * @effect the slime is added to slimes
+	 * @effect the slime is added to slimes and to the grid of game objects
 	 * 			| slimes.add(slime)
+	 * 			| objectGrid.add(slime)
 	 */
 	@Raw
 	public void addSlime(Slime slime) throws IllegalSettingException, 
@@ -926,6 +1255,7 @@ public class World {
 			throw new IllegalPositionException(slime.getLocation()[0],slime.getLocation()[1]);
 		}
 		this.slimes.add(slime);
+		this.objectGrid.add(slime);
 	}
 	/**
 	 * adds the Shark shark to the world
@@ -949,8 +1279,9 @@ public class World {
 	 * 			| ! hasShark(shark)
 	 * @effect the shark's world is equal to this world
 	 * 			| shark.setWorld(this)
-	 * @effect the shark is added to shark
+	 * @effect the shark is added to shark and to the grid of game objects
 	 * 			| sharks.add(shark)
+	 * 			| objectGrid.add(shark)
 	 */
 	@Raw
 	public void addShark(Shark shark) throws IllegalSettingException, 
@@ -969,6 +1300,7 @@ public class World {
 			throw new IllegalPositionException(shark.getLocation()[0], shark.getLocation()[1]);
 		}
 		this.sharks.add(shark);
+		this.objectGrid.add(shark);
 	}
 	/**
 	 * adds the Plant slime to the world
@@ -992,8 +1324,9 @@ public class World {
 	 * 			| ! hasPlant(plant)
 	 * @effect the plant's world is equal to this world
 	 * 			| plant.setWorld(this)
-	 * @effect the plant is added to plants
+	 * @effect the plant is added to plants and to the grid of game objects
 	 * 			| plants.add(plant)
+	 * 			| objectGrid.add(plant)
 	 */
 	@Raw
 	public void addPlant(Plant plant) throws IllegalSettingException, IllegalPositionException,
@@ -1012,7 +1345,7 @@ public class World {
 			throw new IllegalPositionException(plant.getLocation()[0], plant.getLocation()[1]);
 		}
 		this.plants.add(plant);
-		
+		this.objectGrid.add(plant);
 	}
 	/**
 	 * returns true if this world has a Plant plant
@@ -1180,9 +1513,14 @@ public class World {
 	 * will be changed via
 	 * {@link IFacadePart2#setGeologicalFeature(World, int, int, int)}.
 	 * 
+	 * The runs of the terrain are computed before the game starts, because the
+	 * game objects may query the terrain from the threads of the parallel pool.
+	 * 
 	 * 		| this.setGameStarted(true);
+	 * 		| this.terrain.computeChangedRuns();
 	 */
 	public void startGame() {
+		this.terrain.computeChangedRuns();
 		this.setGameStarted(true);
 	}
 	
@@ -1213,104 +1551,366 @@ public class World {
 	 */
 	public boolean didPlayerWin() {
 		if (this.getAlien() != null) {
-			for (int[] tile: this.getTilePositionsIn( (int) this.getAlien().getXPos(), 
-					(int) this.getAlien().getYPos(), (int) this.getAlien().getXPos() + this.getAlien().getXDim(),
-					(int) this.getAlien().getYPos() + this.getAlien().getYDim())) {
-				if (tile[0] == this.getTargetTileX() && tile[1] == this.getTargetTileY()) {
-					return true;
-				}
-			}
+			int pixelLeft = (int) this.getAlien().getXPos();
+			int pixelBottom = (int) this.getAlien().getYPos();
+			return (this.getTileCoordinate(pixelLeft) <= this.getTargetTileX())
+					&& (this.getTargetTileX() <= this.getTileCoordinate(pixelLeft + this.getAlien().getXDim()))
+					&& (this.getTileCoordinate(pixelBottom) <= this.getTargetTileY())
+					&& (this.getTargetTileY() <= this.getTileCoordinate(pixelBottom + this.getAlien().getYDim()));
 		}		
 		return false;
 	}
 	
 	/**
-	 * calculates the dt for every object in the game world
-	 * the maximal value for dt is 0.2
-	 * @return the minimal value for dt
-	 * no documentation is needed because this is directly part of advanceTime
+	 * returns every game object in this world in the order in which they are advanced:
+	 * the plants, the sharks, the slimes, buzam and finally the alien
+	 * @return the game objects in the order in which they are advanced
 	 */
-	private double computeMinimalDt(double dt) {
-		double dtGiven = dt;
-		for (Plant plant : this.getPlants()) {
-			if (plant.computeDt(dtGiven) < dt) {
-				dt = plant.computeDt(dtGiven);				
-			}			 
+	private List<GameObject> listGameObjectsInAdvancingOrder() {
+		List<GameObject> list = new ArrayList<GameObject>();
+		list.addAll(this.getPlants());
+		list.addAll(this.getSharks());
+		list.addAll(this.getSlimes());
+		if (this.getBuzam() != null) {
+			list.add(this.getBuzam());
+		}
+		if (this.getAlien() != null) {
+			list.add(this.getAlien());
 		}
-		for (Shark shark: this.getSharks()) {
-			if (shark.computeDt(dtGiven) < dt) {
-				dt = shark.computeDt(dtGiven);			
-			}		
+		return list;
+	}
+	
+	/**
+	 * Splits the game objects of this world in groups that can not interact with
+	 * each other during the given time. Two game objects end up in the same group if
+	 * their bounding boxes, widened by their reach during dt, by the distance an object
+	 * can travel at the highest start speed and by one tile, overlap. Slimes of the same
+	 * school always end up in the same group, because they share their hitpoints.
+	 * Every group, and every list of groups, keeps the order of advancing.
+	 * @param dt
+	 * 			the time during which the game objects will be advanced
+	 * @return the groups of game objects that can interact with each other
+	 */
+	public List<List<GameObject>> listSynchronisationGroups(double dt) {
+		List<GameObject> objects = this.listGameObjectsInAdvancingOrder();
+		int nbObjects = objects.size();
+		Map<GameObject, Integer> indices = new IdentityHashMap<GameObject, Integer>();
+		double[] reach = new double[nbObjects];
+		double maxReach = 0;
+		for (int i = 0; i < nbObjects; i++) {
+			GameObject object = objects.get(i);
+			indices.put(object, i);
+			reach[i] = object.computeReach(dt) 
+					+ 100 * dt * Mazub.getStartJumpSpeed() + this.getTileLength();
+			maxReach = Math.max(maxReach, reach[i]);
 		}
-		for (Slime slime: this.getSlimes()) {
-			if (slime.computeDt(dtGiven) < dt) {
-				dt = slime.computeDt(dtGiven);			
-			}		
+		int[] parent = new int[nbObjects];
+		for (int i = 0; i < nbObjects; i++) {
+			parent[i] = i;
 		}
-		if (this.getBuzam() != null) {
-			if (this.getBuzam().computeDt(dtGiven) < dt) {
-				dt = this.getBuzam().computeDt(dtGiven);
+		for (int i = 0; i < nbObjects; i++) {
+			GameObject object = objects.get(i);
+			Collection<? extends GameObject> candidates;
+			if (this.objectGrid.contains(object)) {
+				double margin = reach[i] + maxReach;
+				candidates = this.objectGrid.getObjectsIn(object.getXPos() - margin, 
+						object.getYPos() - margin, object.getXPos() + object.getXDim() + margin,
+						object.getYPos() + object.getYDim() + margin, GameObject.class);
+			}
+			else {
+				candidates = objects;
+			}
+			for (GameObject other: candidates) {
+				int j = indices.get(other);
+				if (j != i && World.canInteract(object, reach[i], other, reach[j])) {
+					World.union(parent, i, j);
+				}
 			}
 		}
-		if (this.getAlien() != null) {
-			if (this.getAlien().computeDt(dtGiven) < dt) {
-				dt = this.getAlien().computeDt(dtGiven);
+		Map<School, Integer> schools = new IdentityHashMap<School, Integer>();
+		for (int i = 0; i < nbObjects; i++) {
+			if (objects.get(i) instanceof Slime) {
+				School school = ((Slime) objects.get(i)).getSchool();
+				if (schools.containsKey(school)) {
+					World.union(parent, schools.get(school), i);
+				}
+				else {
+					schools.put(school, i);
+				}
 			}
-		}	
+		}
+		Map<Integer, List<GameObject>> groups = new LinkedHashMap<Integer, List<GameObject>>();
+		for (int i = 0; i < nbObjects; i++) {
+			int root = World.find(parent, i);
+			if ( ! groups.containsKey(root)) {
+				groups.put(root, new ArrayList<GameObject>());
+			}
+			groups.get(root).add(objects.get(i));
+		}
+		return new ArrayList<List<GameObject>>(groups.values());
+	}
+	
+	/**
+	 * returns true if the bounding boxes of both game objects, widened by their reach, overlap
+	 */
+	private static boolean canInteract(GameObject first, double firstReach, 
+			GameObject second, double secondReach) {
+		double distance = firstReach + secondReach;
+		return (first.getXPos() - distance < second.getXPos() + second.getXDim())
+				&& (second.getXPos() < first.getXPos() + first.getXDim() + distance)
+				&& (first.getYPos() - distance < second.getYPos() + second.getYDim())
+				&& (second.getYPos() < first.getYPos() + first.getYDim() + distance);
+	}
+	
+	/**
+	 * returns the representative of the group of the given index
+	 */
+	private static int find(int[] parent, int index) {
+		while (parent[index] != index) {
+			parent[index] = parent[parent[index]];
+			index = parent[index];
+		}
+		return index;
+	}
+	
+	/**
+	 * merges the groups of both indices, the lowest representative is kept
+	 * so that the order of the groups is the order of advancing
+	 */
+	private static void union(int[] parent, int first, int second) {
+		int firstRoot = World.find(parent, first);
+		int secondRoot = World.find(parent, second);
+		if (firstRoot < secondRoot) {
+			parent[secondRoot] = firstRoot;
+		}
+		else if (secondRoot < firstRoot) {
+			parent[firstRoot] = secondRoot;
+		}
+	}
+	
+	/**
+	 * Computes the smallest dt of the given game objects
+	 * @param group
+	 * 			the game objects that are advanced together
+	 * @param dt
+	 * 			the time to advance
+	 * @return the minimum of dt and the computed dt of every game object in the group
+	 */
+	private static double computeMinimalDt(List<GameObject> group, double dt) {
+		double dtGiven = dt;
+		for (GameObject object: group) {
+			if (object.computeDt(dtGiven) < dt) {
+				dt = object.computeDt(dtGiven);
+			}
+		}
 		return dt;
 	}
 	
 	/**
 	 * no documentation is needed because this is directly part of advanceTime
+	 * @param group
 	 * @param dt
+	 * @param alien
+	 * 			the alien if it is in the group, null otherwise
+	 * @return false if the alien of the group has died
 	 * @throws IllegalDtException
 	 */
-	private void advanceEveryGameObject(double dt) throws IllegalDtException {
-		if (this.getAlien() != null) {
-			for (Plant plant : this.getPlants()) {
-				 plant.advanceTime(dt);
+	private boolean advanceGroup(List<GameObject> group, double dt, Mazub alien) throws IllegalDtException {
+		for (GameObject object: group) {
+			if (alien != null && alien.getWorld() != this) {
+				return false;
 			}
-			for (Shark shark: this.getSharks()) {
-				shark.advanceTime(dt);
+			if (object.getWorld() == this) {
+				object.advanceTime(dt);
 			}
-			for (Slime slime: this.getSlimes()) {
-				slime.advanceTime(dt);
-			}
-			if (this.getBuzam() != null) {
-				this.getBuzam().advanceTime(dt);
+		}
+		return alien == null || alien.getWorld() == this;
+	}
+	
+	/**
+	 * Advances the given group of game objects in lockstep, with the smallest dt
+	 * of the group, over the given time. If the alien is in the group and dies, the
+	 * group stops at the step in which it died. Only the group of the alien looks at
+	 * the alien, so the other groups do not depend on when that happens.
+	 * @param group
+	 * 			the game objects that can interact with each other
+	 * @param dt
+	 * 			the time to advance
+	 * @param alien
+	 * 			the alien of this world at the start of the advance
+	 * @return the number of steps the group was advanced with
+	 * @throws IllegalDtException
+	 */
+	private int advanceInLockstep(List<GameObject> group, double dt, Mazub alien) throws IllegalDtException {
+		long start = System.nanoTime();
+		double minDt = World.computeMinimalDt(group, dt);
+		Mazub alienOfGroup = group.contains(alien) ? alien : null;
+		long dtComputed = System.nanoTime();
+		this.dtTime.addAndGet(dtComputed - start);
+		double timePassed = 0;
+		int nbSteps = 0;
+		boolean alienAlive = true;
+		if (minDt < dt) {
+			for (timePassed = 0; alienAlive && timePassed < (dt - minDt); timePassed += minDt) {
+				alienAlive = advanceGroup(group, minDt, alienOfGroup);
+				nbSteps++;
 			}
-			this.getAlien().advanceTime(dt);
-			
-			positioningVisibleWindow();
 		}
+		if (alienAlive && dt - timePassed > 0) {
+			advanceGroup(group, dt - timePassed, alienOfGroup);
+			nbSteps++;
+		}
+		this.moveTime.addAndGet(System.nanoTime() - dtComputed);
+		return nbSteps;
 	}
 	
 	/**
-	 * NO DOCUMENTATION MUST BE WORKED OUT
+	 * Advances the time of the world. The programs of the game objects are executed first,
+	 * except for the programs that sleep on a wait.
+	 * Then the game objects are split in groups that can not interact with each other during dt,
+	 * every group is advanced with its own smallest dt, so that a fast game object does not force
+	 * small steps on game objects far away from it. If the world has a parallel pool, the groups
+	 * are advanced on that pool. The groups are synchronised at the end of dt.
+	 * If the alien dies, its group stops at the step in which it died, but the other groups,
+	 * which can not interact with it, still advance over the whole dt; the game is over after
+	 * this advance.
+	 * @param dt
+	 * 			the time to advance
 	 * @throws IllegalDtException 
+	 * 			the given dt is not valid
+	 * 			| ! isValidDt(dt)
 	 */
 	public void advanceTime(double dt) throws IllegalDtException {
 		if( ! isValidDt(dt)) {
 			throw new IllegalDtException(dt);
 		}
+		long start = System.nanoTime();
 		if( ! isGameStarted()) {
 			this.startGame();
 		}
-		for (GameObject object: this.listAllGameObjects()) {
-			if (object != null && object.getProgram() != null) {
-				object.getProgram().execute(dt);
+		this.programScheduler.execute(this.listAllGameObjects(), dt);
+		long programsExecuted = System.nanoTime();
+		long groupingTime = 0;
+		long windowTime = 0;
+		int nbGroups = 0;
+		int nbSubSteps = 0;
+		int[] nbSubStepsOfGroups = new int[0];
+		this.dtTime.set(0);
+		this.moveTime.set(0);
+		Mazub alien = this.getAlien();
+		if (alien != null) {
+			List<List<GameObject>> groups = this.listSynchronisationGroups(dt);
+			groupingTime = System.nanoTime() - programsExecuted;
+			nbGroups = groups.size();
+			nbSubStepsOfGroups = new int[nbGroups];
+			if (this.isParallel() && groups.size() > 1) {
+				this.advanceInParallel(groups, dt, alien, nbSubStepsOfGroups);
+			}
+			else {
+				for (int i = 0; i < nbGroups; i++) {
+					nbSubStepsOfGroups[i] = this.advanceInLockstep(groups.get(i), dt, alien);
+				}
+			}
+			for (int nbSteps: nbSubStepsOfGroups) {
+				nbSubSteps += nbSteps;
 			}
+			this.lastNbSubSteps = nbSubSteps;
+			this.lastNbSubStepsOfGroups = nbSubStepsOfGroups;
+			long windowStart = System.nanoTime();
+			this.positioningVisibleWindow();
+			windowTime = System.nanoTime() - windowStart;
 		}
-
-		double minDt = computeMinimalDt(dt);
-		double timePassed = 0;
-		if (minDt < dt) {
-			for (timePassed = 0; timePassed < (dt - minDt); timePassed += minDt) {
-				advanceEveryGameObject(minDt);
+		long snapshotStart = System.nanoTime();
+		this.publishSnapshot();
+		long end = System.nanoTime();
+		this.lastAdvanceStats = new AdvanceStats(programsExecuted - start, groupingTime,
+				this.dtTime.get(), this.moveTime.get(), windowTime, end - snapshotStart,
+				end - start, nbGroups, nbSubSteps);
+	}
+	
+	/**
+	 * returns the time spent in every phase of the last advance of time, or null if
+	 * time has not been advanced yet
+	 * @return lastAdvanceStats
+	 */
+	@Basic
+	public AdvanceStats getLastAdvanceStats() {
+		return this.lastAdvanceStats;
+	}
+	
+	/**
+	 * returns the snapshot of this world after the last advance of time, or null if
+	 * time has not been advanced yet. The snapshot does not change, and can be read
+	 * from any thread while the world advances.
+	 * @return snapshot
+	 */
+	@Basic
+	public WorldSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * takes a snapshot of this world, with the game objects in the order in which
+	 * they are painted: the plants, the sharks, the slimes, buzam and the alien
+	 * @post the new snapshot follows the previous one
+	 * 			| new.getSnapshot().getNumber() == 
+	 * 			|	(getSnapshot() == null ? 1 : getSnapshot().getNumber() + 1)
+	 */
+	private void publishSnapshot() {
+		List<GameObject> objects = new ArrayList<GameObject>(
+				this.plants.size() + this.sharks.size() + this.slimes.size() + 2);
+		objects.addAll(this.plants);
+		objects.addAll(this.sharks);
+		objects.addAll(this.slimes);
+		if (this.getBuzam() != null) {
+			objects.add(this.getBuzam());
+		}
+		if (this.getAlien() != null) {
+			objects.add(this.getAlien());
+		}
+		WorldSnapshot previous = this.snapshot;
+		long number = (previous == null) ? 1 : previous.getNumber() + 1;
+		this.snapshot = new WorldSnapshot(this, objects, number, previous);
+	}
+	
+	/**
+	 * Advances every group of game objects in lockstep on the pool of this world, and
+	 * waits until every group has finished. The groups can not interact with each other
+	 * during dt, so the result does not depend on the order in which they are advanced.
+	 * @param groups
+	 * 			the groups of game objects that can not interact with each other
+	 * @param dt
+	 * 			the time to advance
+	 * @param alien
+	 * 			the alien of this world at the start of the advance
+	 * @param nbSteps
+	 * 			the array in which the number of steps of every group is stored, in the
+	 * 			order of the groups
+	 * @throws IllegalDtException
+	 * 			one of the game objects was advanced with an invalid dt
+	 */
+	private void advanceInParallel(List<List<GameObject>> groups, double dt, Mazub alien, int[] nbSteps)
+			throws IllegalDtException {
+		List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+		for (List<GameObject> group: groups) {
+			tasks.add(this.getParallelPool().submit(() -> this.advanceInLockstep(group, dt, alien)));
+		}
+		for (int i = 0; i < tasks.size(); i++) {
+			try {
+				nbSteps[i] = tasks.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IllegalDtException) {
+					throw (IllegalDtException) e.getCause();
+				}
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
 			}
 		}
-		if (dt - timePassed > 0)
-			advanceEveryGameObject(dt - timePassed);
 	}
 	
 	
@@ -0,0 +1,284 @@
+package jumpingalien.model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.util.Sprite;
+
+/**
+ * A class of immutable snapshots of a world, taken after an advance of the world.
+ * A snapshot keeps what is needed to paint the world and its game objects, one
+ * array per property, so it can be read from any thread without locking the world.
+ * Every game object also keeps its location in the previous snapshot, so a painter
+ * can interpolate between the two.
+ * @author Pieter Van den Berghe, Ward Romanus
+ *
+ * @invar all arrays with a value per game object have the same length
+ * 			| xs.length == objects.length && ys.length == objects.length && ...
+ */
+public final class WorldSnapshot {
+
+	/**
+	 * the flag of a game object that is immune
+	 */
+	public static final int IMMUNE = 1;
+	/**
+	 * the flag of a game object that is dying
+	 */
+	public static final int DYING = 2;
+
+	/**
+	 * Creates a snapshot of the given world, with the given game objects in the order
+	 * in which they are painted.
+	 * @param world
+	 * 			the world to take a snapshot of
+	 * @param objects
+	 * 			the game objects of the world
+	 * @param number
+	 * 			the number of the advance after which the snapshot is taken
+	 * @param previous
+	 * 			the previous snapshot of the world, or null if there is none
+	 */
+	WorldSnapshot(World world, List<? extends GameObject> objects, long number,
+			WorldSnapshot previous) {
+		int size = objects.size();
+		this.number = number;
+		this.objects = objects.toArray(new GameObject[size]);
+		this.indices = new IdentityHashMap<GameObject, Integer>(size);
+		this.xs = new int[size];
+		this.ys = new int[size];
+		this.previousXs = new int[size];
+		this.previousYs = new int[size];
+		this.widths = new int[size];
+		this.heights = new int[size];
+		this.hitpoints = new int[size];
+		this.flags = new byte[size];
+		this.sprites = new Sprite[size];
+		this.schools = new School[size];
+		int alienIndex = -1;
+		int buzamIndex = -1;
+		for (int i = 0; i < size; i++) {
+			GameObject object = this.objects[i];
+			this.indices.put(object, i);
+			this.xs[i] = (int) object.getXPos();
+			this.ys[i] = (int) object.getYPos();
+			int previousIndex = (previous == null) ? -1 : previous.indexOf(object);
+			this.previousXs[i] = (previousIndex < 0) ? this.xs[i] : previous.xs[previousIndex];
+			this.previousYs[i] = (previousIndex < 0) ? this.ys[i] : previous.ys[previousIndex];
+			this.sprites[i] = object.getCurrentSprite();
+			this.widths[i] = this.sprites[i].getWidth();
+			this.heights[i] = this.sprites[i].getHeight();
+			this.hitpoints[i] = object.getHitpoints();
+			this.flags[i] = (byte) ((object.isImmune() ? IMMUNE : 0) | (object.isDying() ? DYING : 0));
+			if (object instanceof Slime) {
+				this.schools[i] = ((Slime) object).getSchool();
+			}
+			if (object == world.getAlien()) {
+				alienIndex = i;
+			}
+			else if (object == world.getBuzam()) {
+				buzamIndex = i;
+			}
+		}
+		this.alienIndex = alienIndex;
+		this.buzamIndex = buzamIndex;
+		this.tileLength = world.getTileLength();
+		this.worldSize = world.getWorldSizeInPixels();
+		this.visibleWindow = world.getVisibleWindow();
+		this.previousVisibleWindow = (previous == null) ? this.visibleWindow : previous.visibleWindow;
+		this.gameOver = world.isGameOver();
+		this.playerWon = world.didPlayerWin();
+	}
+
+	private final long number;
+
+	private final GameObject[] objects;
+	private final Map<GameObject, Integer> indices;
+	private final int[] xs;
+	private final int[] ys;
+	private final int[] previousXs;
+	private final int[] previousYs;
+	private final int[] widths;
+	private final int[] heights;
+	private final int[] hitpoints;
+	private final byte[] flags;
+	private final Sprite[] sprites;
+	private final School[] schools;
+
+	private final int alienIndex;
+	private final int buzamIndex;
+
+	private final int tileLength;
+	private final int[] worldSize;
+	private final int[] visibleWindow;
+	private final int[] previousVisibleWindow;
+	private final boolean gameOver;
+	private final boolean playerWon;
+
+	/**
+	 * returns the number of the advance of the world after which this snapshot was
+	 * taken, starting from 1
+	 */
+	public long getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * returns the number of game objects in this snapshot
+	 */
+	public int getNbObjects() {
+		return this.objects.length;
+	}
+
+	/**
+	 * returns the game object with the given index
+	 */
+	public GameObject getObject(int index) {
+		return this.objects[index];
+	}
+
+	/**
+	 * returns the index of the given game object in this snapshot, or -1 if it was
+	 * not in the world
+	 */
+	public int indexOf(GameObject object) {
+		Integer index = this.indices.get(object);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * returns the index of the alien, or -1 if the world had no alien
+	 */
+	public int getAlienIndex() {
+		return this.alienIndex;
+	}
+
+	/**
+	 * returns the index of buzam, or -1 if the world had no buzam
+	 */
+	public int getBuzamIndex() {
+		return this.buzamIndex;
+	}
+
+	/**
+	 * returns the location of the bottom left pixel of the game object with the given
+	 * index, interpolated between the previous snapshot and this one
+	 * @param alpha
+	 * 			0 for the location in the previous snapshot, 1 for the location in
+	 * 			this one
+	 */
+	public int[] getLocation(int index, double alpha) {
+		return new int[] {interpolate(this.previousXs[index], this.xs[index], alpha),
+				interpolate(this.previousYs[index], this.ys[index], alpha)};
+	}
+
+	/**
+	 * returns the size of the game object with the given index
+	 */
+	public int[] getSize(int index) {
+		return new int[] {this.widths[index], this.heights[index]};
+	}
+
+	/**
+	 * returns the current sprite of the game object with the given index
+	 */
+	public Sprite getSprite(int index) {
+		return this.sprites[index];
+	}
+
+	/**
+	 * returns the hitpoints of the game object with the given index
+	 */
+	public int getHitpoints(int index) {
+		return this.hitpoints[index];
+	}
+
+	/**
+	 * returns true if the game object with the given index has the given flag
+	 */
+	public boolean hasFlag(int index, int flag) {
+		return (this.flags[index] & flag) != 0;
+	}
+
+	/**
+	 * returns the school of the slime with the given index, or null if the game
+	 * object is not a slime
+	 */
+	public School getSchool(int index) {
+		return this.schools[index];
+	}
+
+	/**
+	 * returns the length of a side of a tile of the world, in pixels
+	 */
+	public int getTileLength() {
+		return this.tileLength;
+	}
+
+	/**
+	 * returns the width and the height of the world, in pixels
+	 */
+	public int[] getWorldSize() {
+		return this.worldSize.clone();
+	}
+
+	/**
+	 * returns the bottom left pixel of the tile with the given coordinates, like
+	 * World.getBottomLeftPixelOfTile
+	 */
+	public int[] getBottomLeftPixelOfTile(int tileX, int tileY) {
+		return new int[] {tileX * this.tileLength, tileY * this.tileLength};
+	}
+
+	/**
+	 * returns the coordinates of the tiles in the given rectangular region, row by row
+	 * from the bottom left tile, like World.getTilePositionsIn
+	 */
+	public int[][] getTilePositionsIn(int pixelLeft, int pixelBottom, int pixelRight,
+			int pixelTop) {
+		int left = this.getTileCoordinate(pixelLeft);
+		int bottom = this.getTileCoordinate(pixelBottom);
+		int right = this.getTileCoordinate(pixelRight);
+		int top = this.getTileCoordinate(pixelTop);
+		int[][] result = new int[(right - left + 1) * (top - bottom + 1)][];
+		int counter = 0;
+		for (int tileY = bottom; tileY <= top; tileY++) {
+			for (int tileX = left; tileX <= right; tileX++) {
+				result[counter++] = new int[] {tileX, tileY};
+			}
+		}
+		return result;
+	}
+
+	private int getTileCoordinate(int pixel) {
+		return (pixel - pixel % this.tileLength) / this.tileLength;
+	}
+
+	/**
+	 * returns the visible window, interpolated between the previous snapshot and this
+	 * one, in the order left, bottom, right, top
+	 */
+	public int[] getVisibleWindow(double alpha) {
+		int left = interpolate(this.previousVisibleWindow[0], this.visibleWindow[0], alpha);
+		int bottom = interpolate(this.previousVisibleWindow[1], this.visibleWindow[1], alpha);
+		return new int[] {left, bottom, left + this.visibleWindow[2] - this.visibleWindow[0],
+				bottom + this.visibleWindow[3] - this.visibleWindow[1]};
+	}
+
+	public boolean isGameOver() {
+		return this.gameOver;
+	}
+
+	public boolean didPlayerWin() {
+		return this.playerWon;
+	}
+
+	private static int interpolate(int from, int to, double alpha) {
+		if (alpha >= 1) {
+			return to;
+		}
+		return (int) Math.round(from + (to - from) * alpha);
+	}
+
+}
@@ -0,0 +1,96 @@
+package jumpingalien.model.program;
+
+import jumpingalien.model.Type;
+
+/**
+ * The code of a compiled program: its instructions, its constants and the layout of
+ * its variables. A compiled program does not change after it is built.
+ */
+public class CompiledProgram {
+
+	CompiledProgram(int[] code, double[] doubleConstants, Object[] objectConstants,
+			VariableTable variables, int nbForEachLoops, int[] maxStackDepth) {
+		this.code = code;
+		this.doubleConstants = doubleConstants;
+		this.objectConstants = objectConstants;
+		this.variables = new VariableTable(variables);
+		this.nbDoubleSlots = variables.getNbDoubleSlots();
+		this.nbBooleanSlots = variables.getNbBooleanSlots();
+		this.nbObjectSlots = variables.getNbObjectSlots();
+		this.nbForEachLoops = nbForEachLoops;
+		this.maxDoubleStack = maxStackDepth[0];
+		this.maxBooleanStack = maxStackDepth[1];
+		this.maxObjectStack = maxStackDepth[2];
+	}
+
+	final int[] code;
+	final double[] doubleConstants;
+	final Object[] objectConstants;
+
+	private final VariableTable variables;
+
+	final int nbDoubleSlots;
+	final int nbBooleanSlots;
+	final int nbObjectSlots;
+	final int nbForEachLoops;
+
+	final int maxDoubleStack;
+	final int maxBooleanStack;
+	final int maxObjectStack;
+
+	/**
+	 * Returns the number of ints in the code of this program.
+	 */
+	public int getCodeLength() {
+		return code.length;
+	}
+
+	/**
+	 * Returns the size of the stack of values of the given store type: DOUBLE,
+	 * BOOLEAN or OBJECT.
+	 */
+	public int getMaxStackDepth(Type store) {
+		if (store == Type.DOUBLE) {
+			return maxDoubleStack;
+		}
+		if (store == Type.BOOLEAN) {
+			return maxBooleanStack;
+		}
+		return maxObjectStack;
+	}
+
+	/**
+	 * Returns the slot of the variable with the given name, or -1 if it has none.
+	 */
+	public int getSlot(String name) {
+		return variables.getSlot(name);
+	}
+
+	/**
+	 * Returns the type of the store of the variable with the given name: DOUBLE,
+	 * BOOLEAN or OBJECT, or null if the variable has no slot.
+	 */
+	public Type getStoreType(String name) {
+		return variables.getStoreType(name);
+	}
+
+	/**
+	 * Returns the instructions of this program, one per line.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		int pc = 0;
+		while (pc < code.length) {
+			result.append(pc).append(": ").append(code[pc]);
+			int nbOperands = Opcode.getNbOperands(code[pc]);
+			for (int i = 1; i <= nbOperands; i++) {
+				result.append(' ').append(code[pc + i]);
+			}
+			result.append('\n');
+			pc += nbOperands + 1;
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,103 @@
+package jumpingalien.model.program;
+
+import java.util.List;
+
+import jumpingalien.model.SuperObject;
+import jumpingalien.model.World;
+import jumpingalien.model.program.statement.ForEachStatement;
+
+/**
+ * The objects that a foreach loop still has to visit.
+ *
+ * Without sort clause, the objects are visited in the order of a list, possibly
+ * followed by the tiles of a world, that are only created when they are visited.
+ * With a sort clause, the objects are kept in a heap on their sort keys, so every step
+ * only selects the next object instead of sorting all of them first. A loop that is
+ * ended by a break does not pay for the objects it never visits.
+ */
+class ForEachCursor {
+
+	/**
+	 * Returns a cursor that visits the given objects, followed by the first given
+	 * number of tiles of the given world.
+	 */
+	ForEachCursor(List<SuperObject> objects, World world, long nbTiles) {
+		this.objects = objects;
+		this.world = world;
+		this.nbTiles = nbTiles;
+		this.heap = null;
+	}
+
+	/**
+	 * Returns a cursor that visits the given objects in the order of the given sort
+	 * keys, from small to large or from large to small. Objects with the same key are
+	 * visited in the order of the list.
+	 */
+	ForEachCursor(List<SuperObject> objects, int[] keys, boolean descending) {
+		this.objects = objects;
+		this.world = null;
+		this.nbTiles = 0;
+		this.heap = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			// The complement reverses the order of the keys, without overflow.
+			long key = descending ? ~keys[i] : keys[i];
+			// The index in the low bits keeps objects with equal keys in order.
+			heap[i] = (key << 32) | i;
+		}
+		this.heapSize = heap.length;
+		for (int i = heapSize / 2 - 1; i >= 0; i--) {
+			this.siftDown(i);
+		}
+	}
+
+	private final List<SuperObject> objects;
+	private int position = 0;
+
+	private final World world;
+	private final long nbTiles;
+	private long tilePosition = 0;
+
+	private final long[] heap;
+	private int heapSize;
+
+	public boolean hasNext() {
+		if (heap != null) {
+			return heapSize > 0;
+		}
+		return position < objects.size() || tilePosition < nbTiles;
+	}
+
+	/**
+	 * Returns the next object to visit.
+	 */
+	public SuperObject next() {
+		if (heap != null) {
+			int index = (int) heap[0];
+			heap[0] = heap[--heapSize];
+			this.siftDown(0);
+			return objects.get(index);
+		}
+		if (position < objects.size()) {
+			return objects.get(position++);
+		}
+		return ForEachStatement.getTile(world, tilePosition++);
+	}
+
+	private void siftDown(int i) {
+		long value = heap[i];
+		int child = 2 * i + 1;
+		while (child < heapSize) {
+			if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (value <= heap[child]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+			child = 2 * i + 1;
+		}
+		heap[i] = value;
+	}
+
+}
@@ -0,0 +1,245 @@
+package jumpingalien.model.program;
+
+/**
+ * The instructions of the virtual machine that executes compiled programs.
+ *
+ * Every instruction is an int in the code of a compiled program, followed by its
+ * operands. Expressions are evaluated on three stacks: one of doubles, one of
+ * booleans and one of objects (game objects, tiles and directions).
+ * The comment of every instruction lists its operands and its effect on the stacks.
+ */
+public final class Opcode {
+
+	private Opcode() {
+	}
+
+	// Control flow
+
+	/** Ends the current step of 0.001 s. The next step starts at the next instruction. */
+	public static final int YIELD = 0;
+	/** target: continues at the given target. */
+	public static final int JUMP = 1;
+	/** target: pops a boolean and continues at the given target if it is false. */
+	public static final int JUMP_IF_FALSE = 2;
+	/** Ends the evaluation of a where clause of a foreach, with its result on the boolean stack. */
+	public static final int RETURN_BOOLEAN = 3;
+	/** Ends the evaluation of a sort clause of a foreach, with its result on the double stack. */
+	public static final int RETURN_DOUBLE = 4;
+	/** target: continues at the given target if the boolean on top is false, otherwise pops it. */
+	public static final int JUMP_IF_FALSE_OR_POP = 5;
+	/** target: continues at the given target if the boolean on top is true, otherwise pops it. */
+	public static final int JUMP_IF_TRUE_OR_POP = 6;
+	/** Stops the program, like an illegal statement or expression in the tree would. */
+	public static final int ILLEGAL = 7;
+
+	// Constants and variables
+
+	/** index: pushes the double constant with the given index. */
+	public static final int PUSH_DOUBLE = 10;
+	/** Pushes true. */
+	public static final int PUSH_TRUE = 11;
+	/** Pushes false. */
+	public static final int PUSH_FALSE = 12;
+	/** index: pushes the object constant with the given index. */
+	public static final int PUSH_OBJECT = 13;
+	/** Pushes null. */
+	public static final int PUSH_NULL = 14;
+	/** Pushes the game object executing the program. */
+	public static final int PUSH_SELF = 15;
+	/** slot: pushes the double variable in the given slot. */
+	public static final int LOAD_DOUBLE = 16;
+	/** slot: pushes the boolean variable in the given slot. */
+	public static final int LOAD_BOOLEAN = 17;
+	/** slot: pushes the object variable in the given slot. */
+	public static final int LOAD_OBJECT = 18;
+	/** slot: pops a double into the given slot. */
+	public static final int STORE_DOUBLE = 19;
+	/** slot: pops a boolean into the given slot. */
+	public static final int STORE_BOOLEAN = 20;
+	/** slot: pops an object into the given slot. */
+	public static final int STORE_OBJECT = 21;
+
+	// Arithmetic and logic
+
+	public static final int ADD = 30;
+	public static final int SUBTRACT = 31;
+	public static final int MULTIPLY = 32;
+	public static final int DIVIDE = 33;
+	public static final int SQRT = 34;
+	public static final int RANDOM = 35;
+	public static final int NOT = 36;
+	public static final int LESS_THAN = 37;
+	public static final int LESS_EQUALS = 38;
+	public static final int GREATER_THAN = 39;
+	public static final int GREATER_EQUALS = 40;
+	/** Pops two doubles and pushes whether they are equal, in the sense of Double.equals. */
+	public static final int EQUALS_DOUBLE = 41;
+	public static final int EQUALS_BOOLEAN = 42;
+	/** Pops two objects and pushes whether they are equal; null only equals null. */
+	public static final int EQUALS_OBJECT = 43;
+
+	// Queries on objects
+
+	public static final int GET_X = 50;
+	public static final int GET_Y = 51;
+	public static final int GET_WIDTH = 52;
+	public static final int GET_HEIGHT = 53;
+	public static final int GET_HITPOINTS = 54;
+	/** Pops the y and x position in pixels and pushes the tile at that position. */
+	public static final int GET_TILE = 55;
+	/** Pops a direction and pushes the nearest object of self in that direction. */
+	public static final int SEARCH_OBJECT = 56;
+	public static final int IS_MAZUB = 57;
+	public static final int IS_SHARK = 58;
+	public static final int IS_SLIME = 59;
+	public static final int IS_PLANT = 60;
+	public static final int IS_TERRAIN = 61;
+	public static final int IS_DEAD = 62;
+	public static final int IS_PASSABLE = 63;
+	public static final int IS_WATER = 64;
+	public static final int IS_MAGMA = 65;
+	public static final int IS_AIR = 66;
+	public static final int IS_DUCKING = 67;
+	public static final int IS_JUMPING = 68;
+	/** Pops a direction and an object and pushes whether the object moves in that direction. */
+	public static final int IS_MOVING = 69;
+
+	// Actions
+
+	public static final int PRINT_DOUBLE = 80;
+	public static final int PRINT_BOOLEAN = 81;
+	public static final int PRINT_OBJECT = 82;
+	/** Pops a direction and lets self start running in that direction. */
+	public static final int START_RUN = 83;
+	/** Pops a direction and lets self stop running in that direction. */
+	public static final int STOP_RUN = 84;
+	public static final int START_JUMP = 85;
+	public static final int STOP_JUMP = 86;
+	public static final int START_DUCK = 87;
+	public static final int STOP_DUCK = 88;
+	/**
+	 * slot, time, park, done: pops a duration. If the timer in the given double slot has
+	 * reached the duration, the timer is reset and the program continues at done.
+	 * Otherwise the time with the given constant index is added to the timer. If park is
+	 * not 0, the duration can not change during the wait, and the machine is parked for
+	 * the steps that the wait would only add to the timer.
+	 */
+	public static final int WAIT = 89;
+	/**
+	 * loop, kind, variable, where, sort, direction: lists the objects of the given kind
+	 * for the foreach loop with the given index. The where and sort clauses start at the
+	 * given positions, or are -1 if the loop has none. The variable is the object slot
+	 * of the loop variable, direction the ordinal of the sort direction.
+	 */
+	public static final int FOREACH_INIT = 90;
+	/**
+	 * loop, variable, end: stores the next object of the foreach loop with the given
+	 * index in the loop variable, or continues at end if there is none left.
+	 */
+	public static final int FOREACH_NEXT = 91;
+
+	/**
+	 * Returns the number of operands of the given instruction.
+	 */
+	public static int getNbOperands(int opcode) {
+		switch (opcode) {
+		case JUMP:
+		case JUMP_IF_FALSE:
+		case JUMP_IF_FALSE_OR_POP:
+		case JUMP_IF_TRUE_OR_POP:
+		case PUSH_DOUBLE:
+		case PUSH_OBJECT:
+		case LOAD_DOUBLE:
+		case LOAD_BOOLEAN:
+		case LOAD_OBJECT:
+		case STORE_DOUBLE:
+		case STORE_BOOLEAN:
+		case STORE_OBJECT:
+			return 1;
+		case FOREACH_NEXT:
+			return 3;
+		case WAIT:
+			return 4;
+		case FOREACH_INIT:
+			return 6;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the change in size of the double, boolean and object stack when the
+	 * given instruction is executed and continues at the next instruction.
+	 */
+	public static int[] getStackEffect(int opcode) {
+		switch (opcode) {
+		case PUSH_DOUBLE:
+		case LOAD_DOUBLE:
+			return new int[] { 1, 0, 0 };
+		case PUSH_TRUE:
+		case PUSH_FALSE:
+		case LOAD_BOOLEAN:
+			return new int[] { 0, 1, 0 };
+		case PUSH_OBJECT:
+		case PUSH_NULL:
+		case PUSH_SELF:
+		case LOAD_OBJECT:
+			return new int[] { 0, 0, 1 };
+		case STORE_DOUBLE:
+		case RETURN_DOUBLE:
+		case ADD:
+		case SUBTRACT:
+		case MULTIPLY:
+		case DIVIDE:
+		case PRINT_DOUBLE:
+		case WAIT:
+			return new int[] { -1, 0, 0 };
+		case STORE_BOOLEAN:
+		case RETURN_BOOLEAN:
+		case JUMP_IF_FALSE:
+		case JUMP_IF_FALSE_OR_POP:
+		case JUMP_IF_TRUE_OR_POP:
+		case EQUALS_BOOLEAN:
+		case PRINT_BOOLEAN:
+			return new int[] { 0, -1, 0 };
+		case STORE_OBJECT:
+		case PRINT_OBJECT:
+		case START_RUN:
+		case STOP_RUN:
+			return new int[] { 0, 0, -1 };
+		case LESS_THAN:
+		case LESS_EQUALS:
+		case GREATER_THAN:
+		case GREATER_EQUALS:
+		case EQUALS_DOUBLE:
+			return new int[] { -2, 1, 0 };
+		case EQUALS_OBJECT:
+		case IS_MOVING:
+			return new int[] { 0, 1, -2 };
+		case GET_X:
+		case GET_Y:
+		case GET_WIDTH:
+		case GET_HEIGHT:
+		case GET_HITPOINTS:
+			return new int[] { 1, 0, -1 };
+		case GET_TILE:
+			return new int[] { -2, 0, 1 };
+		case IS_MAZUB:
+		case IS_SHARK:
+		case IS_SLIME:
+		case IS_PLANT:
+		case IS_TERRAIN:
+		case IS_DEAD:
+		case IS_PASSABLE:
+		case IS_WATER:
+		case IS_MAGMA:
+		case IS_AIR:
+		case IS_DUCKING:
+		case IS_JUMPING:
+			return new int[] { 0, 1, -1 };
+		default:
+			return new int[] { 0, 0, 0 };
+		}
+	}
+
+}
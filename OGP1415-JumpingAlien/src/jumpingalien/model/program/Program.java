@@ -1,7 +1,7 @@
 package jumpingalien.model.program;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jumpingalien.model.GameObject;
 import jumpingalien.model.Type;
@@ -12,11 +12,34 @@ import jumpingalien.part3.programs.IProgramFactory.Direction;
 public class Program {
 	
 	public Program(Statement mainStatement, Map<String, Type> globalVariables) {
+		this(mainStatement, globalVariables, new VariableTable());
+	}
+	
+	/**
+	 * Returns a program with the given statements, of which the variables are resolved
+	 * to the slots in the given table.
+	 */
+	public Program(Statement mainStatement, Map<String, Type> globalVariables, VariableTable variables) {
+		this(mainStatement, globalVariables, new ProgramCompiler(globalVariables, variables).compile(mainStatement));
+	}
+	
+	private Program(Statement mainStatement, Map<String, Type> globalVariables, CompiledProgram code) {
 		this.setMainStatement(mainStatement);
 		this.setGlobalVariables(globalVariables);
+		this.machine = new VirtualMachine(this, code);
 		this.setEnvironment(globalVariables);
 	}
 	
+	/**
+	 * Returns a new program with the same statements and compiled code as this program,
+	 * that starts at the beginning and is not yet attached to a game object.
+	 * The statements and the code are shared, only the execution state is new.
+	 */
+	public Program newInstance() {
+		return new Program(this.getMainStatement(), this.getGlobalVariables(),
+				this.getMachine().getCompiledProgram());
+	}
+	
 	private Statement mainStatement;
 	private Statement getMainStatement() {
 		return this.mainStatement;
@@ -41,30 +64,69 @@ public class Program {
 		this.gameObject = obj;
 	}
 	
-	private Map<String, Object> environment;
-	public Map<String, Object> getEnvironment() {
-		return this.environment;
+	private VirtualMachine machine;
+	public VirtualMachine getMachine() {
+		return this.machine;
 	}
+	
 	protected void setEnvironment(Map<String, Type> map) {
-		this.environment = new HashMap<String, Object>();
 		for (String key : map.keySet()) {
-			if (map.get(key) == Type.DOUBLE) {
-				this.environment.put(key, 0.0);
-			}
-			else if (map.get(key) == Type.BOOLEAN) {
-				this.environment.put(key, false);
-			}
-			else if (map.get(key) == Type.OBJECT) {
-				this.environment.put(key, null);
-			}
-			else if (map.get(key) == Type.DIRECTION) {
-				this.environment.put(key, Direction.RIGHT);
+			if (map.get(key) == Type.DIRECTION) {
+				this.addToEnvironment(key, Direction.RIGHT);
 			}
 		}
 	}
 	
+	public Object getVariable(String name) {
+		return this.getMachine().getVariable(name);
+	}
+	
 	public void addToEnvironment(String name, Object value ) {
-		this.environment.put(name, value);
+		this.getMachine().setVariable(name, value);
+	}
+	
+	/**
+	 * The program of which this program takes the code at the next call of execute,
+	 * or null. It can be set by another thread.
+	 */
+	private final AtomicReference<Program> pendingReload = new AtomicReference<Program>();
+	
+	public boolean hasPendingReload() {
+		return this.pendingReload.get() != null;
+	}
+	
+	/**
+	 * Lets this program continue with the statements and the compiled code of the given
+	 * program, from the beginning, at the next call of execute: a step is never
+	 * interrupted. The global variables that keep their type keep their value, and a
+	 * program that was stopped runs again. This method can be invoked from any thread.
+	 */
+	public void reload(Program program) {
+		this.pendingReload.set(program);
+	}
+	
+	/**
+	 * Takes the pending program in one atomic step, so a program that is reloaded
+	 * meanwhile stays pending for the next call of execute.
+	 */
+	private void applyReload() {
+		Program program = this.pendingReload.getAndSet(null);
+		if (program == null) {
+			return;
+		}
+		Map<String, Type> oldVariables = this.getGlobalVariables();
+		VirtualMachine oldMachine = this.getMachine();
+		this.setMainStatement(program.getMainStatement());
+		this.setGlobalVariables(program.getGlobalVariables());
+		this.machine = new VirtualMachine(this, program.getMachine().getCompiledProgram());
+		this.setEnvironment(this.getGlobalVariables());
+		for (String name : this.getGlobalVariables().keySet()) {
+			if (this.getGlobalVariables().get(name) == oldVariables.get(name)) {
+				this.addToEnvironment(name, oldMachine.getVariable(name));
+			}
+		}
+		this.pendingTime = 0;
+		this.running = true;
 	}
 	
 	private boolean running = true;
@@ -75,23 +137,182 @@ public class Program {
 		running = false;
 	}
 	
+	/**
+	 * The maximum number of steps executed in one call of execute.
+	 */
+	private int stepBudget = Integer.MAX_VALUE;
+	public int getStepBudget() {
+		return this.stepBudget;
+	}
+	/**
+	 * @throws	IllegalArgumentException
+	 * 			The given budget is not positive.
+	 */
+	public void setStepBudget(int budget) throws IllegalArgumentException {
+		if (budget <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.stepBudget = budget;
+	}
+	
+	/**
+	 * The time that could not be executed within the step budget of the last call of execute.
+	 */
+	private double pendingTime = 0;
+	public double getPendingTime() {
+		return this.pendingTime;
+	}
+	public boolean hasPendingTime() {
+		return this.pendingTime > 0;
+	}
+	
+	private long nbSteps = 0;
+	/**
+	 * Returns the number of steps this program has executed.
+	 */
+	public long getNbSteps() {
+		return this.nbSteps;
+	}
+	
+	/**
+	 * Returns the number of steps this program is parked for: steps of a wait that are
+	 * skipped instead of executed.
+	 */
+	public long getNbParkedSteps() {
+		return this.getMachine().getNbParkedSteps();
+	}
+	
+	/**
+	 * Lets at most the given number of parked steps pass, as execute would, without
+	 * executing anything.
+	 */
+	public void skipParkedSteps(long nbSteps) {
+		this.nbSteps += this.getMachine().skipParkedSteps(nbSteps);
+	}
+	
+	/**
+	 * Returns the number of steps that execute takes for the given time, if there is
+	 * no pending time and the step budget is large enough.
+	 */
+	public static int getNbSteps(double time) {
+		int nbSteps = 1;
+		while (time > Statement.EXECUTION_TIME) {
+			time -= Statement.EXECUTION_TIME;
+			nbSteps++;
+		}
+		return nbSteps;
+	}
+	
+	/**
+	 * What execute does with the time that is left when the step budget is used up.
+	 */
+	public static enum BudgetPolicy {
+		/** The time is pending and executed first in the next call. */
+		DEFER,
+		/** The time is dropped: the program falls behind. */
+		DROP,
+		/** The program is stopped. */
+		STOP
+	}
+	
+	private BudgetPolicy budgetPolicy = BudgetPolicy.DEFER;
+	public BudgetPolicy getBudgetPolicy() {
+		return this.budgetPolicy;
+	}
+	/**
+	 * @throws	IllegalArgumentException
+	 * 			The given policy is null.
+	 */
+	public void setBudgetPolicy(BudgetPolicy policy) throws IllegalArgumentException {
+		if (policy == null) {
+			throw new IllegalArgumentException();
+		}
+		this.budgetPolicy = policy;
+	}
+	
+	private long nbExecutions = 0;
+	private long lastNbSteps = 0;
+	private long maxNbSteps = 0;
+	private long totalNanos = 0;
+	private long lastNanos = 0;
+	private long maxNanos = 0;
+	private long nbOverBudget = 0;
+	
+	/**
+	 * Executes this program for the given time: one step for every 0.001 s and at least
+	 * one step. At most the step budget is executed; what happens with the time that is
+	 * left depends on the budget policy.
+	 */
 	public void execute(double dt) {
+		if (this.hasPendingReload()) {
+			this.applyReload();
+		}
 		if(isRunning()) {
+			long start = System.nanoTime();
+			long stepsBefore = this.nbSteps;
+			double time = this.getPendingTime() + dt;
+			int budget = this.getStepBudget();
+			this.pendingTime = 0;
 			try{
-				if(dt <= 0.001) {
-					this.getMainStatement().execute(this);
-				}
-				else {
-					this.getMainStatement().execute(this);
-					this.execute(dt - 0.001);
+				while (budget > 0) {
+					this.getMachine().step();
+					nbSteps++;
+					budget--;
+					if (time <= Statement.EXECUTION_TIME) {
+						return;
+					}
+					time -= Statement.EXECUTION_TIME;
 				}
+				this.exceedBudget(time);
 			} catch(ClassCastException | IllegalArgumentException e) {
 				stopRunning();
 				System.out.println("Program stopped");
+			} finally {
+				this.count(this.nbSteps - stepsBefore, System.nanoTime() - start);
 			}
 		}
 	}
 	
+	private void exceedBudget(double time) {
+		nbOverBudget++;
+		if (this.getBudgetPolicy() == BudgetPolicy.DEFER) {
+			this.pendingTime = time;
+		}
+		else if (this.getBudgetPolicy() == BudgetPolicy.STOP) {
+			stopRunning();
+			System.out.println("Program stopped: step budget exceeded");
+		}
+	}
+	
+	private void count(long steps, long nanos) {
+		nbExecutions++;
+		lastNbSteps = steps;
+		maxNbSteps = Math.max(maxNbSteps, steps);
+		totalNanos += nanos;
+		lastNanos = nanos;
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+	
+	/**
+	 * Returns the statistics of this program since it was created.
+	 */
+	public ProgramStats getStats() {
+		VirtualMachine machine = this.getMachine();
+		return new ProgramStats(this.getOwnerName(), nbExecutions, nbSteps, lastNbSteps, maxNbSteps,
+				totalNanos / 1e6, lastNanos / 1e6, maxNanos / 1e6, machine.getNbSearches(),
+				machine.getNbForEachLoops(), machine.getNbForEachIterations(), machine.getNbWaitingSteps(),
+				nbOverBudget, this.isRunning());
+	}
+	
+	private String getOwnerName() {
+		GameObject object = this.getGameObject();
+		if (object == null) {
+			return "none";
+		}
+		return String.format("%s (%.0f, %.0f)", object.getClass().getSimpleName(),
+				object.getXPos(), object.getYPos());
+	}
+	
 	public boolean isWellFormed() {
 		return this.getMainStatement().isWellFormed();
 		
@@ -0,0 +1,86 @@
+package jumpingalien.model.program;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of parsed programs, keyed by a hash of their source text.
+ * A hit returns a new instance of the cached program, that shares its statements and
+ * compiled code. When the cache is full, the least recently used program is removed.
+ */
+public class ProgramCache {
+
+	/**
+	 * @throws	IllegalArgumentException
+	 * 			The given capacity is not positive.
+	 */
+	public ProgramCache(int capacity) throws IllegalArgumentException {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.capacity = capacity;
+	}
+
+	private final int capacity;
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	@SuppressWarnings("serial")
+	private final Map<String, Program> programs = new LinkedHashMap<String, Program>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Program> eldest) {
+			return size() > getCapacity();
+		}
+	};
+
+	/**
+	 * Returns a new instance of the program parsed from the given text, or null if
+	 * there is none in this cache.
+	 */
+	public synchronized Program get(String text) {
+		Program program = programs.get(hash(text));
+		if (program == null) {
+			return null;
+		}
+		return program.newInstance();
+	}
+
+	/**
+	 * Adds the given program, parsed from the given text, to this cache.
+	 * The cache keeps a new instance of the program, so reloading or executing the
+	 * given program does not change the programs returned by get.
+	 */
+	public synchronized void put(String text, Program program) {
+		programs.put(hash(text), program.newInstance());
+	}
+
+	public synchronized int size() {
+		return programs.size();
+	}
+
+	public synchronized void clear() {
+		programs.clear();
+	}
+
+	/**
+	 * Returns the SHA-256 hash of the given text, in hexadecimal.
+	 */
+	public static String hash(String text) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder(2 * digest.length);
+			for (byte b : digest) {
+				result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
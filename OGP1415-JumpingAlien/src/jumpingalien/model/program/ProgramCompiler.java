@@ -0,0 +1,264 @@
+package jumpingalien.model.program;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import jumpingalien.model.Type;
+import jumpingalien.model.program.statement.Statement;
+
+/**
+ * Compiles the main statement of a program to the instructions of the virtual machine.
+ *
+ * Every statement and expression compiles itself with the emit methods of this class.
+ * The compiled code keeps the timing of the statements: every simple statement, every
+ * evaluation of the condition of a while or if statement and every element of a
+ * foreach loop ends with a YIELD, which ends the step of 0.001 s. The body of a
+ * foreach loop is executed at once, so no YIELD is emitted inside it.
+ */
+public class ProgramCompiler {
+
+	public ProgramCompiler(Map<String, Type> globalVariables) {
+		this(globalVariables, new VariableTable());
+	}
+
+	/**
+	 * Returns a compiler that adds the slots of the program to the given table, in
+	 * which some variables may already have been resolved.
+	 */
+	public ProgramCompiler(Map<String, Type> globalVariables, VariableTable variables) {
+		this.globalVariables = globalVariables;
+		this.variables = variables;
+		for (String name : globalVariables.keySet()) {
+			this.getVariableSlot(name, globalVariables.get(name));
+		}
+	}
+
+	private final Map<String, Type> globalVariables;
+	private final VariableTable variables;
+
+	private int[] code = new int[64];
+	private int size = 0;
+
+	private final List<Double> doubleConstants = new ArrayList<Double>();
+	private final List<Object> objectConstants = new ArrayList<Object>();
+
+	private int nbForEachLoops = 0;
+
+	private final int[] stackDepth = new int[3];
+	private final int[] maxStackDepth = new int[3];
+
+	private int nbYields = 0;
+	private int forEachDepth = 0;
+	private final Deque<List<Integer>> breaks = new ArrayDeque<List<Integer>>();
+
+	/**
+	 * Returns the compiled code of the given main statement. The code restarts the
+	 * main statement when it is finished.
+	 */
+	public CompiledProgram compile(Statement main) {
+		int start = this.getPosition();
+		main.compile(this);
+		if (nbYields == 0) {
+			this.emitYield();
+		}
+		this.emit(Opcode.JUMP, start);
+		double[] doubles = new double[doubleConstants.size()];
+		for (int i = 0; i < doubles.length; i++) {
+			doubles[i] = doubleConstants.get(i);
+		}
+		return new CompiledProgram(Arrays.copyOf(code, size), doubles, objectConstants.toArray(),
+				variables, nbForEachLoops, maxStackDepth);
+	}
+
+	/**
+	 * Returns the position of the next instruction.
+	 */
+	public int getPosition() {
+		return this.size;
+	}
+
+	public void emit(int opcode, int... operands) {
+		if (size + operands.length + 1 > code.length) {
+			code = Arrays.copyOf(code, Math.max(2 * code.length, size + operands.length + 1));
+		}
+		code[size++] = opcode;
+		for (int operand : operands) {
+			code[size++] = operand;
+		}
+		int[] effect = Opcode.getStackEffect(opcode);
+		for (int i = 0; i < 3; i++) {
+			stackDepth[i] += effect[i];
+			maxStackDepth[i] = Math.max(maxStackDepth[i], stackDepth[i]);
+		}
+	}
+
+	/**
+	 * Emits the given jump instruction without target and returns the position of the
+	 * target, to be filled in with patch.
+	 */
+	public int emitJump(int opcode) {
+		this.emit(opcode, -1);
+		return this.getPosition() - 1;
+	}
+
+	/**
+	 * Lets the operand at the given position refer to the next instruction.
+	 */
+	public void patch(int position) {
+		code[position] = this.getPosition();
+	}
+
+	/**
+	 * Ends the current step, unless the code is part of the body of a foreach loop.
+	 */
+	public void emitYield() {
+		if (forEachDepth == 0) {
+			this.emit(Opcode.YIELD);
+			nbYields++;
+		}
+	}
+
+	/**
+	 * Emits an instruction that stops the program, where an expression of the given
+	 * type is expected.
+	 */
+	public void emitIllegal(Type type) {
+		this.emit(Opcode.ILLEGAL);
+		// Never executed, but keeps the size of the stacks in line with the expression.
+		Type store = getStoreType(type);
+		if (store == Type.DOUBLE) {
+			this.emit(Opcode.PUSH_DOUBLE, this.addConstant(0.0));
+		}
+		else if (store == Type.BOOLEAN) {
+			this.emit(Opcode.PUSH_FALSE);
+		}
+		else {
+			this.emit(Opcode.PUSH_NULL);
+		}
+	}
+
+	public int addConstant(double value) {
+		doubleConstants.add(value);
+		return doubleConstants.size() - 1;
+	}
+
+	public int addConstant(Object value) {
+		int index = objectConstants.indexOf(value);
+		if (index < 0) {
+			objectConstants.add(value);
+			index = objectConstants.size() - 1;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the declared type of the given variable, or null if it is not declared.
+	 */
+	public Type getDeclaredType(String name) {
+		return globalVariables.get(name);
+	}
+
+	/**
+	 * Returns whether the given variable can be read or written with the given type:
+	 * it is declared with that type, or it is not declared and the type is unknown.
+	 */
+	public boolean isDeclared(String name, Type type) {
+		return globalVariables.get(name) == type;
+	}
+
+	/**
+	 * Returns the slot of the variable with the given name in the store of the given
+	 * type. A slot is created for a variable that has none yet.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The variable already has a slot in the store of another type.
+	 */
+	public int getVariableSlot(String name, Type type) throws IllegalArgumentException {
+		return variables.resolve(name, type);
+	}
+
+	/**
+	 * Returns the slot of the variable with the given name, that was resolved to the
+	 * given slot when the statements were built, or is not resolved if the given slot is -1.
+	 *
+	 * @throws	IllegalStateException
+	 * 			The variable was resolved to another slot than the slot it has in this program.
+	 */
+	public int getVariableSlot(String name, Type type, int resolvedSlot)
+			throws IllegalArgumentException, IllegalStateException {
+		int slot = this.getVariableSlot(name, type);
+		if (resolvedSlot >= 0 && resolvedSlot != slot) {
+			throw new IllegalStateException("Variable " + name + " was resolved in another program");
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the type of the store of variables of the given type: DOUBLE, BOOLEAN or OBJECT.
+	 */
+	public static Type getStoreType(Type type) {
+		return VariableTable.getStoreType(type);
+	}
+
+	/**
+	 * Returns a new double slot that is not bound to a variable.
+	 */
+	public int newDoubleSlot() {
+		return variables.newDoubleSlot();
+	}
+
+	/**
+	 * Returns the index of a new foreach loop.
+	 */
+	public int newForEachLoop() {
+		return nbForEachLoops++;
+	}
+
+	/**
+	 * Starts a loop, that can be ended by a break statement.
+	 */
+	public void enterLoop() {
+		breaks.push(new ArrayList<Integer>());
+	}
+
+	/**
+	 * Ends the innermost loop. The break statements of the loop continue at the next instruction.
+	 */
+	public void exitLoop() {
+		for (int position : breaks.pop()) {
+			this.patch(position);
+		}
+	}
+
+	public boolean isInLoop() {
+		return ! breaks.isEmpty();
+	}
+
+	/**
+	 * Adds the jump of a break statement to the innermost loop.
+	 */
+	public void addBreak(int position) {
+		breaks.peek().add(position);
+	}
+
+	public void enterForEachBody() {
+		forEachDepth++;
+	}
+
+	public void exitForEachBody() {
+		forEachDepth--;
+	}
+
+	/**
+	 * Returns whether the code is part of the body of a foreach loop, that is executed
+	 * within one step.
+	 */
+	public boolean isInForEachBody() {
+		return forEachDepth > 0;
+	}
+
+}
@@ -0,0 +1,77 @@
+package jumpingalien.model.program;
+
+/**
+ * The statistics of a program since it was created: how often it was executed, how
+ * many steps it took and how long that took, what it did in these steps and how
+ * often it went over its step budget.
+ */
+public class ProgramStats {
+
+	/** The game object that runs the program, or "none". */
+	public final String owner;
+
+	/** The number of calls of execute. */
+	public final long nbExecutions;
+	/** The number of steps, including the steps of a wait that were skipped. */
+	public final long nbSteps;
+	public final long lastNbSteps;
+	public final long maxNbSteps;
+
+	public final double totalExecuteTime;
+	public final double lastExecuteTime;
+	public final double maxExecuteTime;
+
+	public final long nbSearches;
+	public final long nbForEachLoops;
+	/** The number of objects visited by all foreach loops together. */
+	public final long nbForEachIterations;
+	/** The number of steps spent waiting. */
+	public final long nbWaitingSteps;
+
+	/** The number of calls of execute that ran out of step budget. */
+	public final long nbOverBudget;
+	public final boolean running;
+
+	public ProgramStats(String owner, long nbExecutions, long nbSteps, long lastNbSteps, long maxNbSteps,
+			double totalTime, double lastTime, double maxTime, long nbSearches, long nbForEachLoops,
+			long nbForEachIterations, long nbWaitingSteps, long nbOverBudget, boolean running) {
+		this.owner = owner;
+		this.nbExecutions = nbExecutions;
+		this.nbSteps = nbSteps;
+		this.lastNbSteps = lastNbSteps;
+		this.maxNbSteps = maxNbSteps;
+		this.totalExecuteTime = totalTime;
+		this.lastExecuteTime = lastTime;
+		this.maxExecuteTime = maxTime;
+		this.nbSearches = nbSearches;
+		this.nbForEachLoops = nbForEachLoops;
+		this.nbForEachIterations = nbForEachIterations;
+		this.nbWaitingSteps = nbWaitingSteps;
+		this.nbOverBudget = nbOverBudget;
+		this.running = running;
+	}
+
+	/**
+	 * Returns the average time of a call of execute, in milliseconds.
+	 */
+	public double getAvgExecuteTime() {
+		return nbExecutions == 0 ? 0 : totalExecuteTime / nbExecutions;
+	}
+
+	/**
+	 * Returns the part of the steps that was spent waiting, between 0 and 1.
+	 */
+	public double getWaitOccupancy() {
+		return nbSteps == 0 ? 0 : (double) nbWaitingSteps / nbSteps;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d steps (last %d, max %d) | Execute %.3fms (max %.3fms, total %.0fms) | "
+				+ "Search %d | Foreach %d (%d objects) | Waiting %.0f%% | Over budget %d%s",
+				owner, nbSteps, lastNbSteps, maxNbSteps, getAvgExecuteTime(), maxExecuteTime,
+				totalExecuteTime, nbSearches, nbForEachLoops, nbForEachIterations,
+				100 * getWaitOccupancy(), nbOverBudget, running ? "" : " | Stopped");
+	}
+
+}
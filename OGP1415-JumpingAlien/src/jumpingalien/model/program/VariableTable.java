@@ -0,0 +1,112 @@
+package jumpingalien.model.program;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jumpingalien.model.Type;
+
+/**
+ * The slots of the variables of a program. Every variable has a fixed slot in the
+ * store of its type: doubles, booleans or objects. Objects, directions and variables
+ * of an unknown type share the store of objects.
+ */
+public class VariableTable {
+
+	public VariableTable() {
+	}
+
+	/**
+	 * Returns a copy of the given table.
+	 */
+	public VariableTable(VariableTable other) {
+		this.slots.putAll(other.slots);
+		this.storeTypes.putAll(other.storeTypes);
+		this.nbDoubleSlots = other.nbDoubleSlots;
+		this.nbBooleanSlots = other.nbBooleanSlots;
+		this.nbObjectSlots = other.nbObjectSlots;
+	}
+
+	private final Map<String, Integer> slots = new HashMap<String, Integer>();
+	private final Map<String, Type> storeTypes = new HashMap<String, Type>();
+
+	private int nbDoubleSlots = 0;
+	public int getNbDoubleSlots() {
+		return this.nbDoubleSlots;
+	}
+
+	private int nbBooleanSlots = 0;
+	public int getNbBooleanSlots() {
+		return this.nbBooleanSlots;
+	}
+
+	private int nbObjectSlots = 0;
+	public int getNbObjectSlots() {
+		return this.nbObjectSlots;
+	}
+
+	/**
+	 * Returns the slot of the variable with the given name in the store of the given
+	 * type. A slot is created for a variable that has none yet.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The variable already has a slot in the store of another type.
+	 */
+	public int resolve(String name, Type type) throws IllegalArgumentException {
+		Type store = getStoreType(type);
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			storeTypes.put(name, store);
+			if (store == Type.DOUBLE) {
+				slot = nbDoubleSlots++;
+			}
+			else if (store == Type.BOOLEAN) {
+				slot = nbBooleanSlots++;
+			}
+			else {
+				slot = nbObjectSlots++;
+			}
+			slots.put(name, slot);
+		}
+		else if (storeTypes.get(name) != store) {
+			throw new IllegalArgumentException();
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot of the variable with the given name, or -1 if it has none.
+	 */
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			return -1;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the type of the store of the variable with the given name, or null if it
+	 * has no slot.
+	 */
+	public Type getStoreType(String name) {
+		return storeTypes.get(name);
+	}
+
+	/**
+	 * Returns a new double slot that is not bound to a variable.
+	 */
+	public int newDoubleSlot() {
+		return nbDoubleSlots++;
+	}
+
+	/**
+	 * Returns the type of the store of variables of the given type: DOUBLE, BOOLEAN or OBJECT.
+	 */
+	public static Type getStoreType(Type type) {
+		if (type == Type.DOUBLE || type == Type.BOOLEAN) {
+			return type;
+		}
+		return Type.OBJECT;
+	}
+
+}
@@ -0,0 +1,669 @@
+package jumpingalien.model.program;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.model.Buzam;
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Orientation;
+import jumpingalien.model.Plant;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.model.SuperObject;
+import jumpingalien.model.Tile;
+import jumpingalien.model.Type;
+import jumpingalien.model.World;
+import jumpingalien.model.program.expression.GetTileExpression;
+import jumpingalien.model.program.expression.SearchObject;
+import jumpingalien.model.program.statement.ForEachStatement;
+import jumpingalien.part3.programs.IProgramFactory.Direction;
+import jumpingalien.part3.programs.IProgramFactory.Kind;
+import jumpingalien.part3.programs.IProgramFactory.SortDirection;
+
+/**
+ * Executes the code of a compiled program for one program. The virtual machine holds
+ * everything that changes during the execution: the position in the code, the values
+ * of the variables, the stacks and the objects of the running foreach loops.
+ */
+public class VirtualMachine {
+
+	private static final Kind[] KINDS = Kind.values();
+	private static final SortDirection[] SORT_DIRECTIONS = SortDirection.values();
+
+	VirtualMachine(Program program, CompiledProgram compiledProgram) {
+		this.program = program;
+		this.compiledProgram = compiledProgram;
+		this.code = compiledProgram.code;
+		this.doubles = new double[compiledProgram.nbDoubleSlots];
+		this.booleans = new boolean[compiledProgram.nbBooleanSlots];
+		this.objects = new Object[compiledProgram.nbObjectSlots];
+		this.doubleStack = new double[compiledProgram.maxDoubleStack];
+		this.booleanStack = new boolean[compiledProgram.maxBooleanStack];
+		this.objectStack = new Object[compiledProgram.maxObjectStack];
+		this.forEachCursors = new ForEachCursor[compiledProgram.nbForEachLoops];
+	}
+
+	private final Program program;
+	private final CompiledProgram compiledProgram;
+	private final int[] code;
+
+	private final double[] doubles;
+	private final boolean[] booleans;
+	private final Object[] objects;
+
+	private final double[] doubleStack;
+	private int doubleTop = 0;
+	private final boolean[] booleanStack;
+	private int booleanTop = 0;
+	private final Object[] objectStack;
+	private int objectTop = 0;
+
+	private final ForEachCursor[] forEachCursors;
+
+	private int pc = 0;
+
+	/**
+	 * The most steps the machine is parked for at once, so that a very long wait does
+	 * not take long to park.
+	 */
+	private static final long MAX_PARKED_STEPS = 100000;
+
+	private long nbParkedSteps = 0;
+	/**
+	 * Returns the number of steps this machine is parked for: steps of a wait that
+	 * only add to its timer, and that are skipped instead of executed.
+	 */
+	public long getNbParkedSteps() {
+		return this.nbParkedSteps;
+	}
+
+	private long nbSearches = 0;
+	public long getNbSearches() {
+		return this.nbSearches;
+	}
+
+	private long nbForEachLoops = 0;
+	public long getNbForEachLoops() {
+		return this.nbForEachLoops;
+	}
+
+	private long nbForEachIterations = 0;
+	/**
+	 * Returns the number of objects visited by all foreach loops together.
+	 */
+	public long getNbForEachIterations() {
+		return this.nbForEachIterations;
+	}
+
+	private long nbWaitingSteps = 0;
+	/**
+	 * Returns the number of steps in which a wait added to its timer, parked or not.
+	 */
+	public long getNbWaitingSteps() {
+		return this.nbWaitingSteps;
+	}
+
+	/**
+	 * Skips at most the given number of parked steps, and returns the number of steps
+	 * that were skipped.
+	 */
+	public long skipParkedSteps(long nbSteps) {
+		long skipped = Math.min(nbSteps, this.nbParkedSteps);
+		this.nbParkedSteps -= skipped;
+		this.nbWaitingSteps += skipped;
+		return skipped;
+	}
+
+	public CompiledProgram getCompiledProgram() {
+		return this.compiledProgram;
+	}
+
+	/**
+	 * Returns the value of the variable with the given name, or null if it has no slot.
+	 */
+	public Object getVariable(String name) {
+		int slot = compiledProgram.getSlot(name);
+		if (slot < 0) {
+			return null;
+		}
+		return this.getVariable(compiledProgram.getStoreType(name), slot);
+	}
+
+	/**
+	 * Returns the value of the variable in the given slot of the store of the given type.
+	 */
+	public Object getVariable(Type store, int slot) {
+		if (store == Type.DOUBLE) {
+			return doubles[slot];
+		}
+		else if (store == Type.BOOLEAN) {
+			return booleans[slot];
+		}
+		return objects[slot];
+	}
+
+	public double getDoubleVariable(int slot) {
+		return doubles[slot];
+	}
+
+	public boolean getBooleanVariable(int slot) {
+		return booleans[slot];
+	}
+
+	/**
+	 * Sets the variable with the given name to the given value.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The variable has no slot.
+	 * @throws	ClassCastException
+	 * 			The value does not fit in the store of the variable.
+	 */
+	public void setVariable(String name, Object value) throws IllegalArgumentException, ClassCastException {
+		int slot = compiledProgram.getSlot(name);
+		if (slot < 0) {
+			throw new IllegalArgumentException();
+		}
+		Type store = compiledProgram.getStoreType(name);
+		if (store == Type.DOUBLE) {
+			doubles[slot] = (Double) value;
+		}
+		else if (store == Type.BOOLEAN) {
+			booleans[slot] = (Boolean) value;
+		}
+		else {
+			objects[slot] = value;
+		}
+	}
+
+	/**
+	 * Executes the program for one step of 0.001 s.
+	 */
+	public void step() {
+		if (nbParkedSteps > 0) {
+			nbParkedSteps--;
+			nbWaitingSteps++;
+			return;
+		}
+		this.pc = this.run(this.pc);
+	}
+
+	/**
+	 * Executes the code from the given position until the step or the where or sort
+	 * clause ends, and returns the position of the next instruction.
+	 */
+	private int run(int pc) {
+		final int[] code = this.code;
+		while (true) {
+			switch (code[pc]) {
+			case Opcode.YIELD:
+				return pc + 1;
+			case Opcode.JUMP:
+				pc = code[pc + 1];
+				break;
+			case Opcode.JUMP_IF_FALSE:
+				if (booleanStack[--booleanTop]) {
+					pc += 2;
+				}
+				else {
+					pc = code[pc + 1];
+				}
+				break;
+			case Opcode.RETURN_BOOLEAN:
+			case Opcode.RETURN_DOUBLE:
+				return pc + 1;
+			case Opcode.JUMP_IF_FALSE_OR_POP:
+				if (booleanStack[booleanTop - 1]) {
+					booleanTop--;
+					pc += 2;
+				}
+				else {
+					pc = code[pc + 1];
+				}
+				break;
+			case Opcode.JUMP_IF_TRUE_OR_POP:
+				if (booleanStack[booleanTop - 1]) {
+					pc = code[pc + 1];
+				}
+				else {
+					booleanTop--;
+					pc += 2;
+				}
+				break;
+			case Opcode.ILLEGAL:
+				throw new IllegalArgumentException();
+
+			case Opcode.PUSH_DOUBLE:
+				doubleStack[doubleTop++] = compiledProgram.doubleConstants[code[pc + 1]];
+				pc += 2;
+				break;
+			case Opcode.PUSH_TRUE:
+				booleanStack[booleanTop++] = true;
+				pc++;
+				break;
+			case Opcode.PUSH_FALSE:
+				booleanStack[booleanTop++] = false;
+				pc++;
+				break;
+			case Opcode.PUSH_OBJECT:
+				objectStack[objectTop++] = compiledProgram.objectConstants[code[pc + 1]];
+				pc += 2;
+				break;
+			case Opcode.PUSH_NULL:
+				objectStack[objectTop++] = null;
+				pc++;
+				break;
+			case Opcode.PUSH_SELF:
+				objectStack[objectTop++] = program.getGameObject();
+				pc++;
+				break;
+			case Opcode.LOAD_DOUBLE:
+				doubleStack[doubleTop++] = doubles[code[pc + 1]];
+				pc += 2;
+				break;
+			case Opcode.LOAD_BOOLEAN:
+				booleanStack[booleanTop++] = booleans[code[pc + 1]];
+				pc += 2;
+				break;
+			case Opcode.LOAD_OBJECT:
+				objectStack[objectTop++] = objects[code[pc + 1]];
+				pc += 2;
+				break;
+			case Opcode.STORE_DOUBLE:
+				doubles[code[pc + 1]] = doubleStack[--doubleTop];
+				pc += 2;
+				break;
+			case Opcode.STORE_BOOLEAN:
+				booleans[code[pc + 1]] = booleanStack[--booleanTop];
+				pc += 2;
+				break;
+			case Opcode.STORE_OBJECT:
+				objects[code[pc + 1]] = objectStack[--objectTop];
+				pc += 2;
+				break;
+
+			case Opcode.ADD:
+				doubleTop--;
+				doubleStack[doubleTop - 1] += doubleStack[doubleTop];
+				pc++;
+				break;
+			case Opcode.SUBTRACT:
+				doubleTop--;
+				doubleStack[doubleTop - 1] -= doubleStack[doubleTop];
+				pc++;
+				break;
+			case Opcode.MULTIPLY:
+				doubleTop--;
+				doubleStack[doubleTop - 1] *= doubleStack[doubleTop];
+				pc++;
+				break;
+			case Opcode.DIVIDE:
+				doubleTop--;
+				doubleStack[doubleTop - 1] /= doubleStack[doubleTop];
+				pc++;
+				break;
+			case Opcode.SQRT:
+				doubleStack[doubleTop - 1] = Math.sqrt(doubleStack[doubleTop - 1]);
+				pc++;
+				break;
+			case Opcode.RANDOM:
+				doubleStack[doubleTop - 1] = Math.random() * doubleStack[doubleTop - 1];
+				pc++;
+				break;
+			case Opcode.NOT:
+				booleanStack[booleanTop - 1] = ! booleanStack[booleanTop - 1];
+				pc++;
+				break;
+			case Opcode.LESS_THAN:
+				doubleTop -= 2;
+				booleanStack[booleanTop++] = doubleStack[doubleTop] < doubleStack[doubleTop + 1];
+				pc++;
+				break;
+			case Opcode.LESS_EQUALS:
+				doubleTop -= 2;
+				booleanStack[booleanTop++] = doubleStack[doubleTop] <= doubleStack[doubleTop + 1];
+				pc++;
+				break;
+			case Opcode.GREATER_THAN:
+				doubleTop -= 2;
+				booleanStack[booleanTop++] = doubleStack[doubleTop] > doubleStack[doubleTop + 1];
+				pc++;
+				break;
+			case Opcode.GREATER_EQUALS:
+				doubleTop -= 2;
+				booleanStack[booleanTop++] = doubleStack[doubleTop] >= doubleStack[doubleTop + 1];
+				pc++;
+				break;
+			case Opcode.EQUALS_DOUBLE:
+				doubleTop -= 2;
+				booleanStack[booleanTop++] = Double.doubleToLongBits(doubleStack[doubleTop])
+						== Double.doubleToLongBits(doubleStack[doubleTop + 1]);
+				pc++;
+				break;
+			case Opcode.EQUALS_BOOLEAN:
+				booleanTop--;
+				booleanStack[booleanTop - 1] = booleanStack[booleanTop - 1] == booleanStack[booleanTop];
+				pc++;
+				break;
+			case Opcode.EQUALS_OBJECT: {
+				Object second = objectStack[--objectTop];
+				Object first = objectStack[--objectTop];
+				booleanStack[booleanTop++] = (first == null) ? (second == null) : first.equals(second);
+				pc++;
+				break;
+			}
+
+			case Opcode.GET_X:
+				doubleStack[doubleTop++] = ((SuperObject) objectStack[--objectTop]).getXPos();
+				pc++;
+				break;
+			case Opcode.GET_Y:
+				doubleStack[doubleTop++] = ((SuperObject) objectStack[--objectTop]).getYPos();
+				pc++;
+				break;
+			case Opcode.GET_WIDTH:
+				doubleStack[doubleTop++] = ((GameObject) objectStack[--objectTop]).getXDim();
+				pc++;
+				break;
+			case Opcode.GET_HEIGHT:
+				doubleStack[doubleTop++] = ((GameObject) objectStack[--objectTop]).getYDim();
+				pc++;
+				break;
+			case Opcode.GET_HITPOINTS:
+				doubleStack[doubleTop++] = ((GameObject) objectStack[--objectTop]).getHitpoints();
+				pc++;
+				break;
+			case Opcode.GET_TILE: {
+				World world = program.getGameObject().getWorld();
+				int yPos = (int) doubleStack[--doubleTop];
+				int xPos = (int) doubleStack[--doubleTop];
+				objectStack[objectTop++] = GetTileExpression.getTile(world, xPos, yPos);
+				pc++;
+				break;
+			}
+			case Opcode.SEARCH_OBJECT:
+				objectStack[objectTop - 1] = SearchObject.search(program.getGameObject(),
+						(Direction) objectStack[objectTop - 1]);
+				nbSearches++;
+				pc++;
+				break;
+			case Opcode.IS_MAZUB:
+				booleanStack[booleanTop++] = objectStack[--objectTop] instanceof Mazub;
+				pc++;
+				break;
+			case Opcode.IS_SHARK:
+				booleanStack[booleanTop++] = objectStack[--objectTop] instanceof Shark;
+				pc++;
+				break;
+			case Opcode.IS_SLIME:
+				booleanStack[booleanTop++] = objectStack[--objectTop] instanceof Slime;
+				pc++;
+				break;
+			case Opcode.IS_PLANT:
+				booleanStack[booleanTop++] = objectStack[--objectTop] instanceof Plant;
+				pc++;
+				break;
+			case Opcode.IS_TERRAIN:
+				booleanStack[booleanTop++] = objectStack[--objectTop] instanceof Tile;
+				pc++;
+				break;
+			case Opcode.IS_DEAD:
+				booleanStack[booleanTop++] = ((GameObject) objectStack[--objectTop]).getHitpoints() <= 0;
+				pc++;
+				break;
+			case Opcode.IS_PASSABLE:
+				booleanStack[booleanTop++] = ((Tile) objectStack[--objectTop]).getGeologicalFeature() != 1;
+				pc++;
+				break;
+			case Opcode.IS_WATER:
+				booleanStack[booleanTop++] = ((Tile) objectStack[--objectTop]).getGeologicalFeature() == 2;
+				pc++;
+				break;
+			case Opcode.IS_MAGMA:
+				booleanStack[booleanTop++] = ((Tile) objectStack[--objectTop]).getGeologicalFeature() == 3;
+				pc++;
+				break;
+			case Opcode.IS_AIR:
+				booleanStack[booleanTop++] = ((Tile) objectStack[--objectTop]).getGeologicalFeature() == 0;
+				pc++;
+				break;
+			case Opcode.IS_DUCKING:
+				booleanStack[booleanTop++] = ((Mazub) objectStack[--objectTop]).isDucked();
+				pc++;
+				break;
+			case Opcode.IS_JUMPING: {
+				Object object = objectStack[--objectTop];
+				if (! (object instanceof Buzam || object instanceof Shark)) {
+					throw new IllegalArgumentException();
+				}
+				booleanStack[booleanTop++] = ((GameObject) object).isJumping();
+				pc++;
+				break;
+			}
+			case Opcode.IS_MOVING: {
+				Direction direction = (Direction) objectStack[--objectTop];
+				Object object = objectStack[--objectTop];
+				booleanStack[booleanTop++] = isMoving(object, direction);
+				pc++;
+				break;
+			}
+
+			case Opcode.PRINT_DOUBLE:
+				System.out.println(doubleStack[--doubleTop]);
+				pc++;
+				break;
+			case Opcode.PRINT_BOOLEAN:
+				System.out.println(booleanStack[--booleanTop]);
+				pc++;
+				break;
+			case Opcode.PRINT_OBJECT:
+				System.out.println(objectStack[--objectTop]);
+				pc++;
+				break;
+			case Opcode.START_RUN: {
+				Direction direction = (Direction) objectStack[--objectTop];
+				if (direction == Direction.RIGHT) {
+					program.getGameObject().startMoveRight();
+				}
+				else if (direction == Direction.LEFT) {
+					program.getGameObject().startMoveLeft();
+				}
+				else {
+					throw new IllegalArgumentException();
+				}
+				pc++;
+				break;
+			}
+			case Opcode.STOP_RUN: {
+				Direction direction = (Direction) objectStack[--objectTop];
+				GameObject self = program.getGameObject();
+				if ((direction == Direction.RIGHT && self.getOrientation() == Orientation.RIGHT)
+						|| (direction == Direction.LEFT && self.getOrientation() == Orientation.LEFT)) {
+					self.stopMovingX();
+				}
+				pc++;
+				break;
+			}
+			case Opcode.START_JUMP: {
+				GameObject self = program.getGameObject();
+				if (self instanceof Mazub) {
+					((Mazub) self).startJump();
+				}
+				else if (self instanceof Shark) {
+					((Shark) self).startJump();
+				}
+				else {
+					throw new IllegalArgumentException();
+				}
+				pc++;
+				break;
+			}
+			case Opcode.STOP_JUMP: {
+				GameObject self = program.getGameObject();
+				if (self instanceof Mazub) {
+					((Mazub) self).endJump();
+				}
+				else if (self instanceof Shark) {
+					((Shark) self).endJump();
+				}
+				else {
+					throw new IllegalArgumentException();
+				}
+				pc++;
+				break;
+			}
+			case Opcode.START_DUCK:
+				if (! (program.getGameObject() instanceof Mazub)) {
+					throw new IllegalArgumentException();
+				}
+				((Mazub) program.getGameObject()).startDuck();
+				pc++;
+				break;
+			case Opcode.STOP_DUCK:
+				if (! (program.getGameObject() instanceof Mazub)) {
+					throw new IllegalArgumentException();
+				}
+				((Mazub) program.getGameObject()).endDuck();
+				pc++;
+				break;
+			case Opcode.WAIT: {
+				int timer = code[pc + 1];
+				double duration = doubleStack[--doubleTop];
+				if (doubles[timer] >= duration) {
+					doubles[timer] = 0;
+					pc = code[pc + 4];
+				}
+				else {
+					double time = compiledProgram.doubleConstants[code[pc + 2]];
+					doubles[timer] += time;
+					nbWaitingSteps++;
+					if (code[pc + 3] != 0) {
+						this.park(timer, duration, time);
+					}
+					pc += 5;
+				}
+				break;
+			}
+			case Opcode.FOREACH_INIT:
+				forEachCursors[code[pc + 1]] = this.createCursor(KINDS[code[pc + 2]], code[pc + 3],
+						code[pc + 4], code[pc + 5], code[pc + 6]);
+				nbForEachLoops++;
+				pc += 7;
+				break;
+			case Opcode.FOREACH_NEXT: {
+				int loop = code[pc + 1];
+				if (forEachCursors[loop].hasNext()) {
+					objects[code[pc + 2]] = forEachCursors[loop].next();
+					nbForEachIterations++;
+					pc += 4;
+				}
+				else {
+					forEachCursors[loop] = null;
+					pc = code[pc + 3];
+				}
+				break;
+			}
+
+			default:
+				throw new IllegalStateException("Unknown instruction " + code[pc] + " at " + pc);
+			}
+		}
+	}
+
+	private static boolean isMoving(Object object, Direction direction) {
+		if (direction == Direction.RIGHT) {
+			return ((GameObject) object).getXSpeed() > 0
+					&& ((GameObject) object).getOrientation() == Orientation.RIGHT;
+		}
+		else if (direction == Direction.LEFT) {
+			return ((GameObject) object).getXSpeed() > 0
+					&& ((GameObject) object).getOrientation() == Orientation.LEFT;
+		}
+		else if (direction == Direction.UP) {
+			return ((GameObject) object).getYSpeed() > 0;
+		}
+		else if (direction == Direction.DOWN) {
+			return ((GameObject) object).getYSpeed() < 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the time of the next steps of the wait with the given timer to the timer at
+	 * once, up to the given duration, and parks this machine for these steps. The
+	 * duration of the wait can not change, so in these steps the wait would only have
+	 * added the given time to its timer, one step at a time.
+	 */
+	private void park(int timer, double duration, double time) {
+		double value = doubles[timer];
+		long steps = 0;
+		// The same sum as step by step, so the wait ends in the same step.
+		while (value < duration && steps < MAX_PARKED_STEPS) {
+			value += time;
+			steps++;
+		}
+		doubles[timer] = value;
+		nbParkedSteps = steps;
+	}
+
+	/**
+	 * Returns a cursor over the objects of the given kind for which the where clause
+	 * starting at the given position holds, sorted by the sort clause starting at the
+	 * given position. The where clause is evaluated for every object at once, the sort
+	 * clause once for every object that passes it.
+	 */
+	private ForEachCursor createCursor(Kind kind, int variable, int where, int sort, int direction) {
+		World world = program.getGameObject().getWorld();
+		List<SuperObject> candidates = ForEachStatement.listGameObjectsOfKind(world, kind);
+		long nbTiles = ForEachStatement.includesTiles(kind) ? ForEachStatement.getNbTiles(world) : 0;
+		if (where < 0 && sort < 0) {
+			// Only the tiles that are visited are created.
+			return new ForEachCursor(candidates, world, nbTiles);
+		}
+		List<SuperObject> list;
+		if (where < 0) {
+			list = candidates;
+			for (long i = 0; i < nbTiles; i++) {
+				list.add(ForEachStatement.getTile(world, i));
+			}
+		}
+		else {
+			list = new ArrayList<SuperObject>();
+			for (SuperObject object : candidates) {
+				if (this.holds(where, variable, object)) {
+					list.add(object);
+				}
+			}
+			for (long i = 0; i < nbTiles; i++) {
+				Tile tile = ForEachStatement.getTile(world, i);
+				if (this.holds(where, variable, tile)) {
+					list.add(tile);
+				}
+			}
+		}
+		if (sort < 0 || list.size() < 2) {
+			return new ForEachCursor(list, null, 0);
+		}
+		if (direction < 0) {
+			throw new IllegalArgumentException();
+		}
+		int[] keys = new int[list.size()];
+		for (int i = 0; i < keys.length; i++) {
+			objects[variable] = list.get(i);
+			this.run(sort);
+			keys[i] = (int) doubleStack[--doubleTop];
+		}
+		return new ForEachCursor(list, keys, SORT_DIRECTIONS[direction] == SortDirection.DESCENDING);
+	}
+
+	/**
+	 * Returns whether the where clause starting at the given position holds for the
+	 * given object, that is stored in the given variable.
+	 */
+	private boolean holds(int where, int variable, SuperObject object) {
+		objects[variable] = object;
+		this.run(where);
+		return booleanStack[--booleanTop];
+	}
+
+}
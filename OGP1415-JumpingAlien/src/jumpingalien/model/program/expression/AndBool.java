@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class AndBool extends BinaryExpression<Boolean, Boolean> {
 
@@ -14,9 +16,21 @@ public class AndBool extends BinaryExpression<Boolean, Boolean> {
 		this.setType(Type.BOOLEAN);
 	}
 
+	@Override
+	public boolean evaluateBoolean(Program program) {
+		return this.getExpression1().evaluateBoolean(program) && this.getExpression2().evaluateBoolean(program);
+	}
+	
 	@Override
 	public Boolean evaluate(Program program) {
-		return this.getExpression1().evaluate(program) && this.getExpression2().evaluate(program);
+		return this.evaluateBoolean(program);
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		int end = compiler.emitJump(Opcode.JUMP_IF_FALSE_OR_POP);
+		this.getExpression2().compile(compiler);
+		compiler.patch(end);
+	}
 }
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class BoolFalse extends Expression<Boolean> {
@@ -11,7 +13,17 @@ public class BoolFalse extends Expression<Boolean> {
 	}
 	
 	@Override
-	public Boolean evaluate(Program program) {
+	public boolean evaluateBoolean(Program program) {
 		return false;
 	}
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_FALSE);
+	}
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class BoolTrue extends Expression<Boolean> {
 	
@@ -9,7 +11,18 @@ public class BoolTrue extends Expression<Boolean> {
 		this.setType(Type.BOOLEAN);
 	}
 	
-	public Boolean evaluate(Program program) {
+	@Override
+	public boolean evaluateBoolean(Program program) {
 		return  true;
 	}
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_TRUE);
+	}
 }
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class Constant extends Expression<Double> {
 
@@ -21,8 +23,17 @@ public class Constant extends Expression<Double> {
 	}
 	
 	@Override
-	public Double evaluate(Program program) {
+	public double evaluateDouble(Program program) {
 		return this.getValue();
 	}
 	
+	@Override
+	public Double evaluate(Program program) {
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_DOUBLE, compiler.addConstant(this.getValue()));
+	}
 }
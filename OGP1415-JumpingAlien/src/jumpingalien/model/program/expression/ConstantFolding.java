@@ -0,0 +1,118 @@
+package jumpingalien.model.program.expression;
+
+import jumpingalien.model.Type;
+
+/**
+ * Folds expressions of which the value is known when the program is built.
+ *
+ * An arithmetic, comparing or logical expression of which all operands are constants
+ * is replaced by a constant with its value. A conjunction or disjunction of which the
+ * first operand is a constant is replaced by its result, or by its second operand.
+ * Expressions that depend on the program, the game object, the world or chance
+ * are never folded.
+ */
+public class ConstantFolding {
+
+	private ConstantFolding() {
+	}
+
+	/**
+	 * Returns an expression with the same value as the given expression, of which the
+	 * operands have already been folded.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Expression<T> fold(Expression<T> expression) {
+		if (expression instanceof AndBool) {
+			Expression<Boolean> first = ((AndBool) expression).getExpression1();
+			if (isFalse(first)) {
+				return (Expression<T>) first;
+			}
+			if (isTrue(first)) {
+				return (Expression<T>) ((AndBool) expression).getExpression2();
+			}
+		}
+		else if (expression instanceof OrBool) {
+			Expression<Boolean> first = ((OrBool) expression).getExpression1();
+			if (isTrue(first)) {
+				return (Expression<T>) first;
+			}
+			if (isFalse(first)) {
+				return (Expression<T>) ((OrBool) expression).getExpression2();
+			}
+		}
+		else if (isFoldable(expression) && hasConstantOperands(expression)) {
+			return (Expression<T>) toConstant(expression);
+		}
+		return expression;
+	}
+
+	public static boolean isConstant(Expression<?> expression) {
+		return expression instanceof Constant || isTrue(expression) || isFalse(expression);
+	}
+
+	public static boolean isTrue(Expression<?> expression) {
+		return expression instanceof BoolTrue;
+	}
+
+	public static boolean isFalse(Expression<?> expression) {
+		return expression instanceof BoolFalse;
+	}
+
+	/**
+	 * Returns whether the value of the given double expression can only change when a
+	 * variable of the program is assigned, and does not depend on the game object, the
+	 * world or chance.
+	 */
+	public static boolean dependsOnlyOnVariables(Expression<?> expression) {
+		if (expression instanceof Constant || expression instanceof ReadVariable) {
+			return true;
+		}
+		if (expression instanceof Addition || expression instanceof Subtraction
+				|| expression instanceof Multiplication || expression instanceof Division) {
+			return dependsOnlyOnVariables(((BinaryExpression<?, ?>) expression).getExpression1())
+					&& dependsOnlyOnVariables(((BinaryExpression<?, ?>) expression).getExpression2());
+		}
+		if (expression instanceof SqrtDouble) {
+			return dependsOnlyOnVariables(((UnaryExpression<?, ?>) expression).getExpression1());
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the value of the given expression only depends on its operands.
+	 */
+	private static boolean isFoldable(Expression<?> expression) {
+		return expression instanceof Addition || expression instanceof Subtraction
+				|| expression instanceof Multiplication || expression instanceof Division
+				|| expression instanceof SqrtDouble || expression instanceof NotBool
+				|| expression instanceof LessThan || expression instanceof LessEquals
+				|| expression instanceof GreaterThan || expression instanceof GreaterEquals
+				|| expression instanceof Equals || expression instanceof NotEquals;
+	}
+
+	private static boolean hasConstantOperands(Expression<?> expression) {
+		if (expression instanceof BinaryExpression) {
+			return isConstant(((BinaryExpression<?, ?>) expression).getExpression1())
+					&& isConstant(((BinaryExpression<?, ?>) expression).getExpression2());
+		}
+		if (expression instanceof UnaryExpression) {
+			return isConstant(((UnaryExpression<?, ?>) expression).getExpression1());
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a constant with the value of the given expression, that does not depend
+	 * on a program.
+	 */
+	private static Expression<?> toConstant(Expression<?> expression) {
+		if (expression.getType() == Type.DOUBLE) {
+			return new Constant(expression.evaluateDouble(null));
+		}
+		if (expression.evaluateBoolean(null)) {
+			return new BoolTrue();
+		}
+		return new BoolFalse();
+	}
+
+}
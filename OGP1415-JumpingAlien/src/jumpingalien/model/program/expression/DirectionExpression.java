@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class DirectionExpression extends Expression<jumpingalien.part3.programs.IProgramFactory.Direction> {
 	
@@ -26,4 +28,8 @@ public class DirectionExpression extends Expression<jumpingalien.part3.programs.
 		return this.getValue();
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_OBJECT, compiler.addConstant(this.getValue()));
+	}
 }
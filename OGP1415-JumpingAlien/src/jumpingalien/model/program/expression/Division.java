@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class Division extends BinaryExpression<Double, Double> {
 
@@ -13,9 +15,20 @@ public class Division extends BinaryExpression<Double, Double> {
 		this.setType(Type.DOUBLE);
 	}
 
+	@Override
+	public double evaluateDouble(Program program) {
+		return  (this.getExpression1().evaluateDouble(program)) / (this.getExpression2().evaluateDouble(program));
+	}
+	
 	@Override
 	public Double evaluate(Program program) {
-		return  (this.getExpression1().evaluate(program)) / (this.getExpression2().evaluate(program));
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		this.getExpression2().compile(compiler);
+		compiler.emit(Opcode.DIVIDE);
 	}
-
 }
@@ -2,6 +2,7 @@ package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public abstract class Expression<T> {
 	
@@ -10,6 +11,24 @@ public abstract class Expression<T> {
 	
 	public abstract T evaluate(Program program);
 	
+	/**
+	 * Returns the value of this expression of type double, without boxing it.
+	 * Expressions of type double override this method, the others unbox their value.
+	 */
+	public double evaluateDouble(Program program) {
+		return (Double) this.evaluate(program);
+	}
+	
+	/**
+	 * Returns the value of this expression of type bool, without boxing it.
+	 * Expressions of type bool override this method, the others unbox their value.
+	 */
+	public boolean evaluateBoolean(Program program) {
+		return (Boolean) this.evaluate(program);
+	}
+	
+	public abstract void compile(ProgramCompiler compiler);
+	
 	private Type type;
 	public Type getType() {
 		return type;
@@ -2,7 +2,9 @@ package jumpingalien.model.program.expression;
 
 import jumpingalien.model.GameObject;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class GetHpObject extends UnaryExpression<Double, GameObject> {
@@ -15,7 +17,19 @@ public class GetHpObject extends UnaryExpression<Double, GameObject> {
 		this.setType(Type.DOUBLE);
 	}
 	
-	public Double evaluate(Program program) {
+	@Override
+	public double evaluateDouble(Program program) {
 		return (double) this.getExpression1().evaluate(program).getHitpoints();
 	}
+	
+	@Override
+	public Double evaluate(Program program) {
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.GET_HITPOINTS);
+	}
 }
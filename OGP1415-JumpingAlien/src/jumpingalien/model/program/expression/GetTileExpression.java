@@ -3,7 +3,9 @@ package jumpingalien.model.program.expression;
 import jumpingalien.model.Tile;
 import jumpingalien.model.Type;
 import jumpingalien.model.World;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class GetTileExpression extends BinaryExpression<Tile, Double> {
 
@@ -19,10 +21,23 @@ public class GetTileExpression extends BinaryExpression<Tile, Double> {
 	@Override
 	public Tile evaluate(Program program) {
 		World world = program.getGameObject().getWorld();
-		int xPos = this.getExpression1().evaluate(program).intValue();
-		int yPos = this.getExpression2().evaluate(program).intValue();
-		int xCor = world.getTileOfPixels(xPos, yPos)[0];
-		int yCor = world.getTileOfPixels(xPos, yPos)[1];
-		return new Tile(xCor, yCor, world);
+		int xPos = (int) this.getExpression1().evaluateDouble(program);
+		int yPos = (int) this.getExpression2().evaluateDouble(program);
+		return getTile(world, xPos, yPos);
+	}
+	
+	/**
+	 * Returns the tile of the given world at the given pixel, which can lie outside
+	 * the world.
+	 */
+	public static Tile getTile(World world, int xPos, int yPos) {
+		return new Tile(world.getTileCoordinate(xPos), world.getTileCoordinate(yPos), world);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		this.getExpression2().compile(compiler);
+		compiler.emit(Opcode.GET_TILE);
 	}
 }
@@ -2,7 +2,9 @@ package jumpingalien.model.program.expression;
 
 import jumpingalien.model.GameObject;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class GetWidthObject extends UnaryExpression<Double, GameObject>{
 
@@ -15,8 +17,18 @@ public class GetWidthObject extends UnaryExpression<Double, GameObject>{
 	}
 
 	@Override
-	public Double evaluate(Program program) {
+	public double evaluateDouble(Program program) {
 		return (double) this.getExpression1().evaluate(program).getXDim();
 	}
-
+	
+	@Override
+	public Double evaluate(Program program) {
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.GET_WIDTH);
+	}
 }
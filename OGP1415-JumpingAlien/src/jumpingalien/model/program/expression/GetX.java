@@ -2,7 +2,9 @@ package jumpingalien.model.program.expression;
 
 import jumpingalien.model.SuperObject;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class GetX extends UnaryExpression<Double, SuperObject> {
@@ -14,9 +16,21 @@ public class GetX extends UnaryExpression<Double, SuperObject> {
 		}
 		this.setType(Type.DOUBLE);
 	}
-	public Double evaluate(Program program) {
+	@Override
+	public double evaluateDouble(Program program) {
 
 		return this.getExpression1().evaluate(program).getXPos();
 
 	}
+	
+	@Override
+	public Double evaluate(Program program) {
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.GET_X);
+	}
 }
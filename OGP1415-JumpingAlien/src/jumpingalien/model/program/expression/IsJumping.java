@@ -4,7 +4,9 @@ import jumpingalien.model.Buzam;
 import jumpingalien.model.GameObject;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class IsJumping extends UnaryExpression<Boolean, GameObject> {
 	
@@ -17,7 +19,7 @@ public class IsJumping extends UnaryExpression<Boolean, GameObject> {
 	}
 
 	@Override
-	public Boolean evaluate(Program program) {
+	public boolean evaluateBoolean(Program program) {
 		if (this.getExpression1().evaluate(program) instanceof Buzam || 
 				this.getExpression1().evaluate(program) instanceof Shark) {
 			return this.getExpression1().evaluate(program).isJumping();
@@ -26,5 +28,15 @@ public class IsJumping extends UnaryExpression<Boolean, GameObject> {
 			throw new IllegalArgumentException();
 		}
 	}
-
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.IS_JUMPING);
+	}
 }
@@ -2,7 +2,9 @@ package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Tile;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class IsMagma extends UnaryExpression<Boolean, Tile> {
 	
@@ -15,8 +17,18 @@ public class IsMagma extends UnaryExpression<Boolean, Tile> {
 	}
 
 	@Override
-	public Boolean evaluate(Program program) {
+	public boolean evaluateBoolean(Program program) {
 		return (this.getExpression1().evaluate(program).getGeologicalFeature() == 3);
 	}
-
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.IS_MAGMA);
+	}
 }
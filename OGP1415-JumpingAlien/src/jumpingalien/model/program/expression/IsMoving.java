@@ -3,7 +3,9 @@ package jumpingalien.model.program.expression;
 import jumpingalien.model.GameObject;
 import jumpingalien.model.Orientation;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.part3.programs.IProgramFactory.Direction;
 
 public class IsMoving extends UnaryExpression<Boolean, GameObject> {
@@ -29,7 +31,7 @@ public class IsMoving extends UnaryExpression<Boolean, GameObject> {
 	}
 	
 	@Override
-	public Boolean evaluate(Program program) {
+	public boolean evaluateBoolean(Program program) {
 		if (this.getDirection().evaluate(program) == Direction.RIGHT) {
 			return ((this.getExpression1().evaluate(program).getXSpeed() > 0) && 
 					(this.getExpression1().evaluate(program).getOrientation() == Orientation.RIGHT));
@@ -46,5 +48,16 @@ public class IsMoving extends UnaryExpression<Boolean, GameObject> {
 		}
 		return false;
 	}
-
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		this.getDirection().compile(compiler);
+		compiler.emit(Opcode.IS_MOVING);
+	}
 }
@@ -3,7 +3,9 @@ package jumpingalien.model.program.expression;
 import jumpingalien.model.Slime;
 import jumpingalien.model.SuperObject;
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class IsSlime extends UnaryExpression<Boolean, SuperObject> {
 	
@@ -16,8 +18,18 @@ public class IsSlime extends UnaryExpression<Boolean, SuperObject> {
 	}
 
 	@Override
-	public Boolean evaluate(Program program) {
+	public boolean evaluateBoolean(Program program) {
 		return (this.getExpression1().evaluate(program) instanceof Slime);
 	}
-
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.IS_SLIME);
+	}
 }
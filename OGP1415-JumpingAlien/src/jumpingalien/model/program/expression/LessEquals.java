@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class LessEquals extends BinaryExpression<Boolean, Double> {
 
@@ -14,9 +16,20 @@ public class LessEquals extends BinaryExpression<Boolean, Double> {
 		this.setType(Type.BOOLEAN);
 	}
 
+	@Override
+	public boolean evaluateBoolean(Program program) {
+		return this.getExpression1().evaluateDouble(program) <= this.getExpression2().evaluateDouble(program);
+	}
+	
 	@Override
 	public Boolean evaluate(Program program) {
-		return this.getExpression1().evaluate(program) <= this.getExpression2().evaluate(program);
+		return this.evaluateBoolean(program);
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		this.getExpression2().compile(compiler);
+		compiler.emit(Opcode.LESS_EQUALS);
+	}
 }
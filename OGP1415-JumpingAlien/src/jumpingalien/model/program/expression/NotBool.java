@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class NotBool extends UnaryExpression<Boolean, Boolean> {
@@ -14,7 +16,19 @@ public class NotBool extends UnaryExpression<Boolean, Boolean> {
 		this.setType(Type.BOOLEAN);
 	}
 	
+	@Override
+	public boolean evaluateBoolean(Program program) {
+		return  ( ! (this.getExpression1().evaluateBoolean(program)));
+	}
+	
+	@Override
 	public Boolean evaluate(Program program) {
-		return  ( ! (this.getExpression1().evaluate(program)));
+		return this.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.NOT);
 	}
 }
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class NotEquals extends BinaryExpression<Boolean, Object> {
 
@@ -15,14 +17,43 @@ public class NotEquals extends BinaryExpression<Boolean, Object> {
 	}
 
 	@Override
-	public Boolean evaluate(Program program) {
-		if (getExpression1().evaluate(program) == null && getExpression2().evaluate(program) == null ) {
-			return false;
+	public boolean evaluateBoolean(Program program) {
+		Type store = ProgramCompiler.getStoreType(this.getExpression1().getType());
+		if (store == Type.DOUBLE) {
+			// Like Double.equals, which compares the bits of both values.
+			return Double.doubleToLongBits(this.getExpression1().evaluateDouble(program))
+					!= Double.doubleToLongBits(this.getExpression2().evaluateDouble(program));
+		}
+		else if (store == Type.BOOLEAN) {
+			return this.getExpression1().evaluateBoolean(program) != this.getExpression2().evaluateBoolean(program);
 		}
-		else if (getExpression1().evaluate(program) == null) {
-			return true;
+		Object value1 = this.getExpression1().evaluate(program);
+		Object value2 = this.getExpression2().evaluate(program);
+		if (value1 == null) {
+			return value2 != null;
 		}
-		return ! this.getExpression1().evaluate(program).equals(this.getExpression2().evaluate(program));	
+		return ! value1.equals(value2);
+	}
+	
+	@Override
+	public Boolean evaluate(Program program) {
+		return this.evaluateBoolean(program);
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		this.getExpression2().compile(compiler);
+		Type store = ProgramCompiler.getStoreType(this.getExpression1().getType());
+		if (store == Type.DOUBLE) {
+			compiler.emit(Opcode.EQUALS_DOUBLE);
+		}
+		else if (store == Type.BOOLEAN) {
+			compiler.emit(Opcode.EQUALS_BOOLEAN);
+		}
+		else {
+			compiler.emit(Opcode.EQUALS_OBJECT);
+		}
+		compiler.emit(Opcode.NOT);
+	}
 }
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class ObjectNull extends Expression<Object> {
 
@@ -14,4 +16,8 @@ public class ObjectNull extends Expression<Object> {
 		return null;
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_NULL);
+	}
 }
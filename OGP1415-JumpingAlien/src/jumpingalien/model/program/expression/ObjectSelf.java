@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class ObjectSelf extends Expression<Object> {
 
@@ -13,4 +15,8 @@ public class ObjectSelf extends Expression<Object> {
 		return program.getGameObject();
 	}
 	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.PUSH_SELF);
+	}
 }
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class RandomDouble extends UnaryExpression<Double, Double> {
 	
@@ -12,7 +14,19 @@ public class RandomDouble extends UnaryExpression<Double, Double> {
 		}
 		this.setType(Type.DOUBLE);
 	}
+	@Override
+	public double evaluateDouble(Program program) {
+		return Math.random() * this.getExpression1().evaluateDouble(program);
+	}
+	
+	@Override
 	public Double evaluate(Program program) {
-		return Math.random() * this.getExpression1().evaluate(program);
+		return this.evaluateDouble(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.RANDOM);
 	}
 }
@@ -1,13 +1,24 @@
 package jumpingalien.model.program.expression;
 
 import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class ReadVariable extends Expression<Object> {
 
 	public ReadVariable(String name, Type type) {
+		this(name, type, -1);
+	}
+	
+	/**
+	 * Returns an expression that reads the variable with the given name and declared
+	 * type, that is resolved to the given slot, or is not resolved if the slot is -1.
+	 */
+	public ReadVariable(String name, Type type, int slot) {
 		this.setName(name);
 		this.setType(type);
+		this.slot = slot;
 	}
 	
 	private String name;	
@@ -17,16 +28,63 @@ public class ReadVariable extends Expression<Object> {
 	private void setName(String name) {
 		this.name = name;
 	}
+	
+	private final int slot;
+	public int getSlot() {
+		return this.slot;
+	}
+	public boolean isResolved() {
+		return this.slot >= 0;
+	}
 
 
 	@Override
 	public Object evaluate(Program program) {
+		if (this.isResolved()) {
+			// The declared type was checked when the variable was resolved.
+			return program.getMachine().getVariable(ProgramCompiler.getStoreType(this.getType()), this.getSlot());
+		}
 		if (this.getType() != program.getGlobalVariables().get(this.getName())) {
 			throw new IllegalArgumentException();
 		}
 		else {
-			return program.getEnvironment().get(this.getName());
+			return program.getVariable(this.getName());
+		}
+	}
+	
+	@Override
+	public double evaluateDouble(Program program) {
+		if (this.isResolved() && this.getType() == Type.DOUBLE) {
+			return program.getMachine().getDoubleVariable(this.getSlot());
+		}
+		return super.evaluateDouble(program);
+	}
+	
+	@Override
+	public boolean evaluateBoolean(Program program) {
+		if (this.isResolved() && this.getType() == Type.BOOLEAN) {
+			return program.getMachine().getBooleanVariable(this.getSlot());
+		}
+		return super.evaluateBoolean(program);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		if (compiler.isDeclared(this.getName(), this.getType())) {
+			int slot = compiler.getVariableSlot(this.getName(), this.getType(), this.getSlot());
+			Type store = ProgramCompiler.getStoreType(this.getType());
+			if (store == Type.DOUBLE) {
+				compiler.emit(Opcode.LOAD_DOUBLE, slot);
+			}
+			else if (store == Type.BOOLEAN) {
+				compiler.emit(Opcode.LOAD_BOOLEAN, slot);
+			}
+			else {
+				compiler.emit(Opcode.LOAD_OBJECT, slot);
+			}
+		}
+		else {
+			compiler.emitIllegal(this.getType());
 		}
 	}
-
 }
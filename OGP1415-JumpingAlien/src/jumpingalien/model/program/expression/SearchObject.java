@@ -1,11 +1,15 @@
 package jumpingalien.model.program.expression;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
 
+import jumpingalien.model.GameObject;
 import jumpingalien.model.SuperObject;
+import jumpingalien.model.Tile;
 import jumpingalien.model.Type;
+import jumpingalien.model.World;
+import jumpingalien.model.program.Opcode;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.part3.programs.IProgramFactory.Direction;
 
 public class SearchObject extends UnaryExpression<SuperObject, Direction> {
@@ -19,65 +23,144 @@ public class SearchObject extends UnaryExpression<SuperObject, Direction> {
 	}
 	
 	
-	private double getDistance(double pos1, double pos2) {
+	private static double getDistance(double pos1, double pos2) {
 		return Math.abs(pos1 - pos2);
 	}
 	
 	@Override
 	public SuperObject evaluate(Program program) {
-		Collection<SuperObject> list = new ArrayList<SuperObject>();
-		list.addAll(program.getGameObject().getWorld().listAllGameObjects());
-		list.addAll(program.getGameObject().getWorld().listAllImpassableTiles());
-		list.remove(program.getGameObject());
-		double xPos = program.getGameObject().getXPos();
-		double yPos = program.getGameObject().getYPos();
-		double xDim = program.getGameObject().getXDim();
-		double yDim = program.getGameObject().getYDim();
+		return search(program.getGameObject(), this.getExpression1().evaluate(program));
+	}
+	
+	/**
+	 * Returns the nearest game object or impassable tile that the given game object
+	 * finds when it searches in the given direction, or null if there is none.
+	 * On equal distance, game objects are found before tiles.
+	 * 
+	 * The search marches over the columns (left, right) or rows (up, down) of tiles,
+	 * starting at the side of the game object, and only looks at the plants, sharks,
+	 * slimes and tiles in the band of the game object in each of them. It stops as soon
+	 * as every object in the next column or row would be farther than the nearest one.
+	 */
+	public static SuperObject search(GameObject self, Direction direction) {
+		World world = self.getWorld();
+		int tileLength = world.getTileLength();
+		boolean horizontal = (direction == Direction.RIGHT || direction == Direction.LEFT);
+		boolean forward = (direction == Direction.RIGHT || direction == Direction.UP);
+		// The side of self at which the search starts, and the band across the search.
+		double front;
+		double bandLow;
+		double bandHigh;
+		int nbLines;
+		int nbBandTiles;
+		if (horizontal) {
+			front = forward ? self.getXPos() : self.getXPos() + self.getXDim();
+			bandLow = self.getYPos();
+			bandHigh = self.getYPos() + self.getYDim() - 1;
+			nbLines = world.getNbTilesX();
+			nbBandTiles = world.getNbTilesY();
+		}
+		else {
+			front = forward ? self.getYPos() : self.getYPos() + self.getYDim();
+			bandLow = self.getXPos();
+			bandHigh = self.getXPos() + self.getXDim() - 1;
+			nbLines = world.getNbTilesY();
+			nbBandTiles = world.getNbTilesX();
+		}
+		int firstBandTile = Math.max(0, toTile(bandLow, tileLength));
+		int lastBandTile = Math.min(nbBandTiles - 1, toTile(bandHigh, tileLength));
 		
+		SuperObject nearest = null;
 		double distance = Double.POSITIVE_INFINITY;
-		SuperObject object = null;
-
-		for (SuperObject superObject: list) {
-			switch(this.getExpression1().evaluate(program)) {
-				case RIGHT: 
-					if(xPos <= superObject.getXPos() && !((yPos + yDim -1 < superObject.getYPos()) 
-							|| (superObject.getYPos()  + superObject.getYDim() - 1 < yPos))) {
-						if (this.getDistance(xPos, superObject.getXPos()) < distance) {
-							object = superObject;
-						}
-					}
-					break;	
-				case LEFT:
-					if(xPos + xDim >= superObject.getXPos() + superObject.getXDim() 
-							&& !((yPos + yDim -1 < superObject.getYPos()) 
-							|| (superObject.getYPos()  + superObject.getYDim() - 1 < yPos))) {
-						if (this.getDistance(xPos + xDim, superObject.getXPos() + superObject.getXDim()) < distance) {
-							object = superObject;
-						}
-					}
-					break;			
-				case UP:
-					if(yPos <= superObject.getYPos() && !((xPos + xDim -1 < superObject.getXPos()) 
-							|| (superObject.getXPos()  + superObject.getXDim() - 1 < xPos))) {
-						if (this.getDistance(yPos, superObject.getYPos()) < distance) {
-							object = superObject;
-						}
-					}
-					break;
-				case DOWN:
-					if(yPos + yDim >= superObject.getYPos() + superObject.getYDim() 
-							&& !((xPos + xDim -1 < superObject.getXPos()) 
-							|| (superObject.getXPos()  + superObject.getXDim() - 1 < xPos))) {
-						if (this.getDistance(yPos + yDim, superObject.getYPos() + superObject.getYDim()) < distance) {
-							object = superObject;
-						}
+		// Mazub and Buzam are not in the grid of game objects.
+		for (GameObject object : new GameObject[] { world.getAlien(), world.getBuzam() }) {
+			if (object != null && object != self && getDistance(self, object, direction) < distance) {
+				nearest = object;
+				distance = getDistance(self, object, direction);
+			}
+		}
+		int step = forward ? 1 : -1;
+		int line = Math.min(nbLines - 1, Math.max(0, toTile(front, tileLength)));
+		for (; 0 <= line && line < nbLines; line += step) {
+			// Every object or tile that is not found yet is at least this far.
+			double bound = forward ? line * tileLength - front : front - (line + 1) * tileLength;
+			if (distance < bound) {
+				break;
+			}
+			double lineLow = line * tileLength;
+			List<GameObject> objects = horizontal
+					? world.getGameObjectsIn(lineLow, bandLow, lineLow, bandHigh)
+					: world.getGameObjectsIn(bandLow, lineLow, bandHigh, lineLow);
+			for (GameObject object : objects) {
+				if (object != self && getDistance(self, object, direction) < distance) {
+					nearest = object;
+					distance = getDistance(self, object, direction);
+				}
+			}
+			for (int bandTile = firstBandTile; bandTile <= lastBandTile; bandTile++) {
+				int tileX = horizontal ? line : bandTile;
+				int tileY = horizontal ? bandTile : line;
+				if (world.isImpassableTile(tileX, tileY)) {
+					Tile tile = world.getTile(tileX, tileY);
+					if (getDistance(self, tile, direction) < distance) {
+						nearest = tile;
+						distance = getDistance(self, tile, direction);
 					}
-					break;
-				default:
-					throw new IllegalArgumentException();
+				}
 			}
 		}
-		return object;
+		return nearest;
+	}
+	
+	/**
+	 * Returns the distance between the given game object and the given object in the
+	 * given direction, or infinity if the game object does not find it in that direction.
+	 */
+	private static double getDistance(GameObject self, SuperObject superObject, Direction direction) {
+		double xPos = self.getXPos();
+		double yPos = self.getYPos();
+		double xDim = self.getXDim();
+		double yDim = self.getYDim();
+		switch(direction) {
+			case RIGHT: 
+				if(xPos <= superObject.getXPos() && !((yPos + yDim -1 < superObject.getYPos()) 
+						|| (superObject.getYPos()  + superObject.getYDim() - 1 < yPos))) {
+					return getDistance(xPos, superObject.getXPos());
+				}
+				break;	
+			case LEFT:
+				if(xPos + xDim >= superObject.getXPos() + superObject.getXDim() 
+						&& !((yPos + yDim -1 < superObject.getYPos()) 
+						|| (superObject.getYPos()  + superObject.getYDim() - 1 < yPos))) {
+					return getDistance(xPos + xDim, superObject.getXPos() + superObject.getXDim());
+				}
+				break;			
+			case UP:
+				if(yPos <= superObject.getYPos() && !((xPos + xDim -1 < superObject.getXPos()) 
+						|| (superObject.getXPos()  + superObject.getXDim() - 1 < xPos))) {
+					return getDistance(yPos, superObject.getYPos());
+				}
+				break;
+			case DOWN:
+				if(yPos + yDim >= superObject.getYPos() + superObject.getYDim() 
+						&& !((xPos + xDim -1 < superObject.getXPos()) 
+						|| (superObject.getXPos()  + superObject.getXDim() - 1 < xPos))) {
+					return getDistance(yPos + yDim, superObject.getYPos() + superObject.getYDim());
+				}
+				break;
+			default:
+				throw new IllegalArgumentException();
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+	
+	private static int toTile(double pixel, int tileLength) {
+		return (int) Math.floor(pixel / tileLength);
+	}
+	
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		compiler.emit(Opcode.SEARCH_OBJECT);
 	}
-
 }
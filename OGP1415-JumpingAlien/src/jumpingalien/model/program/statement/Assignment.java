@@ -1,17 +1,32 @@
 package jumpingalien.model.program.statement;
 
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.model.program.expression.Expression;
 
 
 public class Assignment extends Statement {
 	public Assignment(String str, Type variableType, Expression<?> value) {
+		this(str, variableType, value, -1);
+	}
+	
+	/**
+	 * Returns an assignment to the variable with the given name and declared type, that
+	 * is resolved to the given slot, or is not resolved if the slot is -1.
+	 */
+	public Assignment(String str, Type variableType, Expression<?> value, int slot) {
 		this.setString(str);
 		this.setExpression(value);
 		if (value.getType() != variableType) {
 			throw new IllegalArgumentException();
 		}
+		this.slot = slot;
+	}
+	
+	private final int slot;
+	public int getSlot() {
+		return this.slot;
 	}
 	
 	private String string;
@@ -31,15 +46,23 @@ public class Assignment extends Statement {
 	}
 
 	@Override
-	public void execute(Program program) {
-		program.getEnvironment().put(this.getString(), this.getExpression().evaluate(program));
-		this.setReady();
-	}
-	
-	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression().compile(compiler);
+		Type type = this.getExpression().getType();
+		int slot = compiler.getVariableSlot(this.getString(), type, this.getSlot());
+		Type store = ProgramCompiler.getStoreType(type);
+		if (store == Type.DOUBLE) {
+			compiler.emit(Opcode.STORE_DOUBLE, slot);
+		}
+		else if (store == Type.BOOLEAN) {
+			compiler.emit(Opcode.STORE_BOOLEAN, slot);
+		}
+		else {
+			compiler.emit(Opcode.STORE_OBJECT, slot);
+		}
+		compiler.emitYield();
 	}
+
 	@Override
 	public boolean isWellFormed() {
 		return true;
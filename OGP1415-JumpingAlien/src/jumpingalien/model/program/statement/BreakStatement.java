@@ -1,6 +1,7 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class BreakStatement extends Statement {
@@ -8,29 +9,18 @@ public class BreakStatement extends Statement {
 	public BreakStatement() {
 		
 	}
-	
-	
-	private void resetAllSuperStatTillLoop(Statement stat) {
-		if( ! (stat.getSuperStatement() instanceof LoopStatement)) {
-			stat.getSuperStatement().reset();
-			this.resetAllSuperStatTillLoop(stat.getSuperStatement());
-		}
-	}	
-	
-	@Override
-	public void execute(Program program) {
-		this.resetAllSuperStatTillLoop(this);
-		LoopStatement loopStat = this.getLoopStatement(this);
-		loopStat.setInBody(false);
-		loopStat.setReady();
-	}
 
 	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		if (! compiler.isInLoop()) {
+			compiler.emit(Opcode.ILLEGAL);
+		}
+		else {
+			compiler.emitYield();
+			compiler.addBreak(compiler.emitJump(Opcode.JUMP));
+		}
 	}
 
-
 	@Override
 	public boolean isWellFormed() {
 		if (this.getLoopStatement(this) != null) {
@@ -4,8 +4,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jumpingalien.model.SuperObject;
+import jumpingalien.model.Tile;
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.World;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.model.program.expression.Expression;
 import jumpingalien.part3.programs.IProgramFactory.Kind;
 import jumpingalien.part3.programs.IProgramFactory.SortDirection;
@@ -70,38 +73,53 @@ public class ForEachStatement extends LoopStatement {
 		this.sortDirection = sortDirection;
 	}
 		
-	private List<SuperObject> listObjectByKind(Program program) {
+	/**
+	 * Returns the objects of the given kind in the given world, in the order in which
+	 * a foreach loop without sort clause visits them.
+	 */
+	public static List<SuperObject> listObjectsOfKind(World world, Kind kind) {
+		List<SuperObject> list = listGameObjectsOfKind(world, kind);
+		if (includesTiles(kind)) {
+			list.addAll(world.listAllTiles());
+		}
+		return list;
+	}
+	
+	/**
+	 * Returns the game objects of the given kind in the given world, in the order in
+	 * which a foreach loop without sort clause visits them. The tiles of the kind, if
+	 * any, are visited after them.
+	 */
+	public static List<SuperObject> listGameObjectsOfKind(World world, Kind kind) {
 		List<SuperObject> list = new ArrayList<SuperObject>();
-		switch(this.getKind()) {
+		switch(kind) {
 		case MAZUB:
-			list.add(program.getGameObject().getWorld().getAlien());
+			list.add(world.getAlien());
 			break;
 		case BUZAM:
-			if (program.getGameObject().getWorld().getBuzam() != null) {
-				list.add(program.getGameObject().getWorld().getBuzam());
+			if (world.getBuzam() != null) {
+				list.add(world.getBuzam());
 			}			
 			break;
 		case PLANT:
-			list.addAll(program.getGameObject().getWorld().getPlants());
+			list.addAll(world.getPlants());
 			break;
 		case SHARK:
-			list.addAll(program.getGameObject().getWorld().getSharks());
+			list.addAll(world.getSharks());
 			break;
 		case SLIME:
-			list.addAll(program.getGameObject().getWorld().getSlimes());
+			list.addAll(world.getSlimes());
 			break;
 		case TERRAIN:
-			list.addAll(program.getGameObject().getWorld().listAllTiles());
 			break;
 		case ANY:
-			list.add(program.getGameObject().getWorld().getAlien());
-			if(program.getGameObject().getWorld().getBuzam() != null) {
-				list.add(program.getGameObject().getWorld().getBuzam());
+			list.add(world.getAlien());
+			if(world.getBuzam() != null) {
+				list.add(world.getBuzam());
 			}
-			list.addAll(program.getGameObject().getWorld().getPlants());
-			list.addAll(program.getGameObject().getWorld().getSlimes());
-			list.addAll(program.getGameObject().getWorld().getSharks());
-			list.addAll(program.getGameObject().getWorld().listAllTiles());
+			list.addAll(world.getPlants());
+			list.addAll(world.getSlimes());
+			list.addAll(world.getSharks());
 			break;
 		default: 
 			throw new IllegalArgumentException();
@@ -109,79 +127,71 @@ public class ForEachStatement extends LoopStatement {
 		return list;
 	}
 	
-	private List<SuperObject> listObjectWhereTrue(Program program) {
-		List<SuperObject> list = this.listObjectByKind(program);
-		if (this.getWhere() != null) {
-			List<SuperObject> newList = new ArrayList<SuperObject>();
-			list.stream()
-					.filter(
-					o -> {program.addToEnvironment(getVariableName(), o);
-					return (getWhere().evaluate(program));})
-					.forEach(o -> newList.add(o));
-			return newList;
-		}
-	return list;
+	/**
+	 * Returns whether the objects of the given kind include every tile of the world.
+	 */
+	public static boolean includesTiles(Kind kind) {
+		return kind == Kind.TERRAIN || kind == Kind.ANY;
 	}
 	
-	private List<SuperObject> listObjectWhereTrueSorted(Program program) {
-		List<SuperObject> listWhereTrue = this.listObjectWhereTrue(program);
-		if (this.getSort() != null) {
-			List<SuperObject> newList = new ArrayList<SuperObject>();
-			listWhereTrue.stream().sorted( (o1,o2) -> compare(o1,o2, program)).forEach((o -> newList.add(o)));		
-			return newList;
-		}
-		return listWhereTrue;
+	/**
+	 * Returns the tile with the given index in the given world, in the order of
+	 * listAllTiles: from left to right, bottom to top.
+	 */
+	public static Tile getTile(World world, long index) {
+		return world.getTile((int) (index % world.getNbTilesX()),
+				(int) (index / world.getNbTilesX()));
 	}
 	
-	private int compare(SuperObject o1, SuperObject o2, Program program) {
-		program.addToEnvironment(getVariableName(), o1);
-		int value1 = this.getSort().evaluate(program).intValue();
-		program.addToEnvironment(getVariableName(), o2);
-		int value2 = this.getSort().evaluate(program).intValue();
-		if (this.getSortDirection() == SortDirection.ASCENDING) {
-			return value1 - value2;
-		}
-		else if (this.getSortDirection() == SortDirection.DESCENDING)
-			return value2 - value1;
-		else{
-			throw new IllegalArgumentException();
-		}
-	}
-
-	private List<SuperObject> executeList = null;
-	private List<SuperObject> getExecuteList() {
-		return this.executeList;
-	}
-	private void setExecuteList(List<SuperObject> list) {
-		this.executeList = list;
+	public static long getNbTiles(World world) {
+		return (long) world.getNbTilesX() * world.getNbTilesY();
 	}
 	
+	/**
+	 * The where and sort clause are compiled in front of the loop, and evaluated by
+	 * FOREACH_INIT. The first step lists the objects, every next step executes the
+	 * whole body for one object.
+	 */
 	@Override
-	public void execute(Program program) {
-		if ( ! this.getInBody()) {
-			this.setExecuteList(listObjectWhereTrueSorted(program));
-			this.setInBody(true);
+	public void compile(ProgramCompiler compiler) {
+		Type declaredType = compiler.getDeclaredType(this.getVariableName());
+		if (declaredType != null && declaredType != Type.OBJECT) {
+			compiler.emit(Opcode.ILLEGAL);
+			return;
 		}
-		else {
-			program.addToEnvironment(getVariableName(), this.getExecuteList().get(0));
-			while(!this.getBody().isReady()) {
-				this.getBody().execute(program);
-			}
-			this.getBody().setNotReady();
-			this.getExecuteList().remove(this.getExecuteList().get(0));	
+		int loop = compiler.newForEachLoop();
+		int variable = compiler.getVariableSlot(this.getVariableName(), Type.OBJECT);
+		int skipClauses = compiler.emitJump(Opcode.JUMP);
+		int where = -1;
+		if (this.getWhere() != null) {
+			where = compiler.getPosition();
+			this.getWhere().compile(compiler);
+			compiler.emit(Opcode.RETURN_BOOLEAN);
 		}
-		if (this.getExecuteList().isEmpty()) {
-			this.setReady();
-			this.setInBody(false);
+		int sort = -1;
+		if (this.getSort() != null) {
+			sort = compiler.getPosition();
+			this.getSort().compile(compiler);
+			compiler.emit(Opcode.RETURN_DOUBLE);
 		}
-		
-		
-	}
-	@Override
-	public void reset() {
-		this.setNotReady();
-		this.setInBody(false);
+		compiler.patch(skipClauses);
+		int direction = (this.getSortDirection() == null) ? -1 : this.getSortDirection().ordinal();
+		compiler.emit(Opcode.FOREACH_INIT, loop, this.getKind().ordinal(), variable, where, sort, direction);
+		compiler.emitYield();
+		int next = compiler.getPosition();
+		compiler.emit(Opcode.FOREACH_NEXT, loop, variable, -1);
+		int end = compiler.getPosition() - 1;
+		compiler.enterLoop();
+		compiler.enterForEachBody();
+		this.getBody().compile(compiler);
+		compiler.exitForEachBody();
+		compiler.emitYield();
+		compiler.emit(Opcode.JUMP, next);
+		compiler.exitLoop();
+		compiler.emitYield();
+		compiler.patch(end);
 	}
+
 	@Override
 	public boolean isWellFormed() {
 		return this.getBody().isWellFormed();
@@ -1,7 +1,9 @@
 package jumpingalien.model.program.statement;
 
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
+import jumpingalien.model.program.expression.ConstantFolding;
 import jumpingalien.model.program.expression.Expression;
 
 
@@ -44,52 +46,32 @@ public class IfStatement extends Statement {
 		elseBody.setSuperStatement(this);
 	}
 	
-	private int index;
-	private int getIndex() {
-		return index;
-	}
-	private void setIndex(int i) {
-		this.index = i;
-	}
-	
 	@Override
-	public void execute(Program program) {
-		if (this.getIndex() == 0) {
-			if(this.getCondition().evaluate(program)) {
-				this.setIndex(1);
-			}
-			else if (this.getElseBody() != null){
-				this.setIndex(2);
+	public void compile(ProgramCompiler compiler) {
+		if (ConstantFolding.isConstant(this.getCondition())) {
+			// Only the branch that is taken is compiled, after the step of the condition.
+			compiler.emitYield();
+			if (ConstantFolding.isTrue(this.getCondition())) {
+				this.getIfBody().compile(compiler);
 			}
-			else {
-				this.setIndex(0);
-				this.setReady();
+			else if (this.getElseBody() != null) {
+				this.getElseBody().compile(compiler);
 			}
+			return;
 		}
-		else if (this.getIndex() == 1) {
-			this.getIfBody().execute(program);
-			if(this.getIfBody().isReady()) {
-				this.getIfBody().setNotReady();
-				this.setIndex(0);
-				this.setReady();
-			}
-		}
-		else  {
-			this.getElseBody().execute(program);
-			if(this.getElseBody().isReady()) {
-				this.getElseBody().setNotReady();
-				this.setIndex(0);
-				this.setReady();
-			}
+		this.getCondition().compile(compiler);
+		int otherwise = compiler.emitJump(Opcode.JUMP_IF_FALSE);
+		compiler.emitYield();
+		this.getIfBody().compile(compiler);
+		int end = compiler.emitJump(Opcode.JUMP);
+		compiler.patch(otherwise);
+		compiler.emitYield();
+		if (this.getElseBody() != null) {
+			this.getElseBody().compile(compiler);
 		}
+		compiler.patch(end);
 	}
-	@Override
-	public void reset() {
-		this.setNotReady();
-		this.setIndex(0);
-		this.getIfBody().reset();
-		this.getElseBody().reset();
-	}
+
 	@Override
 	public boolean isWellFormed() {
 		if (this.getElseBody() != null) {
@@ -100,6 +82,4 @@ public class IfStatement extends Statement {
 		}
 				
 	}
-	
-
 }
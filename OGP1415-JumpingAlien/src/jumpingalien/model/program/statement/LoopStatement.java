@@ -15,14 +15,4 @@ public abstract class LoopStatement extends Statement {
 		this.body = stat;
 		stat.setSuperStatement(this);
 	}
-	
-	private boolean inBody;
-	protected boolean getInBody() {
-		return inBody;
-	}
-	protected void setInBody(boolean b) {
-		this.inBody = b;
-	}
-
-	
 }
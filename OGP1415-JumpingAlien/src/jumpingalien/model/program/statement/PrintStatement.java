@@ -1,6 +1,8 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.program.Program;
+import jumpingalien.model.Type;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.model.program.expression.Expression;
 
 
@@ -21,14 +23,19 @@ public class PrintStatement extends Statement {
 	}
 	
 	@Override
-	public void execute(Program program) {
-		System.out.println(this.getExpression1().evaluate(program));
-		this.setReady();
-	}
-
-	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		this.getExpression1().compile(compiler);
+		Type store = ProgramCompiler.getStoreType(this.getExpression1().getType());
+		if (store == Type.DOUBLE) {
+			compiler.emit(Opcode.PRINT_DOUBLE);
+		}
+		else if (store == Type.BOOLEAN) {
+			compiler.emit(Opcode.PRINT_BOOLEAN);
+		}
+		else {
+			compiler.emit(Opcode.PRINT_OBJECT);
+		}
+		compiler.emitYield();
 	}
 
 	@Override
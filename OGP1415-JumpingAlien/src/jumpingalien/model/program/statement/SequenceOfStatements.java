@@ -2,7 +2,7 @@ package jumpingalien.model.program.statement;
 
 import java.util.List;
 
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class SequenceOfStatements extends Statement {
 
@@ -20,42 +20,14 @@ public class SequenceOfStatements extends Statement {
 			statement.setSuperStatement(this);
 		}
 	}
-	
-	private int index = 0;
-	private int getIndex() {
-		return this.index;
-	}
-	private void setIndex(int i) {
-		this.index = i;
-	}
-	
-	
-	@Override
-	public void execute(Program program) {
-		if(this.getIndex() == this.getList().size() - 1) {
-			this.getList().get(this.getIndex()).execute(program);
-			if(this.getList().get(this.getIndex()).isReady()) {
-				this.getList().get(this.getIndex()).setNotReady();
-				this.setReady();
-				this.setIndex(0);
-			}
-		}
-		else {
-			this.getList().get(this.getIndex()).execute(program);
-			if(this.getList().get(this.getIndex()).isReady()) {
-				this.getList().get(this.getIndex()).setNotReady();
-				this.setIndex(this.getIndex() + 1);
-			}
-		}
-	}
+
 	@Override
-	public void reset() {
-		this.setNotReady();
-		this.setIndex(0);
-		for(Statement statement: list) {
-			statement.reset();
+	public void compile(ProgramCompiler compiler) {
+		for (Statement statement: this.getList()) {
+			statement.compile(compiler);
 		}
 	}
+
 	@Override
 	public boolean isWellFormed() {
 		for (Statement stat: this.getList()) {
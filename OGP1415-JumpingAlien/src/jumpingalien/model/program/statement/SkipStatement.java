@@ -1,6 +1,6 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class SkipStatement extends Statement {
@@ -9,15 +9,10 @@ public class SkipStatement extends Statement {
 	}
 	
 	@Override
-	public void execute(Program program) {
-		this.setReady();
+	public void compile(ProgramCompiler compiler) {
+		compiler.emitYield();
 	}
 
-	@Override
-	public void reset() {
-		this.setNotReady();
-	}
-	
 	@Override
 	public boolean isWellFormed() {
 		if(this.getLoopStatement(this) instanceof ForEachStatement) {
@@ -25,6 +20,4 @@ public class SkipStatement extends Statement {
 		}
 		return true;
 	}
-	
-	
 }
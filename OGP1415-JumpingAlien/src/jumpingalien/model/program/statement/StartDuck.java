@@ -1,7 +1,7 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.Mazub;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 
 
 public class StartDuck extends Statement {
@@ -10,19 +10,9 @@ public class StartDuck extends Statement {
 	}
 
 	@Override
-	public void execute(Program program) {
-		if (program.getGameObject() instanceof Mazub) {
-			((Mazub) program.getGameObject()).startDuck();
-			this.setReady();
-		}
-		else{
-			throw new IllegalArgumentException();
-		}
-	}
-
-	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.START_DUCK);
+		compiler.emitYield();
 	}
 
 	@Override
@@ -2,7 +2,8 @@ package jumpingalien.model.program.statement;
 
 
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.model.program.expression.Expression;
 import jumpingalien.part3.programs.IProgramFactory.Direction;
 
@@ -24,23 +25,10 @@ public class StartRun extends Statement {
 	}
 	
 	@Override
-	public void execute(Program program) {
-		// TODO checkers
-		if (this.getDirection().evaluate(program) == Direction.RIGHT) {
-			program.getGameObject().startMoveRight();
-		}
-		else if (this.getDirection().evaluate(program) == Direction.LEFT) {
-			program.getGameObject().startMoveLeft();
-		}
-		else {
-			throw new IllegalArgumentException();
-		}
-		this.setReady();
-	}
-	
-	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		this.getDirection().compile(compiler);
+		compiler.emit(Opcode.START_RUN);
+		compiler.emitYield();
 	}
 
 	@Override
@@ -1,6 +1,6 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramCompiler;
 
  
 public abstract class Statement {
@@ -9,7 +9,10 @@ public abstract class Statement {
 		
 	}
 	
-	private double EXECUTION_TIME = 0.001;
+	/**
+	 * The time it takes to execute one step of a program.
+	 */
+	public static final double EXECUTION_TIME = 0.001;
 	protected double getExecutionTime() {
 		return EXECUTION_TIME;
 	}
@@ -22,17 +25,6 @@ public abstract class Statement {
 		this.superStatement = statement;
 	}
 
-	private boolean ready = false;
-	public boolean isReady() {
-		return this.ready;
-	}
-	public void setReady() {
-		this.ready = true;
-	}
-	public void setNotReady() {
-		this.ready = false;
-	}
-	
 	
 	public LoopStatement getLoopStatement(Statement stat) {
 		if(stat.getSuperStatement() instanceof LoopStatement) {
@@ -46,9 +38,7 @@ public abstract class Statement {
 		}
 	}
 	
-	public abstract void execute(Program program);
-	
-	public abstract void reset();
+	public abstract void compile(ProgramCompiler compiler);
 
 	public abstract boolean isWellFormed();
 }
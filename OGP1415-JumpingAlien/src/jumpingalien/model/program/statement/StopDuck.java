@@ -1,7 +1,7 @@
 package jumpingalien.model.program.statement;
 
-import jumpingalien.model.Mazub;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class StopDuck extends Statement {
 
@@ -9,21 +9,11 @@ public class StopDuck extends Statement {
 	}
 
 	@Override
-	public void execute(Program program) {
-		if (program.getGameObject() instanceof Mazub) {
-			((Mazub) program.getGameObject()).endDuck();
-			this.setReady();
-		}
-		else{
-			throw new IllegalArgumentException();
-		}
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.STOP_DUCK);
+		compiler.emitYield();
 	}
 
-	@Override
-	public void reset() {
-		this.setNotReady();
-	}
-	
 	@Override
 	public boolean isWellFormed() {
 		if(this.getLoopStatement(this) instanceof ForEachStatement) {
@@ -1,9 +1,8 @@
 package jumpingalien.model.program.statement;
 
 
-import jumpingalien.model.Mazub;
-import jumpingalien.model.Shark;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 
 public class StopJump extends Statement {
 
@@ -11,22 +10,9 @@ public class StopJump extends Statement {
 	}
 
 	@Override
-	public void execute(Program program) {
-		if (program.getGameObject() instanceof Mazub) {
-			((Mazub) program.getGameObject()).endJump();
-		}
-		else if (program.getGameObject() instanceof Shark) {
-			((Shark) program.getGameObject()).endJump();
-		}
-		else {
-			throw new IllegalArgumentException();
-		}
-		this.setReady();
-	}
-	
-	@Override
-	public void reset() {
-		this.setNotReady();
+	public void compile(ProgramCompiler compiler) {
+		compiler.emit(Opcode.STOP_JUMP);
+		compiler.emitYield();
 	}
 
 	@Override
@@ -1,9 +1,9 @@
 package jumpingalien.model.program.statement;
 
 
-import jumpingalien.model.Orientation;
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
 import jumpingalien.model.program.expression.Expression;
 import jumpingalien.part3.programs.IProgramFactory.Direction;
 
@@ -25,23 +25,12 @@ public class StopRun extends Statement {
 	}
 	
 	@Override
-	public void execute(Program program) {
-		if (this.getDirection().evaluate(program) == Direction.RIGHT &&
-				program.getGameObject().getOrientation() == Orientation.RIGHT) {
-			program.getGameObject().stopMovingX();
-		}
-		else if (this.getDirection().evaluate(program) == Direction.LEFT &&
-				program.getGameObject().getOrientation() == Orientation.LEFT) {
-			program.getGameObject().stopMovingX();
-		}
-		this.setReady();
+	public void compile(ProgramCompiler compiler) {
+		this.getDirection().compile(compiler);
+		compiler.emit(Opcode.STOP_RUN);
+		compiler.emitYield();
 	}
 
-	@Override
-	public void reset() {
-		this.setNotReady();
-	}
-	
 	@Override
 	public boolean isWellFormed() {
 		if(this.getLoopStatement(this) instanceof ForEachStatement) {
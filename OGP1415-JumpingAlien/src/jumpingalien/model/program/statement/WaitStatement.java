@@ -1,7 +1,9 @@
 package jumpingalien.model.program.statement;
 
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
+import jumpingalien.model.program.expression.ConstantFolding;
 import jumpingalien.model.program.expression.Expression;
 
 public class WaitStatement extends Statement {
@@ -21,31 +23,22 @@ public class WaitStatement extends Statement {
 		this.duration = expr;
 	}
 	
-	private double timePassed;
-	private double getTimePassed() {
-		return timePassed;
-	}
-	private void setTimePassed(double timePassed) {
-		this.timePassed = timePassed;
-	}
-	
-	@Override
-	public void execute(Program program) {
-		if(this.getTimePassed() >= this.getDuration().evaluate(program)) {
-			this.setTimePassed(0);
-			this.setReady();
-		}
-		else {
-			this.setTimePassed(getTimePassed() + this.getExecutionTime());
-		}
-	}
-	
 	@Override
-	public void reset() {
-		this.setNotReady();
-		this.setTimePassed(0);
+	public void compile(ProgramCompiler compiler) {
+		int timer = compiler.newDoubleSlot();
+		int start = compiler.getPosition();
+		this.getDuration().compile(compiler);
+		// A wait of which the duration can not change is parked instead of stepped.
+		boolean park = ! compiler.isInForEachBody()
+				&& ConstantFolding.dependsOnlyOnVariables(this.getDuration());
+		compiler.emit(Opcode.WAIT, timer, compiler.addConstant(this.getExecutionTime()), park ? 1 : 0, -1);
+		int done = compiler.getPosition() - 1;
+		compiler.emitYield();
+		compiler.emit(Opcode.JUMP, start);
+		compiler.patch(done);
+		compiler.emitYield();
 	}
-	
+
 	@Override
 	public boolean isWellFormed() {
 		if(this.getLoopStatement(this) instanceof ForEachStatement) {
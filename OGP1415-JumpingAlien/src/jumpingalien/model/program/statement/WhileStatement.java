@@ -1,7 +1,9 @@
 package jumpingalien.model.program.statement;
 
 import jumpingalien.model.Type;
-import jumpingalien.model.program.Program;
+import jumpingalien.model.program.Opcode;
+import jumpingalien.model.program.ProgramCompiler;
+import jumpingalien.model.program.expression.ConstantFolding;
 import jumpingalien.model.program.expression.Expression;
 
 public class WhileStatement extends LoopStatement {
@@ -23,29 +25,32 @@ public class WhileStatement extends LoopStatement {
 	}
 	
 	@Override
-	public void execute(Program program) {
-		if (!this.getInBody()) {
-			if (this.getCondition().evaluate(program)) {
-				this.setInBody(true);
-			}
-			else {
-				this.setReady();
-			}
+	public void compile(ProgramCompiler compiler) {
+		if (ConstantFolding.isFalse(this.getCondition())) {
+			// The body is never executed, only the step of the condition is left.
+			compiler.emitYield();
+			return;
+		}
+		int start = compiler.getPosition();
+		int end = -1;
+		if (ConstantFolding.isTrue(this.getCondition())) {
+			compiler.emitYield();
 		}
 		else {
-			this.getBody().execute(program);
-			if(this.getBody().isReady()) {
-				this.getBody().setNotReady();
-				this.setInBody(false);
-			}
+			this.getCondition().compile(compiler);
+			end = compiler.emitJump(Opcode.JUMP_IF_FALSE);
+			compiler.emitYield();
 		}
+		compiler.enterLoop();
+		this.getBody().compile(compiler);
+		compiler.emit(Opcode.JUMP, start);
+		if (end >= 0) {
+			compiler.patch(end);
+		}
+		compiler.emitYield();
+		compiler.exitLoop();
 	}
-	@Override
-	public void reset() {
-		this.setNotReady();
-		this.setInBody(false);
-	}
-	
+
 	@Override
 	public boolean isWellFormed() {
 		return this.getBody().isWellFormed();
@@ -0,0 +1,265 @@
+package jumpingalien.part3.headless;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import jumpingalien.model.World;
+import jumpingalien.model.program.ProgramStats;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.facade.IFacadePart3;
+import jumpingalien.part3.internal.LevelLoader;
+
+/**
+ * Runs a level of the game without a display. The model is built from a TMX level
+ * file by the same LevelLoader as the game, and is advanced with a fixed dt, either as
+ * fast as possible or in real time. Afterwards the throughput of the simulation is
+ * reported: the simulated seconds per wall-clock second, the number of sub-steps per
+ * tick summed over every synchronisation group of the world, and the number of bytes
+ * allocated per second by the simulating thread
+ * (allocations on the threads of a parallel pool are not included).
+ *
+ * Usage: HeadlessSimulation [options] level.tmx
+ * <ul>
+ * <li>--ticks n: the number of ticks to simulate (default 10000)</li>
+ * <li>--dt s: the simulated time of one tick (default 0.015)</li>
+ * <li>--realtime: sleep between ticks, so that simulated time follows the wall clock</li>
+ * <li>--seed n: the seed that decides which game objects get a program (default 0)</li>
+ * <li>--parallel n: advance independent game objects on a pool of n threads</li>
+ * <li>--report n: print the statistics every n ticks (default 0, only at the end)</li>
+ * <li>--levels dir: the folder containing the level files (default levels/)</li>
+ * <li>--programs n: print the statistics of the n programs that took the most time at the end</li>
+ * </ul>
+ * The process exits with status 1 if the model throws an exception.
+ *
+ * @author Pieter Van den Berghe, Ward Romanus
+ */
+public class HeadlessSimulation {
+
+	private static final int VISIBLE_SCREEN_WIDTH = 1024;
+	private static final int VISIBLE_SCREEN_HEIGHT = 768;
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		String levelsFolder = "levels/";
+		String level = null;
+		long ticks = 10000;
+		double dt = 0.015;
+		boolean realtime = false;
+		long seed = 0;
+		int parallelism = 0;
+		long reportInterval = 0;
+		int nbPrograms = 0;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--ticks":
+				ticks = Long.parseLong(args[++i]);
+				break;
+			case "--dt":
+				dt = Double.parseDouble(args[++i]);
+				break;
+			case "--realtime":
+				realtime = true;
+				break;
+			case "--seed":
+				seed = Long.parseLong(args[++i]);
+				break;
+			case "--parallel":
+				parallelism = Integer.parseInt(args[++i]);
+				break;
+			case "--report":
+				reportInterval = Long.parseLong(args[++i]);
+				break;
+			case "--levels":
+				levelsFolder = args[++i];
+				break;
+			case "--programs":
+				nbPrograms = Integer.parseInt(args[++i]);
+				break;
+			default:
+				level = args[i];
+			}
+		}
+		if (level == null) {
+			System.err.println("Usage: HeadlessSimulation [--ticks n] [--dt s] [--realtime] [--seed n] "
+					+ "[--parallel n] [--report n] [--levels dir] [--programs n] level.tmx");
+			System.exit(2);
+		}
+
+		HeadlessSimulation simulation = new HeadlessSimulation(new Facade(), new Random(seed));
+		ForkJoinPool pool = null;
+		try {
+			simulation.load(new TMXFileReader(levelsFolder).read(level));
+			if (parallelism > 0) {
+				pool = new ForkJoinPool(parallelism);
+				simulation.getWorld().setParallelPool(pool);
+			}
+			simulation.run(ticks, dt, realtime, reportInterval);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		System.out.println("final: " + simulation.getStatistics());
+		List<ProgramStats> programStats = simulation.getWorld().listProgramStats();
+		for (ProgramStats stats : programStats.subList(0, Math.min(nbPrograms, programStats.size()))) {
+			System.out.println("program " + stats);
+		}
+		if (simulation.getFacade().isGameOver(simulation.getWorld())) {
+			System.out.println("game over, player "
+					+ (simulation.getFacade().didPlayerWin(simulation.getWorld()) ? "won" : "lost"));
+		}
+	}
+
+	public HeadlessSimulation(IFacadePart3 facade, Random random) {
+		this.facade = facade;
+		this.loader = new LevelLoader(facade, random);
+	}
+
+	private final IFacadePart3 facade;
+	private final LevelLoader loader;
+	private World world;
+
+	private final Statistics statistics = new Statistics();
+
+	public IFacadePart3 getFacade() {
+		return facade;
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Builds the model of the given level with the same loader as the game.
+	 */
+	public void load(Map map) {
+		world = loader.load(map, VISIBLE_SCREEN_WIDTH, VISIBLE_SCREEN_HEIGHT);
+	}
+
+	/**
+	 * Advances the loaded world the given number of ticks, or until the game is over.
+	 */
+	public void run(long ticks, double dt, boolean realtime, long reportInterval) {
+		long tickNanos = (long) (dt * 1e9);
+		long nextTick = System.nanoTime();
+		statistics.start();
+		for (long tick = 1; tick <= ticks && !facade.isGameOver(world); tick++) {
+			facade.advanceTime(world, dt);
+			statistics.tick(dt, world.getLastNbSubSteps());
+			if (reportInterval > 0 && tick % reportInterval == 0) {
+				System.out.println("tick " + tick + ": " + statistics);
+			}
+			if (realtime) {
+				nextTick += tickNanos;
+				long sleep = nextTick - System.nanoTime();
+				if (sleep > 0) {
+					try {
+						Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The throughput of a simulation: simulated time, wall-clock time, ticks,
+	 * sub-steps and the bytes allocated by the simulating thread.
+	 */
+	public static class Statistics {
+
+		private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		private long startNanos;
+		private long startAllocatedBytes;
+		private long ticks;
+		private long subSteps;
+		private double simulatedTime;
+
+		private void start() {
+			startNanos = System.nanoTime();
+			startAllocatedBytes = getAllocatedBytes();
+		}
+
+		private void tick(double dt, int nbSubSteps) {
+			ticks++;
+			subSteps += nbSubSteps;
+			simulatedTime += dt;
+		}
+
+		/**
+		 * Returns the bytes allocated by the current thread, or -1 if the
+		 * virtual machine can not measure this.
+		 */
+		private long getAllocatedBytes() {
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threads)
+						.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+			return -1;
+		}
+
+		public long getTicks() {
+			return ticks;
+		}
+
+		public double getSimulatedTime() {
+			return simulatedTime;
+		}
+
+		public double getWallTime() {
+			return (System.nanoTime() - startNanos) / 1e9;
+		}
+
+		public double getSimulatedSecondsPerWallSecond() {
+			return simulatedTime / getWallTime();
+		}
+
+		/**
+		 * Returns the average number of sub-steps per tick, summed over every
+		 * synchronisation group of the world: a group that is advanced in k
+		 * sub-steps counts k, however many game objects it has. This is not the
+		 * number of steps of a single game object.
+		 */
+		public double getGroupSubStepsPerTick() {
+			return ticks == 0 ? 0 : (double) subSteps / ticks;
+		}
+
+		/**
+		 * Returns the bytes allocated per wall-clock second by the simulating
+		 * thread, or a negative number if this can not be measured.
+		 */
+		public double getAllocationRate() {
+			long allocated = getAllocatedBytes();
+			if (allocated < 0 || startAllocatedBytes < 0) {
+				return -1;
+			}
+			return (allocated - startAllocatedBytes) / getWallTime();
+		}
+
+		@Override
+		public String toString() {
+			double allocationRate = getAllocationRate();
+			return String.format("%d ticks, %.2f sim s in %.2f wall s, %.1f sim s/wall s, "
+					+ "%.1f group sub-steps/tick, %s",
+					getTicks(), getSimulatedTime(), getWallTime(), getSimulatedSecondsPerWallSecond(),
+					getGroupSubStepsPerTick(), allocationRate < 0 ? "allocation rate unavailable"
+							: String.format("%.1f MB/s allocated", allocationRate / (1024 * 1024)));
+		}
+	}
+
+}
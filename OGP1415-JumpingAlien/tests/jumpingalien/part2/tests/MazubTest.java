@@ -129,6 +129,23 @@ public class MazubTest {
 		assertArrayEquals(intArray(500, 499), facade.getLocation(alien));
 	}
 	
+	@Test
+	public void testRunOutOfWorld() {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(500, 3, 3, 1, 1, 1, 1);
+		facade.setGeologicalFeature(world, 2, 0, FEATURE_SOLID);
+		Mazub alien = facade.createMazub(1490, 499, spriteArrayForSize(3, 3));
+		facade.setMazub(world, alien);
+		facade.startMoveRight(alien);
+		for (int i = 0; i < 10; i++) {
+			facade.advanceTime(world, 0.1);
+		}
+		// the alien has left the world
+		assertNull(alien.getWorld());
+		assertTrue(facade.isGameOver(world));
+		assertFalse(facade.didPlayerWin(world));
+	}
+	
 	@Test
 	public void testBoundaryGround() {
 		IFacadePart2 facade = new Facade();
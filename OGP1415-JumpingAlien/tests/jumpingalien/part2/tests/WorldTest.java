@@ -4,14 +4,24 @@ import static jumpingalien.tests.util.TestUtils.intArray;
 import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import jumpingalien.model.AdvanceStats;
+import jumpingalien.model.GameObject;
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Plant;
 import jumpingalien.model.School;
 import jumpingalien.model.World;
+import jumpingalien.model.WorldSnapshot;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
 import jumpingalien.model.exceptions.IllegalPixelException;
@@ -178,6 +188,49 @@ public class WorldTest {
 		assertArrayEquals(world.getTilePositionsIn(1, 1, 505, 40), new int[][]{{0,0},{1,0}});		
 	}
 	
+	@Test
+	public void testTileFeatureQueries() {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(500, 2, 3, 1, 1, 1, 1);
+		facade.setGeologicalFeature(world, 1, 0, 2);
+		assertEquals(1, world.getTileCoordinate(505));
+		assertTrue(world.hasTileWithFeatureIn(1, 1, 505, 40, 2));
+		assertFalse(world.hasTileWithFeatureIn(1, 1, 499, 40, 2));
+		assertTrue(world.hasOnlyTilesWithFeatureIn(500, 1, 999, 40, 2));
+		assertFalse(world.hasOnlyTilesWithFeatureIn(1, 1, 505, 40, 2));
+	}
+	
+	@Test
+	public void testTileFeatureQueriesOutsideWorld() {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(500, 2, 3, 1, 1, 1, 1);
+		facade.setGeologicalFeature(world, 1, 0, 2);
+		// the tiles right of and above the world are ignored
+		assertTrue(world.hasTileWithFeatureIn(505, 1, 1005, 40, 2));
+		assertTrue(world.hasOnlyTilesWithFeatureIn(500, 1, 1200, 40, 2));
+		assertFalse(world.hasOnlyTilesWithFeatureIn(500, 1, 1200, 1600, 2));
+		assertFalse(world.hasTileWithFeatureIn(1000, 1, 1100, 40, 2));
+		assertTrue(world.hasOnlyTilesWithFeatureIn(1000, 1, 1100, 40, 2));
+	}
+	
+	@Test
+	public void testTileFeatureQueriesOverRuns() throws IllegalPixelException {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(10, 5, 3, 10, 10, 4, 2);
+		facade.setGeologicalFeature(world, 1, 1, 3);
+		facade.setGeologicalFeature(world, 2, 1, 3);
+		facade.setGeologicalFeature(world, 4, 1, 1);
+		assertEquals(3, world.getGeologicalFeature(20, 10));
+		assertEquals(1, world.getGeologicalFeature(40, 10));
+		assertEquals(0, world.getGeologicalFeature(30, 10));
+		assertTrue(world.hasOnlyTilesWithFeatureIn(10, 10, 29, 19, 3));
+		assertFalse(world.hasOnlyTilesWithFeatureIn(10, 10, 30, 19, 3));
+		assertTrue(world.hasTileWithFeatureIn(30, 0, 49, 29, 1));
+		assertFalse(world.hasTileWithFeatureIn(0, 0, 39, 29, 1));
+		facade.setGeologicalFeature(world, 3, 1, 3);
+		assertTrue(world.hasOnlyTilesWithFeatureIn(10, 10, 39, 19, 3));
+	}
+	
 	@Test	
 	public void testGeologicalFeatureCorrect() throws IllegalPixelException {
 		IFacadePart2 facade = new Facade();
@@ -651,4 +704,348 @@ public class WorldTest {
 		World world = facade.createWorld(500, 3, 3, 1, 1, 1, 1);
 		facade.setGeologicalFeature(world, 0, 4, 1);
 	}
+	
+	@Test
+	public void testObjectsNearOnlyReturnsNeighbours() {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(70, 40, 5, 70, 70, 39, 1);
+		Sprite[] sprites = spriteArrayForSize(70, 70, 2);
+		School school = facade.createSchool();
+		Mazub alien = facade.createMazub(0, 70, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		Slime near = facade.createSlime(140, 70, sprites, school);
+		Slime far = facade.createSlime(2100, 70, sprites, school);
+		Shark shark = facade.createShark(210, 70, sprites);
+		facade.addSlime(world, near);
+		facade.addSlime(world, far);
+		facade.addShark(world, shark);
+		assertEquals(1, world.getSlimesNear(alien, 70, 70).size());
+		assertEquals(near, world.getSlimesNear(alien, 70, 70).get(0));
+		assertEquals(1, world.getSharksNear(alien, 70, 70).size());
+		assertEquals(far, world.getSlimesNear(alien, 2000, 70).get(0));
+	}
+	
+	@Test
+	public void testObjectsNearKeepsOrderOfAdding() {
+		IFacadePart2 facade = new Facade();
+		World world = facade.createWorld(70, 10, 5, 70, 70, 9, 1);
+		Sprite[] sprites = spriteArrayForSize(70, 70, 2);
+		School school = facade.createSchool();
+		Mazub alien = facade.createMazub(0, 70, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		Slime first = facade.createSlime(280, 70, sprites, school);
+		Slime second = facade.createSlime(140, 70, sprites, school);
+		facade.addSlime(world, first);
+		facade.addSlime(world, second);
+		assertEquals(first, world.getSlimesNear(alien, 210, 70).get(0));
+		assertEquals(second, world.getSlimesNear(alien, 210, 70).get(1));
+	}
+	
+	private World createWorldWithPlants(IFacadePart2 facade) {
+		World world = facade.createWorld(70, 40, 5, 70, 70, 39, 1);
+		for (int x = 0; x < 40; x++) {
+			facade.setGeologicalFeature(world, x, 0, 1);
+		}
+		facade.setMazub(world, facade.createMazub(0, 69, spriteArrayForSize(70, 70, 10)));
+		for (int x = 200; x < 2600; x += 600) {
+			facade.addPlant(world, facade.createPlant(x, 69, spriteArrayForSize(70, 70, 2)));
+		}
+		return world;
+	}
+	
+	@Test
+	public void testParallelAdvanceSameAsSequential() {
+		IFacadePart2 facade = new Facade();
+		World sequential = createWorldWithPlants(facade);
+		World parallel = createWorldWithPlants(facade);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		parallel.setParallelPool(pool);
+		assertTrue(parallel.isParallel());
+		for (int i = 0; i < 50; i++) {
+			facade.advanceTime(sequential, 0.15);
+			facade.advanceTime(parallel, 0.15);
+		}
+		pool.shutdown();
+		Plant[] sequentialPlants = sequential.getPlants().toArray(new Plant[0]);
+		Plant[] parallelPlants = parallel.getPlants().toArray(new Plant[0]);
+		assertEquals(sequentialPlants.length, parallelPlants.length);
+		for (int i = 0; i < sequentialPlants.length; i++) {
+			assertArrayEquals(facade.getLocation(sequentialPlants[i]), facade.getLocation(parallelPlants[i]));
+		}
+	}
+	
+	private World createWorldWithPlantNearAlien(IFacadePart2 facade, int featureUnderAlien) {
+		World world = facade.createWorld(70, 40, 5, 70, 70, 39, 1);
+		for (int x = 0; x < 40; x++) {
+			facade.setGeologicalFeature(world, x, 0, FEATURE_SOLID);
+		}
+		facade.setGeologicalFeature(world, 0, 1, featureUnderAlien);
+		facade.setGeologicalFeature(world, 1, 1, featureUnderAlien);
+		facade.setMazub(world, facade.createMazub(0, 69, spriteArrayForSize(70, 70, 10)));
+		// this plant is grouped with the alien, so its group comes before the others
+		facade.addPlant(world, facade.createPlant(140, 69, spriteArrayForSize(70, 70, 2)));
+		for (int x = 1000; x < 2600; x += 600) {
+			facade.addPlant(world, facade.createPlant(x, 69, spriteArrayForSize(70, 70, 2)));
+		}
+		return world;
+	}
+	
+	@Test
+	public void testOtherGroupsFinishAdvanceWhenAlienDies() {
+		IFacadePart2 facade = new Facade();
+		World dying = createWorldWithPlantNearAlien(facade, FEATURE_MAGMA);
+		World living = createWorldWithPlantNearAlien(facade, FEATURE_AIR);
+		int nbAdvances = 0;
+		while ( ! dying.isGameOver() && nbAdvances < 100) {
+			facade.advanceTime(dying, 0.15);
+			facade.advanceTime(living, 0.15);
+			nbAdvances++;
+		}
+		assertTrue(dying.isGameOver());
+		assertEquals(null, dying.getAlien());
+		assertTrue(dying.listSynchronisationGroups(0.15).size() > 1);
+		// the plants far from the alien are advanced over the whole dt in which it died
+		Plant[] dyingPlants = dying.getPlants().toArray(new Plant[0]);
+		Plant[] livingPlants = living.getPlants().toArray(new Plant[0]);
+		for (int i = 1; i < dyingPlants.length; i++) {
+			assertArrayEquals(facade.getLocation(livingPlants[i]), facade.getLocation(dyingPlants[i]));
+		}
+	}
+	
+	private World createWorldWithWater(IFacadePart2 facade) {
+		World world = facade.createWorld(70, 40, 6, 70, 70, 38, 4);
+		for (int x = 0; x < 40; x++) {
+			facade.setGeologicalFeature(world, x, 0, FEATURE_SOLID);
+			for (int y = 1; y < 3; y++) {
+				facade.setGeologicalFeature(world, x, y, FEATURE_WATER);
+			}
+		}
+		for (int y = 1; y < 6; y++) {
+			facade.setGeologicalFeature(world, 0, y, FEATURE_SOLID);
+			facade.setGeologicalFeature(world, 39, y, FEATURE_SOLID);
+		}
+		facade.setMazub(world, facade.createMazub(70, 209, spriteArrayForSize(70, 70, 10)));
+		School school = facade.createSchool();
+		for (int x = 400; x < 2600; x += 500) {
+			facade.addShark(world, facade.createShark(x, 70, spriteArrayForSize(70, 70, 2)));
+			facade.addSlime(world, facade.createSlime(x + 200, 70, spriteArrayForSize(70, 70, 2), school));
+		}
+		return world;
+	}
+	
+	@Test
+	public void testParallelAdvanceWithSharksAndSlimesOnTerrain() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithWater(facade);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		world.setParallelPool(pool);
+		try {
+			// the sharks and slimes query the terrain from the threads of the pool,
+			// starting with the very first advance
+			for (int i = 0; i < 100 && ! world.isGameOver(); i++) {
+				facade.advanceTime(world, 0.15);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		for (Shark shark: world.getSharks()) {
+			int[] location = facade.getLocation(shark);
+			assertTrue(location[0] >= 70 && location[0] < 39 * 70);
+		}
+	}
+	
+	@Test
+	public void testTerrainQueriesFromPoolThreads() throws Exception {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithWater(facade);
+		facade.setGeologicalFeature(world, 20, 4, FEATURE_MAGMA);
+		world.startGame();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<ForkJoinTask<Boolean>> tasks = new ArrayList<ForkJoinTask<Boolean>>();
+			for (int i = 0; i < 16; i++) {
+				tasks.add(pool.submit(() -> {
+					boolean correct = true;
+					for (int y = 0; y < 6; y++) {
+						for (int x = 0; x < 40; x++) {
+							int feature = world.getGeologicalFeature(x * 70, y * 70);
+							correct &= world.hasOnlyTilesWithFeatureIn(x * 70, y * 70, x * 70 + 69,
+									y * 70 + 69, feature);
+							correct &= world.hasTileWithFeatureIn(0, y * 70, 40 * 70 - 1, y * 70 + 69, feature);
+						}
+					}
+					return correct;
+				}));
+			}
+			for (ForkJoinTask<Boolean> task: tasks) {
+				assertTrue(task.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void testSnapshotAfterAdvanceTime() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithPlants(facade);
+		assertEquals(null, world.getSnapshot());
+		Plant plant = world.getPlants().iterator().next();
+		facade.advanceTime(world, 0.15);
+		WorldSnapshot first = world.getSnapshot();
+		assertEquals(1, first.getNumber());
+		assertEquals(5, first.getNbObjects());
+		assertEquals(4, first.getAlienIndex());
+		assertEquals(-1, first.getBuzamIndex());
+		int index = first.indexOf(plant);
+		assertArrayEquals(facade.getLocation(plant), first.getLocation(index, 1));
+		// the first snapshot has no previous one to interpolate from
+		assertArrayEquals(first.getLocation(index, 1), first.getLocation(index, 0));
+		int[] afterFirst = facade.getLocation(plant);
+		facade.advanceTime(world, 0.15);
+		// a snapshot does not change when the world advances
+		assertArrayEquals(afterFirst, first.getLocation(index, 1));
+		WorldSnapshot second = world.getSnapshot();
+		assertEquals(2, second.getNumber());
+		assertArrayEquals(afterFirst, second.getLocation(second.indexOf(plant), 0));
+		assertArrayEquals(facade.getLocation(plant), second.getLocation(second.indexOf(plant), 1));
+		assertArrayEquals(world.getVisibleWindow(), second.getVisibleWindow(1));
+	}
+	
+	@Test
+	public void testSnapshotTiles() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithPlants(facade);
+		facade.advanceTime(world, 0.15);
+		WorldSnapshot snapshot = world.getSnapshot();
+		assertEquals(world.getTileLength(), snapshot.getTileLength());
+		assertArrayEquals(world.getWorldSizeInPixels(), snapshot.getWorldSize());
+		int[][] regions = {{0, 0, 0, 0}, {69, 69, 70, 70}, {5, 10, 300, 120}, {-10, -1, 80, 0}};
+		for (int[] region : regions) {
+			int[][] tiles = snapshot.getTilePositionsIn(region[0], region[1], region[2], region[3]);
+			assertArrayEquals(world.getTilePositionsIn(region[0], region[1], region[2], region[3]), tiles);
+			for (int[] tile : tiles) {
+				assertArrayEquals(world.getBottomLeftPixelOfTile(tile[0], tile[1]),
+						snapshot.getBottomLeftPixelOfTile(tile[0], tile[1]));
+			}
+		}
+	}
+	
+	@Test
+	public void testLastAdvanceStats() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithPlants(facade);
+		assertEquals(null, world.getLastAdvanceStats());
+		facade.advanceTime(world, 0.15);
+		AdvanceStats stats = world.getLastAdvanceStats();
+		assertEquals(world.getLastNbSubSteps(), stats.nbSubSteps);
+		assertTrue(stats.nbGroups >= 1);
+		assertTrue(stats.totalTime >= stats.programTime + stats.groupingTime + stats.dtTime
+				+ stats.moveTime + stats.windowTime + stats.snapshotTime);
+	}
+	
+	private World createWorldWithGround(IFacadePart2 facade, int nbTilesX) {
+		World world = facade.createWorld(70, nbTilesX, 5, 500, 350, nbTilesX - 1, 1);
+		for (int x = 0; x < nbTilesX; x++) {
+			facade.setGeologicalFeature(world, x, 0, 1);
+		}
+		return world;
+	}
+	
+	@Test
+	public void testSynchronisationGroupOfNearObjectsUsesMinimalDt() {
+		IFacadePart2 facade = new Facade();
+		World alone = createWorldWithGround(facade, 40);
+		Mazub alienAlone = facade.createMazub(0, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(alone, alienAlone);
+		facade.startMoveRight(alienAlone);
+		facade.advanceTime(alone, 0.15);
+		World world = createWorldWithGround(facade, 40);
+		Mazub alien = facade.createMazub(0, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		Plant plant = facade.createPlant(200, 69, spriteArrayForSize(70, 70, 2));
+		facade.addPlant(world, plant);
+		facade.startMoveRight(alien);
+		// the plant is within reach of the alien
+		assertEquals(1, world.listSynchronisationGroups(0.15).size());
+		assertEquals(2, world.listSynchronisationGroups(0.15).get(0).size());
+		facade.advanceTime(world, 0.15);
+		// the plant is advanced with the smaller dt of the alien
+		assertEquals(1, world.getLastNbSubStepsOfGroups().length);
+		assertEquals(alone.getLastNbSubSteps(), world.getLastNbSubStepsOfGroups()[0]);
+	}
+	
+	@Test
+	public void testSynchronisationGroupsOfFarObjectsHaveOwnSubSteps() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithGround(facade, 40);
+		Mazub alien = facade.createMazub(0, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		Plant plant = facade.createPlant(2500, 69, spriteArrayForSize(70, 70, 2));
+		facade.addPlant(world, plant);
+		facade.startMoveRight(alien);
+		assertEquals(2, world.listSynchronisationGroups(0.15).size());
+		facade.advanceTime(world, 0.15);
+		int[] nbSubSteps = world.getLastNbSubStepsOfGroups();
+		assertEquals(2, nbSubSteps.length);
+		// the slow plant takes fewer steps than the accelerating alien
+		assertTrue(nbSubSteps[0] < nbSubSteps[1]);
+		assertEquals(nbSubSteps[0] + nbSubSteps[1], world.getLastNbSubSteps());
+	}
+	
+	@Test
+	public void testSynchronisationGroupsKeepSchoolsTogether() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithGround(facade, 40);
+		Mazub alien = facade.createMazub(1400, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		School school = facade.createSchool();
+		Slime left = facade.createSlime(0, 69, spriteArrayForSize(70, 70, 2), school);
+		Slime right = facade.createSlime(2700, 69, spriteArrayForSize(70, 70, 2), school);
+		Slime other = facade.createSlime(2500, 69, spriteArrayForSize(70, 70, 2),
+				facade.createSchool());
+		facade.addSlime(world, left);
+		facade.addSlime(world, right);
+		facade.addSlime(world, other);
+		for (List<GameObject> group: world.listSynchronisationGroups(0.15)) {
+			// slimes of one school share their hitpoints, however far apart they are
+			assertEquals(group.contains(left), group.contains(right));
+		}
+	}
+	
+	@Test
+	public void testSynchronisationGroupsFollowAdvancingOrder() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithGround(facade, 40);
+		Mazub alien = facade.createMazub(2500, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		Plant farPlant = facade.createPlant(0, 69, spriteArrayForSize(70, 70, 2));
+		Plant nearPlant = facade.createPlant(2700, 69, spriteArrayForSize(70, 70, 2));
+		Shark shark = facade.createShark(1300, 69, spriteArrayForSize(70, 70, 2));
+		facade.addPlant(world, farPlant);
+		facade.addPlant(world, nearPlant);
+		facade.addShark(world, shark);
+		List<List<GameObject>> groups = world.listSynchronisationGroups(0.15);
+		// the groups are ordered by their first game object in the order of advancing:
+		// the plants, the sharks, the slimes, buzam and the alien
+		assertEquals(3, groups.size());
+		assertEquals(Arrays.asList(farPlant), groups.get(0));
+		assertEquals(Arrays.asList(nearPlant, alien), groups.get(1));
+		assertEquals(Arrays.asList(shark), groups.get(2));
+	}
+	
+	@Test
+	public void testVisibleWindowFollowsAlienAfterAdvance() {
+		IFacadePart2 facade = new Facade();
+		World world = createWorldWithGround(facade, 40);
+		Mazub alien = facade.createMazub(1000, 69, spriteArrayForSize(70, 70, 10));
+		facade.setMazub(world, alien);
+		facade.startMoveRight(alien);
+		for (int i = 0; i < 5; i++) {
+			facade.advanceTime(world, 0.15);
+			// the window is positioned once, after every group has been advanced
+			int[] location = facade.getLocation(alien);
+			assertEquals(location[0] + 70 + 200 - 500, world.getVisibleWindow()[0]);
+		}
+	}
 }
@@ -70,6 +70,28 @@ public class BinaryExpressionTest {
 		assertEquals(addition.evaluate(program), (Double) (-3.0));			
 	}
 	
+	@Test
+	public void testEvaluateDouble() {
+		Expression expr1 = new Constant(5);
+		Expression expr2 = new Constant(3);
+		Expression<Double> multiplication = new Multiplication(new Addition(expr1, expr2), expr2);
+		Map<String, Type> map = new HashMap<String, Type>();
+		Program program = new Program(new PrintStatement(multiplication), map);
+		assertEquals(24.0, multiplication.evaluateDouble(program), 0);
+	}
+	
+	@Test
+	public void testEvaluateBoolean() {
+		Expression expr1 = new Constant(5);
+		Expression expr2 = new Constant(3);
+		Expression<Boolean> and = new AndBool(new GreaterThan(expr1, expr2), new NotEquals(expr1, expr2));
+		Map<String, Type> map = new HashMap<String, Type>();
+		Program program = new Program(new PrintStatement(and), map);
+		assertTrue(and.evaluateBoolean(program));
+		assertFalse(new Equals(expr1, expr2).evaluateBoolean(program));
+		assertTrue(new Equals(new ObjectNull(), new ObjectNull()).evaluateBoolean(program));
+	}
+	
 	@Test(expected = IllegalArgumentException.class)
 	public void testAddition3() {
 		Expression expr1 = new Constant(5);
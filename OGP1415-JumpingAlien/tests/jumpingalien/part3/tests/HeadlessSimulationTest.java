@@ -0,0 +1,30 @@
+package jumpingalien.part3.tests;
+import java.util.Random;
+
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.headless.HeadlessSimulation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class HeadlessSimulationTest {
+	
+	private static final double DELTA = 0.001;
+	
+	@Test
+	public void testRunTicksOnBundledLevel() {
+		HeadlessSimulation simulation = new HeadlessSimulation(new Facade(), new Random(0));
+		simulation.load(new TMXFileReader("levels/").read("level1.tmx"));
+		assertNotNull(simulation.getWorld().getAlien());
+		assertFalse(simulation.getWorld().getPlants().isEmpty());
+		simulation.run(20, 0.015, false, 0);
+		// the level is not over after 0.3 seconds
+		assertEquals(20, simulation.getStatistics().getTicks());
+		assertEquals(0.3, simulation.getStatistics().getSimulatedTime(), DELTA);
+		// every group of game objects takes at least one sub-step per tick
+		assertTrue(simulation.getStatistics().getGroupSubStepsPerTick() >= 1);
+		assertEquals(20, simulation.getWorld().getSnapshot().getNumber());
+	}
+	
+}
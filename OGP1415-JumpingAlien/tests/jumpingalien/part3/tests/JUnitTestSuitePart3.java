@@ -5,6 +5,7 @@ import jumpingalien.part2.tests.SchoolTest;
 import jumpingalien.part2.tests.SharkTest;
 import jumpingalien.part2.tests.SlimeTest;
 import jumpingalien.part2.tests.WorldTest;
+import ogp.framework.gui.FramePacerTest;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -24,7 +25,12 @@ import org.junit.runners.Suite;
    BinaryExpressionTest.class,
    ProgramTest.class,
    TypeCheckingTest.class,
-   TileTest.class
+   TileTest.class,
+   HeadlessSimulationTest.class,
+   ProgramSchedulerTest.class,
+   LatencyHistogramTest.class,
+   FramePacerTest.class,
+   ParallelAdvanceTest.class
 }) 
 public class JUnitTestSuitePart3 {
 
@@ -0,0 +1,145 @@
+package jumpingalien.part3.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import ogp.framework.util.LatencyHistogram;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	private static final long LARGE = 1L << 50;
+
+	private LatencyHistogram histogram;
+
+	@Before
+	public void createHistogram() {
+		histogram = new LatencyHistogram();
+	}
+
+	/**
+	 * Returns the largest value that is counted in the same bucket as the given
+	 * value, which is not clamped because a larger value is recorded as well.
+	 */
+	private long getBucketUpperBound(long value) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(value);
+		histogram.record(LARGE);
+		return histogram.getValueAtPercentile(50);
+	}
+
+	@Test
+	public void valuesBelow64AreExact() {
+		for (long value = 0; value < 64; value++) {
+			assertEquals(value, getBucketUpperBound(value));
+			histogram.record(value);
+		}
+		for (int rank = 1; rank <= 64; rank++) {
+			assertEquals(rank - 1, histogram.getValueAtPercentile(rank * 100.0 / 64));
+		}
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		// from 64 on, 32 buckets per power of two
+		assertEquals(65, getBucketUpperBound(64));
+		assertEquals(65, getBucketUpperBound(65));
+		assertEquals(127, getBucketUpperBound(126));
+		assertEquals(127, getBucketUpperBound(127));
+		assertEquals(131, getBucketUpperBound(128));
+		for (int exponent = 7; exponent < 42; exponent++) {
+			long power = 1L << exponent;
+			assertEquals(power - 1, getBucketUpperBound(power - 1));
+			assertEquals(power + (power >> 5) - 1, getBucketUpperBound(power));
+			assertEquals(2 * power - 1, getBucketUpperBound(2 * power - 1));
+		}
+	}
+
+	@Test
+	public void largeValuesAreCountedInLastBucket() {
+		histogram.record(1L << 42);
+		histogram.record(LARGE);
+		// the last bucket holds both, and reports the largest value
+		assertEquals(LARGE, histogram.getValueAtPercentile(50));
+		histogram.record((1L << 42) - 1);
+		assertEquals((1L << 42) - 1, histogram.getValueAtPercentile(1));
+		assertEquals(LARGE, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void percentileRankIsRoundedUp() {
+		for (long value = 0; value < 50; value++) {
+			histogram.record(value);
+		}
+		assertEquals(0, histogram.getValueAtPercentile(0));
+		assertEquals(0, histogram.getValueAtPercentile(2));
+		assertEquals(1, histogram.getValueAtPercentile(2.1));
+		assertEquals(24, histogram.getValueAtPercentile(50));
+		assertEquals(25, histogram.getValueAtPercentile(50.1));
+		assertEquals(49, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void percentileRankOfDecimalPercentage() {
+		for (int i = 0; i < 999; i++) {
+			histogram.record(10);
+		}
+		histogram.record(20);
+		// 99.9% of 1000 values is 999 values, although 99.9 / 100 * 1000 is more
+		assertEquals(10, histogram.getValueAtPercentile(99.9));
+		assertEquals(20, histogram.getValueAtPercentile(99.91));
+		assertEquals(10, histogram.getValueAtPercentile(99.89));
+	}
+
+	@Test
+	public void percentileRankOfFewValues() {
+		histogram.record(10);
+		histogram.record(20);
+		histogram.record(30);
+		assertEquals(10, histogram.getValueAtPercentile(33.3));
+		assertEquals(20, histogram.getValueAtPercentile(33.4));
+		assertEquals(20, histogram.getValueAtPercentile(50));
+		assertEquals(30, histogram.getValueAtPercentile(66.7));
+		assertEquals(30, histogram.getValueAtPercentile(99.9));
+	}
+
+	@Test
+	public void percentileIsClampedToMax() {
+		histogram.record(128);
+		histogram.record(64);
+		// the buckets of 128 and 64 go up to 131 and 65
+		assertEquals(128, histogram.getValueAtPercentile(100));
+		assertEquals(65, histogram.getValueAtPercentile(50));
+		histogram.reset();
+		histogram.record(64);
+		assertEquals(64, histogram.getValueAtPercentile(50));
+		assertEquals(64, histogram.getMax());
+	}
+
+	@Test
+	public void negativeValuesAreZero() {
+		histogram.record(-5);
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void reset() {
+		histogram.record(100);
+		histogram.record(LARGE);
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		histogram.record(7);
+		assertEquals(1, histogram.getCount());
+		assertEquals(7, histogram.getMin());
+		assertEquals(7, histogram.getMax());
+		assertEquals(7, histogram.getValueAtPercentile(100));
+		assertEquals(7, histogram.getValueAtPercentile(1));
+	}
+
+}
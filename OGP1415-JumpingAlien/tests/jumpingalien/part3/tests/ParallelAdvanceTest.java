@@ -0,0 +1,155 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.World;
+import jumpingalien.model.program.Program;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.facade.IFacadePart3;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelAdvanceTest {
+
+	public static final int FEATURE_SOLID = 1;
+	public static final int FEATURE_WATER = 2;
+	public static final int FEATURE_MAGMA = 3;
+
+	/**
+	 * Runs to the right and back, so the slimes meet each other and Mazub.
+	 */
+	private static final String BACK_AND_FORTH = "while true do start_run right; wait 0.6; stop_run right; "
+			+ "start_run left; wait 0.4; stop_run left; done";
+	/**
+	 * Jumps up and down. A shark that starts to run in water gets a random
+	 * vertical acceleration, so the sharks do not run.
+	 */
+	private static final String UP_AND_DOWN = "while true do start_jump; wait 0.3; stop_jump; wait 0.7; done";
+
+	private IFacadePart3 facade;
+	private ForkJoinPool pool;
+
+	@Before
+	public void createFacadeAndPool() {
+		facade = new Facade();
+		pool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void shutdownPool() {
+		pool.shutdown();
+	}
+
+	private Program parse(String text) {
+		return (Program) facade.parse(text).getResult();
+	}
+
+	/**
+	 * Returns a world of 60 tiles wide with walls at both sides. It has an island
+	 * with a slime and a water pool with a shark every 10 tiles. Mazub runs to the
+	 * right, and the sharks and slimes have a program, so the world does not
+	 * depend on random numbers.
+	 */
+	private World createWorld() {
+		World world = facade.createWorld(70, 60, 6, 70, 70, 58, 1);
+		for (int x = 0; x < 60; x++) {
+			facade.setGeologicalFeature(world, x, 0, FEATURE_SOLID);
+		}
+		for (int y = 1; y < 6; y++) {
+			facade.setGeologicalFeature(world, 0, y, FEATURE_SOLID);
+			facade.setGeologicalFeature(world, 59, y, FEATURE_SOLID);
+		}
+		for (int i = 0; i < 5; i++) {
+			int island = 1 + 10 * i;
+			for (int x = island; x < island + 10; x++) {
+				for (int y = 1; y < 4; y++) {
+					facade.setGeologicalFeature(world, x, y, x < island + 4 ? FEATURE_SOLID : FEATURE_WATER);
+				}
+			}
+			// every slime has its own school, so it is not grouped with the other slimes
+			facade.addSlime(world, facade.createSlimeWithProgram(island * 70 + 180, 279,
+					spriteArrayForSize(60, 40, 2), facade.createSchool(), parse(BACK_AND_FORTH)));
+			facade.addShark(world, facade.createSharkWithProgram((island + 6) * 70, 70,
+					spriteArrayForSize(66, 40, 2), parse(UP_AND_DOWN)));
+		}
+		facade.setMazub(world, facade.createMazub(70, 279, spriteArrayForSize(70, 90, 10)));
+		facade.startMoveRight(world.getAlien());
+		return world;
+	}
+
+	/**
+	 * Returns the game objects of the given world, in a fixed order.
+	 */
+	private List<GameObject> listObjects(World world) {
+		List<GameObject> objects = new ArrayList<GameObject>();
+		if (world.getAlien() != null) {
+			objects.add(world.getAlien());
+		}
+		objects.addAll(world.getSharks());
+		objects.addAll(world.getSlimes());
+		return objects;
+	}
+
+	private void assertSameState(World expected, World actual) {
+		assertEquals(expected.isGameOver(), actual.isGameOver());
+		List<GameObject> expectedObjects = listObjects(expected);
+		List<GameObject> actualObjects = listObjects(actual);
+		assertEquals(expectedObjects.size(), actualObjects.size());
+		for (int i = 0; i < expectedObjects.size(); i++) {
+			GameObject expectedObject = expectedObjects.get(i);
+			GameObject actualObject = actualObjects.get(i);
+			assertEquals(expectedObject.getClass(), actualObject.getClass());
+			assertArrayEquals(new double[] { expectedObject.getXPos(), expectedObject.getYPos() },
+					new double[] { actualObject.getXPos(), actualObject.getYPos() }, 0);
+			assertEquals(expectedObject.getHitpoints(), actualObject.getHitpoints());
+		}
+	}
+
+	@Test
+	public void parallelAdvanceSameAsSequential() {
+		World sequential = createWorld();
+		World parallel = createWorld();
+		parallel.setParallelPool(pool);
+		int maxNbGroups = 0;
+		for (int i = 0; i < 200 && ! sequential.isGameOver(); i++) {
+			maxNbGroups = Math.max(maxNbGroups, parallel.listSynchronisationGroups(0.15).size());
+			facade.advanceTime(sequential, 0.15);
+			facade.advanceTime(parallel, 0.15);
+			assertSameState(sequential, parallel);
+		}
+		// the groups were really advanced on several threads
+		assertTrue(maxNbGroups > 1);
+	}
+
+	@Test
+	public void parallelAdvanceSameAsSequentialWhenAlienDies() {
+		World sequential = createWorld();
+		World parallel = createWorld();
+		parallel.setParallelPool(pool);
+		// the alien runs into magma, while the creatures far away go on
+		for (int x = 3; x < 5; x++) {
+			facade.setGeologicalFeature(sequential, x, 3, FEATURE_MAGMA);
+			facade.setGeologicalFeature(parallel, x, 3, FEATURE_MAGMA);
+		}
+		int nbAdvances = 0;
+		while ( ! sequential.isGameOver() && nbAdvances < 200) {
+			facade.advanceTime(sequential, 0.15);
+			facade.advanceTime(parallel, 0.15);
+			assertSameState(sequential, parallel);
+			nbAdvances++;
+		}
+		assertTrue(parallel.isGameOver());
+		assertEquals(null, parallel.getAlien());
+	}
+
+}
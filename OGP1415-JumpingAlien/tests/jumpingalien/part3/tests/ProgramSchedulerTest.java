@@ -0,0 +1,125 @@
+package jumpingalien.part3.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.ProgramScheduler;
+import jumpingalien.model.program.Program;
+import jumpingalien.part3.facade.Facade;
+import jumpingalien.part3.facade.IFacadePart3;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProgramSchedulerTest {
+
+	private static final double[] DTS = {0.15, 0.2, 0.003, 0.07, 0.2, 0.0001, 0.12, 0.2, 0.2, 0.045};
+
+	private IFacadePart3 facade;
+	private ProgramScheduler scheduler;
+	private List<GameObject> objects;
+
+	@Before
+	public void createFacadeAndScheduler() {
+		facade = new Facade();
+		scheduler = new ProgramScheduler();
+		objects = new ArrayList<GameObject>();
+	}
+
+	private Program addPlantWithProgram(String text) {
+		Program program = (Program) facade.parse(text).getResult();
+		objects.add(facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		return program;
+	}
+
+	@Test
+	public void sleepingFollowsConstantWait() {
+		String text = "double n; while true do wait 0.5; n := n + 1; done";
+		Program program = addPlantWithProgram(text);
+		// the same program, executed every advance
+		Program reference = (Program) facade.parse(text).getResult();
+		int nbSleepingAdvances = 0;
+		for (int i = 0; i < 100; i++) {
+			double dt = DTS[i % DTS.length];
+			scheduler.execute(objects, dt);
+			reference.execute(dt);
+			// a program sleeps when its wait lasts longer than this advance
+			assertEquals(reference.getNbParkedSteps() > 0, scheduler.isSleeping(program));
+			assertEquals(scheduler.isSleeping(program) ? 1 : 0, scheduler.getNbSleepingPrograms());
+			// the sleeping program is skipped, but wakes in the same step as the reference
+			assertEquals((Double) reference.getVariable("n"), (Double) program.getVariable("n"), 0);
+			if (scheduler.isSleeping(program)) {
+				nbSleepingAdvances++;
+			}
+		}
+		assertTrue((Double) program.getVariable("n") > 10);
+		assertTrue(nbSleepingAdvances > 50);
+	}
+
+	@Test
+	public void positionsMatchStepByStepWait() {
+		String text = "double n; double a; double b; while true do wait 0.3; a := n; wait 0.7; b := n; n := n + 1; done";
+		Program program = addPlantWithProgram(text);
+		Program reference = (Program) facade.parse(text).getResult();
+		for (int i = 0; i < 200; i++) {
+			double dt = DTS[(3 * i) % DTS.length];
+			scheduler.execute(objects, dt);
+			reference.execute(dt);
+			// the steps a program sleeps are only counted when it wakes up
+			if ( ! scheduler.isSleeping(program)) {
+				assertEquals(reference.getNbSteps(), program.getNbSteps());
+			}
+			assertEquals((Double) reference.getVariable("a"), (Double) program.getVariable("a"), 0);
+			assertEquals((Double) reference.getVariable("b"), (Double) program.getVariable("b"), 0);
+			assertEquals((Double) reference.getVariable("n"), (Double) program.getVariable("n"), 0);
+		}
+	}
+
+	@Test
+	public void programsSleepIndependently() {
+		Program shortWait = addPlantWithProgram("double n; while true do wait 0.3; n := n + 1; done");
+		Program longWait = addPlantWithProgram("double n; wait 1; n := 1;");
+		Program noWait = addPlantWithProgram("double n; n := n + 1;");
+		scheduler.execute(objects, 0.01);
+		assertEquals(2, scheduler.getNbSleepingPrograms());
+		assertTrue(scheduler.isSleeping(shortWait));
+		assertTrue(scheduler.isSleeping(longWait));
+		assertFalse(scheduler.isSleeping(noWait));
+		// the short wait ends in this advance, and the program starts its next wait
+		scheduler.execute(objects, 0.2);
+		scheduler.execute(objects, 0.1);
+		assertEquals(1.0, (Double) shortWait.getVariable("n"), 0);
+		assertTrue(scheduler.isSleeping(shortWait));
+		assertEquals(0.0, (Double) longWait.getVariable("n"), 0);
+		for (int i = 0; i < 4; i++) {
+			scheduler.execute(objects, 0.2);
+		}
+		// the long wait has ended, and the program sleeps in the wait it starts over with
+		assertEquals(1.0, (Double) longWait.getVariable("n"), 0);
+		assertTrue(scheduler.isSleeping(longWait));
+		assertEquals(2, scheduler.getNbSleepingPrograms());
+		assertEquals(Program.getNbSteps(0.01) + Program.getNbSteps(0.1) + 5 * Program.getNbSteps(0.2),
+				(Double) noWait.getVariable("n"), 0);
+	}
+
+	@Test
+	public void pendingReloadWakesSleeper() {
+		Program program = addPlantWithProgram("double n; wait 10; n := 1;");
+		scheduler.execute(objects, 0.2);
+		assertTrue(scheduler.isSleeping(program));
+		program.reload((Program) facade.parse("double n; n := 5;").getResult());
+		// the new code starts at once, instead of after the wait of the old code
+		scheduler.execute(objects, 0.001);
+		assertFalse(scheduler.isSleeping(program));
+		assertEquals(0, scheduler.getNbSleepingPrograms());
+		assertFalse(program.hasPendingReload());
+		assertEquals(5.0, (Double) program.getVariable("n"), 0);
+	}
+
+}
@@ -5,12 +5,25 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
 import jumpingalien.model.Buzam;
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Orientation;
 import jumpingalien.model.Plant;
+import jumpingalien.model.ProgramFactory;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.model.Type;
 import jumpingalien.model.World;
 import jumpingalien.model.program.Program;
+import jumpingalien.model.program.ProgramStats;
+import jumpingalien.model.program.expression.Constant;
+import jumpingalien.model.program.expression.Expression;
+import jumpingalien.model.program.expression.ReadVariable;
+import jumpingalien.model.program.statement.Statement;
 import jumpingalien.part3.facade.Facade;
 import jumpingalien.part3.facade.IFacadePart3;
 import jumpingalien.part3.programs.ParseOutcome;
@@ -131,6 +144,213 @@ public class ProgramTest {
 		assertFalse(program.isRunning());
 	}
 	
+	@Test
+	public void executeWithinStepBudget() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; d := d + 1;");
+		assumeTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		program.setStepBudget(3);
+		program.execute(0.005);
+		assertEquals(3, program.getNbSteps());
+		assertEquals(3.0, (Double) program.getVariable("d"), 0);
+		assertTrue(program.hasPendingTime());
+		// the pending time is executed first
+		program.setStepBudget(100);
+		program.execute(0.001);
+		assertFalse(program.hasPendingTime());
+		assertTrue(program.getNbSteps() >= 6);
+		assertEquals(program.getNbSteps(), (Double) program.getVariable("d"), 0);
+	}
+	
+	@Test
+	public void budgetPolicyDropAndStop() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; d := d + 1;");
+		assumeTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		program.setStepBudget(3);
+		program.setBudgetPolicy(Program.BudgetPolicy.DROP);
+		program.execute(0.005);
+		assertFalse(program.hasPendingTime());
+		assertTrue(program.isRunning());
+		program.setBudgetPolicy(Program.BudgetPolicy.STOP);
+		program.execute(0.005);
+		assertFalse(program.isRunning());
+		assertEquals(2, program.getStats().nbOverBudget);
+		assertEquals(6, program.getStats().nbSteps);
+	}
+	
+	@Test
+	public void statsCountForEachAndWait() {
+		IFacadePart3 facade = new Facade();
+		World world = facade.createWorld(500, 3, 3, 1, 1, 1, 1);
+		facade.setGeologicalFeature(world, 0, 0, 1);
+		Mazub alien = facade.createMazub(200, 499, spriteArrayForSize(3, 3));
+		facade.setMazub(world, alien);
+		ParseOutcome<?> outcome = facade.parse("object o; double n; wait 0.003; foreach (terrain, o) do n := n + 1; done");
+		Program program = (Program) outcome.getResult();
+		Buzam buzam = facade.createBuzamWithProgram(20, 499, spriteArrayForSize(3, 3), program);
+		facade.addBuzam(world, buzam);
+		program.execute(0.015);
+		ProgramStats stats = program.getStats();
+		assertEquals(1, stats.nbExecutions);
+		assertEquals(15, stats.lastNbSteps);
+		assertEquals(1, stats.nbForEachLoops);
+		assertEquals(9, stats.nbForEachIterations);
+		// three steps of the wait, the foreach, and one step of the wait when the program starts over
+		assertEquals(4, stats.nbWaitingSteps);
+		assertEquals(1, world.listProgramStats().size());
+	}
+	
+	@Test
+	public void reloadKeepsVariables() {
+		IFacadePart3 facade = new Facade();
+		Program program = (Program) facade.parse("double d; bool b; d := d + 1;").getResult();
+		program.execute(0.003);
+		assertEquals(3.0, (Double) program.getVariable("d"), 0);
+		program.reload((Program) facade.parse("double d; object b; d := d + 10;").getResult());
+		assertTrue(program.hasPendingReload());
+		program.execute(0.001);
+		assertFalse(program.hasPendingReload());
+		assertEquals(13.0, (Double) program.getVariable("d"), 0);
+		assertEquals(null, program.getVariable("b"));
+	}
+	
+	@Test
+	public void executeLongTime() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; d := d + 1;");
+		assumeTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		program.execute(100);
+		assertTrue(program.isRunning());
+		assertEquals(100000, program.getNbSteps(), 1);
+	}
+	
+	@Test
+	public void newInstanceSharesCode() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; d := d + 1;");
+		assumeTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		program.execute(0.002);
+		Program other = program.newInstance();
+		assertTrue(program.getMachine().getCompiledProgram() == other.getMachine().getCompiledProgram());
+		other.execute(0.001);
+		assertEquals(2.0, (Double) program.getVariable("d"), 0);
+		assertEquals(1.0, (Double) other.getVariable("d"), 0);
+	}
+	
+	@Test
+	public void parseSameTextTwice() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; d := d + 1;");
+		ParseOutcome<?> outcome2 = facade.parse("double d; d := d + 1;");
+		assumeTrue(outcome.isSuccess() && outcome2.isSuccess());
+		Program program = (Program) outcome.getResult();
+		Program program2 = (Program) outcome2.getResult();
+		assertTrue(program != program2);
+		assertTrue(program.getMachine().getCompiledProgram() == program2.getMachine().getCompiledProgram());
+		program.execute(0.001);
+		assertEquals(0.0, (Double) program2.getVariable("d"), 0);
+	}
+	
+	@Test
+	public void reloadDoesNotChangeCachedProgram() {
+		IFacadePart3 facade = new Facade();
+		Program program = (Program) facade.parse("double d; d := d + 1;").getResult();
+		program.reload((Program) facade.parse("double d; d := d + 10;").getResult());
+		program.execute(0.001);
+		assertEquals(10.0, (Double) program.getVariable("d"), 0);
+		// parsing the first text again gives the first program, not the reloaded one
+		Program other = (Program) facade.parse("double d; d := d + 1;").getResult();
+		assertTrue(other != program);
+		other.execute(0.001);
+		assertEquals(1.0, (Double) other.getVariable("d"), 0);
+		assertEquals(10.0, (Double) program.getVariable("d"), 0);
+	}
+	
+	@Test
+	public void reloadFromOtherThreadIsNotLost() throws InterruptedException {
+		IFacadePart3 facade = new Facade();
+		Program program = (Program) facade.parse("double e; e := 0;").getResult();
+		Program[] reloads = new Program[500];
+		for (int i = 0; i < reloads.length; i++) {
+			reloads[i] = (Program) facade.parse("double e; e := " + (i + 1) + ";").getResult();
+		}
+		Thread watcher = new Thread(() -> {
+			for (Program reload : reloads) {
+				program.reload(reload);
+			}
+		});
+		watcher.start();
+		while (watcher.isAlive()) {
+			program.execute(0.001);
+		}
+		watcher.join();
+		program.execute(0.001);
+		// the last reload is applied, even if it came while an earlier one was applied
+		assertFalse(program.hasPendingReload());
+		assertEquals((double) reloads.length, (Double) program.getVariable("e"), 0);
+	}
+	
+	@Test
+	public void variablesResolvedByFactory() {
+		ProgramFactory factory = new ProgramFactory();
+		Expression<?> read = factory.createReadVariable("d", Type.DOUBLE, null);
+		Statement assignment = factory.createAssignment("d", Type.DOUBLE,
+				factory.createAddition(read, factory.createDoubleConstant(1, null), null), null);
+		Map<String, Type> globalVariables = new HashMap<String, Type>();
+		globalVariables.put("d", Type.DOUBLE);
+		Program program = factory.createProgram(assignment, globalVariables);
+		assertTrue(((ReadVariable) read).isResolved());
+		program.execute(0.002);
+		assertEquals(2.0, (Double) read.evaluate(program), 0);
+	}
+	
+	@Test
+	public void constantsFoldedByFactory() {
+		ProgramFactory factory = new ProgramFactory();
+		Expression<?> sum = factory.createAddition(factory.createDoubleConstant(1, null),
+				factory.createMultiplication(factory.createDoubleConstant(2, null), factory.createDoubleConstant(3, null), null), null);
+		assertTrue(sum instanceof Constant);
+		assertEquals(7.0, sum.evaluateDouble(null), 0);
+	}
+	
+	@Test
+	public void undeclaredVariableStopsProgram() {
+		ProgramFactory factory = new ProgramFactory();
+		Expression<?> read = factory.createReadVariable("e", Type.DOUBLE, null);
+		Statement assignment = factory.createAssignment("d", Type.DOUBLE,
+				factory.createAddition(read, factory.createDoubleConstant(1, null), null), null);
+		Map<String, Type> globalVariables = new HashMap<String, Type>();
+		globalVariables.put("d", Type.DOUBLE);
+		Program program = factory.createProgram(assignment, globalVariables);
+		// the stack still has room for the value the illegal read stands for
+		assertEquals(2, program.getMachine().getCompiledProgram().getMaxStackDepth(Type.DOUBLE));
+		program.execute(0.001);
+		assertFalse(program.isRunning());
+		assertEquals(0.0, (Double) program.getVariable("d"), 0);
+		// a stopped program does not take steps anymore
+		long nbSteps = program.getNbSteps();
+		program.execute(0.005);
+		assertEquals(nbSteps, program.getNbSteps());
+	}
+	
+	@Test
+	public void constantConditionTakesStep() {
+		IFacadePart3 facade = new Facade();
+		ParseOutcome<?> outcome = facade.parse("double d; if 1 < 2 then d := 5; else d := 6; fi");
+		assumeTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		// the condition still takes a step
+		program.execute(0.001);
+		assertEquals(0.0, (Double) program.getVariable("d"), 0);
+		program.execute(0.001);
+		assertEquals(5.0, (Double) program.getVariable("d"), 0);
+	}
+	
 	@Test
 	public void runProgramFromAdvanceTime() {
 		IFacadePart3 facade = new Facade();
@@ -148,6 +368,28 @@ public class ProgramTest {
 		assertEquals(buzam.getOrientation(), Orientation.LEFT);
 	}
 	
+	@Test
+	public void waitingProgramSleeps() {
+		IFacadePart3 facade = new Facade();
+		World world = facade.createWorld(500, 3, 3, 1, 1, 1, 1);
+		facade.setGeologicalFeature(world, 0, 0, 1);
+		Mazub alien = facade.createMazub(200, 499, spriteArrayForSize(3, 3));
+		facade.setMazub(world, alien);
+		ParseOutcome<?> outcome = facade.parse("double d; wait 0.5; d := 1;");
+		Program program = (Program) outcome.getResult();
+		Buzam buzam = facade.createBuzamWithProgram(20, 499, spriteArrayForSize(3, 3), program);
+		facade.addBuzam(world, buzam);
+		for (int i = 0; i < 5; i++) {
+			facade.advanceTime(world, 0.1);
+		}
+		assertEquals(1, world.getNbSleepingPrograms());
+		assertEquals(0.0, (Double) program.getVariable("d"), 0);
+		// the wait ends in the same step as when it was executed step by step
+		facade.advanceTime(world, 0.1);
+		assertEquals(1.0, (Double) program.getVariable("d"), 0);
+		assertEquals(Program.getNbSteps(0.1) * 6, program.getNbSteps());
+	}
+	
 	@Test
 	public void runProgramWhithSmallDt() {
 		IFacadePart3 facade = new Facade();
@@ -191,4 +433,46 @@ public class ProgramTest {
 		Plant plant = facade.createPlantWithProgram(20, 2, spriteArrayForSize(3, 3), program);
 	}
 	
+	/**
+	 * Returns a world of 1500 by 1500 pixels with a solid floor, in which Mazub
+	 * stands at the left.
+	 */
+	private World createWorldWithFloor(IFacadePart3 facade) {
+		World world = facade.createWorld(500, 3, 3, 1, 1, 2, 2);
+		for (int tileX = 0; tileX < 3; tileX++) {
+			facade.setGeologicalFeature(world, tileX, 0, 1);
+		}
+		facade.setMazub(world, facade.createMazub(0, 499, spriteArrayForSize(3, 3)));
+		return world;
+	}
+	
+	@Test
+	public void slimeWithProgramRunsOutOfWorld() {
+		IFacadePart3 facade = new Facade();
+		World world = createWorldWithFloor(facade);
+		Program program = (Program) facade.parse("start_run right;").getResult();
+		Slime slime = facade.createSlimeWithProgram(1490, 499, spriteArrayForSize(3, 3, 2),
+				facade.createSchool(), program);
+		facade.addSlime(world, slime);
+		for (int i = 0; i < 10; i++) {
+			facade.advanceTime(world, 0.1);
+		}
+		assertTrue(facade.getSlimes(world).isEmpty());
+		assertFalse(facade.isGameOver(world));
+	}
+	
+	@Test
+	public void sharkWithProgramRunsOutOfWorld() {
+		IFacadePart3 facade = new Facade();
+		World world = createWorldWithFloor(facade);
+		Program program = (Program) facade.parse("start_run right;").getResult();
+		Shark shark = facade.createSharkWithProgram(1490, 499, spriteArrayForSize(3, 3, 2), program);
+		facade.addShark(world, shark);
+		for (int i = 0; i < 10; i++) {
+			facade.advanceTime(world, 0.1);
+		}
+		assertTrue(facade.getSharks(world).isEmpty());
+		assertFalse(facade.isGameOver(world));
+	}
+	
 }
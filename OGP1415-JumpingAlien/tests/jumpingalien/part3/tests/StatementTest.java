@@ -9,7 +9,9 @@ import jumpingalien.model.Plant;
 import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
+import jumpingalien.model.Type;
 import jumpingalien.model.World;
+import jumpingalien.model.program.CompiledProgram;
 import jumpingalien.model.program.Program;
 import jumpingalien.part3.facade.Facade;
 import jumpingalien.part3.facade.IFacadePart3;
@@ -452,5 +454,167 @@ public class StatementTest {
 		assertFalse(program7.isRunning());		
 		}
 
-	
+
+	@Test
+	public void forEachSortedBreakTest() {
+		ParseOutcome<?> outcome = facade.parse("object o; double d; foreach (shark, o) "
+				+ "sort getx o descending do d := getx o; break; done");
+		Program program = (Program) outcome.getResult();
+		Plant plant = facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program);
+		World world = facade.createWorld(500, 2, 2, 2, 2, 1, 1);
+		facade.addPlant(world, plant);
+		facade.addShark(world, facade.createShark(250, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(300, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(200, 0, spriteArrayForSize(3, 3, 2)));
+		// the loop visits the shark that is most to the right first and breaks
+		program.execute(0.005);
+		assertEquals(300.0, (Double) program.getVariable("d"), 0);
+		assertTrue(program.isRunning());
+	}
+
+	/**
+	 * Executes the given program one step at a time, until the given variable has
+	 * the given value, and returns the number of steps that took.
+	 */
+	private static int stepsUntil(Program program, String variable, double value) {
+		int nbSteps = 0;
+		while (nbSteps < 1000 && (Double) program.getVariable(variable) != value) {
+			program.execute(0.001);
+			nbSteps++;
+		}
+		return nbSteps;
+	}
+
+	@Test
+	public void stepsOfSimpleStatementsTest() {
+		// every program ends with the assignment d := 1, which takes one step
+		assertEquals(1, stepsUntil((Program) facade.parse("double d; d := 1;").getResult(), "d", 1));
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; double e; e := 1; d := 1;").getResult(), "d", 1));
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; skip; d := 1;").getResult(), "d", 1));
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; print 3; d := 1;").getResult(), "d", 1));
+	}
+
+	@Test
+	public void stepsOfIfStatementTest() {
+		// the condition takes a step, then the branch that is taken
+		assertEquals(3, stepsUntil((Program) facade.parse("double d; if d < 1 then skip; fi d := 1;").getResult(), "d", 1));
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; if d > 1 then skip; fi d := 1;").getResult(), "d", 1));
+		assertEquals(3, stepsUntil((Program) facade.parse("double d; if d > 1 then skip; else skip; fi d := 1;").getResult(), "d", 1));
+		// a constant condition still takes a step
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; if 1 > 2 then skip; fi d := 1;").getResult(), "d", 1));
+	}
+
+	@Test
+	public void stepsOfWhileStatementTest() {
+		// the condition takes a step for every iteration and one to leave the loop
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; while d > 1 do skip; done d := 1;").getResult(), "d", 1));
+		assertEquals(8, stepsUntil((Program) facade.parse("double d; double n; while n < 3 do n := n + 1; done d := 1;").getResult(), "d", 1));
+		assertEquals(3, stepsUntil((Program) facade.parse("double d; while true do break; done d := 1;").getResult(), "d", 1));
+	}
+
+	@Test
+	public void stepsOfWaitStatementTest() {
+		// a step for every 0.001 seconds of the wait, and one to end it
+		assertEquals(5, stepsUntil((Program) facade.parse("double d; wait 0.003; d := 1;").getResult(), "d", 1));
+		assertEquals(2, stepsUntil((Program) facade.parse("double d; wait 0; d := 1;").getResult(), "d", 1));
+	}
+
+	@Test
+	public void stepsOfForEachStatementTest() {
+		facade.addShark(world, facade.createShark(200, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(250, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(300, 0, spriteArrayForSize(3, 3, 2)));
+		// a step to list the objects, and a step for the whole body of every object
+		Program program = (Program) facade.parse("object o; double d; double n; foreach (shark, o) do "
+				+ "n := n + 1; if n > 0 then n := n + 1; fi done d := 1;").getResult();
+		facade.addPlant(world, facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		assertEquals(5, stepsUntil(program, "d", 1));
+		assertEquals(6.0, (Double) program.getVariable("n"), 0);
+		program = (Program) facade.parse("object o; double d; double n; foreach (slime, o) do n := n + 1; done d := 1;").getResult();
+		facade.addPlant(world, facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		assertEquals(2, stepsUntil(program, "d", 1));
+	}
+
+	@Test
+	public void breakInNestedWhileTest() {
+		ParseOutcome<?> outcome = facade.parse("double d; double n; while true do while true do break; done "
+				+ "n := n + 1; if n >= 2 then break; fi done d := 1;");
+		Program program = (Program) outcome.getResult();
+		// both conditions and the inner break
+		program.execute(0.003);
+		assertEquals(0.0, (Double) program.getVariable("n"), 0);
+		// the inner break lands on the statement after the inner loop
+		program.execute(0.001);
+		assertEquals(1.0, (Double) program.getVariable("n"), 0);
+		// the condition of the if, and the outer loop starts over
+		program.execute(0.004);
+		assertEquals(1.0, (Double) program.getVariable("n"), 0);
+		program.execute(0.001);
+		assertEquals(2.0, (Double) program.getVariable("n"), 0);
+		// the condition of the if and the outer break, which lands after the outer loop
+		program.execute(0.002);
+		assertEquals(0.0, (Double) program.getVariable("d"), 0);
+		program.execute(0.001);
+		assertEquals(1.0, (Double) program.getVariable("d"), 0);
+		assertEquals(2.0, (Double) program.getVariable("n"), 0);
+		assertEquals(12, program.getNbSteps());
+	}
+
+	@Test
+	public void breakInForEachInWhileTest() {
+		facade.addShark(world, facade.createShark(200, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(250, 0, spriteArrayForSize(3, 3, 2)));
+		ParseOutcome<?> outcome = facade.parse("object o; double d; double n; while d < 2 do "
+				+ "foreach (shark, o) do n := n + 1; break; done d := d + 1; done");
+		Program program = (Program) outcome.getResult();
+		facade.addPlant(world, facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		// the condition, the listing of the sharks and the body for the first shark
+		program.execute(0.003);
+		assertEquals(1.0, (Double) program.getVariable("n"), 0);
+		assertEquals(0.0, (Double) program.getVariable("d"), 0);
+		// the break only leaves the foreach
+		program.execute(0.001);
+		assertEquals(1.0, (Double) program.getVariable("d"), 0);
+		program.execute(0.004);
+		assertEquals(2.0, (Double) program.getVariable("n"), 0);
+		assertEquals(2.0, (Double) program.getVariable("d"), 0);
+		assertTrue(program.isRunning());
+	}
+
+	@Test
+	public void breakInWhileInForEachTest() {
+		facade.addShark(world, facade.createShark(200, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(250, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(300, 0, spriteArrayForSize(3, 3, 2)));
+		ParseOutcome<?> outcome = facade.parse("object o; double d; double n; foreach (shark, o) do "
+				+ "while true do n := n + 1; break; done n := n + 10; done d := 1;");
+		Program program = (Program) outcome.getResult();
+		facade.addPlant(world, facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		// the break only leaves the while, and the foreach goes on with the next shark
+		assertEquals(5, stepsUntil(program, "d", 1));
+		assertEquals(33.0, (Double) program.getVariable("n"), 0);
+	}
+
+	@Test
+	public void nestedForEachWithWhereAndSortTest() {
+		facade.addShark(world, facade.createShark(200, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(250, 0, spriteArrayForSize(3, 3, 2)));
+		facade.addShark(world, facade.createShark(300, 0, spriteArrayForSize(3, 3, 2)));
+		ParseOutcome<?> outcome = facade.parse("object o; object p; double d; double n; "
+				+ "foreach (shark, o) where (getx o > 0) sort getx o + gety o ascending do "
+				+ "foreach (shark, p) where (getx p > getx o) sort getx p * 2 descending do "
+				+ "n := n + getx p; done done d := 1;");
+		Program program = (Program) outcome.getResult();
+		facade.addPlant(world, facade.createPlantWithProgram(0, 0, spriteArrayForSize(3, 3, 2), program));
+		// the where and sort clauses run on the same stacks as the body
+		CompiledProgram code = program.getMachine().getCompiledProgram();
+		assertEquals(2, code.getMaxStackDepth(Type.DOUBLE));
+		assertEquals(1, code.getMaxStackDepth(Type.BOOLEAN));
+		assertEquals(1, code.getMaxStackDepth(Type.OBJECT));
+		// the inner loop is executed as a whole in the step of the outer body
+		assertEquals(5, stepsUntil(program, "d", 1));
+		assertEquals(250.0 + 300 + 300, (Double) program.getVariable("n"), 0);
+		assertTrue(program.isRunning());
+	}
+
 }
@@ -77,5 +77,29 @@ public class TileTest {
 		tile.getGeologicalFeature();
 	}
 	
+	@Test
+	public void testEqualTiles() {
+		Tile tile = world.getTile(1, 0);
+		assertEquals(tile, world.getTile(1, 0));
+		assertEquals(tile.hashCode(), world.getTile(1, 0).hashCode());
+		assertEquals(tile, world.listAllTiles().toArray()[1]);
+		assertEquals(tile, new Tile(1, 0, world));
+		assertFalse(tile.equals(world.getTile(0, 0)));
+		assertFalse(tile.equals(new Tile(0, 1, world)));
+		assertTrue(world.listAllImpassableTiles().isEmpty());
+		assertEquals(tile.getGeologicalFeature(), FEATURE_SOLID);
+	}
+	
+	@Test
+	public void testTilesOfOtherWorldDiffer() {
+		World other = facade.createWorld(5, 2, 1, 1, 1, 1, 0);
+		assertFalse(world.getTile(1, 0).equals(other.getTile(1, 0)));
+	}
+	
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGetTileOutsideWorld() {
+		world.getTile(2, 0);
+	}
+	
 	
 }
@@ -196,6 +196,26 @@ public class UnaryExpressionTest {
 		assertEquals(obj.evaluate(program), alien);	
 	}
 	
+	@Test
+	public void testSearchObjectNearest() {
+		IFacadePart3 facade = new Facade();
+		Expression direc = new DirectionExpression(Direction.RIGHT);
+		Expression obj = new SearchObject(direc);
+		Map<String, Type> map = new HashMap<String, Type>();
+		Statement stat = new PrintStatement(obj);
+		Program program = new Program(stat, map);
+		Mazub alien = facade.createMazub(300, 100, spriteArrayForSize(3, 3));
+		Plant plant = facade.createPlantWithProgram(90, 100, spriteArrayForSize(3, 3, 2), program);
+		Plant nearPlant = facade.createPlant(120, 100, spriteArrayForSize(3, 3, 2));
+		program.setGameObject(plant);
+		World world = facade.createWorld(500,2,2,2,2,1,1);
+		facade.addPlant(world, plant);
+		facade.addPlant(world, nearPlant);
+		facade.setMazub(world, alien);
+		// the plant is nearer than mazub
+		assertEquals(obj.evaluate(program), nearPlant);
+	}
+	
 	@Test
 	public void testSearchObjectUp() {
 		IFacadePart3 facade = new Facade();
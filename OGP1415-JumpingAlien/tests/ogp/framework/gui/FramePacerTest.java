@@ -0,0 +1,157 @@
+package ogp.framework.gui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import ogp.framework.gui.FramePacer.Mode;
+import ogp.framework.util.LatencyHistogram;
+import ogp.framework.util.PhaseMetrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FramePacerTest {
+
+	private static final long MS = 1_000_000;
+
+	/**
+	 * The frame time at 100 frames per second.
+	 */
+	private static final long FRAME_NS = 10 * MS;
+
+	/**
+	 * How much the clock advances every time it is read, so yielding until the
+	 * deadline ends.
+	 */
+	private static final long TICK_NS = 1000;
+
+	private long time;
+	private long overshoot;
+	private int nbSleeps;
+	private PhaseMetrics metrics;
+
+	@Before
+	public void setUp() {
+		time = 1000 * MS;
+		overshoot = 0;
+		nbSleeps = 0;
+		metrics = new PhaseMetrics();
+	}
+
+	private FramePacer createPacer(Mode mode) {
+		return new FramePacer(mode, 1e9 / FRAME_NS, metrics, () -> time += TICK_NS,
+				sleepNS -> {
+					nbSleeps++;
+					time += sleepNS + overshoot;
+				});
+	}
+
+	/**
+	 * Waits for the next frame of the given pacer, and checks that it ends at the
+	 * given deadline.
+	 */
+	private void waitForFrame(FramePacer pacer, long frameStartNS, long deadlineNS) {
+		pacer.waitForNextFrame(frameStartNS);
+		assertTrue(time >= deadlineNS);
+		assertTrue(time <= deadlineNS + 2 * TICK_NS);
+	}
+
+	@Test
+	public void fixedFramesStartOnTheSlots() {
+		FramePacer pacer = createPacer(Mode.FIXED);
+		long start = time;
+		waitForFrame(pacer, start, start + FRAME_NS);
+		time = start + 13 * MS;
+		waitForFrame(pacer, start + FRAME_NS, start + 2 * FRAME_NS);
+	}
+
+	@Test
+	public void fixedSkipsMissedSlots() {
+		FramePacer pacer = createPacer(Mode.FIXED);
+		long start = time;
+		waitForFrame(pacer, start, start + FRAME_NS);
+		// the frame takes 25ms, so the slot at 20ms is missed
+		time = start + 35 * MS;
+		waitForFrame(pacer, start + FRAME_NS, start + 4 * FRAME_NS);
+		// on time again
+		time = start + 43 * MS;
+		waitForFrame(pacer, start + 4 * FRAME_NS, start + 5 * FRAME_NS);
+		// three slots are missed
+		time = start + 88 * MS;
+		waitForFrame(pacer, start + 5 * FRAME_NS, start + 9 * FRAME_NS);
+	}
+
+	@Test
+	public void adaptiveLateFrameDoesNotWait() {
+		FramePacer pacer = createPacer(Mode.ADAPTIVE);
+		long start = time;
+		time = start + 12 * MS;
+		pacer.waitForNextFrame(start);
+		assertEquals(0, nbSleeps);
+		assertTrue(time <= start + 12 * MS + 2 * TICK_NS);
+	}
+
+	@Test
+	public void initialSpinTime() {
+		// the initial average overshoot of 1ms plus twice its deviation of 0.5ms
+		assertEquals(2 * MS, createPacer(Mode.ADAPTIVE).getSpinTime());
+	}
+
+	@Test
+	public void overshootIsSmoothed() {
+		FramePacer pacer = createPacer(Mode.ADAPTIVE);
+		// reading the clock after the sleep adds a tick
+		overshoot = 200_000 - TICK_NS;
+		waitForFrame(pacer, time, time + FRAME_NS);
+		assertEquals(1, nbSleeps);
+		// average 1ms + (0.2ms - 1ms) / 8, deviation 0.5ms + (0.8ms - 0.5ms) / 8
+		assertEquals(900_000 + 2 * 537_500, pacer.getSpinTime());
+		for (int i = 0; i < 200; i++) {
+			waitForFrame(pacer, time, time + FRAME_NS);
+		}
+		assertEquals(201, nbSleeps);
+		assertEquals(200_000, pacer.getSpinTime(), 1000);
+		List<LatencyHistogram.Summary> summaries = metrics.summarizeAndReset();
+		assertEquals(1, summaries.size());
+		assertEquals(FramePacer.OVERSHOOT, summaries.get(0).name);
+		assertEquals(201, summaries.get(0).count);
+	}
+
+	@Test
+	public void spinTimeHasMinimum() {
+		FramePacer pacer = createPacer(Mode.ADAPTIVE);
+		for (int i = 0; i < 200; i++) {
+			waitForFrame(pacer, time, time + FRAME_NS);
+		}
+		assertEquals(50_000, pacer.getSpinTime());
+	}
+
+	@Test
+	public void earlySleepIsIgnored() {
+		FramePacer pacer = createPacer(Mode.ADAPTIVE);
+		// the sleep returns 1ms early, as when it is interrupted
+		overshoot = -MS;
+		waitForFrame(pacer, time, time + FRAME_NS);
+		assertEquals(1, nbSleeps);
+		assertEquals(2 * MS, pacer.getSpinTime());
+		assertEquals(0, metrics.summarizeAndReset().size());
+	}
+
+	@Test
+	public void longOvershootOnlyYields() {
+		FramePacer pacer = createPacer(Mode.ADAPTIVE);
+		overshoot = 20 * MS;
+		// the spin time grows beyond the frame time
+		while (pacer.getSpinTime() < FRAME_NS) {
+			pacer.waitForNextFrame(time);
+		}
+		long spinTime = pacer.getSpinTime();
+		int nbSleepsBefore = nbSleeps;
+		waitForFrame(pacer, time, time + FRAME_NS);
+		assertEquals(nbSleepsBefore, nbSleeps);
+		assertEquals(spinTime, pacer.getSpinTime());
+	}
+
+}